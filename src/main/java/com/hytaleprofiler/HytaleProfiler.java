@@ -1,16 +1,48 @@
 package com.hytaleprofiler;
 
+import com.hytaleprofiler.api.ProfilerAPI;
+import com.hytaleprofiler.cluster.SnapshotExporter;
+import com.hytaleprofiler.collector.CauseCorrelator;
+import com.hytaleprofiler.collector.ChurnTracker;
+import com.hytaleprofiler.collector.CollectorScheduler;
 import com.hytaleprofiler.collector.EntityCollector;
 import com.hytaleprofiler.collector.EventTimingCollector;
+import com.hytaleprofiler.collector.HotspotCollector;
 import com.hytaleprofiler.collector.JVMMetricsCollector;
+import com.hytaleprofiler.collector.JitMonitor;
+import com.hytaleprofiler.collector.ProcMetricsCollector;
+import com.hytaleprofiler.collector.SafepointTracker;
+import com.hytaleprofiler.collector.OverheadMonitor;
+import com.hytaleprofiler.collector.RegressionDetector;
+import com.hytaleprofiler.collector.SnapshotBus;
 import com.hytaleprofiler.collector.SystemMetricsCollector;
 import com.hytaleprofiler.collector.TPSCollector;
+import com.hytaleprofiler.collector.TickBreakdownCollector;
+import com.hytaleprofiler.collector.TickHookSystem;
+import com.hytaleprofiler.collector.WindowedMetricsCollector;
 import com.hytaleprofiler.command.ProfilerCommand;
+import com.hytaleprofiler.data.EntityData;
+import com.hytaleprofiler.data.JVMData;
+import com.hytaleprofiler.data.JfrData;
+import com.hytaleprofiler.data.JitData;
+import com.hytaleprofiler.data.ProcData;
+import com.hytaleprofiler.data.SafepointData;
+import com.hytaleprofiler.data.SystemProfile;
+import com.hytaleprofiler.data.TPSData;
+import com.hytaleprofiler.dashboard.DashboardServer;
+import com.hytaleprofiler.jfr.JfrRecorder;
+import com.hytaleprofiler.jfr.JfrStream;
+import com.hytaleprofiler.jfr.JfrTickEmitter;
+import com.hytaleprofiler.recording.ProfileRecorder;
+import com.hytaleprofiler.session.SessionManager;
+import com.hytaleprofiler.startup.StartupProfiler;
+import com.hytaleprofiler.trace.TraceRecorder;
 import com.hypixel.hytale.logger.HytaleLogger;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
 
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * HytaleProfiler - Server profiler for Hytale servers.
@@ -22,22 +54,64 @@ public class HytaleProfiler extends JavaPlugin {
     private static HytaleProfiler instance;
     private HytaleLogger logger;
 
+    // Created first so it sees as much of server startup as possible
+    private final StartupProfiler startupProfiler;
+
     // Collectors
     private TPSCollector tpsCollector;
     private SystemMetricsCollector systemMetricsCollector;
     private EntityCollector entityCollector;
     private JVMMetricsCollector jvmMetricsCollector;
+    // Null off Linux
+    private ProcMetricsCollector procMetricsCollector;
     private EventTimingCollector eventTimingCollector;
+    private HotspotCollector hotspotCollector;
+    private OverheadMonitor overheadMonitor;
+
+    // Scheduled collection; consumers read the latest snapshots from the bus
+    private SnapshotBus snapshotBus;
+    private CollectorScheduler collectorScheduler;
+    private SnapshotBus.Topic<TPSData> tpsSnapshots;
+    private SnapshotBus.Topic<List<SystemProfile>> systemSnapshots;
+    private SnapshotBus.Topic<EntityData> entitySnapshots;
+    private SnapshotBus.Topic<JVMData> jvmSnapshots;
+    private SnapshotBus.Topic<ProcData> procSnapshots;
+    private SnapshotBus.Topic<JitData> jitSnapshots;
+
+    // Per-tick hook and tick timeline tracing
+    private TickHookSystem tickHookSystem;
+    private TraceRecorder traceRecorder;
+    private SessionManager sessionManager;
+    private ChurnTracker churnTracker;
+    private WindowedMetricsCollector windowedMetricsCollector;
+    private TickBreakdownCollector tickBreakdownCollector;
+    private RegressionDetector regressionDetector;
+    private CauseCorrelator causeCorrelator;
+    private JitMonitor jitMonitor;
+
+    // JFR events, on-demand recordings and the in-process stream; null without JFR
+    private JfrRecorder jfrRecorder;
+    private JfrStream jfrStream;
+    private SnapshotBus.Topic<JfrData> jfrSnapshots;
+    private SafepointTracker safepointTracker;
+    private SnapshotBus.Topic<SafepointData> safepointSnapshots;
+
+    // Live dashboard (started on demand)
+    private DashboardServer dashboardServer;
+    private ProfileRecorder profileRecorder;
+    private SnapshotExporter snapshotExporter;
 
     public HytaleProfiler(JavaPluginInit init) {
         super(init);
         instance = this;
+        startupProfiler = new StartupProfiler();
     }
 
     @Override
     public void setup() {
         logger = getLogger();
         logger.atInfo().log("Setting up HytaleProfiler...");
+        startupProfiler.milestone("Profiler setup");
 
         // Initialize collectors
         tpsCollector = new TPSCollector();
@@ -45,6 +119,82 @@ public class HytaleProfiler extends JavaPlugin {
         entityCollector = new EntityCollector();
         jvmMetricsCollector = new JVMMetricsCollector();
         eventTimingCollector = new EventTimingCollector();
+        hotspotCollector = new HotspotCollector(entityCollector);
+        overheadMonitor = new OverheadMonitor(eventTimingCollector, logger);
+        dashboardServer = new DashboardServer(this);
+        profileRecorder = new ProfileRecorder(this);
+
+        // Register the per-tick hook system
+        tickHookSystem = new TickHookSystem(overheadMonitor);
+        getEntityStoreRegistry().registerSystem(tickHookSystem);
+        startupProfiler.attach(tickHookSystem, getExportDirectory(), logger);
+        tickHookSystem.addListener(overheadMonitor);
+        tickHookSystem.addListener(tpsCollector);
+
+        // Runs after the TPS listener so TPS snapshots include the current tick
+        snapshotBus = new SnapshotBus();
+        collectorScheduler = new CollectorScheduler(snapshotBus, overheadMonitor, logger);
+        tpsSnapshots = collectorScheduler.schedule(tpsCollector);
+        systemSnapshots = collectorScheduler.schedule(systemMetricsCollector);
+        entitySnapshots = collectorScheduler.schedule(entityCollector);
+        jvmSnapshots = collectorScheduler.schedule(jvmMetricsCollector);
+        // The only caller of EventProfile.snapshot(); everything else reads the latest interval
+        collectorScheduler.schedule(eventTimingCollector);
+        if (ProcMetricsCollector.isSupported()) {
+            procMetricsCollector = new ProcMetricsCollector();
+            procSnapshots = collectorScheduler.schedule(procMetricsCollector);
+        }
+        tickHookSystem.addListener(collectorScheduler);
+
+        traceRecorder = new TraceRecorder(systemMetricsCollector, tickHookSystem, getDataDirectory());
+        tickHookSystem.addListener(traceRecorder);
+        eventTimingCollector.setTraceRecorder(traceRecorder);
+
+        sessionManager = new SessionManager(systemMetricsCollector, eventTimingCollector, getDataDirectory());
+        tickHookSystem.addListener(sessionManager);
+        tickHookSystem.addListener(profileRecorder);
+
+        churnTracker = new ChurnTracker(entityCollector, logger);
+        tickHookSystem.addListener(churnTracker, OverheadMonitor.Kind.SHEDDABLE);
+
+        windowedMetricsCollector = new WindowedMetricsCollector(systemMetricsCollector, eventTimingCollector);
+        tickHookSystem.addListener(windowedMetricsCollector, OverheadMonitor.Kind.SHEDDABLE);
+
+        tickBreakdownCollector = new TickBreakdownCollector();
+        tickHookSystem.addListener(tickBreakdownCollector, OverheadMonitor.Kind.SHEDDABLE);
+        eventTimingCollector.setTickBreakdown(tickBreakdownCollector);
+        ProfilerAPI.getRegistry().setTickPhaseSink(tickBreakdownCollector);
+
+        regressionDetector = new RegressionDetector(systemMetricsCollector, logger);
+        tickHookSystem.addListener(regressionDetector, OverheadMonitor.Kind.SHEDDABLE);
+
+        causeCorrelator = new CauseCorrelator(tickHookSystem, systemMetricsCollector,
+            eventTimingCollector, entityCollector, churnTracker);
+        tickHookSystem.addListener(causeCorrelator, OverheadMonitor.Kind.SHEDDABLE);
+
+        snapshotExporter = new SnapshotExporter(this);
+        tickHookSystem.addListener(snapshotExporter);
+
+        jitMonitor = new JitMonitor(jvmSnapshots);
+        tickHookSystem.addListener(jitMonitor);
+        jitSnapshots = collectorScheduler.schedule(jitMonitor);
+
+        if (JfrRecorder.isSupported()) {
+            jfrRecorder = new JfrRecorder(getExportDirectory());
+            tickHookSystem.addListener(new JfrTickEmitter(systemMetricsCollector));
+            eventTimingCollector.setJfrEvents(true);
+            if (!"false".equalsIgnoreCase(System.getProperty("hytaleprofiler.jfr", "true"))) {
+                jfrStream = new JfrStream(overheadMonitor);
+                jfrStream.setJitMonitor(jitMonitor);
+                jfrSnapshots = collectorScheduler.schedule(jfrStream);
+                safepointTracker = new SafepointTracker();
+                tickHookSystem.addListener(safepointTracker);
+                jfrStream.setSafepointTracker(safepointTracker);
+                safepointSnapshots = collectorScheduler.schedule(safepointTracker);
+            }
+        } else {
+            logger.atInfo().log("JFR is not available in this JVM; /profiler jfr is disabled.");
+        }
 
         // Register event timing hooks
         eventTimingCollector.registerTimingHooks(getEventRegistry());
@@ -58,12 +208,49 @@ public class HytaleProfiler extends JavaPlugin {
 
     @Override
     public void start() {
+        startupProfiler.milestone("Profiler started");
+        if (jfrStream != null) {
+            try {
+                jfrStream.start();
+            } catch (Exception e) {
+                logger.atWarning().log(String.format("JFR stream unavailable: %s", e.getMessage()));
+            }
+        }
         logger.atInfo().log("HytaleProfiler started.");
     }
 
     @Override
     public void shutdown() {
         logger.atInfo().log("HytaleProfiler shutting down.");
+        if (dashboardServer != null) {
+            dashboardServer.stop();
+        }
+        if (profileRecorder != null) {
+            profileRecorder.stop();
+        }
+        if (sessionManager != null) {
+            sessionManager.stopAll();
+        }
+        if (snapshotExporter != null) {
+            snapshotExporter.stop();
+        }
+        if (jfrStream != null) {
+            jfrStream.stop();
+        }
+        if (collectorScheduler != null) {
+            collectorScheduler.shutdown();
+        }
+        if (procMetricsCollector != null) {
+            procMetricsCollector.close();
+        }
+        if (jfrRecorder != null && jfrRecorder.isRecording()) {
+            try {
+                Path file = jfrRecorder.stop();
+                logger.atInfo().log(String.format("JFR recording saved: %s", file.getFileName()));
+            } catch (Exception e) {
+                logger.atWarning().log(String.format("Failed to save JFR recording: %s", e.getMessage()));
+            }
+        }
     }
 
     public static HytaleProfiler getInstance() {
@@ -90,6 +277,126 @@ public class HytaleProfiler extends JavaPlugin {
         return eventTimingCollector;
     }
 
+    public HotspotCollector getHotspotCollector() {
+        return hotspotCollector;
+    }
+
+    public OverheadMonitor getOverheadMonitor() {
+        return overheadMonitor;
+    }
+
+    public SnapshotBus getSnapshotBus() {
+        return snapshotBus;
+    }
+
+    public SnapshotBus.Topic<TPSData> getTpsSnapshots() {
+        return tpsSnapshots;
+    }
+
+    public SnapshotBus.Topic<List<SystemProfile>> getSystemSnapshots() {
+        return systemSnapshots;
+    }
+
+    public SnapshotBus.Topic<EntityData> getEntitySnapshots() {
+        return entitySnapshots;
+    }
+
+    public SnapshotBus.Topic<JVMData> getJvmSnapshots() {
+        return jvmSnapshots;
+    }
+
+    /**
+     * Null if /proc is not available.
+     */
+    public SnapshotBus.Topic<ProcData> getProcSnapshots() {
+        return procSnapshots;
+    }
+
+    public SnapshotBus.Topic<JitData> getJitSnapshots() {
+        return jitSnapshots;
+    }
+
+    public StartupProfiler getStartupProfiler() {
+        return startupProfiler;
+    }
+
+    public TickHookSystem getTickHookSystem() {
+        return tickHookSystem;
+    }
+
+    public TraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
+
+    public SessionManager getSessionManager() {
+        return sessionManager;
+    }
+
+    public ChurnTracker getChurnTracker() {
+        return churnTracker;
+    }
+
+    public WindowedMetricsCollector getWindowedMetricsCollector() {
+        return windowedMetricsCollector;
+    }
+
+    public TickBreakdownCollector getTickBreakdownCollector() {
+        return tickBreakdownCollector;
+    }
+
+    public RegressionDetector getRegressionDetector() {
+        return regressionDetector;
+    }
+
+    public CauseCorrelator getCauseCorrelator() {
+        return causeCorrelator;
+    }
+
+    public JitMonitor getJitMonitor() {
+        return jitMonitor;
+    }
+
+    /**
+     * Null if this JVM has no JFR.
+     */
+    public JfrRecorder getJfrRecorder() {
+        return jfrRecorder;
+    }
+
+    /**
+     * Null if JFR is unavailable or streaming was disabled with -Dhytaleprofiler.jfr=false.
+     */
+    public JfrStream getJfrStream() {
+        return jfrStream;
+    }
+
+    public SnapshotBus.Topic<JfrData> getJfrSnapshots() {
+        return jfrSnapshots;
+    }
+
+    /**
+     * Null when {@link #getJfrStream()} is.
+     */
+    public SafepointTracker getSafepointTracker() {
+        return safepointTracker;
+    }
+
+    public SnapshotBus.Topic<SafepointData> getSafepointSnapshots() {
+        return safepointSnapshots;
+    }
+
+    public DashboardServer getDashboardServer() {
+        return dashboardServer;
+    }
+
+    public ProfileRecorder getProfileRecorder() {
+        return profileRecorder;
+    }
+
+    public SnapshotExporter getSnapshotExporter() {
+        return snapshotExporter;
+    }
+
     public Path getExportDirectory() {
         return getDataDirectory();
     }
@@ -0,0 +1,38 @@
+package com.hytaleprofiler.api;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named monotonically increasing count. Thread-safe and cheap under contention.
+ */
+public final class Counter {
+
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        if (!ProfilerAPI.isEnabled()) return;
+        value.increment();
+    }
+
+    public void add(long amount) {
+        if (!ProfilerAPI.isEnabled()) return;
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    void reset() {
+        value.reset();
+    }
+}
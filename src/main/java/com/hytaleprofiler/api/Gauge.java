@@ -0,0 +1,40 @@
+package com.hytaleprofiler.api;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Named point-in-time value: either the last value set, or read from a
+ * supplier whenever the profiler samples it.
+ */
+public final class Gauge {
+
+    private final String name;
+    private final DoubleSupplier supplier;
+    private volatile double value;
+
+    Gauge(String name, DoubleSupplier supplier) {
+        this.name = name;
+        this.supplier = supplier;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void set(double value) {
+        if (!ProfilerAPI.isEnabled()) return;
+        this.value = value;
+    }
+
+    /**
+     * Current value. A failing supplier reads as NaN.
+     */
+    public double get() {
+        if (supplier == null) return value;
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+}
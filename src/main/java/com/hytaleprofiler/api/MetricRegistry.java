@@ -0,0 +1,103 @@
+package com.hytaleprofiler.api;
+
+import com.hytaleprofiler.recording.RecordingFormat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * All custom metrics by name. Lookups create handles on first use and
+ * return the same handle afterwards; names are unique per kind.
+ */
+public final class MetricRegistry {
+
+    public static final int MAX_NAME_LENGTH = 64;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    private volatile TickPhaseSink phaseSink;
+
+    MetricRegistry() {}
+
+    Timer timer(String name, boolean tickPhase) {
+        Timer timer = timers.computeIfAbsent(checkName(name), n -> new Timer(n, tickPhase));
+        TickPhaseSink sink = phaseSink;
+        if (sink != null) timer.bindTickPhase(sink);
+        return timer;
+    }
+
+    Counter counter(String name) {
+        return counters.computeIfAbsent(checkName(name), Counter::new);
+    }
+
+    Gauge gauge(String name, DoubleSupplier supplier) {
+        return gauges.computeIfAbsent(checkName(name), n -> new Gauge(n, supplier));
+    }
+
+    /**
+     * Connect tick-phase timers, including ones created earlier, to the tick breakdown.
+     */
+    public void setTickPhaseSink(TickPhaseSink sink) {
+        this.phaseSink = sink;
+        for (Timer timer : timers.values()) {
+            timer.bindTickPhase(sink);
+        }
+    }
+
+    /**
+     * Timers sorted by total time, highest first.
+     */
+    public List<Timer> getTimers() {
+        List<Timer> result = new ArrayList<>(timers.values());
+        result.sort(Comparator.comparingLong(Timer::getTotalNanos).reversed());
+        return result;
+    }
+
+    public List<Counter> getCounters() {
+        List<Counter> result = new ArrayList<>(counters.values());
+        result.sort(Comparator.comparing(Counter::getName));
+        return result;
+    }
+
+    public List<Gauge> getGauges() {
+        List<Gauge> result = new ArrayList<>(gauges.values());
+        result.sort(Comparator.comparing(Gauge::getName));
+        return result;
+    }
+
+    public int size() {
+        return timers.size() + counters.size() + gauges.size();
+    }
+
+    /**
+     * Zero timers and counters. Gauges keep their values.
+     */
+    public void reset() {
+        timers.values().forEach(Timer::reset);
+        counters.values().forEach(Counter::reset);
+    }
+
+    private static String checkName(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Metric name must not be empty");
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Metric name longer than " + MAX_NAME_LENGTH + " characters: " + name);
+        }
+        // Names are written as fields of recordings; tabs and line breaks would split records
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isISOControl(c) || c == RecordingFormat.SEPARATOR) {
+                throw new IllegalArgumentException(String.format(
+                    "Metric name contains control character U+%04X: %s", (int) c, name.replace(c, ' ')));
+            }
+        }
+        return name;
+    }
+}
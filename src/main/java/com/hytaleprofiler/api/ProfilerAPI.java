@@ -0,0 +1,103 @@
+package com.hytaleprofiler.api;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Entry point for other plugins to report their own hot paths. Handles are
+ * looked up by name once and kept in a field; recording through a handle
+ * does not allocate:
+ *
+ * <pre>
+ * private static final Timer PATHFIND = ProfilerAPI.timer("mymod.pathfind");
+ * private static final Counter PATHS = ProfilerAPI.counter("mymod.paths");
+ *
+ * try (Timer.Scope scope = PATHFIND.start()) {
+ *     findPath();
+ * }
+ * PATHS.increment();
+ * </pre>
+ *
+ * When instrumentation is off every record call returns after one flag
+ * check. Starting the JVM with {@code -Dhytaleprofiler.api=false} makes that
+ * flag a constant, so the JIT removes the calls entirely.
+ *
+ * <p>Names are shared across plugins; prefix them with the mod name. Names
+ * must not contain control characters such as tabs or line breaks.
+ */
+public final class ProfilerAPI {
+
+    // Read once; when false the JIT folds isEnabled() to a constant
+    private static final boolean AVAILABLE =
+        !"false".equalsIgnoreCase(System.getProperty("hytaleprofiler.api", "true"));
+
+    private static volatile boolean enabled = true;
+
+    private static final MetricRegistry REGISTRY = new MetricRegistry();
+
+    private ProfilerAPI() {}
+
+    /**
+     * Get or create the timer with this name.
+     */
+    public static Timer timer(String name) {
+        return REGISTRY.timer(name, false);
+    }
+
+    /**
+     * Get or create a timer whose time on a world thread is also shown as
+     * its own slice in the tick breakdown instead of unattributed time.
+     * Use for work done during the tick but outside ECS systems.
+     */
+    public static Timer tickPhaseTimer(String name) {
+        return REGISTRY.timer(name, true);
+    }
+
+    /**
+     * Get or create the counter with this name.
+     */
+    public static Counter counter(String name) {
+        return REGISTRY.counter(name);
+    }
+
+    /**
+     * Get or create a gauge holding the last value set on it.
+     */
+    public static Gauge gauge(String name) {
+        return REGISTRY.gauge(name, null);
+    }
+
+    /**
+     * Get or create a gauge read from {@code supplier} whenever the profiler
+     * samples it. The supplier is called off the caller's thread and must be
+     * thread-safe.
+     */
+    public static Gauge gauge(String name, DoubleSupplier supplier) {
+        return REGISTRY.gauge(name, supplier);
+    }
+
+    public static boolean isEnabled() {
+        return AVAILABLE && enabled;
+    }
+
+    /**
+     * Turn recording on or off at runtime. Has no effect if the API was
+     * disabled at JVM start.
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * True unless the API was disabled at JVM start.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Registry of all custom metrics, for the profiler's own views.
+     */
+    public static MetricRegistry getRegistry() {
+        return REGISTRY;
+    }
+}
@@ -0,0 +1,17 @@
+package com.hytaleprofiler.api;
+
+/**
+ * Receives time from tick-phase timers for the per-tick breakdown.
+ */
+public interface TickPhaseSink {
+
+    /**
+     * Register a named phase and return its index, or -1 if no more phases fit.
+     */
+    int registerPhase(String name);
+
+    /**
+     * Add time spent in a phase on the calling thread.
+     */
+    void recordPhase(int phase, long nanos);
+}
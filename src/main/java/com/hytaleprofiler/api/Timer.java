@@ -0,0 +1,138 @@
+package com.hytaleprofiler.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named duration metric. Thread-safe; record with {@link #start()} in a
+ * try-with-resources block, or time the work yourself and call
+ * {@link #record(long)}.
+ */
+public final class Timer {
+
+    // Nesting depth of the same timer on one thread that is still timed
+    private static final int MAX_DEPTH = 8;
+
+    private final String name;
+    private final boolean tickPhaseTimer;
+
+    // Bound once the profiler's tick breakdown is available
+    private volatile TickPhaseSink phaseSink;
+    private volatile int tickPhase = -1;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private final ThreadLocal<Scope> scopes = ThreadLocal.withInitial(() -> new Scope(this));
+
+    Timer(String name, boolean tickPhaseTimer) {
+        this.name = name;
+        this.tickPhaseTimer = tickPhaseTimer;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Start timing on this thread. The returned scope is reused per thread;
+     * close it on the same thread, once.
+     */
+    public Scope start() {
+        if (!ProfilerAPI.isEnabled()) return Scope.NOOP;
+        Scope scope = scopes.get();
+        scope.push(System.nanoTime());
+        return scope;
+    }
+
+    /**
+     * Record time elapsed since a {@link System#nanoTime()} reading.
+     */
+    public void recordSince(long startNanos) {
+        if (!ProfilerAPI.isEnabled()) return;
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Record one duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (!ProfilerAPI.isEnabled() || nanos < 0) return;
+        count.increment();
+        totalNanos.add(nanos);
+
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+
+        int phase = tickPhase;
+        if (phase >= 0) {
+            phaseSink.recordPhase(phase, nanos);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public boolean isTickPhase() {
+        return tickPhaseTimer;
+    }
+
+    void bindTickPhase(TickPhaseSink sink) {
+        if (!tickPhaseTimer || tickPhase >= 0) return;
+        int phase = sink.registerPhase(name);
+        if (phase >= 0) {
+            phaseSink = sink;
+            tickPhase = phase;
+        }
+    }
+
+    void reset() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    /**
+     * Open timing of a {@link Timer} on one thread.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        static final Scope NOOP = new Scope(null);
+
+        private final Timer timer;
+        private final long[] starts;
+        private int depth;
+
+        private Scope(Timer timer) {
+            this.timer = timer;
+            this.starts = timer != null ? new long[MAX_DEPTH] : null;
+        }
+
+        private void push(long startNanos) {
+            if (depth < MAX_DEPTH) starts[depth] = startNanos;
+            depth++;
+        }
+
+        @Override
+        public void close() {
+            if (timer == null || depth == 0) return;
+            depth--;
+            // Deeper nesting is not timed
+            if (depth < MAX_DEPTH) {
+                timer.record(System.nanoTime() - starts[depth]);
+            }
+        }
+    }
+}
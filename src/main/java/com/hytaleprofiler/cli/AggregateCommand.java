@@ -0,0 +1,67 @@
+package com.hytaleprofiler.cli;
+
+import com.hytaleprofiler.cluster.Aggregator;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Runs the fleet aggregator in the foreground and prints the merged report
+ * periodically until the process is killed.
+ */
+public class AggregateCommand {
+
+    private String host = "0.0.0.0";
+    private int port = Aggregator.DEFAULT_PORT;
+    private int reportIntervalSeconds = 30;
+
+    public int run(List<String> args, PrintStream out) {
+        try {
+            for (int i = 0; i < args.size(); i++) {
+                switch (args.get(i)) {
+                    case "--host" -> host = args.get(++i);
+                    case "--port" -> port = Integer.parseInt(args.get(++i));
+                    case "--report-interval" -> reportIntervalSeconds = Integer.parseInt(args.get(++i));
+                    default -> {
+                        printUsage(out);
+                        return 2;
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            out.println("Invalid option value.");
+            return 2;
+        }
+
+        Aggregator aggregator = new Aggregator(host, port, out);
+        try {
+            aggregator.start();
+        } catch (IOException e) {
+            out.println("Failed to bind " + host + ":" + port + ": " + e.getMessage());
+            return 2;
+        }
+        out.println("Aggregator listening on " + host + ":" + aggregator.getPort());
+
+        try {
+            while (true) {
+                Thread.sleep(Math.max(1, reportIntervalSeconds) * 1000L);
+                if (aggregator.getFleet().getSnapshotCount() > 0) {
+                    out.print(aggregator.getFleet().buildReport());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            aggregator.stop();
+        }
+        return 0;
+    }
+
+    public static void printUsage(PrintStream out) {
+        out.println("Usage: java -jar HytaleProfiler.jar aggregate [options]");
+        out.println("  --host <addr>            bind address (default 0.0.0.0)");
+        out.println("  --port <n>               listen port (default " + Aggregator.DEFAULT_PORT + ")");
+        out.println("  --report-interval <s>    seconds between printed reports (default 30)");
+    }
+}
@@ -0,0 +1,235 @@
+package com.hytaleprofiler.cli;
+
+import com.hytaleprofiler.util.FormatUtil;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two reports or recordings metric by metric and prints the
+ * changes that are both large and statistically significant.
+ */
+public class DiffCommand {
+
+    private static final String[] CATEGORY_ORDER = {
+        MetricDistributions.TICK, MetricDistributions.MOD, MetricDistributions.SYSTEM,
+        MetricDistributions.EVENT, MetricDistributions.TIMER, MetricDistributions.COUNTER,
+        MetricDistributions.GAUGE, MetricDistributions.ARCHETYPE, MetricDistributions.HEAP
+    };
+
+    private double alpha = 0.01;
+    private double minChangePercent = 5.0;
+    private int limit = 20;
+    private boolean showAll = false;
+
+    /**
+     * Run the diff. Returns the process exit code:
+     * 0 = no significant regression, 1 = regression found, 2 = usage error.
+     */
+    public int run(List<String> args, PrintStream out) {
+        List<String> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.size(); i++) {
+                String arg = args.get(i);
+                switch (arg) {
+                    case "--alpha" -> alpha = Double.parseDouble(args.get(++i));
+                    case "--min-change" -> minChangePercent = Double.parseDouble(args.get(++i));
+                    case "--limit" -> limit = Integer.parseInt(args.get(++i));
+                    case "--all" -> showAll = true;
+                    default -> files.add(arg);
+                }
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            out.println("Invalid option value.");
+            return 2;
+        }
+
+        if (files.size() != 2) {
+            printUsage(out);
+            return 2;
+        }
+
+        MetricDistributions before;
+        MetricDistributions after;
+        try {
+            before = load(Path.of(files.get(0)));
+            after = load(Path.of(files.get(1)));
+        } catch (IOException e) {
+            out.println("Failed to read input: " + e.getMessage());
+            return 2;
+        }
+
+        return printDiff(before, after, out);
+    }
+
+    public static void printUsage(PrintStream out) {
+        out.println("Usage: java -jar HytaleProfiler.jar diff <before> <after> [options]");
+        out.println("  <before>/<after>   exported report (.json) or recording (.tsv)");
+        out.println("  --alpha <p>        significance level (default 0.01)");
+        out.println("  --min-change <%>   minimum relative change to report (default 5)");
+        out.println("  --limit <n>        max rows per category (default 20)");
+        out.println("  --all              show every aligned metric, not only significant changes");
+    }
+
+    private MetricDistributions load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("No such file: " + file);
+        }
+        if (RecordingReader.isRecording(file)) {
+            return new RecordingReader().read(file);
+        }
+        return new ReportReader().read(file);
+    }
+
+    private int printDiff(MetricDistributions before, MetricDistributions after, PrintStream out) {
+        out.println("========== HytaleProfiler diff ==========");
+        out.printf("Before: %s (%s samples)%n", before.getSource(), FormatUtil.formatCount(before.getSampleCount()));
+        out.printf("After:  %s (%s samples)%n", after.getSource(), FormatUtil.formatCount(after.getSampleCount()));
+        out.printf("Showing changes >= %s at p < %s%n", FormatUtil.formatPercent(minChangePercent), alpha);
+
+        boolean regression = false;
+
+        for (String category : CATEGORY_ORDER) {
+            List<Change> changes = new ArrayList<>();
+            List<String> added = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+
+            for (Map.Entry<String, StreamingStats> entry : after.getMetrics().entrySet()) {
+                if (!MetricDistributions.categoryOf(entry.getKey()).equals(category)) continue;
+                StreamingStats a = before.getMetrics().get(entry.getKey());
+                if (a == null) {
+                    added.add(entry.getKey());
+                    continue;
+                }
+                Change change = new Change(entry.getKey(), a, entry.getValue());
+                if (showAll || change.isSignificant() || change.isInsufficient()) {
+                    changes.add(change);
+                }
+            }
+            for (String key : before.getMetrics().keySet()) {
+                if (MetricDistributions.categoryOf(key).equals(category) && !after.getMetrics().containsKey(key)) {
+                    removed.add(key);
+                }
+            }
+
+            if (changes.isEmpty() && added.isEmpty() && removed.isEmpty()) continue;
+
+            out.println();
+            out.println("[" + category + "]");
+            changes.sort(Comparator.comparingDouble((Change c) -> -Math.abs(c.relativeChange)));
+
+            int shown = 0;
+            for (Change change : changes) {
+                if (shown++ >= limit) {
+                    out.printf("  ... and %d more%n", changes.size() - limit);
+                    break;
+                }
+                out.println("  " + change.format(category));
+            }
+            for (Change change : changes) {
+                if (change.isSignificant() && change.relativeChange > 0) {
+                    regression = true;
+                }
+            }
+
+            printNames(out, "new", added);
+            printNames(out, "gone", removed);
+        }
+
+        out.println();
+        out.println(regression ? "Result: significant regressions found." : "Result: no significant regressions.");
+        return regression ? 1 : 0;
+    }
+
+    private void printNames(PrintStream out, String label, List<String> keys) {
+        if (keys.isEmpty()) return;
+        int shown = 0;
+        for (String key : keys) {
+            if (shown++ >= limit) {
+                out.printf("  ... and %d more %s%n", keys.size() - limit, label);
+                break;
+            }
+            out.println("  " + label + ": " + displayName(key));
+        }
+    }
+
+    private static String displayName(String key) {
+        int colon = key.indexOf(':');
+        return colon >= 0 ? key.substring(colon + 1) : key;
+    }
+
+    private static String formatValue(String category, double value) {
+        return switch (category) {
+            case MetricDistributions.HEAP -> FormatUtil.formatBytes((long) value);
+            case MetricDistributions.ARCHETYPE -> FormatUtil.formatCount(Math.round(value));
+            case MetricDistributions.COUNTER, MetricDistributions.GAUGE -> String.format("%.2f", value);
+            default -> FormatUtil.formatMs(value);
+        };
+    }
+
+    /**
+     * One aligned metric compared across the two inputs.
+     */
+    private class Change {
+        private final String key;
+        private final StreamingStats before;
+        private final StreamingStats after;
+        private final WelchTest test;
+        private final double relativeChange;
+
+        Change(String key, StreamingStats before, StreamingStats after) {
+            this.key = key;
+            this.before = before;
+            this.after = after;
+            this.test = WelchTest.compare(before, after);
+            double base = before.getMean();
+            this.relativeChange = base != 0
+                ? (after.getMean() - base) / Math.abs(base) * 100.0
+                : (after.getMean() == 0 ? 0 : 100.0);
+        }
+
+        boolean isSignificant() {
+            if (Math.abs(relativeChange) < minChangePercent) return false;
+            return test != null && test.getPValue() < alpha;
+        }
+
+        /**
+         * A large move that cannot be tested: too few observations for a
+         * confidence interval. Shown, but never counted as a regression.
+         */
+        boolean isInsufficient() {
+            return test == null && Math.abs(relativeChange) >= minChangePercent;
+        }
+
+        String format(String category) {
+            String name = FormatUtil.padRight(displayName(key), 28);
+            String values = formatValue(category, before.getMean()) + " -> " + formatValue(category, after.getMean());
+            String change = (relativeChange >= 0 ? "+" : "") + FormatUtil.formatPercent(relativeChange);
+
+            if (test == null) {
+                return String.format("%s %s %s (insufficient data, n=%d/%d)", name, values, change,
+                    before.getCount(), after.getCount());
+            }
+
+            double halfWidth = test.confidenceHalfWidth(0.95);
+            return String.format("%s %s %s (95%% CI %s..%s, p=%.2g, p95 %s -> %s, n=%d/%d)",
+                name, values, change,
+                formatSigned(category, test.getDifference() - halfWidth),
+                formatSigned(category, test.getDifference() + halfWidth),
+                test.getPValue(),
+                formatValue(category, before.getQuantile(0.95)),
+                formatValue(category, after.getQuantile(0.95)),
+                before.getCount(), after.getCount());
+        }
+
+        private String formatSigned(String category, double value) {
+            return (value >= 0 ? "+" : "-") + formatValue(category, Math.abs(value));
+        }
+    }
+}
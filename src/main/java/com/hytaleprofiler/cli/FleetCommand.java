@@ -0,0 +1,74 @@
+package com.hytaleprofiler.cli;
+
+import com.hytaleprofiler.cluster.Aggregator;
+import com.hytaleprofiler.cluster.SnapshotCodec;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Asks a running aggregator for its current fleet report.
+ */
+public class FleetCommand {
+
+    private static final int TIMEOUT_MS = 5000;
+
+    public int run(List<String> args, PrintStream out) {
+        if (args.size() != 1) {
+            printUsage(out);
+            return 2;
+        }
+
+        String target = args.get(0);
+        String host = target;
+        int port = Aggregator.DEFAULT_PORT;
+        int colon = target.lastIndexOf(':');
+        if (colon > 0) {
+            host = target.substring(0, colon);
+            try {
+                port = Integer.parseInt(target.substring(colon + 1));
+            } catch (NumberFormatException e) {
+                out.println("Invalid port: " + target.substring(colon + 1));
+                return 2;
+            }
+        }
+
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), TIMEOUT_MS);
+            socket.setSoTimeout(TIMEOUT_MS);
+
+            ByteBuffer query = SnapshotCodec.encodeText(SnapshotCodec.TYPE_QUERY, "report");
+            socket.getOutputStream().write(query.array(), 0, query.limit());
+            socket.getOutputStream().flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            int length = in.readInt();
+            if (length <= 0 || length > SnapshotCodec.MAX_FRAME_BYTES) {
+                out.println("Bad response from aggregator.");
+                return 2;
+            }
+            byte type = in.readByte();
+            byte[] payload = new byte[length - 1];
+            in.readFully(payload);
+            if (type != SnapshotCodec.TYPE_REPORT) {
+                out.println("Unexpected response type " + type);
+                return 2;
+            }
+            out.print(SnapshotCodec.decodeText(ByteBuffer.wrap(payload)));
+            return 0;
+        } catch (IOException e) {
+            out.println("Failed to query " + host + ":" + port + ": " + e.getMessage());
+            return 2;
+        }
+    }
+
+    public static void printUsage(PrintStream out) {
+        out.println("Usage: java -jar HytaleProfiler.jar fleet <host[:port]>");
+        out.println("  Prints the current fleet report from a running aggregator.");
+    }
+}
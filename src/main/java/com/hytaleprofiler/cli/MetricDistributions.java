@@ -0,0 +1,61 @@
+package com.hytaleprofiler.cli;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-metric distributions loaded from one report or recording,
+ * keyed by category and name so two sources can be aligned.
+ */
+public class MetricDistributions {
+
+    public static final String TICK = "tick";
+    public static final String SYSTEM = "system";
+    public static final String MOD = "mod";
+    public static final String EVENT = "event";
+    public static final String ARCHETYPE = "archetype";
+    public static final String HEAP = "heap";
+    public static final String TIMER = "timer";
+    public static final String COUNTER = "counter";
+    public static final String GAUGE = "gauge";
+
+    private final String source;
+    private final Map<String, StreamingStats> metrics = new TreeMap<>();
+    private long sampleCount;
+
+    public MetricDistributions(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Add one observation for a named metric in a category.
+     */
+    public void add(String category, String name, double value) {
+        metrics.computeIfAbsent(key(category, name), k -> new StreamingStats()).add(value);
+    }
+
+    public void incrementSamples() {
+        sampleCount++;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public Map<String, StreamingStats> getMetrics() {
+        return metrics;
+    }
+
+    public static String key(String category, String name) {
+        return name == null || name.isEmpty() ? category : category + ":" + name;
+    }
+
+    public static String categoryOf(String key) {
+        int colon = key.indexOf(':');
+        return colon >= 0 ? key.substring(0, colon) : key;
+    }
+}
@@ -0,0 +1,48 @@
+package com.hytaleprofiler.cli;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command-line entry point for running the plugin jar standalone,
+ * e.g. {@code java -jar HytaleProfiler.jar diff before.tsv after.tsv}.
+ * Must not touch any server classes, which are absent outside the server.
+ */
+public final class ProfilerCli {
+
+    private ProfilerCli() {}
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            printUsage();
+            System.exit(2);
+        }
+
+        List<String> rest = Arrays.asList(args).subList(1, args.length);
+        int exitCode = switch (args[0]) {
+            case "diff" -> new DiffCommand().run(rest, System.out);
+            case "aggregate" -> new AggregateCommand().run(rest, System.out);
+            case "fleet" -> new FleetCommand().run(rest, System.out);
+            case "help", "--help", "-h" -> {
+                printUsage();
+                yield 0;
+            }
+            default -> {
+                System.out.println("Unknown command: " + args[0]);
+                printUsage();
+                yield 2;
+            }
+        };
+        System.exit(exitCode);
+    }
+
+    private static void printUsage() {
+        System.out.println("HytaleProfiler offline tools");
+        System.out.println();
+        DiffCommand.printUsage(System.out);
+        System.out.println();
+        AggregateCommand.printUsage(System.out);
+        System.out.println();
+        FleetCommand.printUsage(System.out);
+    }
+}
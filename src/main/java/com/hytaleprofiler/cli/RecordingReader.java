@@ -0,0 +1,113 @@
+package com.hytaleprofiler.cli;
+
+import com.hytaleprofiler.recording.RecordingFormat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams a recording line by line into {@link MetricDistributions}.
+ * Memory use is independent of file size.
+ */
+public class RecordingReader {
+
+    private static final int MAX_FIELDS = 4;
+
+    /**
+     * Check whether a file looks like a recording.
+     */
+    public static boolean isRecording(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String first = reader.readLine();
+            return first != null && first.startsWith(RecordingFormat.HEADER_PREFIX);
+        }
+    }
+
+    public MetricDistributions read(Path file) throws IOException {
+        MetricDistributions result = new MetricDistributions(file.getFileName().toString());
+        String[] fields = new String[MAX_FIELDS + 1];
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.charAt(0) == '#') continue;
+
+                int n = splitFields(line, fields);
+                try {
+                    accept(result, fields, n);
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    throw new IOException("Malformed record at line " + lineNumber + ": " + line, e);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void accept(MetricDistributions result, String[] f, int n) {
+        switch (f[0]) {
+            case RecordingFormat.SAMPLE -> result.incrementSamples();
+            case RecordingFormat.TICK -> result.add(MetricDistributions.TICK, null, Double.parseDouble(f[1]));
+            // Version 1 wrote one value, version 2 one per tick; both parse as a list
+            case RecordingFormat.SYSTEM -> addValues(result, MetricDistributions.SYSTEM, f[1], f[3]);
+            case RecordingFormat.MOD -> addValues(result, MetricDistributions.MOD, f[1], f[2]);
+            case RecordingFormat.EVENT -> {
+                double ms = Double.parseDouble(f[2]);
+                long calls = Long.parseLong(f[3]);
+                if (calls > 0) {
+                    result.add(MetricDistributions.EVENT, f[1], ms / calls);
+                }
+            }
+            case RecordingFormat.HEAP -> result.add(MetricDistributions.HEAP, null, Double.parseDouble(f[1]));
+            case RecordingFormat.ARCHETYPE -> result.add(MetricDistributions.ARCHETYPE, f[1], Double.parseDouble(f[2]));
+            case RecordingFormat.TIMER -> {
+                double ms = Double.parseDouble(f[2]);
+                long calls = Long.parseLong(f[3]);
+                if (calls > 0) {
+                    result.add(MetricDistributions.TIMER, f[1], ms / calls);
+                }
+            }
+            case RecordingFormat.COUNTER -> result.add(MetricDistributions.COUNTER, f[1], Double.parseDouble(f[2]));
+            case RecordingFormat.GAUGE -> result.add(MetricDistributions.GAUGE, f[1], Double.parseDouble(f[2]));
+            default -> {
+                // Unknown record kinds from newer versions are skipped
+            }
+        }
+    }
+
+    /**
+     * Add each value of a comma-separated list without regex.
+     */
+    private static void addValues(MetricDistributions result, String category, String name, String values) {
+        int start = 0;
+        while (true) {
+            int comma = values.indexOf(RecordingFormat.VALUE_SEPARATOR, start);
+            if (comma < 0) {
+                result.add(category, name, Double.parseDouble(values.substring(start)));
+                return;
+            }
+            result.add(category, name, Double.parseDouble(values.substring(start, comma)));
+            start = comma + 1;
+        }
+    }
+
+    /**
+     * Split on tabs into a reused array without regex.
+     */
+    private static int splitFields(String line, String[] out) {
+        int count = 0;
+        int start = 0;
+        while (count < out.length - 1) {
+            int tab = line.indexOf(RecordingFormat.SEPARATOR, start);
+            if (tab < 0) break;
+            out[count++] = line.substring(start, tab);
+            start = tab + 1;
+        }
+        out[count++] = line.substring(start);
+        return count;
+    }
+}
@@ -0,0 +1,175 @@
+package com.hytaleprofiler.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads an exported JSON report into {@link MetricDistributions}.
+ * Per-tick histories are used where the report has them; older
+ * reports without histories contribute a single observation per metric.
+ */
+public class ReportReader {
+
+    public MetricDistributions read(Path file) throws IOException {
+        Object root;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            root = new JsonParser(reader).parse();
+        }
+        if (!(root instanceof Map<?, ?> report)) {
+            throw new IOException("Not a profiler report: " + file);
+        }
+
+        MetricDistributions result = new MetricDistributions(file.getFileName().toString());
+        result.incrementSamples();
+
+        readTps(report, result);
+        readSystems(report, result);
+        readEvents(report, result);
+        readEntities(report, result);
+        readJvm(report, result);
+        readCustom(report, result);
+        return result;
+    }
+
+    private void readTps(Map<?, ?> report, MetricDistributions result) {
+        Map<?, ?> tps = asMap(report.get("tps"));
+        if (tps == null) return;
+
+        List<?> history = asList(tps.get("tickHistory"));
+        if (history != null && !history.isEmpty()) {
+            for (Object value : history) {
+                result.add(MetricDistributions.TICK, null, asDouble(value));
+            }
+        } else if (tps.get("avgTickMs") != null) {
+            result.add(MetricDistributions.TICK, null, asDouble(tps.get("avgTickMs")));
+        }
+    }
+
+    private void readSystems(Map<?, ?> report, MetricDistributions result) {
+        List<?> systems = asList(report.get("systems"));
+        Map<String, double[]> modHistories = new HashMap<>();
+        boolean historiesAligned = true;
+
+        if (systems != null) {
+            for (Object entry : systems) {
+                Map<?, ?> sys = asMap(entry);
+                if (sys == null) continue;
+
+                String name = String.valueOf(sys.get("name"));
+                String mod = String.valueOf(sys.get("modName"));
+                List<?> history = asList(sys.get("history"));
+
+                if (history == null || history.isEmpty()) {
+                    result.add(MetricDistributions.SYSTEM, name, asDouble(sys.get("avgMs")));
+                    historiesAligned = false;
+                    continue;
+                }
+
+                double[] modHistory = modHistories.get(mod);
+                if (modHistory == null) {
+                    modHistory = new double[history.size()];
+                    modHistories.put(mod, modHistory);
+                } else if (modHistory.length != history.size()) {
+                    historiesAligned = false;
+                }
+
+                for (int i = 0; i < history.size(); i++) {
+                    double value = asDouble(history.get(i));
+                    result.add(MetricDistributions.SYSTEM, name, value);
+                    if (i < modHistory.length) {
+                        modHistory[i] += value;
+                    }
+                }
+            }
+        }
+
+        if (historiesAligned && !modHistories.isEmpty()) {
+            // Per-tick mod cost is the sum of its systems in the same tick
+            for (Map.Entry<String, double[]> entry : modHistories.entrySet()) {
+                for (double value : entry.getValue()) {
+                    result.add(MetricDistributions.MOD, entry.getKey(), value);
+                }
+            }
+            return;
+        }
+
+        List<?> mods = asList(report.get("mods"));
+        if (mods == null) return;
+        for (Object entry : mods) {
+            Map<?, ?> mod = asMap(entry);
+            if (mod != null) {
+                result.add(MetricDistributions.MOD, String.valueOf(mod.get("name")), asDouble(mod.get("totalMs")));
+            }
+        }
+    }
+
+    private void readEvents(Map<?, ?> report, MetricDistributions result) {
+        Map<?, ?> section = asMap(report.get("events"));
+        if (section == null) return;
+        List<?> events = asList(section.get("events"));
+        if (events == null) return;
+
+        for (Object entry : events) {
+            Map<?, ?> event = asMap(entry);
+            if (event != null) {
+                result.add(MetricDistributions.EVENT, String.valueOf(event.get("name")),
+                    asDouble(event.get("avgTimeMs")));
+            }
+        }
+    }
+
+    private void readEntities(Map<?, ?> report, MetricDistributions result) {
+        Map<?, ?> section = asMap(report.get("entities"));
+        if (section == null) return;
+        Map<?, ?> byType = asMap(section.get("byType"));
+        if (byType == null) return;
+
+        for (Map.Entry<?, ?> entry : byType.entrySet()) {
+            result.add(MetricDistributions.ARCHETYPE, String.valueOf(entry.getKey()), asDouble(entry.getValue()));
+        }
+    }
+
+    private void readJvm(Map<?, ?> report, MetricDistributions result) {
+        Map<?, ?> jvm = asMap(report.get("jvm"));
+        if (jvm != null && jvm.get("heapUsed") != null) {
+            result.add(MetricDistributions.HEAP, null, asDouble(jvm.get("heapUsed")));
+        }
+    }
+
+    private void readCustom(Map<?, ?> report, MetricDistributions result) {
+        Map<?, ?> section = asMap(report.get("custom"));
+        if (section == null) return;
+        readNamed(section.get("timers"), "avgMs", MetricDistributions.TIMER, result);
+        readNamed(section.get("counters"), "value", MetricDistributions.COUNTER, result);
+        readNamed(section.get("gauges"), "value", MetricDistributions.GAUGE, result);
+    }
+
+    private void readNamed(Object list, String field, String category, MetricDistributions result) {
+        List<?> entries = asList(list);
+        if (entries == null) return;
+        for (Object entry : entries) {
+            Map<?, ?> metric = asMap(entry);
+            if (metric != null) {
+                result.add(category, String.valueOf(metric.get("name")), asDouble(metric.get(field)));
+            }
+        }
+    }
+
+    private static Map<?, ?> asMap(Object value) {
+        return value instanceof Map<?, ?> map ? map : null;
+    }
+
+    private static List<?> asList(Object value) {
+        return value instanceof List<?> list ? list : null;
+    }
+
+    private static double asDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+}
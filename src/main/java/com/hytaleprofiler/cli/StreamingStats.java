@@ -0,0 +1,84 @@
+package com.hytaleprofiler.cli;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Constant-memory summary of a stream of observations: exact count,
+ * mean, variance, min and max (Welford), plus a fixed-size reservoir
+ * sample for quantiles. Lets the analyzer walk recordings of any size.
+ */
+public class StreamingStats {
+
+    private static final int RESERVOIR_SIZE = 4096;
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    private final double[] reservoir = new double[RESERVOIR_SIZE];
+    // Fixed seed so two runs over the same file print the same quantiles
+    private final SplittableRandom random = new SplittableRandom(0x5eed);
+
+    public void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return;
+
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+
+        if (value < min) min = value;
+        if (value > max) max = value;
+
+        if (count <= RESERVOIR_SIZE) {
+            reservoir[(int) (count - 1)] = value;
+        } else {
+            long slot = random.nextLong(count);
+            if (slot < RESERVOIR_SIZE) {
+                reservoir[(int) slot] = value;
+            }
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count > 0 ? mean : 0;
+    }
+
+    /**
+     * Sample variance (n - 1 denominator).
+     */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0;
+    }
+
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return count > 0 ? min : 0;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : 0;
+    }
+
+    /**
+     * Estimate a quantile (0..1) from the reservoir.
+     */
+    public double getQuantile(double q) {
+        int n = (int) Math.min(count, RESERVOIR_SIZE);
+        if (n == 0) return 0;
+        double[] sorted = Arrays.copyOf(reservoir, n);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(n - 1, Math.max(0, Math.round(q * (n - 1))));
+        return sorted[index];
+    }
+}
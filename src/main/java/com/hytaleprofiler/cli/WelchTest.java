@@ -0,0 +1,164 @@
+package com.hytaleprofiler.cli;
+
+/**
+ * Welch's unequal-variance t-test between two {@link StreamingStats}.
+ * Only needs count, mean and variance, so it works on streamed data.
+ */
+public final class WelchTest {
+
+    private final double difference;
+    private final double standardError;
+    private final double degreesOfFreedom;
+    private final double tStatistic;
+    private final double pValue;
+
+    private WelchTest(double difference, double standardError, double degreesOfFreedom,
+                      double tStatistic, double pValue) {
+        this.difference = difference;
+        this.standardError = standardError;
+        this.degreesOfFreedom = degreesOfFreedom;
+        this.tStatistic = tStatistic;
+        this.pValue = pValue;
+    }
+
+    /**
+     * Compare b against a. Returns null if either side has fewer than two samples.
+     */
+    public static WelchTest compare(StreamingStats a, StreamingStats b) {
+        if (a.getCount() < 2 || b.getCount() < 2) {
+            return null;
+        }
+
+        double va = a.getVariance() / a.getCount();
+        double vb = b.getVariance() / b.getCount();
+        double se = Math.sqrt(va + vb);
+        double diff = b.getMean() - a.getMean();
+
+        if (se == 0) {
+            // Both sides constant: any difference is certain
+            return new WelchTest(diff, 0, a.getCount() + b.getCount() - 2,
+                diff == 0 ? 0 : Double.POSITIVE_INFINITY, diff == 0 ? 1.0 : 0.0);
+        }
+
+        double df = (va + vb) * (va + vb) /
+            (va * va / (a.getCount() - 1) + vb * vb / (b.getCount() - 1));
+        double t = diff / se;
+        double p = 2.0 * studentTUpperTail(Math.abs(t), df);
+        return new WelchTest(diff, se, df, t, Math.min(1.0, p));
+    }
+
+    public double getDifference() {
+        return difference;
+    }
+
+    public double getTStatistic() {
+        return tStatistic;
+    }
+
+    public double getPValue() {
+        return pValue;
+    }
+
+    public double getDegreesOfFreedom() {
+        return degreesOfFreedom;
+    }
+
+    /**
+     * Half-width of the two-sided confidence interval for the difference.
+     */
+    public double confidenceHalfWidth(double confidence) {
+        if (standardError == 0) return 0;
+        return studentTQuantile(1.0 - (1.0 - confidence) / 2.0, degreesOfFreedom) * standardError;
+    }
+
+    /**
+     * P(T > t) for Student's t with df degrees of freedom.
+     */
+    static double studentTUpperTail(double t, double df) {
+        double x = df / (df + t * t);
+        return 0.5 * regularizedIncompleteBeta(x, df / 2.0, 0.5);
+    }
+
+    /**
+     * Inverse CDF of Student's t, found by bisection on the upper tail.
+     */
+    static double studentTQuantile(double p, double df) {
+        double target = 1.0 - p;
+        double lo = 0;
+        double hi = 1000;
+        for (int i = 0; i < 100; i++) {
+            double mid = (lo + hi) / 2;
+            if (studentTUpperTail(mid, df) > target) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return (lo + hi) / 2;
+    }
+
+    /**
+     * Regularized incomplete beta I_x(a, b) via Lentz's continued fraction.
+     */
+    static double regularizedIncompleteBeta(double x, double a, double b) {
+        if (x <= 0) return 0;
+        if (x >= 1) return 1;
+
+        double lnFront = logGamma(a + b) - logGamma(a) - logGamma(b)
+            + a * Math.log(x) + b * Math.log(1 - x);
+
+        if (x < (a + 1) / (a + b + 2)) {
+            return Math.exp(lnFront) * betaContinuedFraction(x, a, b) / a;
+        }
+        return 1 - Math.exp(lnFront) * betaContinuedFraction(1 - x, b, a) / b;
+    }
+
+    private static double betaContinuedFraction(double x, double a, double b) {
+        final double tiny = 1e-300;
+        double c = 1;
+        double d = 1 - (a + b) * x / (a + 1);
+        if (Math.abs(d) < tiny) d = tiny;
+        d = 1 / d;
+        double h = d;
+
+        for (int m = 1; m <= 300; m++) {
+            int m2 = 2 * m;
+            double aa = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+            d = 1 + aa * d;
+            if (Math.abs(d) < tiny) d = tiny;
+            c = 1 + aa / c;
+            if (Math.abs(c) < tiny) c = tiny;
+            d = 1 / d;
+            h *= d * c;
+
+            aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+            d = 1 + aa * d;
+            if (Math.abs(d) < tiny) d = tiny;
+            c = 1 + aa / c;
+            if (Math.abs(c) < tiny) c = tiny;
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-12) break;
+        }
+        return h;
+    }
+
+    /**
+     * Lanczos approximation of ln(Gamma(x)).
+     */
+    private static double logGamma(double x) {
+        double[] coefficients = {
+            76.18009172947146, -86.50532032941677, 24.01409824083091,
+            -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5
+        };
+        double y = x;
+        double tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        for (double coefficient : coefficients) {
+            series += coefficient / ++y;
+        }
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+}
@@ -0,0 +1,204 @@
+package com.hytaleprofiler.cluster;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Central collector that receives snapshots from many servers over TCP
+ * and merges them into a {@link FleetState}. Runs standalone from the
+ * plugin jar ({@code java -jar HytaleProfiler.jar aggregate}); also answers
+ * query frames with the fleet report.
+ *
+ * <p>A single selector thread handles every connection with non-blocking I/O.
+ */
+public class Aggregator {
+
+    public static final int DEFAULT_PORT = 9470;
+
+    private static final int INITIAL_READ_BUFFER = 4096;
+
+    private final String bindHost;
+    private final int requestedPort;
+    private final FleetState fleet = new FleetState();
+    private final PrintStream log;
+
+    private Selector selector;
+    private ServerSocketChannel server;
+    private Thread thread;
+    private volatile boolean running;
+
+    public Aggregator(String bindHost, int port, PrintStream log) {
+        this.bindHost = bindHost;
+        this.requestedPort = port;
+        this.log = log;
+    }
+
+    /**
+     * Bind and start the selector thread. Port 0 picks a free port.
+     */
+    public synchronized void start() throws IOException {
+        if (running) return;
+
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(bindHost, requestedPort));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+        thread = new Thread(this::loop, "HytaleProfiler-Aggregator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(2000);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public FleetState getFleet() {
+        return fleet;
+    }
+
+    private void loop() {
+        try {
+            while (running) {
+                selector.select(1000);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) read(key);
+                            if (key.isValid() && key.isWritable()) write(key);
+                        }
+                    } catch (IOException e) {
+                        close(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.println("Aggregator stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) return;
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, new Connection());
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+
+        int n = channel.read(connection.readBuffer);
+        if (n < 0) {
+            close(key);
+            return;
+        }
+
+        ByteBuffer buffer = connection.readBuffer;
+        buffer.flip();
+        while (buffer.remaining() >= 4) {
+            int length = buffer.getInt(buffer.position());
+            if (length <= 0 || length > SnapshotCodec.MAX_FRAME_BYTES) {
+                throw new IOException("Bad frame length " + length);
+            }
+            if (buffer.remaining() < 4 + length) {
+                if (buffer.capacity() < 4 + length) {
+                    connection.grow(4 + length);
+                    buffer = connection.readBuffer;
+                }
+                break;
+            }
+
+            buffer.getInt();
+            byte type = buffer.get();
+            ByteBuffer payload = buffer.slice(buffer.position(), length - 1);
+            buffer.position(buffer.position() + length - 1);
+            handleFrame(key, connection, type, payload);
+        }
+        buffer.compact();
+    }
+
+    private void handleFrame(SelectionKey key, Connection connection, byte type, ByteBuffer payload) throws IOException {
+        switch (type) {
+            case SnapshotCodec.TYPE_SNAPSHOT -> fleet.merge(SnapshotCodec.decodeSnapshot(payload));
+            case SnapshotCodec.TYPE_QUERY -> {
+                connection.pendingWrites.add(SnapshotCodec.encodeText(SnapshotCodec.TYPE_REPORT, fleet.buildReport()));
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+            default -> throw new IOException("Unknown frame type " + type);
+        }
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+
+        while (!connection.pendingWrites.isEmpty()) {
+            ByteBuffer head = connection.pendingWrites.peek();
+            channel.write(head);
+            if (head.hasRemaining()) return;
+            connection.pendingWrites.poll();
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Per-connection buffers.
+     */
+    private static class Connection {
+        private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+        private final Deque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+
+        void grow(int minCapacity) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(minCapacity, readBuffer.capacity() * 2));
+            larger.put(readBuffer);
+            larger.flip();
+            readBuffer = larger;
+        }
+    }
+}
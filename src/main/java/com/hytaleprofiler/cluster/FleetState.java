@@ -0,0 +1,150 @@
+package com.hytaleprofiler.cluster;
+
+import com.hytaleprofiler.util.FormatUtil;
+import com.hytaleprofiler.util.LogHistogram;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Merged view of every node's snapshots since the aggregator started.
+ * Histograms and counters merge by addition, so the fleet totals are
+ * exact sums of what the nodes reported.
+ */
+public class FleetState {
+
+    private static final long ACTIVE_WINDOW_MS = 120_000;
+    private static final int TOP_N = 10;
+
+    private final Map<String, NodeStats> nodes = new TreeMap<>();
+    private final LogHistogram fleetTicks = new LogHistogram();
+    private final Map<String, Long> fleetModMicros = new HashMap<>();
+    private final Map<String, long[]> fleetEvents = new HashMap<>();
+    private long fleetTickCount;
+    private long snapshotCount;
+
+    public synchronized void merge(NodeSnapshot snapshot) {
+        NodeStats node = nodes.computeIfAbsent(snapshot.getNodeId(), NodeStats::new);
+        node.lastSeenMillis = System.currentTimeMillis();
+        node.ticks += snapshot.getTicks();
+        node.heapUsed = snapshot.getHeapUsed();
+        node.gcCount += snapshot.getGcCount();
+        node.gcTimeMs += snapshot.getGcTimeMs();
+        node.tickHistogram.merge(snapshot.getTickHistogram());
+        for (Map.Entry<String, Long> mod : snapshot.getModCostMicros().entrySet()) {
+            node.modMicros.merge(mod.getKey(), mod.getValue(), Long::sum);
+            fleetModMicros.merge(mod.getKey(), mod.getValue(), Long::sum);
+        }
+        for (Map.Entry<String, long[]> event : snapshot.getEvents().entrySet()) {
+            long[] total = fleetEvents.computeIfAbsent(event.getKey(), k -> new long[2]);
+            total[0] += event.getValue()[0];
+            total[1] += event.getValue()[1];
+        }
+
+        fleetTicks.merge(snapshot.getTickHistogram());
+        fleetTickCount += snapshot.getTicks();
+        snapshotCount++;
+    }
+
+    /**
+     * Mods ranked by total time across the fleet, most expensive first.
+     */
+    public synchronized List<Map.Entry<String, Long>> getModRanking() {
+        List<Map.Entry<String, Long>> ranking = new ArrayList<>(fleetModMicros.entrySet());
+        ranking.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        return ranking;
+    }
+
+    public synchronized int getNodeCount() {
+        return nodes.size();
+    }
+
+    public synchronized long getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    /**
+     * Human-readable fleet report answering "which mod costs the most fleet-wide".
+     */
+    public synchronized String buildReport() {
+        StringBuilder sb = new StringBuilder();
+        long now = System.currentTimeMillis();
+        long active = nodes.values().stream().filter(n -> now - n.lastSeenMillis < ACTIVE_WINDOW_MS).count();
+
+        sb.append("========== Fleet Report ==========\n");
+        sb.append(String.format("Nodes: %d (%d active) | Snapshots: %s | Ticks: %s%n",
+            nodes.size(), active, FormatUtil.formatCount(snapshotCount), FormatUtil.formatCount(fleetTickCount)));
+        sb.append(String.format("Fleet tick time: p50 %s | p99 %s | p99.9 %s%n",
+            FormatUtil.formatNsToMs(fleetTicks.quantile(0.50)),
+            FormatUtil.formatNsToMs(fleetTicks.quantile(0.99)),
+            FormatUtil.formatNsToMs(fleetTicks.quantile(0.999))));
+
+        long totalModMicros = fleetModMicros.values().stream().mapToLong(Long::longValue).sum();
+        sb.append("\nMost expensive mods fleet-wide:\n");
+        int rank = 1;
+        for (Map.Entry<String, Long> mod : getModRanking()) {
+            if (rank > TOP_N) break;
+            int nodesRunning = 0;
+            for (NodeStats node : nodes.values()) {
+                if (node.modMicros.getOrDefault(mod.getKey(), 0L) > 0) nodesRunning++;
+            }
+            double perTickMs = fleetTickCount > 0 ? mod.getValue() / 1000.0 / fleetTickCount : 0;
+            sb.append(String.format("  %2d. %s %s total (%s) | %s/tick | %d nodes%n",
+                rank++,
+                FormatUtil.padRight(mod.getKey(), 20),
+                FormatUtil.formatMs(mod.getValue() / 1000.0),
+                FormatUtil.formatPercent(totalModMicros > 0 ? mod.getValue() * 100.0 / totalModMicros : 0),
+                FormatUtil.formatMs(perTickMs),
+                nodesRunning));
+        }
+
+        List<NodeStats> slowest = new ArrayList<>(nodes.values());
+        slowest.sort((a, b) -> Long.compare(b.tickHistogram.quantile(0.99), a.tickHistogram.quantile(0.99)));
+        sb.append("\nSlowest nodes by p99 tick:\n");
+        rank = 1;
+        for (NodeStats node : slowest) {
+            if (rank > TOP_N) break;
+            sb.append(String.format("  %2d. %s p99 %s | heap %s | GC %s runs, %dms | last seen %ds ago%n",
+                rank++,
+                FormatUtil.padRight(node.nodeId, 20),
+                FormatUtil.formatNsToMs(node.tickHistogram.quantile(0.99)),
+                FormatUtil.formatBytes(node.heapUsed),
+                FormatUtil.formatCount(node.gcCount), node.gcTimeMs,
+                (now - node.lastSeenMillis) / 1000));
+        }
+
+        if (!fleetEvents.isEmpty()) {
+            sb.append("\nEvents fleet-wide:\n");
+            List<Map.Entry<String, long[]>> events = new ArrayList<>(fleetEvents.entrySet());
+            events.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+            for (Map.Entry<String, long[]> event : events) {
+                long calls = event.getValue()[0];
+                sb.append(String.format("  %s %s calls | %s total | %s avg%n",
+                    FormatUtil.padRight(event.getKey(), 20),
+                    FormatUtil.formatCount(calls),
+                    FormatUtil.formatNsToMs(event.getValue()[1]),
+                    FormatUtil.formatNsToMs(calls > 0 ? event.getValue()[1] / (double) calls : 0)));
+            }
+        }
+        sb.append("==================================\n");
+        return sb.toString();
+    }
+
+    private static class NodeStats {
+        private final String nodeId;
+        private final LogHistogram tickHistogram = new LogHistogram();
+        private final Map<String, Long> modMicros = new HashMap<>();
+        private long lastSeenMillis;
+        private long ticks;
+        private long heapUsed;
+        private long gcCount;
+        private long gcTimeMs;
+
+        NodeStats(String nodeId) {
+            this.nodeId = nodeId;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.hytaleprofiler.cluster;
+
+import com.hytaleprofiler.util.LogHistogram;
+
+import java.util.Map;
+
+/**
+ * One batch of measurements from a single server, covering the interval
+ * since its previous snapshot. Counters are deltas, so the aggregator
+ * merges snapshots by adding them.
+ */
+public class NodeSnapshot {
+    private final String nodeId;
+    private final long timestampMillis;
+    private final long intervalMillis;
+    private final long ticks;
+    private final LogHistogram tickHistogram;
+    private final long heapUsed;
+    private final long gcCount;
+    private final long gcTimeMs;
+    private final Map<String, Long> modCostMicros;
+    private final Map<String, long[]> events;
+
+    public NodeSnapshot(String nodeId, long timestampMillis, long intervalMillis, long ticks,
+                        LogHistogram tickHistogram, long heapUsed, long gcCount, long gcTimeMs,
+                        Map<String, Long> modCostMicros, Map<String, long[]> events) {
+        this.nodeId = nodeId;
+        this.timestampMillis = timestampMillis;
+        this.intervalMillis = intervalMillis;
+        this.ticks = ticks;
+        this.tickHistogram = tickHistogram;
+        this.heapUsed = heapUsed;
+        this.gcCount = gcCount;
+        this.gcTimeMs = gcTimeMs;
+        this.modCostMicros = modCostMicros;
+        this.events = events;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public LogHistogram getTickHistogram() {
+        return tickHistogram;
+    }
+
+    public long getHeapUsed() {
+        return heapUsed;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcTimeMs() {
+        return gcTimeMs;
+    }
+
+    /**
+     * Total time spent in each mod's systems during the interval, in microseconds.
+     */
+    public Map<String, Long> getModCostMicros() {
+        return modCostMicros;
+    }
+
+    /**
+     * Per event name: {calls, nanos} during the interval.
+     */
+    public Map<String, long[]> getEvents() {
+        return events;
+    }
+}
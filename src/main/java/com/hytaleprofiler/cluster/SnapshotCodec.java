@@ -0,0 +1,199 @@
+package com.hytaleprofiler.cluster;
+
+import com.hytaleprofiler.util.LogHistogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact binary wire format between nodes and the aggregator.
+ *
+ * <p>Every frame is {@code [int length][byte type][payload]}, where length
+ * covers type and payload. Integers in payloads are unsigned LEB128 varints,
+ * strings are a varint byte length followed by UTF-8, and histograms only
+ * carry their non-empty buckets, so a typical snapshot is a few hundred bytes.
+ */
+public final class SnapshotCodec {
+
+    public static final byte TYPE_SNAPSHOT = 1;
+    public static final byte TYPE_QUERY = 2;
+    public static final byte TYPE_REPORT = 3;
+
+    public static final int VERSION = 1;
+    public static final int MAX_FRAME_BYTES = 1 << 20;
+
+    private SnapshotCodec() {}
+
+    /**
+     * Encode a snapshot as a complete frame ready to write.
+     */
+    public static ByteBuffer encodeSnapshot(NodeSnapshot snapshot) {
+        Writer out = new Writer();
+        out.varint(VERSION);
+        out.string(snapshot.getNodeId());
+        out.varint(snapshot.getTimestampMillis());
+        out.varint(snapshot.getIntervalMillis());
+        out.varint(snapshot.getTicks());
+
+        LogHistogram histogram = snapshot.getTickHistogram();
+        int nonEmpty = 0;
+        for (int i = 0; i < LogHistogram.BUCKET_COUNT; i++) {
+            if (histogram.getCount(i) > 0) nonEmpty++;
+        }
+        out.varint(nonEmpty);
+        for (int i = 0; i < LogHistogram.BUCKET_COUNT; i++) {
+            long count = histogram.getCount(i);
+            if (count > 0) {
+                out.varint(i);
+                out.varint(count);
+            }
+        }
+
+        out.varint(snapshot.getHeapUsed());
+        out.varint(snapshot.getGcCount());
+        out.varint(snapshot.getGcTimeMs());
+
+        out.varint(snapshot.getModCostMicros().size());
+        for (Map.Entry<String, Long> mod : snapshot.getModCostMicros().entrySet()) {
+            out.string(mod.getKey());
+            out.varint(mod.getValue());
+        }
+
+        out.varint(snapshot.getEvents().size());
+        for (Map.Entry<String, long[]> event : snapshot.getEvents().entrySet()) {
+            out.string(event.getKey());
+            out.varint(event.getValue()[0]);
+            out.varint(event.getValue()[1]);
+        }
+
+        return frame(TYPE_SNAPSHOT, out.toArray());
+    }
+
+    /**
+     * Decode a snapshot payload (the bytes after the type byte).
+     */
+    public static NodeSnapshot decodeSnapshot(ByteBuffer in) throws IOException {
+        try {
+            int version = (int) readVarint(in);
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            String nodeId = readString(in);
+            long timestamp = readVarint(in);
+            long interval = readVarint(in);
+            long ticks = readVarint(in);
+
+            LogHistogram histogram = new LogHistogram();
+            int buckets = (int) readVarint(in);
+            for (int i = 0; i < buckets; i++) {
+                int bucket = (int) readVarint(in);
+                long count = readVarint(in);
+                if (bucket < 0 || bucket >= LogHistogram.BUCKET_COUNT) {
+                    throw new IOException("Bad histogram bucket " + bucket);
+                }
+                histogram.addToBucket(bucket, count);
+            }
+
+            long heapUsed = readVarint(in);
+            long gcCount = readVarint(in);
+            long gcTimeMs = readVarint(in);
+
+            int modCount = (int) readVarint(in);
+            Map<String, Long> mods = new LinkedHashMap<>();
+            for (int i = 0; i < modCount; i++) {
+                mods.put(readString(in), readVarint(in));
+            }
+
+            int eventCount = (int) readVarint(in);
+            Map<String, long[]> events = new LinkedHashMap<>();
+            for (int i = 0; i < eventCount; i++) {
+                String name = readString(in);
+                events.put(name, new long[]{readVarint(in), readVarint(in)});
+            }
+
+            return new NodeSnapshot(nodeId, timestamp, interval, ticks, histogram,
+                heapUsed, gcCount, gcTimeMs, mods, events);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed snapshot", e);
+        }
+    }
+
+    /**
+     * Build a frame carrying UTF-8 text (queries and reports).
+     */
+    public static ByteBuffer encodeText(byte type, String text) {
+        return frame(type, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decodeText(ByteBuffer in) {
+        byte[] bytes = new byte[in.remaining()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer frame(byte type, byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 1 + payload.length);
+        buffer.putInt(1 + payload.length);
+        buffer.put(type);
+        buffer.put(payload);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long readVarint(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Varint too long");
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = (int) readVarint(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("Bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Growable byte buffer with varint and string helpers.
+     */
+    private static class Writer {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            put((byte) value);
+        }
+
+        void string(String s) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length);
+            for (byte b : utf8) put(b);
+        }
+
+        private void put(byte b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = b;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
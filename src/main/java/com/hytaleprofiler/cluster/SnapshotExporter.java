@@ -0,0 +1,403 @@
+package com.hytaleprofiler.cluster;
+
+import com.hytaleprofiler.HytaleProfiler;
+import com.hytaleprofiler.collector.OverheadMonitor;
+import com.hytaleprofiler.collector.TickHookSystem;
+import com.hytaleprofiler.collector.TickSample;
+import com.hytaleprofiler.data.EventProfile;
+import com.hytaleprofiler.data.JVMData;
+import com.hytaleprofiler.util.FormatUtil;
+import com.hytaleprofiler.util.LogHistogram;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Optional exporter that batches this server's measurements into compact
+ * binary {@link NodeSnapshot}s and pushes them to an {@link Aggregator}.
+ *
+ * <p>The tick path increments a histogram bucket and adds each system's
+ * time to its world's totals, so mod time is the measured sum over every
+ * tick of every world in the interval. Snapshots are built
+ * on a scheduler thread and handed to a bounded queue; a sender thread
+ * drains it over a non-blocking socket. When the aggregator is down or slow
+ * the queue fills and new snapshots are dropped instead of stalling anything.
+ */
+public class SnapshotExporter implements TickHookSystem.TickListener {
+
+    public static final long DEFAULT_INTERVAL_MS = 10_000;
+
+    private static final int QUEUE_CAPACITY = 32;
+    private static final long MIN_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final HytaleProfiler plugin;
+    private final OverheadMonitor.Component overhead;
+
+    // Written by world threads, drained by the snapshot thread
+    private final AtomicLongArray tickBuckets = new AtomicLongArray(LogHistogram.BUCKET_COUNT);
+    private final AtomicLong tickCount = new AtomicLong();
+    private final Map<Store<EntityStore>, SystemTotals> systemTotals = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<ByteBuffer> outbound = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong sentSnapshots = new AtomicLong();
+    private final AtomicLong droppedSnapshots = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private String nodeId;
+    private InetSocketAddress address;
+    private long intervalMs;
+
+    private ScheduledExecutorService scheduler;
+    private Thread sender;
+    private Selector selector;
+
+    // Previous cumulative values for per-interval deltas
+    private long lastSnapshotMillis;
+    private long lastGcCount = -1;
+    private long lastGcTimeMs;
+    private final Map<String, long[]> lastEventTotals = new HashMap<>();
+
+    public SnapshotExporter(HytaleProfiler plugin) {
+        this.plugin = plugin;
+        this.overhead = plugin.getOverheadMonitor().register("SnapshotBuilder", OverheadMonitor.Kind.BACKGROUND);
+    }
+
+    /**
+     * Start exporting to an aggregator.
+     */
+    public synchronized void start(String host, int port, String nodeId, long intervalMs) throws IOException {
+        if (running) return;
+
+        this.address = new InetSocketAddress(host, port);
+        this.nodeId = nodeId;
+        this.intervalMs = intervalMs;
+        this.selector = Selector.open();
+        resetBaselines();
+
+        running = true;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "HytaleProfiler-SnapshotBuilder");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::buildSnapshot, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+        sender = new Thread(this::sendLoop, "HytaleProfiler-SnapshotSender");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    /**
+     * Start the first interval now, so nothing from before a stop leaks into it.
+     */
+    private void resetBaselines() {
+        lastSnapshotMillis = System.currentTimeMillis();
+        for (int i = 0; i < LogHistogram.BUCKET_COUNT; i++) {
+            tickBuckets.set(i, 0);
+        }
+        tickCount.set(0);
+        systemTotals.clear();
+
+        JVMData jvm = plugin.getJvmSnapshots().latestOrCollect(null);
+        lastGcCount = jvm.getTotalGcCount();
+        lastGcTimeMs = jvm.getTotalGcTimeMs();
+        lastEventTotals.clear();
+        for (EventProfile event : plugin.getEventTimingCollector().getActiveProfiles()) {
+            lastEventTotals.put(event.getEventName(), new long[]{event.getCallCount(), event.getTotalTimeNanos()});
+        }
+    }
+
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        scheduler.shutdownNow();
+        selector.wakeup();
+        try {
+            // A snapshot still being built would touch the baselines the next start resets
+            scheduler.awaitTermination(2000, TimeUnit.MILLISECONDS);
+            sender.join(2000);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+        outbound.clear();
+        connected = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    public long getSentSnapshots() {
+        return sentSnapshots.get();
+    }
+
+    public long getDroppedSnapshots() {
+        return droppedSnapshots.get();
+    }
+
+    public int getQueuedSnapshots() {
+        return outbound.size();
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        if (!running) return;
+        long tickLength = sample.getTickLengthNanos();
+        tickBuckets.incrementAndGet(LogHistogram.bucketFor(tickLength));
+        tickCount.incrementAndGet();
+        systemTotals.computeIfAbsent(store, s -> new SystemTotals()).add(sample);
+    }
+
+    /**
+     * Build one snapshot and queue it. Runs on the scheduler thread.
+     */
+    private void buildSnapshot() {
+        long cpu = OverheadMonitor.threadCpuNanos();
+        long alloc = OverheadMonitor.threadAllocatedBytes();
+        try {
+            long now = System.currentTimeMillis();
+            long interval = now - lastSnapshotMillis;
+            lastSnapshotMillis = now;
+
+            LogHistogram histogram = new LogHistogram();
+            for (int i = 0; i < LogHistogram.BUCKET_COUNT; i++) {
+                long count = tickBuckets.getAndSet(i, 0);
+                if (count > 0) histogram.addToBucket(i, count);
+            }
+            long ticks = tickCount.getAndSet(0);
+
+            Map<String, Long> modMicros = modMicros();
+
+            JVMData jvm = plugin.getJvmSnapshots().latestOrCollect(null);
+            long gcCountDelta = lastGcCount >= 0 ? Math.max(0, jvm.getTotalGcCount() - lastGcCount) : 0;
+            long gcTimeDelta = lastGcCount >= 0 ? Math.max(0, jvm.getTotalGcTimeMs() - lastGcTimeMs) : 0;
+            lastGcCount = jvm.getTotalGcCount();
+            lastGcTimeMs = jvm.getTotalGcTimeMs();
+
+            Map<String, long[]> events = new LinkedHashMap<>();
+            for (EventProfile event : plugin.getEventTimingCollector().getActiveProfiles()) {
+                long[] last = lastEventTotals.computeIfAbsent(event.getEventName(), k -> new long[2]);
+                long calls = event.getCallCount();
+                long nanos = event.getTotalTimeNanos();
+                long deltaCalls = calls - last[0];
+                long deltaNanos = nanos - last[1];
+                if (deltaCalls < 0 || deltaNanos < 0) {
+                    deltaCalls = calls;
+                    deltaNanos = nanos;
+                }
+                last[0] = calls;
+                last[1] = nanos;
+                if (deltaCalls > 0) {
+                    events.put(event.getEventName(), new long[]{deltaCalls, deltaNanos});
+                }
+            }
+
+            NodeSnapshot snapshot = new NodeSnapshot(nodeId, now, interval, ticks, histogram,
+                jvm.getHeapUsed(), gcCountDelta, gcTimeDelta, modMicros, events);
+
+            if (outbound.offer(SnapshotCodec.encodeSnapshot(snapshot))) {
+                selector.wakeup();
+            } else {
+                droppedSnapshots.incrementAndGet();
+            }
+        } catch (Exception e) {
+            droppedSnapshots.incrementAndGet();
+        }
+        overhead.recordSince(cpu, alloc);
+    }
+
+    /**
+     * Time per mod across all worlds since the last snapshot, and reset the
+     * totals. Worlds that did not tick in the interval are forgotten.
+     */
+    private Map<String, Long> modMicros() {
+        Map<String, Long> nanosByMod = new TreeMap<>();
+        Iterator<Map.Entry<Store<EntityStore>, SystemTotals>> it = systemTotals.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Store<EntityStore>, SystemTotals> entry = it.next();
+            long[] nanos = entry.getValue().drain();
+            if (nanos == null) {
+                it.remove();
+                continue;
+            }
+            String[] classNames = plugin.getSystemMetricsCollector().getSystemNames(entry.getKey());
+            for (int i = 0; i < nanos.length; i++) {
+                if (nanos[i] == 0) continue;
+                String className = classNames != null && i < classNames.length && classNames[i] != null
+                    ? classNames[i] : "System_" + i;
+                nanosByMod.merge(FormatUtil.extractModName(className), nanos[i], Long::sum);
+            }
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> mod : nanosByMod.entrySet()) {
+            result.put(mod.getKey(), mod.getValue() / 1000);
+        }
+        return result;
+    }
+
+    /**
+     * Connect, reconnect with backoff and drain the queue. Runs on the sender thread.
+     */
+    private void sendLoop() {
+        SocketChannel channel = null;
+        ByteBuffer current = null;
+        long backoffMs = MIN_BACKOFF_MS;
+        long nextAttempt = 0;
+        // The aggregator never sends to nodes; reads only detect that it closed
+        ByteBuffer discard = ByteBuffer.allocate(256);
+
+        try {
+            while (running) {
+                long now = System.currentTimeMillis();
+
+                if (channel == null && now >= nextAttempt) {
+                    try {
+                        channel = SocketChannel.open();
+                        channel.configureBlocking(false);
+                        channel.connect(address);
+                        channel.register(selector, SelectionKey.OP_CONNECT);
+                    } catch (IOException e) {
+                        closeQuietly(channel);
+                        channel = null;
+                        nextAttempt = now + backoffMs;
+                        backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+                    }
+                }
+
+                if (connected && current == null) {
+                    current = outbound.poll();
+                }
+                if (channel != null && channel.isRegistered()) {
+                    SelectionKey key = channel.keyFor(selector);
+                    if (connected) {
+                        key.interestOps(current != null ? SelectionKey.OP_WRITE | SelectionKey.OP_READ : SelectionKey.OP_READ);
+                    }
+                }
+
+                long timeout = channel == null ? Math.max(1, nextAttempt - now) : 1000;
+                selector.select(timeout);
+                selector.selectedKeys().clear();
+
+                if (channel == null) continue;
+
+                try {
+                    if (!connected) {
+                        if (channel.finishConnect()) {
+                            connected = true;
+                            backoffMs = MIN_BACKOFF_MS;
+                            channel.keyFor(selector).interestOps(SelectionKey.OP_READ);
+                        }
+                        continue;
+                    }
+
+                    discard.clear();
+                    if (channel.read(discard) < 0) {
+                        throw new IOException("Aggregator closed the connection");
+                    }
+
+                    if (current != null) {
+                        channel.write(current);
+                        if (!current.hasRemaining()) {
+                            current = null;
+                            sentSnapshots.incrementAndGet();
+                        }
+                    }
+                } catch (IOException e) {
+                    closeQuietly(channel);
+                    channel = null;
+                    connected = false;
+                    // A partially written frame cannot be resumed on a new connection
+                    if (current != null) {
+                        current = null;
+                        droppedSnapshots.incrementAndGet();
+                    }
+                    nextAttempt = System.currentTimeMillis() + backoffMs;
+                    backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+                }
+            }
+        } catch (IOException e) {
+            // Selector failed; exporter stops sending
+        } finally {
+            connected = false;
+            closeQuietly(channel);
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Summed system times of one world since the last snapshot, indexed
+     * like the store's system metrics. Added to on the world thread.
+     */
+    private static final class SystemTotals {
+        private long[] nanos = new long[0];
+        private int ticks;
+
+        synchronized void add(TickSample sample) {
+            int count = sample.getSystemCount();
+            if (nanos.length < count) {
+                nanos = Arrays.copyOf(nanos, count);
+            }
+            for (int i = 0; i < count; i++) {
+                nanos[i] += sample.getSystemNanos(i);
+            }
+            ticks++;
+        }
+
+        /**
+         * Copy and reset the totals; null if the world has not ticked since the last call.
+         */
+        synchronized long[] drain() {
+            if (ticks == 0) return null;
+            long[] result = nanos.clone();
+            Arrays.fill(nanos, 0);
+            ticks = 0;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.hytaleprofiler.collector;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache of archetypes seen in entity stores, keyed by their component-type set.
+ * Each archetype gets a dense id and its display signature is built once,
+ * so repeated collections only do a hash lookup per chunk.
+ *
+ * <p>Several archetypes can share a signature (only the first few identifying
+ * components are shown), so signatures have their own dense ids.
+ */
+public class ArchetypeIndex {
+
+    private static final int MAX_SIGNATURE_COMPONENTS = 3;
+
+    // Open-addressing table of archetype id + 1 (0 = empty slot)
+    private int[] table = new int[64];
+
+    private String[][] componentTypes = new String[16][];
+    private int[] hashes = new int[16];
+    private int[] signatureOf = new int[16];
+    private int archetypeCount;
+
+    private final Map<String, Integer> signatureIds = new HashMap<>();
+    private String[] signatures = new String[16];
+    private int signatureCount;
+
+    /**
+     * Id of the archetype with these component types, registering it on first sight.
+     */
+    public int indexOf(String[] types) {
+        if (types == null) types = new String[0];
+        int hash = Arrays.hashCode(types);
+        int mask = table.length - 1;
+        int slot = mix(hash) & mask;
+
+        while (true) {
+            int entry = table[slot];
+            if (entry == 0) break;
+            int id = entry - 1;
+            if (hashes[id] == hash && Arrays.equals(componentTypes[id], types)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int id = add(types.clone(), hash);
+        table[slot] = id + 1;
+        if (archetypeCount * 2 > table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    public int getArchetypeCount() {
+        return archetypeCount;
+    }
+
+    public String[] getComponentTypes(int archetype) {
+        return componentTypes[archetype];
+    }
+
+    public int getSignatureId(int archetype) {
+        return signatureOf[archetype];
+    }
+
+    public String getSignatureOfArchetype(int archetype) {
+        return signatures[signatureOf[archetype]];
+    }
+
+    public int getSignatureCount() {
+        return signatureCount;
+    }
+
+    public String getSignature(int signature) {
+        return signatures[signature];
+    }
+
+    private int add(String[] types, int hash) {
+        if (archetypeCount == componentTypes.length) {
+            int capacity = archetypeCount * 2;
+            componentTypes = Arrays.copyOf(componentTypes, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            signatureOf = Arrays.copyOf(signatureOf, capacity);
+        }
+
+        int id = archetypeCount++;
+        componentTypes[id] = types;
+        hashes[id] = hash;
+        signatureOf[id] = signatureIdFor(buildSignature(types));
+        return id;
+    }
+
+    private int signatureIdFor(String signature) {
+        Integer existing = signatureIds.get(signature);
+        if (existing != null) return existing;
+
+        if (signatureCount == signatures.length) {
+            signatures = Arrays.copyOf(signatures, signatureCount * 2);
+        }
+        int id = signatureCount++;
+        signatures[id] = signature;
+        signatureIds.put(signature, id);
+        return id;
+    }
+
+    private void rehash() {
+        int[] larger = new int[table.length * 2];
+        int mask = larger.length - 1;
+        for (int id = 0; id < archetypeCount; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (larger[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            larger[slot] = id + 1;
+        }
+        table = larger;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static String buildSignature(String[] types) {
+        if (types.length == 0) {
+            return "Unknown";
+        }
+
+        // Use the most identifying components (often the first non-common ones)
+        StringBuilder sb = new StringBuilder();
+        int count = 0;
+        for (String type : types) {
+            if (type == null) continue;
+            if (isIdentifyingComponent(type)) {
+                if (count > 0) sb.append("+");
+                sb.append(simplifyComponentName(type));
+                count++;
+                if (count >= MAX_SIGNATURE_COMPONENTS) break;
+            }
+        }
+        return sb.length() > 0 ? sb.toString() : "Entity";
+    }
+
+    private static boolean isIdentifyingComponent(String name) {
+        // Filter out very common/internal components
+        String lower = name.toLowerCase();
+        return !lower.contains("transform")
+            && !lower.contains("velocity")
+            && !lower.contains("position")
+            && !lower.contains("rotation");
+    }
+
+    private static String simplifyComponentName(String fullName) {
+        // Extract simple name from fully qualified
+        int lastDot = fullName.lastIndexOf('.');
+        String simple = lastDot >= 0 ? fullName.substring(lastDot + 1) : fullName;
+
+        // Remove common suffixes
+        if (simple.endsWith("Component")) {
+            simple = simple.substring(0, simple.length() - 9);
+        }
+        return simple;
+    }
+}
@@ -0,0 +1,364 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.data.CauseAnalysis;
+import com.hytaleprofiler.data.EventProfile;
+import com.hytaleprofiler.util.FormatUtil;
+import com.hytaleprofiler.util.GcPauseClock;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds what moved with tick length when TPS drops. Every tick, each
+ * candidate series (system cost, event time, GC pauses, world-thread
+ * allocation, player joins, entities per archetype) is paired with the
+ * tick's length and folded into running sums, so the Pearson correlation
+ * of every candidate over a window comes from O(1) state per series.
+ *
+ * <p>Windows are {@value #WINDOW_MS}ms. A window that misses the target
+ * rate or the tick budget is kept as a degraded analysis; healthy windows
+ * update each candidate's baseline mean instead.
+ */
+public class CauseCorrelator implements TickHookSystem.TickListener {
+
+    public static final long WINDOW_MS = 10_000;
+
+    private static final int MIN_WINDOW_TICKS = 50;
+    private static final int MAX_ANALYSES = 10;
+    private static final int MAX_CAUSES = 15;
+    private static final double MIN_CORRELATION = 0.3;
+    private static final double BASELINE_ALPHA = 0.2;
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    // The per-world join event
+    private static final String JOIN_EVENT = "AddPlayerToWorld";
+
+    private final TickHookSystem tickHookSystem;
+    private final SystemMetricsCollector systemMetricsCollector;
+    private final EventTimingCollector eventTimingCollector;
+    private final EntityCollector entityCollector;
+    private final ChurnTracker churnTracker;
+    private final GcPauseClock gcPauses = new GcPauseClock();
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final Map<Store<EntityStore>, WorldCorrelation> worlds = new ConcurrentHashMap<>();
+
+    public CauseCorrelator(TickHookSystem tickHookSystem, SystemMetricsCollector systemMetricsCollector,
+                           EventTimingCollector eventTimingCollector, EntityCollector entityCollector,
+                           ChurnTracker churnTracker) {
+        this.tickHookSystem = tickHookSystem;
+        this.systemMetricsCollector = systemMetricsCollector;
+        this.eventTimingCollector = eventTimingCollector;
+        this.entityCollector = entityCollector;
+        this.churnTracker = churnTracker;
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threadMXBean = bean instanceof com.sun.management.ThreadMXBean sunBean
+            && sunBean.isThreadAllocatedMemorySupported() ? sunBean : null;
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        World world = store.getExternalData().getWorld();
+        worlds.computeIfAbsent(store, s -> new WorldCorrelation()).tick(world, store, tickNanos, sample);
+    }
+
+    @Override
+    public void onPausedTick(Store<EntityStore> store, long tickNanos) {
+        WorldCorrelation correlation = worlds.get(store);
+        if (correlation != null) correlation.pause();
+    }
+
+    /**
+     * Degraded windows for a world, newest first.
+     */
+    public List<CauseAnalysis> getDegradedWindows(World world) {
+        WorldCorrelation correlation = worlds.get(world.getEntityStore().getStore());
+        return correlation != null ? correlation.degradedWindows() : List.of();
+    }
+
+    /**
+     * Analysis of the window in progress, or null if it has too few ticks.
+     */
+    public CauseAnalysis analyzeCurrentWindow(World world) {
+        WorldCorrelation correlation = worlds.get(world.getEntityStore().getStore());
+        return correlation != null ? correlation.analyzeCurrent(TPSCollector.getTargetTps(world)) : null;
+    }
+
+    /**
+     * Running sums for one group of candidates, paired with tick length.
+     */
+    private static class SeriesGroup {
+        final String category;
+        final String unit;
+        String[] names = new String[0];
+        double[] sx = new double[0];
+        double[] sxx = new double[0];
+        double[] sxy = new double[0];
+        double[] baseline = new double[0];
+
+        SeriesGroup(String category, String unit) {
+            this.category = category;
+            this.unit = unit;
+        }
+
+        int size() {
+            return sx.length;
+        }
+
+        void resize(int size) {
+            if (size == sx.length) return;
+            int old = sx.length;
+            names = Arrays.copyOf(names, size);
+            sx = Arrays.copyOf(sx, size);
+            sxx = Arrays.copyOf(sxx, size);
+            sxy = Arrays.copyOf(sxy, size);
+            baseline = Arrays.copyOf(baseline, size);
+            for (int i = old; i < size; i++) {
+                baseline[i] = Double.NaN;
+            }
+        }
+
+        void add(int i, double x, double y) {
+            sx[i] += x;
+            sxx[i] += x * x;
+            sxy[i] += x * y;
+        }
+
+        void collect(List<CauseAnalysis.Cause> out, int n, double sy, double syy) {
+            double varY = n * syy - sy * sy;
+            if (varY <= 0) return;
+            for (int i = 0; i < sx.length; i++) {
+                double varX = n * sxx[i] - sx[i] * sx[i];
+                if (varX <= 0) continue;
+                double r = (n * sxy[i] - sx[i] * sy) / Math.sqrt(varX * varY);
+                if (r >= MIN_CORRELATION) {
+                    out.add(new CauseAnalysis.Cause(category, names[i], unit, Math.min(r, 1.0), sx[i] / n, baseline[i]));
+                }
+            }
+        }
+
+        void closeWindow(int n, boolean healthy) {
+            for (int i = 0; i < sx.length; i++) {
+                if (healthy && n > 0) {
+                    double mean = sx[i] / n;
+                    baseline[i] = Double.isNaN(baseline[i]) ? mean : baseline[i] + BASELINE_ALPHA * (mean - baseline[i]);
+                }
+                sx[i] = 0;
+                sxx[i] = 0;
+                sxy[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Per-world window state. Updated on the world thread, read under its lock.
+     */
+    private class WorldCorrelation {
+        private final SeriesGroup systems = new SeriesGroup("System", "ms");
+        private final SeriesGroup events = new SeriesGroup("Event", "ms");
+        private final SeriesGroup gc = new SeriesGroup("GC", "ms");
+        private final SeriesGroup allocation = new SeriesGroup("Allocation", "KB");
+        private final SeriesGroup joins = new SeriesGroup("Joins", "joins");
+        private final SeriesGroup archetypes = new SeriesGroup("Archetype", "entities");
+        private final SeriesGroup[] groups = {systems, events, gc, allocation, joins, archetypes};
+
+        private final ArrayDeque<CauseAnalysis> degraded = new ArrayDeque<>();
+
+        // Previous-tick values for systems that run before the hook
+        private long[] previousSystemNanos = new long[0];
+        private EventProfile[] eventProfiles;
+        private long[] lastEventNanos;
+        private int joinEvent = -1;
+        private long lastJoinCount;
+        private long lastGcMillis = -1;
+        private long lastAllocatedBytes = -1;
+        private int[] archetypeCounts = new int[0];
+
+        private long windowStartNanos;
+        private long windowStartMillis;
+        private int n;
+        private double sy;
+        private double syy;
+        private double maxY;
+
+        WorldCorrelation() {
+            gc.resize(1);
+            gc.names[0] = "GC pauses";
+            allocation.resize(1);
+            allocation.names[0] = "World thread allocation";
+            joins.resize(1);
+            joins.names[0] = "Player joins";
+        }
+
+        synchronized void tick(World world, Store<EntityStore> store, long tickNanos, TickSample sample) {
+            int systemCount = sample.getSystemCount();
+            if (systemCount != systems.size()) {
+                resizeSystems(store, systemCount);
+            }
+            if (eventProfiles == null) {
+                initEvents();
+            }
+
+            // The tick length metric holds the last completed tick; pair it with the same tick's values
+            double y = sample.getTickLengthNanos() / NANOS_PER_MS;
+            boolean first = windowStartNanos == 0;
+            if (first) {
+                windowStartNanos = tickNanos;
+                windowStartMillis = System.currentTimeMillis();
+            }
+
+            int hookIndex = tickHookSystem.getSystemIndex();
+            for (int i = 0; i < systemCount; i++) {
+                long latest = sample.getSystemNanos(i);
+                // Systems before the hook already ran this tick; use their previous value
+                long value = i < hookIndex ? previousSystemNanos[i] : latest;
+                previousSystemNanos[i] = latest;
+                if (!first) systems.add(i, value / NANOS_PER_MS, y);
+            }
+
+            for (int i = 0; i < eventProfiles.length; i++) {
+                long nanos = eventProfiles[i].getLatest().getTotalTimeNanos();
+                long delta = nanos >= lastEventNanos[i] ? nanos - lastEventNanos[i] : nanos;
+                lastEventNanos[i] = nanos;
+                if (!first) events.add(i, delta / NANOS_PER_MS, y);
+            }
+
+            long gcMillis = gcPauses.totalPauseMillis();
+            if (!first && lastGcMillis >= 0) gc.add(0, Math.max(0, gcMillis - lastGcMillis), y);
+            lastGcMillis = gcMillis;
+
+            if (threadMXBean != null) {
+                long allocated = threadMXBean.getCurrentThreadAllocatedBytes();
+                if (!first && lastAllocatedBytes >= 0) {
+                    allocation.add(0, Math.max(0, allocated - lastAllocatedBytes) / 1024.0, y);
+                }
+                lastAllocatedBytes = allocated;
+            }
+
+            if (joinEvent >= 0) {
+                long count = eventProfiles[joinEvent].getLatest().getCallCount();
+                long delta = count >= lastJoinCount ? count - lastJoinCount : count;
+                lastJoinCount = count;
+                if (!first) joins.add(0, delta, y);
+            }
+
+            archetypeCounts = churnTracker.copyCounts(store, archetypeCounts);
+            if (archetypeCounts.length > archetypes.size()) {
+                int old = archetypes.size();
+                archetypes.resize(archetypeCounts.length);
+                for (int i = old; i < archetypeCounts.length; i++) {
+                    archetypes.names[i] = entityCollector.getArchetypeSignature(i);
+                }
+            }
+            if (!first) {
+                for (int i = 0; i < archetypeCounts.length; i++) {
+                    archetypes.add(i, archetypeCounts[i], y);
+                }
+                n++;
+                sy += y;
+                syy += y * y;
+                maxY = Math.max(maxY, y);
+            }
+
+            if (tickNanos - windowStartNanos >= WINDOW_MS * 1_000_000L) {
+                closeWindow(TPSCollector.getTargetTps(world), tickNanos);
+            }
+        }
+
+        /**
+         * Discard the open window without analyzing it; the next tick starts
+         * a new one and takes fresh baselines for the delta series.
+         */
+        synchronized void pause() {
+            if (windowStartNanos == 0) return;
+            for (SeriesGroup group : groups) {
+                group.closeWindow(n, false);
+            }
+            n = 0;
+            sy = 0;
+            syy = 0;
+            maxY = 0;
+            windowStartNanos = 0;
+        }
+
+        private void closeWindow(double targetTps, long tickNanos) {
+            boolean healthy = true;
+            if (n >= MIN_WINDOW_TICKS) {
+                CauseAnalysis analysis = analyze(targetTps, (tickNanos - windowStartNanos) / 1e9);
+                if (analysis.isDegraded()) {
+                    healthy = false;
+                    if (degraded.size() == MAX_ANALYSES) degraded.removeLast();
+                    degraded.addFirst(analysis);
+                }
+            }
+            for (SeriesGroup group : groups) {
+                group.closeWindow(n, healthy);
+            }
+            n = 0;
+            sy = 0;
+            syy = 0;
+            maxY = 0;
+            windowStartNanos = tickNanos;
+            windowStartMillis = System.currentTimeMillis();
+        }
+
+        private CauseAnalysis analyze(double targetTps, double seconds) {
+            double tps = seconds > 0 ? Math.min(targetTps, n / seconds) : targetTps;
+            double avg = sy / n;
+            boolean isDegraded = tps < targetTps * 0.95 || avg > 1000.0 / targetTps;
+
+            List<CauseAnalysis.Cause> causes = new ArrayList<>();
+            for (SeriesGroup group : groups) {
+                group.collect(causes, n, sy, syy);
+            }
+            causes.sort((a, b) -> Double.compare(b.getCorrelation(), a.getCorrelation()));
+            if (causes.size() > MAX_CAUSES) {
+                causes = new ArrayList<>(causes.subList(0, MAX_CAUSES));
+            }
+            return new CauseAnalysis(windowStartMillis, seconds, n, tps, targetTps, avg, maxY, isDegraded, causes);
+        }
+
+        synchronized CauseAnalysis analyzeCurrent(double targetTps) {
+            if (n < MIN_WINDOW_TICKS) return null;
+            return analyze(targetTps, (System.nanoTime() - windowStartNanos) / 1e9);
+        }
+
+        synchronized List<CauseAnalysis> degradedWindows() {
+            return new ArrayList<>(degraded);
+        }
+
+        private void resizeSystems(Store<EntityStore> store, int count) {
+            String[] classNames = systemMetricsCollector.getSystemNames(store);
+            systems.resize(count);
+            previousSystemNanos = Arrays.copyOf(previousSystemNanos, count);
+            for (int i = 0; i < count; i++) {
+                systems.names[i] = classNames != null && i < classNames.length && classNames[i] != null
+                    ? FormatUtil.simpleClassName(classNames[i]) : "System_" + i;
+            }
+        }
+
+        private void initEvents() {
+            // Hooks are registered at setup, so the set of profiles is fixed by the first tick
+            eventProfiles = eventTimingCollector.getProfiles().toArray(new EventProfile[0]);
+            lastEventNanos = new long[eventProfiles.length];
+            events.resize(eventProfiles.length);
+            for (int i = 0; i < eventProfiles.length; i++) {
+                events.names[i] = eventProfiles[i].getEventName();
+                lastEventNanos[i] = eventProfiles[i].getTotalTimeNanos();
+                if (eventProfiles[i].getEventName().equals(JOIN_EVENT)) {
+                    joinEvent = i;
+                    lastJoinCount = eventProfiles[i].getCallCount();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.data.ChurnData;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks spawn and despawn rates per archetype from count deltas between
+ * samples taken every few ticks, and flags archetypes that keep growing
+ * (mob farms, item-drop leaks).
+ */
+public class ChurnTracker implements TickHookSystem.TickListener {
+
+    public static final int SAMPLE_INTERVAL_TICKS = 10;
+
+    // Rates are smoothed over roughly this many seconds
+    private static final double RATE_TIME_CONSTANT_SECONDS = 10.0;
+
+    // Runaway: growth in this many consecutive one-minute windows...
+    private static final long WINDOW_MS = 60_000;
+    private static final int RUNAWAY_WINDOWS = 5;
+    // ...adding at least this many entities and this fraction of the starting count
+    private static final int RUNAWAY_MIN_GROWTH = 100;
+    private static final double RUNAWAY_MIN_RELATIVE_GROWTH = 0.25;
+
+    private final EntityCollector entityCollector;
+    private final HytaleLogger logger;
+    private final Map<Store<EntityStore>, StoreChurn> stores = new ConcurrentHashMap<>();
+
+    public ChurnTracker(EntityCollector entityCollector, HytaleLogger logger) {
+        this.entityCollector = entityCollector;
+        this.logger = logger;
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        StoreChurn churn = stores.computeIfAbsent(store, s -> new StoreChurn());
+        if (++churn.ticksSinceSample < SAMPLE_INTERVAL_TICKS) return;
+        churn.ticksSinceSample = 0;
+        churn.sample(store);
+    }
+
+    /**
+     * Current churn for a world. Empty until the world has been sampled twice.
+     */
+    public ChurnData snapshot(World world) {
+        StoreChurn churn = stores.get(world.getEntityStore().getStore());
+        if (churn == null) {
+            return new ChurnData(0, List.of());
+        }
+        return churn.snapshot();
+    }
+
+    /**
+     * Copy the latest sampled entity count per archetype id into {@code out},
+     * reallocating it if too small. Returns the array written to.
+     */
+    public int[] copyCounts(Store<EntityStore> store, int[] out) {
+        StoreChurn churn = stores.get(store);
+        if (churn == null) return out;
+        return churn.copyCounts(out);
+    }
+
+    /**
+     * Per-store counters, indexed by archetype id from the shared index.
+     */
+    private class StoreChurn {
+        private int ticksSinceSample;
+        private int[] counts = new int[16];
+        private int[] previous = new int[16];
+        private double[] spawnRate = new double[16];
+        private double[] despawnRate = new double[16];
+        private long[] totalSpawned = new long[16];
+        private long[] totalDespawned = new long[16];
+        private int[] windowStart = new int[16];
+        private int[] runStart = new int[16];
+        private int[] growingWindows = new int[16];
+        private boolean[] runaway = new boolean[16];
+
+        private long firstSampleNanos;
+        private long lastSampleNanos;
+        private long windowStartMillis;
+
+        synchronized void sample(Store<EntityStore> store) {
+            try {
+                counts = entityCollector.countByArchetype(store, counts);
+            } catch (Exception e) {
+                return;
+            }
+            ensureCapacity(counts.length);
+
+            long now = System.nanoTime();
+            if (lastSampleNanos == 0) {
+                System.arraycopy(counts, 0, previous, 0, counts.length);
+                System.arraycopy(counts, 0, windowStart, 0, counts.length);
+                System.arraycopy(counts, 0, runStart, 0, counts.length);
+                firstSampleNanos = lastSampleNanos = now;
+                windowStartMillis = System.currentTimeMillis();
+                return;
+            }
+
+            double dt = (now - lastSampleNanos) / 1e9;
+            lastSampleNanos = now;
+            double alpha = 1.0 - Math.exp(-dt / RATE_TIME_CONSTANT_SECONDS);
+
+            for (int i = 0; i < counts.length; i++) {
+                int delta = counts[i] - previous[i];
+                double spawned = Math.max(delta, 0);
+                double despawned = Math.max(-delta, 0);
+                spawnRate[i] += alpha * (spawned / dt - spawnRate[i]);
+                despawnRate[i] += alpha * (despawned / dt - despawnRate[i]);
+                totalSpawned[i] += (long) spawned;
+                totalDespawned[i] += (long) despawned;
+                previous[i] = counts[i];
+            }
+
+            long nowMillis = System.currentTimeMillis();
+            if (nowMillis - windowStartMillis >= WINDOW_MS) {
+                windowStartMillis = nowMillis;
+                closeWindow();
+            }
+        }
+
+        private void closeWindow() {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > windowStart[i]) {
+                    growingWindows[i]++;
+                } else {
+                    if (runaway[i]) {
+                        logger.atInfo().log(String.format("Entity growth stopped for archetype %s (%d entities)",
+                            entityCollector.getArchetypeSignature(i), counts[i]));
+                    }
+                    growingWindows[i] = 0;
+                    runStart[i] = counts[i];
+                    runaway[i] = false;
+                }
+                windowStart[i] = counts[i];
+
+                int growth = counts[i] - runStart[i];
+                if (!runaway[i] && growingWindows[i] >= RUNAWAY_WINDOWS
+                        && growth >= RUNAWAY_MIN_GROWTH
+                        && growth >= runStart[i] * RUNAWAY_MIN_RELATIVE_GROWTH) {
+                    runaway[i] = true;
+                    logger.atWarning().log(String.format(
+                        "Runaway entity growth: archetype %s grew by %d to %d over %d minutes",
+                        entityCollector.getArchetypeSignature(i), growth, counts[i], growingWindows[i]));
+                }
+            }
+        }
+
+        synchronized int[] copyCounts(int[] out) {
+            if (out.length < counts.length) out = new int[counts.length];
+            System.arraycopy(counts, 0, out, 0, counts.length);
+            return out;
+        }
+
+        synchronized ChurnData snapshot() {
+            List<ChurnData.ArchetypeChurn> archetypes = new ArrayList<>();
+            if (lastSampleNanos != firstSampleNanos) {
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0 && totalSpawned[i] == 0 && totalDespawned[i] == 0) continue;
+                    archetypes.add(new ChurnData.ArchetypeChurn(
+                        entityCollector.getArchetypeSignature(i), counts[i],
+                        spawnRate[i], despawnRate[i], totalSpawned[i], totalDespawned[i],
+                        runaway[i], growingWindows[i], counts[i] - runStart[i]));
+                }
+            }
+            return new ChurnData((lastSampleNanos - firstSampleNanos) / 1e9, archetypes);
+        }
+
+        private void ensureCapacity(int length) {
+            if (previous.length >= length) return;
+            previous = Arrays.copyOf(previous, length);
+            spawnRate = Arrays.copyOf(spawnRate, length);
+            despawnRate = Arrays.copyOf(despawnRate, length);
+            totalSpawned = Arrays.copyOf(totalSpawned, length);
+            totalDespawned = Arrays.copyOf(totalDespawned, length);
+            windowStart = Arrays.copyOf(windowStart, length);
+            runStart = Arrays.copyOf(runStart, length);
+            growingWindows = Arrays.copyOf(growingWindows, length);
+            runaway = Arrays.copyOf(runaway, length);
+        }
+    }
+}
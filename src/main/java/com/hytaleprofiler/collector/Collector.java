@@ -0,0 +1,43 @@
+package com.hytaleprofiler.collector;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+/**
+ * A source of snapshots run by the {@link CollectorScheduler}. Each run
+ * returns a new value that is never modified afterwards, so it can be
+ * handed to any number of readers through the {@link SnapshotBus}.
+ */
+public interface Collector<T> {
+
+    /**
+     * Name of the topic the snapshots are published under.
+     */
+    String getName();
+
+    /**
+     * Minimum time between runs. 0 runs every tick.
+     */
+    long getIntervalMs();
+
+    /**
+     * True if collected once per world, on that world's thread. Process-wide
+     * collectors run on the scheduler's own thread.
+     */
+    default boolean isPerWorld() {
+        return true;
+    }
+
+    /**
+     * True if the collector is expensive enough to run only while its topic
+     * is being read; see {@link SnapshotBus.Topic#hasReaders}.
+     */
+    default boolean isOnDemand() {
+        return false;
+    }
+
+    /**
+     * Collect one snapshot. {@code world} is the ticking world; process-wide
+     * collectors ignore it and are called with null by the scheduler.
+     */
+    T collect(World world);
+}
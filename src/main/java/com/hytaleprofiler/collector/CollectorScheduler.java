@@ -0,0 +1,120 @@
+package com.hytaleprofiler.collector;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each {@link Collector} at its own interval and publishes the results
+ * to a {@link SnapshotBus}. A collector does its work once per interval
+ * however many commands, exporters and recorders read it.
+ *
+ * <p>Per-world collectors run from the tick hook on their world's thread,
+ * so they may read the entity store. Process-wide collectors run on a
+ * scheduler thread of their own and never add to a world's tick.
+ * On-demand collectors are skipped while nobody reads them.
+ */
+public class CollectorScheduler implements TickHookSystem.TickListener {
+
+    // A failing collector is logged at most this often; later failures are counted
+    private static final long FAILURE_LOG_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final SnapshotBus bus;
+    private final HytaleLogger logger;
+    private final OverheadMonitor.Component overhead;
+    private final ScheduledExecutorService globalExecutor;
+
+    // Copy-on-write array of per-world topics, so the tick path iterates without allocating
+    private volatile SnapshotBus.Topic<?>[] topics = new SnapshotBus.Topic<?>[0];
+
+    public CollectorScheduler(SnapshotBus bus, OverheadMonitor overheadMonitor, HytaleLogger logger) {
+        this.bus = bus;
+        this.logger = logger;
+        this.overhead = overheadMonitor.register("CollectorScheduler", OverheadMonitor.Kind.BACKGROUND);
+        this.globalExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "HytaleProfiler-Collectors");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Start running a collector. Returns the topic its snapshots are published on.
+     */
+    public synchronized <T> SnapshotBus.Topic<T> schedule(Collector<T> collector) {
+        SnapshotBus.Topic<T> topic = bus.topic(collector);
+        if (collector.isPerWorld()) {
+            SnapshotBus.Topic<?>[] next = Arrays.copyOf(topics, topics.length + 1);
+            next[next.length - 1] = topic;
+            topics = next;
+        } else {
+            globalExecutor.scheduleWithFixedDelay(() -> runGlobal(topic),
+                0, Math.max(1, collector.getIntervalMs()), TimeUnit.MILLISECONDS);
+        }
+        return topic;
+    }
+
+    /**
+     * Stop running process-wide collectors.
+     */
+    public void shutdown() {
+        globalExecutor.shutdownNow();
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        World world = store.getExternalData().getWorld();
+        for (SnapshotBus.Topic<?> topic : topics) {
+            if (!topic.hasReaders(tickNanos)) continue;
+            runPerWorld(topic, world, tickNanos);
+        }
+    }
+
+    private <T> void runPerWorld(SnapshotBus.Topic<T> topic, World world, long nowNanos) {
+        SnapshotBus.Slot<T> slot = topic.slot(world);
+        if (nowNanos < slot.nextRunNanos) return;
+        slot.nextRunNanos = nowNanos + topic.getIntervalMs() * 1_000_000L;
+        run(topic, slot, world, nowNanos);
+    }
+
+    private <T> void runGlobal(SnapshotBus.Topic<T> topic) {
+        long now = System.nanoTime();
+        if (!topic.hasReaders(now)) return;
+        long cpu = OverheadMonitor.threadCpuNanos();
+        long alloc = OverheadMonitor.threadAllocatedBytes();
+        run(topic, topic.slot(null), null, now);
+        overhead.recordSince(cpu, alloc);
+    }
+
+    private <T> void run(SnapshotBus.Topic<T> topic, SnapshotBus.Slot<T> slot, World world, long nowNanos) {
+        try {
+            T value = topic.getCollector().collect(world);
+            if (value != null) {
+                slot.publish(value, nowNanos);
+            }
+        } catch (Exception e) {
+            // Keep the previous snapshot; the next interval retries
+            logFailure(topic, slot, world, e, nowNanos);
+        }
+    }
+
+    private void logFailure(SnapshotBus.Topic<?> topic, SnapshotBus.Slot<?> slot, World world,
+                            Exception e, long nowNanos) {
+        if (slot.lastFailureLogNanos != 0 && nowNanos - slot.lastFailureLogNanos < FAILURE_LOG_INTERVAL_NANOS) {
+            slot.suppressedFailures++;
+            return;
+        }
+        logger.atWarning().log(String.format("Collector %s failed%s: %s%s", topic.getName(),
+            world != null ? " in " + world.getName() : "", e,
+            slot.suppressedFailures > 0
+                ? String.format(" (%d more since the last report)", slot.suppressedFailures) : ""));
+        slot.lastFailureLogNanos = nowNanos;
+        slot.suppressedFailures = 0;
+    }
+}
@@ -1,97 +1,272 @@
 package com.hytaleprofiler.collector;
 
 import com.hytaleprofiler.data.EntityData;
+import com.hytaleprofiler.data.FragmentationData;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.component.metric.ArchetypeChunkData;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
 /**
  * Collects entity count data from the world.
+ * Archetype signatures are cached in an {@link ArchetypeIndex}, so a collection
+ * only looks up each chunk and bumps primitive counters.
+ *
+ * <p>The index has a lock of its own, held only for lookups, so worlds counting
+ * archetypes and hotspot scans resolving ids do not wait on a collection.
+ * Chunks are read from the store before any lock is taken.
  */
-public class EntityCollector {
+public class EntityCollector implements Collector<EntityData> {
+
+    public static final long SNAPSHOT_INTERVAL_MS = 1000;
+
+    // Chunks at or below this fraction of capacity count as nearly empty
+    private static final double NEARLY_EMPTY_FILL = 0.25;
+    private static final long HISTORY_INTERVAL_MS = 60_000;
+    private static final int HISTORY_SIZE = 60;
+
+    // Guarded by indexLock, never held while calling out
+    private final ArchetypeIndex index = new ArchetypeIndex();
+    private final Object indexLock = new Object();
+
+    // Guarded by this: per-archetype and per-signature counts from the latest collection
+    private int[] archetypeEntities = new int[16];
+    private int[] archetypeChunks = new int[16];
+    private int[] archetypeSmallestChunk = new int[16];
+    private int[] archetypeNearlyEmpty = new int[16];
+    private int[] signatureEntities = new int[16];
+    private int[] chunkArchetypes = new int[256];
+    private int lastChunkCount;
+    private int lastEntityCount;
+
+    // Largest chunk population seen so far, used as the capacity estimate
+    private int maxChunkPopulation;
+
+    private final Deque<FragmentationData.Sample> history = new ArrayDeque<>();
+
+    @Override
+    public String getName() {
+        return "entities";
+    }
+
+    @Override
+    public long getIntervalMs() {
+        return SNAPSHOT_INTERVAL_MS;
+    }
+
+    /**
+     * A collection walks every chunk of the world, so it only runs while
+     * entity snapshots are being read. Fragmentation history has gaps
+     * where nobody was.
+     */
+    @Override
+    public boolean isOnDemand() {
+        return true;
+    }
 
     /**
      * Collect entity data from the given world.
      */
+    @Override
     public EntityData collect(World world) {
         Store<EntityStore> store = world.getEntityStore().getStore();
-
-        int totalCount = 0;
-        Map<String, Integer> countsByType = new TreeMap<>();
-
         try {
             ArchetypeChunkData[] chunks = store.collectArchetypeChunkData();
-
-            if (chunks != null) {
-                for (ArchetypeChunkData chunk : chunks) {
-                    if (chunk == null) continue;
-
-                    int count = chunk.getEntityCount();
-                    totalCount += count;
-
-                    // Build a signature from component types
-                    String signature = buildSignature(chunk);
-                    countsByType.merge(signature, count, Integer::sum);
-                }
+            synchronized (this) {
+                return summarize(chunks);
             }
         } catch (Exception e) {
             // If archetype data isn't available, try to get basic count
+            int totalCount = 0;
             try {
                 totalCount = store.getEntityCount();
             } catch (Exception ignored) {
             }
+            return new EntityData(totalCount, 0, Collections.emptyMap());
         }
-
-        return new EntityData(totalCount, countsByType.size(), countsByType);
     }
 
-    private String buildSignature(ArchetypeChunkData chunk) {
+    /**
+     * Collect entity data and derive per-archetype chunk fill statistics.
+     */
+    public FragmentationData collectFragmentation(World world) {
+        ArchetypeChunkData[] chunks;
         try {
-            String[] types = chunk.getComponentTypes();
-            if (types == null || types.length == 0) {
-                return "Unknown";
-            }
+            chunks = world.getEntityStore().getStore().collectArchetypeChunkData();
+        } catch (Exception e) {
+            chunks = null;
+        }
 
-            // Use the most identifying component (often the first non-common one)
-            StringBuilder sb = new StringBuilder();
-            int count = 0;
-            for (String type : types) {
-                if (type == null) continue;
-                if (isIdentifyingComponent(type)) {
-                    if (count > 0) sb.append("+");
-                    sb.append(simplifyComponentName(type));
-                    count++;
-                    if (count >= 3) break; // Limit to 3 components for readability
+        synchronized (this) {
+            summarize(chunks);
+            List<FragmentationData.ArchetypeFill> archetypes = new ArrayList<>();
+            synchronized (indexLock) {
+                for (int archetype = 0; archetype < index.getArchetypeCount(); archetype++) {
+                    if (archetype >= archetypeChunks.length || archetypeChunks[archetype] == 0) continue;
+                    archetypes.add(new FragmentationData.ArchetypeFill(
+                        index.getSignatureOfArchetype(archetype),
+                        index.getComponentTypes(archetype).length,
+                        archetypeEntities[archetype],
+                        archetypeChunks[archetype],
+                        archetypeSmallestChunk[archetype],
+                        archetypeNearlyEmpty[archetype],
+                        maxChunkPopulation));
                 }
             }
-            return sb.length() > 0 ? sb.toString() : "Entity";
-        } catch (Exception e) {
-            return "Unknown";
+
+            return new FragmentationData(lastChunkCount, lastEntityCount, maxChunkPopulation,
+                archetypes, new ArrayList<>(history));
         }
     }
 
-    private boolean isIdentifyingComponent(String name) {
-        // Filter out very common/internal components
-        String lower = name.toLowerCase();
-        return !lower.contains("transform")
-            && !lower.contains("velocity")
-            && !lower.contains("position")
-            && !lower.contains("rotation");
+    /**
+     * Count entities per archetype id into {@code counts}, growing it if needed.
+     * Cheaper than {@link #collect(World)}: no signatures or maps are touched,
+     * and only the index lock is taken, once per chunk.
+     */
+    public int[] countByArchetype(Store<EntityStore> store, int[] counts) {
+        Arrays.fill(counts, 0);
+        ArchetypeChunkData[] chunks = store.collectArchetypeChunkData();
+        if (chunks == null) return counts;
+
+        for (ArchetypeChunkData chunk : chunks) {
+            if (chunk == null) continue;
+            int archetype = archetypeIdOf(chunk.getComponentTypes());
+            if (archetype >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(archetype + 1, counts.length * 2));
+            }
+            counts[archetype] += chunk.getEntityCount();
+        }
+        return counts;
     }
 
-    private String simplifyComponentName(String fullName) {
-        // Extract simple name from fully qualified
-        int lastDot = fullName.lastIndexOf('.');
-        String simple = lastDot >= 0 ? fullName.substring(lastDot + 1) : fullName;
+    /**
+     * Archetype id for a component-type set, registering it if new.
+     */
+    public int archetypeIdOf(String[] componentTypes) {
+        synchronized (indexLock) {
+            return index.indexOf(componentTypes);
+        }
+    }
+
+    public int getArchetypeCount() {
+        synchronized (indexLock) {
+            return index.getArchetypeCount();
+        }
+    }
+
+    public String getArchetypeSignature(int archetype) {
+        synchronized (indexLock) {
+            return index.getSignatureOfArchetype(archetype);
+        }
+    }
+
+    /**
+     * Fold one world's chunks into the per-archetype counts. Caller holds this.
+     */
+    private EntityData summarize(ArchetypeChunkData[] chunks) {
+        int totalCount = 0;
+        Map<String, Integer> countsByType = new TreeMap<>();
+
+        Arrays.fill(archetypeEntities, 0);
+        Arrays.fill(archetypeChunks, 0);
+        Arrays.fill(archetypeSmallestChunk, Integer.MAX_VALUE);
+        Arrays.fill(archetypeNearlyEmpty, 0);
+        int chunkCount = 0;
+
+        if (chunks != null) {
+            if (chunkArchetypes.length < chunks.length) {
+                chunkArchetypes = new int[Math.max(chunks.length, chunkArchetypes.length * 2)];
+            }
+            for (int i = 0; i < chunks.length; i++) {
+                ArchetypeChunkData chunk = chunks[i];
+                chunkArchetypes[i] = -1;
+                if (chunk == null) continue;
+
+                int count = chunk.getEntityCount();
+                totalCount += count;
+                chunkCount++;
+
+                int archetype = archetypeIdOf(chunk.getComponentTypes());
+                ensureArchetypeCapacity(archetype);
+                chunkArchetypes[i] = archetype;
+                archetypeEntities[archetype] += count;
+                archetypeChunks[archetype]++;
+                archetypeSmallestChunk[archetype] = Math.min(archetypeSmallestChunk[archetype], count);
+                maxChunkPopulation = Math.max(maxChunkPopulation, count);
+            }
+
+            // Second pass once the capacity estimate includes this collection
+            int nearlyEmptyLimit = (int) (maxChunkPopulation * NEARLY_EMPTY_FILL);
+            for (int i = 0; i < chunks.length; i++) {
+                int archetype = chunkArchetypes[i];
+                if (archetype >= 0 && chunks[i].getEntityCount() <= nearlyEmptyLimit) {
+                    archetypeNearlyEmpty[archetype]++;
+                }
+            }
+        }
+        lastChunkCount = chunkCount;
+        lastEntityCount = totalCount;
+        recordHistory();
+
+        // Fold archetypes into their display signatures
+        synchronized (indexLock) {
+            if (signatureEntities.length < index.getSignatureCount()) {
+                signatureEntities = new int[Math.max(index.getSignatureCount(), signatureEntities.length * 2)];
+            } else {
+                Arrays.fill(signatureEntities, 0);
+            }
+            // Archetypes registered by other threads since the count have no entries yet
+            int archetypeCount = Math.min(index.getArchetypeCount(), archetypeChunks.length);
+            for (int archetype = 0; archetype < archetypeCount; archetype++) {
+                if (archetypeChunks[archetype] == 0) continue;
+                signatureEntities[index.getSignatureId(archetype)] += archetypeEntities[archetype];
+            }
+            for (int signature = 0; signature < index.getSignatureCount(); signature++) {
+                if (signatureEntities[signature] > 0) {
+                    countsByType.put(index.getSignature(signature), signatureEntities[signature]);
+                }
+            }
+        }
+
+        return new EntityData(totalCount, countsByType.size(), Collections.unmodifiableMap(countsByType));
+    }
+
+    private void recordHistory() {
+        long now = System.currentTimeMillis();
+        FragmentationData.Sample last = history.peekLast();
+        if (last != null && now - last.getTimestampMillis() < HISTORY_INTERVAL_MS) return;
 
-        // Remove common suffixes
-        if (simple.endsWith("Component")) {
-            simple = simple.substring(0, simple.length() - 9);
+        int liveArchetypes = 0;
+        for (int chunks : archetypeChunks) {
+            if (chunks > 0) liveArchetypes++;
         }
-        return simple;
+        long slots = (long) lastChunkCount * maxChunkPopulation;
+        double fill = slots > 0 ? lastEntityCount / (double) slots : 1.0;
+
+        history.addLast(new FragmentationData.Sample(now, lastChunkCount, lastEntityCount, liveArchetypes, fill));
+        while (history.size() > HISTORY_SIZE) {
+            history.removeFirst();
+        }
+    }
+
+    private void ensureArchetypeCapacity(int archetype) {
+        if (archetype < archetypeEntities.length) return;
+        int capacity = Math.max(archetype + 1, archetypeEntities.length * 2);
+        archetypeEntities = Arrays.copyOf(archetypeEntities, capacity);
+        archetypeChunks = Arrays.copyOf(archetypeChunks, capacity);
+        archetypeNearlyEmpty = Arrays.copyOf(archetypeNearlyEmpty, capacity);
+        int oldLength = archetypeSmallestChunk.length;
+        archetypeSmallestChunk = Arrays.copyOf(archetypeSmallestChunk, capacity);
+        Arrays.fill(archetypeSmallestChunk, oldLength, capacity, Integer.MAX_VALUE);
     }
 }
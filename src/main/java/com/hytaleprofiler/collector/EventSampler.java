@@ -0,0 +1,116 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.data.EventProfile;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides per dispatch whether an event type is timed. Below
+ * {@value #SAMPLING_THRESHOLD} dispatches/s every dispatch is timed; above it
+ * roughly 1 in N is, with N chosen to time about
+ * {@value #TARGET_SAMPLES_PER_SECOND} dispatches/s. Full timing resumes once
+ * the rate falls below half the threshold.
+ *
+ * <p>An untimed dispatch costs one striped counter increment and a
+ * thread-local countdown in the FIRST handler, and one more thread-local
+ * lookup in the LAST handler, which sees an empty slot and returns.
+ * Gaps between timed dispatches are randomized per thread so periodic
+ * workloads do not alias with the sampling period.
+ *
+ * <p>The overhead budget can divide the threshold and target rate by a
+ * {@linkplain #setDivisor divisor} to time fewer dispatches.
+ */
+class EventSampler {
+
+    static final int SAMPLING_THRESHOLD = 1000;
+    static final int TARGET_SAMPLES_PER_SECOND = 200;
+    static final int MAX_INTERVAL = 1024;
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    // Slot layout: start time of the open timed dispatch (0 if none), countdown, weight
+    static final int START = 0;
+    static final int COUNTDOWN = 1;
+    static final int WEIGHT = 2;
+
+    private final EventProfile profile;
+    private final ThreadLocal<long[]> slots = ThreadLocal.withInitial(() -> new long[3]);
+
+    private volatile int interval = 1;
+    private volatile int divisor = 1;
+    private volatile long windowStartNanos;
+    private long windowStartCalls;
+
+    EventSampler(EventProfile profile) {
+        this.profile = profile;
+    }
+
+    EventProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * FIRST-priority handler: count the dispatch and maybe start timing it.
+     */
+    void begin() {
+        profile.countCall();
+        long[] slot = slots.get();
+        if (slot[COUNTDOWN] > 0) {
+            slot[COUNTDOWN]--;
+            slot[START] = 0;
+            return;
+        }
+        int n = interval;
+        slot[COUNTDOWN] = n == 1 ? 0 : ThreadLocalRandom.current().nextInt(2 * n - 1);
+        slot[WEIGHT] = n;
+        slot[START] = System.nanoTime();
+    }
+
+    /**
+     * Slot of the calling thread; {@code slot[START] == 0} means the current dispatch is not timed.
+     */
+    long[] slot() {
+        return slots.get();
+    }
+
+    /**
+     * Finish a timed dispatch and return its duration. Records it on the profile.
+     */
+    long end(long[] slot, long endNanos) {
+        long duration = endNanos - slot[START];
+        slot[START] = 0;
+        profile.recordSample(duration, (int) slot[WEIGHT]);
+        adapt(endNanos);
+        return duration;
+    }
+
+    /**
+     * Lower the sampling threshold and target rate by this factor; 1 is normal.
+     */
+    void setDivisor(int divisor) {
+        this.divisor = divisor;
+    }
+
+    private void adapt(long nowNanos) {
+        if (nowNanos - windowStartNanos < WINDOW_NANOS) return;
+        synchronized (this) {
+            long start = windowStartNanos;
+            if (nowNanos - start < WINDOW_NANOS) return;
+            long calls = profile.getLatest().getCallCount();
+            if (start != 0) {
+                double rate = (calls - windowStartCalls) / ((nowNanos - start) / 1e9);
+                int d = divisor;
+                double threshold = (double) SAMPLING_THRESHOLD / d;
+                if (rate > threshold) {
+                    interval = (int) Math.min((long) MAX_INTERVAL * d,
+                        Math.ceil(rate * d / TARGET_SAMPLES_PER_SECOND));
+                } else if (rate < threshold / 2) {
+                    interval = 1;
+                }
+                profile.setSampleInterval(interval);
+            }
+            windowStartCalls = calls;
+            windowStartNanos = nowNanos;
+        }
+    }
+}
@@ -1,34 +1,63 @@
 package com.hytaleprofiler.collector;
 
 import com.hytaleprofiler.data.EventProfile;
+import com.hytaleprofiler.jfr.EventDispatchEvent;
+import com.hytaleprofiler.trace.TraceRecorder;
 import com.hytaleprofiler.util.FormatUtil;
 import com.hypixel.hytale.event.EventPriority;
 import com.hypixel.hytale.event.EventRegistry;
 import com.hypixel.hytale.event.IBaseEvent;
+import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.event.events.player.*;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Collects timing data for event handlers by registering
- * timing hooks at FIRST and LAST priority.
+ * timing hooks at FIRST and LAST priority. Busy event types switch to
+ * sampled timing (see {@link EventSampler}); call counts stay exact.
+ *
+ * <p>As a process-wide {@link Collector} it is the one owner of the event
+ * profiles' intervals: each run closes every profile's interval and
+ * publishes the new snapshots. Everything else reads the latest ones.
  */
-public class EventTimingCollector {
+public class EventTimingCollector implements Collector<List<EventProfile.Snapshot>> {
 
-    // Thread-local storage for event start times
-    private final ThreadLocal<Map<Class<?>, Long>> eventStartTimes =
-        ThreadLocal.withInitial(ConcurrentHashMap::new);
+    public static final long SNAPSHOT_INTERVAL_MS = 50;
 
     // Profiles indexed by event class
     private final Map<Class<?>, EventProfile> profiles = new ConcurrentHashMap<>();
+    private final List<EventSampler> samplers = new CopyOnWriteArrayList<>();
 
     // Track if we've registered handlers
     private boolean registered = false;
 
+    // Receives event spans while a tick trace is armed
+    private volatile TraceRecorder traceRecorder;
+
+    // Receives event time for the per-tick breakdown
+    private volatile TickBreakdownCollector tickBreakdown;
+
+    // Emit a JFR event per timed dispatch; only set when the JVM has JFR
+    private volatile boolean jfrEvents;
+
+    // Profiler cost of recording timed dispatches
+    private volatile OverheadMonitor.Component overhead;
+
+    // Per-player attribution; event index is the position in PLAYER_EVENT_NAMES
+    private static final String[] PLAYER_EVENT_NAMES = {
+        "PlayerInteract", "PlayerConnect", "PlayerDisconnect", "PlayerChat", "PlayerReady", "AddPlayerToWorld"
+    };
+    private final PlayerCostTracker playerCosts =
+        new PlayerCostTracker(PLAYER_EVENT_NAMES, PlayerCostTracker.DEFAULT_CAPACITY);
+
     /**
      * Register timing hooks for common event types.
      */
@@ -51,92 +80,211 @@ public class EventTimingCollector {
 
     private void registerPlayerInteractTiming(EventRegistry eventRegistry) {
         Class<PlayerInteractEvent> eventClass = PlayerInteractEvent.class;
-        profiles.put(eventClass, new EventProfile("PlayerInteract", eventClass.getName()));
+        EventSampler sampler = addProfile(eventClass, "PlayerInteract");
 
-        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> {
-            eventStartTimes.get().put(eventClass, System.nanoTime());
-        });
+        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> sampler.begin());
         eventRegistry.registerGlobal(EventPriority.LAST, eventClass, event -> {
-            recordTiming(eventClass);
+            long[] slot = sampler.slot();
+            if (slot[EventSampler.START] != 0) {
+                recordTiming(sampler, slot, 0, usernameOf(event.getPlayer()));
+            }
         });
     }
 
     private void registerPlayerConnectTiming(EventRegistry eventRegistry) {
         Class<PlayerConnectEvent> eventClass = PlayerConnectEvent.class;
-        profiles.put(eventClass, new EventProfile("PlayerConnect", eventClass.getName()));
+        EventSampler sampler = addProfile(eventClass, "PlayerConnect");
 
-        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> {
-            eventStartTimes.get().put(eventClass, System.nanoTime());
-        });
+        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> sampler.begin());
         eventRegistry.registerGlobal(EventPriority.LAST, eventClass, event -> {
-            recordTiming(eventClass);
+            long[] slot = sampler.slot();
+            if (slot[EventSampler.START] != 0) {
+                recordTiming(sampler, slot, 1, event.getPlayerRef() != null ? event.getPlayerRef().getUsername() : null);
+            }
         });
     }
 
     private void registerPlayerDisconnectTiming(EventRegistry eventRegistry) {
         Class<PlayerDisconnectEvent> eventClass = PlayerDisconnectEvent.class;
-        profiles.put(eventClass, new EventProfile("PlayerDisconnect", eventClass.getName()));
+        EventSampler sampler = addProfile(eventClass, "PlayerDisconnect");
 
-        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> {
-            eventStartTimes.get().put(eventClass, System.nanoTime());
-        });
+        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> sampler.begin());
         eventRegistry.registerGlobal(EventPriority.LAST, eventClass, event -> {
-            recordTiming(eventClass);
+            long[] slot = sampler.slot();
+            if (slot[EventSampler.START] != 0) {
+                recordTiming(sampler, slot, 2, event.getPlayerRef() != null ? event.getPlayerRef().getUsername() : null);
+            }
         });
     }
 
     private void registerPlayerChatTiming(EventRegistry eventRegistry) {
         Class<PlayerChatEvent> eventClass = PlayerChatEvent.class;
-        profiles.put(eventClass, new EventProfile("PlayerChat", eventClass.getName()));
+        EventSampler sampler = addProfile(eventClass, "PlayerChat");
 
-        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> {
-            eventStartTimes.get().put(eventClass, System.nanoTime());
-        });
+        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> sampler.begin());
         eventRegistry.registerGlobal(EventPriority.LAST, eventClass, event -> {
-            recordTiming(eventClass);
+            long[] slot = sampler.slot();
+            if (slot[EventSampler.START] != 0) {
+                recordTiming(sampler, slot, 3, event.getSender() != null ? event.getSender().getUsername() : null);
+            }
         });
     }
 
     private void registerPlayerReadyTiming(EventRegistry eventRegistry) {
         Class<PlayerReadyEvent> eventClass = PlayerReadyEvent.class;
-        profiles.put(eventClass, new EventProfile("PlayerReady", eventClass.getName()));
+        EventSampler sampler = addProfile(eventClass, "PlayerReady");
 
-        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> {
-            eventStartTimes.get().put(eventClass, System.nanoTime());
-        });
+        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> sampler.begin());
         eventRegistry.registerGlobal(EventPriority.LAST, eventClass, event -> {
-            recordTiming(eventClass);
+            long[] slot = sampler.slot();
+            if (slot[EventSampler.START] != 0) {
+                recordTiming(sampler, slot, 4, usernameOf(event.getPlayer()));
+            }
         });
     }
 
     private void registerAddPlayerToWorldTiming(EventRegistry eventRegistry) {
         Class<AddPlayerToWorldEvent> eventClass = AddPlayerToWorldEvent.class;
-        profiles.put(eventClass, new EventProfile("AddPlayerToWorld", eventClass.getName()));
+        EventSampler sampler = addProfile(eventClass, "AddPlayerToWorld");
 
-        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> {
-            eventStartTimes.get().put(eventClass, System.nanoTime());
-        });
+        eventRegistry.registerGlobal(EventPriority.FIRST, eventClass, event -> sampler.begin());
         eventRegistry.registerGlobal(EventPriority.LAST, eventClass, event -> {
-            recordTiming(eventClass);
+            long[] slot = sampler.slot();
+            if (slot[EventSampler.START] != 0) {
+                recordTiming(sampler, slot, 5, null);
+            }
         });
     }
 
+    private EventSampler addProfile(Class<?> eventClass, String name) {
+        EventProfile profile = new EventProfile(name, eventClass.getName());
+        profiles.put(eventClass, profile);
+        EventSampler sampler = new EventSampler(profile);
+        samplers.add(sampler);
+        return sampler;
+    }
+
     /**
-     * Record timing for an event class.
+     * Username of an event's player. Every player event is keyed by
+     * username so one player's costs land in one slot; display names can
+     * change and differ from it.
      */
-    private void recordTiming(Class<?> eventClass) {
-        Long startTime = eventStartTimes.get().remove(eventClass);
-        if (startTime != null) {
-            long duration = System.nanoTime() - startTime;
-            EventProfile profile = profiles.get(eventClass);
-            if (profile != null) {
-                profile.record(duration);
-            }
+    private static String usernameOf(Player player) {
+        PlayerRef ref = player != null ? player.getPlayerRef() : null;
+        return ref != null ? ref.getUsername() : null;
+    }
+
+    /**
+     * Record a timed dispatch, attributing it to a player if known.
+     * Untimed dispatches never get here; timed ones are scaled by their weight.
+     */
+    private void recordTiming(EventSampler sampler, long[] slot, int playerEventIndex, String playerName) {
+        long startTime = slot[EventSampler.START];
+        long endTime = System.nanoTime();
+        int weight = (int) slot[EventSampler.WEIGHT];
+        OverheadMonitor.Component cost = overhead;
+        long startCpu = cost != null ? OverheadMonitor.threadCpuNanos() : 0;
+        long startAlloc = cost != null ? OverheadMonitor.threadAllocatedBytes() : 0;
+        long duration = sampler.end(slot, endTime);
+        EventProfile profile = sampler.getProfile();
+
+        if (playerName != null) {
+            playerCosts.record(playerName, playerEventIndex, duration * weight, weight);
+        }
+
+        TickBreakdownCollector breakdown = tickBreakdown;
+        if (breakdown != null) {
+            breakdown.recordPhase(TickBreakdownCollector.PHASE_EVENTS, duration * weight);
         }
+
+        TraceRecorder trace = traceRecorder;
+        if (trace != null && trace.isArmed()) {
+            trace.recordEvent(profile.getEventName(), startTime, endTime);
+        }
+
+        if (jfrEvents) {
+            EventDispatchEvent.emit(profile.getEventName(), duration, weight, playerName);
+        }
+
+        if (cost != null) {
+            cost.recordSince(startCpu, startAlloc);
+        }
+    }
+
+    /**
+     * Set the trace recorder that receives event dispatch spans.
+     */
+    public void setTraceRecorder(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * Set the collector that attributes event time to world ticks.
+     */
+    public void setTickBreakdown(TickBreakdownCollector tickBreakdown) {
+        this.tickBreakdown = tickBreakdown;
+    }
+
+    /**
+     * Emit an {@link EventDispatchEvent} for every timed dispatch.
+     */
+    public void setJfrEvents(boolean jfrEvents) {
+        this.jfrEvents = jfrEvents;
+    }
+
+    /**
+     * Set the component charged with the cost of recording timed dispatches.
+     */
+    public void setOverhead(OverheadMonitor.Component overhead) {
+        this.overhead = overhead;
+    }
+
+    /**
+     * Time fewer dispatches of busy event types; 1 restores normal sampling.
+     */
+    public void setSamplingDivisor(int divisor) {
+        for (EventSampler sampler : samplers) {
+            sampler.setDivisor(divisor);
+        }
+    }
+
+    /**
+     * Event handling cost per player.
+     */
+    public PlayerCostTracker getPlayerCosts() {
+        return playerCosts;
+    }
+
+    @Override
+    public String getName() {
+        return "events";
+    }
+
+    @Override
+    public long getIntervalMs() {
+        return SNAPSHOT_INTERVAL_MS;
+    }
+
+    @Override
+    public boolean isPerWorld() {
+        return false;
+    }
+
+    /**
+     * Close the current interval of every profile. Only the scheduler calls this.
+     */
+    @Override
+    public List<EventProfile.Snapshot> collect(World world) {
+        List<EventProfile.Snapshot> result = new ArrayList<>(profiles.size());
+        for (EventProfile profile : profiles.values()) {
+            result.add(profile.snapshot());
+        }
+        return result;
     }
 
     /**
-     * Get all event profiles, sorted by total time descending.
+     * Get all event profiles, sorted by total time descending. Getters read
+     * each profile's latest snapshot, at most one interval old.
      */
     public List<EventProfile> getProfiles() {
         List<EventProfile> result = new ArrayList<>(profiles.values());
@@ -145,7 +293,7 @@ public class EventTimingCollector {
     }
 
     /**
-     * Get profiles that have been called at least once.
+     * Get profiles that have been called at least once, sorted like {@link #getProfiles()}.
      */
     public List<EventProfile> getActiveProfiles() {
         List<EventProfile> result = new ArrayList<>();
@@ -164,7 +312,7 @@ public class EventTimingCollector {
     public double getTotalEventTimeMs() {
         double total = 0;
         for (EventProfile profile : profiles.values()) {
-            total += profile.getTotalTimeMs();
+            total += profile.getTotalTimeNanos() / 1_000_000.0;
         }
         return total;
     }
@@ -187,6 +335,7 @@ public class EventTimingCollector {
         for (EventProfile profile : profiles.values()) {
             profile.reset();
         }
+        playerCosts.reset();
     }
 
     /**
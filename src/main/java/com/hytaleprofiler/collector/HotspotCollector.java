@@ -0,0 +1,320 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.data.HotspotData;
+import com.hytaleprofiler.util.LongIntHashMap;
+import com.hypixel.hytale.component.Archetype;
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buckets entity positions into square map regions to find local lag sources
+ * such as farms. Region and region/archetype counts live in primitive
+ * long-keyed maps that are reused between scans, and both are capped so a
+ * scan stays bounded on very large worlds. Must run on the world thread.
+ *
+ * <p>Aggregation is not incremental: each {@link #collect} walks every
+ * entity transform in the world, so one call costs O(entities) on the
+ * world thread. It only runs when {@code /profiler hotspots} asks for it.
+ */
+public class HotspotCollector {
+
+    // 64x64 block regions
+    public static final int REGION_SHIFT = 6;
+    public static final int REGION_SIZE = 1 << REGION_SHIFT;
+
+    private static final int MAX_REGIONS = 1 << 16;
+    private static final int MAX_REGION_ARCHETYPES = 1 << 18;
+    private static final int DOMINANT_ARCHETYPES = 3;
+    private static final int MAX_HEATMAP_SIDE = 128;
+
+    private final EntityCollector entityCollector;
+
+    // Region key -> dense region id
+    private final LongIntHashMap regionIds = new LongIntHashMap(1024);
+    // (region id << 32 | archetype id) -> entity count
+    private final LongIntHashMap regionArchetypes = new LongIntHashMap(4096);
+    private long[] regionKeys = new long[1024];
+    private int[] regionEntities = new int[1024];
+    private int regionCount;
+    private int totalEntities;
+    private int untrackedEntities;
+
+    // Archetype objects are stable, so names are resolved once per archetype
+    private final Map<Archetype<EntityStore>, Integer> archetypeIds = new IdentityHashMap<>();
+
+    private final List<String> playerNames = new ArrayList<>();
+    private double[] playerPositions = new double[32];
+
+    public HotspotCollector(EntityCollector entityCollector) {
+        this.entityCollector = entityCollector;
+    }
+
+    /**
+     * Scan the whole world and return the densest regions.
+     */
+    public synchronized HotspotData collect(World world, int topN) {
+        Store<EntityStore> store = world.getEntityStore().getStore();
+        scan(store);
+        collectPlayers(store);
+
+        int[] top = topRegions(topN);
+        List<Map<String, Integer>> dominant = dominantArchetypes(top);
+
+        List<HotspotData.Region> regions = new ArrayList<>();
+        for (int rank = 0; rank < top.length; rank++) {
+            int region = top[rank];
+            int rx = regionX(regionKeys[region]);
+            int rz = regionZ(regionKeys[region]);
+            double centerX = (rx + 0.5) * REGION_SIZE;
+            double centerZ = (rz + 0.5) * REGION_SIZE;
+
+            String nearest = null;
+            double nearestDistance = Double.MAX_VALUE;
+            for (int p = 0; p < playerNames.size(); p++) {
+                double dx = playerPositions[p * 2] - centerX;
+                double dz = playerPositions[p * 2 + 1] - centerZ;
+                double distance = Math.sqrt(dx * dx + dz * dz);
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = playerNames.get(p);
+                }
+            }
+
+            regions.add(new HotspotData.Region(rx, rz, rx * REGION_SIZE, rz * REGION_SIZE,
+                regionEntities[region], dominant.get(rank), nearest, nearest != null ? nearestDistance : -1));
+        }
+
+        return new HotspotData(REGION_SIZE, totalEntities, regionCount, untrackedEntities, regions);
+    }
+
+    /**
+     * Dense grid of entity counts from the last scan, centred on the densest
+     * region and capped at {@value #MAX_HEATMAP_SIDE} regions per side.
+     */
+    public synchronized Map<String, Object> buildHeatmap() {
+        Map<String, Object> heatmap = new LinkedHashMap<>();
+        heatmap.put("regionSize", REGION_SIZE);
+        heatmap.put("totalEntities", totalEntities);
+        heatmap.put("regionCount", regionCount);
+        if (regionCount == 0) {
+            heatmap.put("grid", new int[0][0]);
+            return heatmap;
+        }
+
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        int minZ = Integer.MAX_VALUE, maxZ = Integer.MIN_VALUE;
+        for (int region = 0; region < regionCount; region++) {
+            int rx = regionX(regionKeys[region]);
+            int rz = regionZ(regionKeys[region]);
+            minX = Math.min(minX, rx);
+            maxX = Math.max(maxX, rx);
+            minZ = Math.min(minZ, rz);
+            maxZ = Math.max(maxZ, rz);
+        }
+
+        // Crop to a window around the densest region
+        int hottest = topRegions(1)[0];
+        int half = MAX_HEATMAP_SIDE / 2;
+        if (maxX - minX >= MAX_HEATMAP_SIDE) {
+            minX = Math.max(minX, regionX(regionKeys[hottest]) - half);
+            maxX = minX + MAX_HEATMAP_SIDE - 1;
+        }
+        if (maxZ - minZ >= MAX_HEATMAP_SIDE) {
+            minZ = Math.max(minZ, regionZ(regionKeys[hottest]) - half);
+            maxZ = minZ + MAX_HEATMAP_SIDE - 1;
+        }
+
+        int[][] grid = new int[maxZ - minZ + 1][maxX - minX + 1];
+        for (int region = 0; region < regionCount; region++) {
+            int rx = regionX(regionKeys[region]);
+            int rz = regionZ(regionKeys[region]);
+            if (rx < minX || rx > maxX || rz < minZ || rz > maxZ) continue;
+            grid[rz - minZ][rx - minX] = regionEntities[region];
+        }
+
+        heatmap.put("originBlockX", minX * REGION_SIZE);
+        heatmap.put("originBlockZ", minZ * REGION_SIZE);
+        heatmap.put("width", grid[0].length);
+        heatmap.put("height", grid.length);
+        heatmap.put("grid", grid);
+        return heatmap;
+    }
+
+    private void scan(Store<EntityStore> store) {
+        regionIds.clear();
+        regionArchetypes.clear();
+        Arrays.fill(regionEntities, 0, regionCount, 0);
+        regionCount = 0;
+        totalEntities = 0;
+        untrackedEntities = 0;
+
+        ComponentType<EntityStore, TransformComponent> transformType = TransformComponent.getComponentType();
+        store.forEachChunk(transformType, (chunk, commandBuffer) -> {
+            int archetype = archetypeIdOf(chunk);
+            long lastKey = 0;
+            int lastRegion = -1;
+
+            for (int i = 0; i < chunk.size(); i++) {
+                TransformComponent transform = chunk.getComponent(i, transformType);
+                if (transform == null) continue;
+                Vector3d position = transform.getPosition();
+                totalEntities++;
+
+                long key = regionKey((int) Math.floor(position.getX()) >> REGION_SHIFT,
+                    (int) Math.floor(position.getZ()) >> REGION_SHIFT);
+                // Entities in a chunk are often neighbours; skip the lookup when the region repeats
+                int region = key == lastKey && lastRegion >= 0 ? lastRegion : regionIdOf(key);
+                lastKey = key;
+                lastRegion = region;
+                if (region < 0) {
+                    untrackedEntities++;
+                    continue;
+                }
+
+                regionEntities[region]++;
+                long pair = ((long) region << 32) | archetype;
+                if (regionArchetypes.size() < MAX_REGION_ARCHETYPES || regionArchetypes.get(pair, -1) >= 0) {
+                    regionArchetypes.addTo(pair, 1);
+                }
+            }
+        });
+    }
+
+    private void collectPlayers(Store<EntityStore> store) {
+        playerNames.clear();
+        ComponentType<EntityStore, PlayerRef> playerType = PlayerRef.getComponentType();
+        ComponentType<EntityStore, TransformComponent> transformType = TransformComponent.getComponentType();
+
+        store.forEachChunk(playerType, (chunk, commandBuffer) -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                PlayerRef player = chunk.getComponent(i, playerType);
+                TransformComponent transform = chunk.getComponent(i, transformType);
+                if (player == null || transform == null) continue;
+
+                int p = playerNames.size();
+                if (playerPositions.length < (p + 1) * 2) {
+                    playerPositions = Arrays.copyOf(playerPositions, playerPositions.length * 2);
+                }
+                playerNames.add(player.getUsername());
+                playerPositions[p * 2] = transform.getPosition().getX();
+                playerPositions[p * 2 + 1] = transform.getPosition().getZ();
+            }
+        });
+    }
+
+    private int regionIdOf(long key) {
+        int region = regionIds.get(key, -1);
+        if (region >= 0) return region;
+        if (regionCount >= MAX_REGIONS) return -1;
+
+        region = regionCount++;
+        if (region == regionKeys.length) {
+            regionKeys = Arrays.copyOf(regionKeys, region * 2);
+            regionEntities = Arrays.copyOf(regionEntities, region * 2);
+        }
+        regionKeys[region] = key;
+        regionIds.put(key, region);
+        return region;
+    }
+
+    private int archetypeIdOf(ArchetypeChunk<EntityStore> chunk) {
+        Archetype<EntityStore> archetype = chunk.getArchetype();
+        Integer id = archetypeIds.get(archetype);
+        if (id != null) return id;
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < archetype.length(); i++) {
+            ComponentType<EntityStore, ?> type = archetype.get(i);
+            if (type != null && type.getTypeClass() != null) {
+                names.add(type.getTypeClass().getName());
+            }
+        }
+        id = entityCollector.archetypeIdOf(names.toArray(new String[0]));
+        archetypeIds.put(archetype, id);
+        return id;
+    }
+
+    /**
+     * Region ids with the most entities, densest first.
+     */
+    private int[] topRegions(int n) {
+        n = Math.min(n, regionCount);
+        int[] top = new int[n];
+        int found = 0;
+        for (int region = 0; region < regionCount; region++) {
+            int entities = regionEntities[region];
+            if (found < n) {
+                top[found++] = region;
+            } else if (entities > regionEntities[top[n - 1]]) {
+                top[n - 1] = region;
+            } else {
+                continue;
+            }
+            // Keep the array sorted by insertion
+            for (int i = found - 1; i > 0 && regionEntities[top[i]] > regionEntities[top[i - 1]]; i--) {
+                int swap = top[i];
+                top[i] = top[i - 1];
+                top[i - 1] = swap;
+            }
+        }
+        return top;
+    }
+
+    private List<Map<String, Integer>> dominantArchetypes(int[] top) {
+        int[] rankOf = new int[regionCount];
+        Arrays.fill(rankOf, -1);
+        for (int rank = 0; rank < top.length; rank++) {
+            rankOf[top[rank]] = rank;
+        }
+
+        List<Map<String, Integer>> bySignature = new ArrayList<>();
+        for (int rank = 0; rank < top.length; rank++) {
+            bySignature.add(new HashMap<>());
+        }
+        for (int slot = 0; slot < regionArchetypes.capacity(); slot++) {
+            if (!regionArchetypes.isFilled(slot)) continue;
+            long pair = regionArchetypes.keyAt(slot);
+            int rank = rankOf[(int) (pair >>> 32)];
+            if (rank < 0) continue;
+            String signature = entityCollector.getArchetypeSignature((int) pair);
+            bySignature.get(rank).merge(signature, regionArchetypes.valueAt(slot), Integer::sum);
+        }
+
+        List<Map<String, Integer>> dominant = new ArrayList<>();
+        for (Map<String, Integer> counts : bySignature) {
+            Map<String, Integer> sorted = new LinkedHashMap<>();
+            counts.entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+                .limit(DOMINANT_ARCHETYPES)
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+            dominant.add(sorted);
+        }
+        return dominant;
+    }
+
+    private static long regionKey(int rx, int rz) {
+        return ((long) rx << 32) | (rz & 0xFFFFFFFFL);
+    }
+
+    private static int regionX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int regionZ(long key) {
+        return (int) key;
+    }
+}
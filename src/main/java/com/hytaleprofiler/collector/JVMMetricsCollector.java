@@ -1,29 +1,69 @@
 package com.hytaleprofiler.collector;
 
 import com.hytaleprofiler.data.JVMData;
+import com.hypixel.hytale.server.core.universe.world.World;
 
+import java.lang.management.CompilationMXBean;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryUsage;
 import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Collects JVM memory and garbage collection statistics.
+ * Collects JVM memory, garbage collection, JIT compilation and code cache
+ * statistics.
  */
-public class JVMMetricsCollector {
+public class JVMMetricsCollector implements Collector<JVMData> {
+
+    public static final long SNAPSHOT_INTERVAL_MS = 1000;
 
     private final MemoryMXBean memoryMXBean;
     private final ThreadMXBean threadMXBean;
     private final List<GarbageCollectorMXBean> gcBeans;
+    private final CompilationMXBean compilationMXBean;
+    private final List<MemoryPoolMXBean> codeCachePools = new ArrayList<>();
 
     public JVMMetricsCollector() {
         this.memoryMXBean = ManagementFactory.getMemoryMXBean();
         this.threadMXBean = ManagementFactory.getThreadMXBean();
         this.gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        this.compilationMXBean = compilation != null && compilation.isCompilationTimeMonitoringSupported()
+            ? compilation : null;
+
+        // "CodeHeap '...'" segments with a segmented code cache, "Code Cache" without
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getName().startsWith("CodeHeap") || pool.getName().equals("Code Cache")) {
+                codeCachePools.add(pool);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "jvm";
+    }
+
+    @Override
+    public long getIntervalMs() {
+        return SNAPSHOT_INTERVAL_MS;
+    }
+
+    @Override
+    public boolean isPerWorld() {
+        return false;
+    }
+
+    @Override
+    public JVMData collect(World world) {
+        return collect();
     }
 
     /**
@@ -64,9 +104,23 @@ public class JVMMetricsCollector {
             ));
         }
 
+        // JIT and code cache
+        long compileTimeMs = compilationMXBean != null ? compilationMXBean.getTotalCompilationTime() : -1;
+        long codeCacheUsed = 0;
+        long codeCacheMax = 0;
+        for (MemoryPoolMXBean pool : codeCachePools) {
+            MemoryUsage usage = pool.getUsage();
+            if (usage == null) continue;
+            codeCacheUsed += usage.getUsed();
+            if (usage.getMax() > 0) {
+                codeCacheMax += usage.getMax();
+            }
+        }
+
         return new JVMData(
             heapUsed, heapMax, nonHeapUsed, threadCount,
-            totalGcCount, totalGcTimeMs, gcByCollector
+            totalGcCount, totalGcTimeMs, Collections.unmodifiableMap(gcByCollector),
+            compileTimeMs, codeCacheUsed, codeCacheMax
         );
     }
 
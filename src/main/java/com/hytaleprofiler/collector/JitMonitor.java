@@ -0,0 +1,284 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.data.JVMData;
+import com.hytaleprofiler.data.JitData;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lines up JIT activity with tick time, one bucket per second: compile
+ * time from the {@link CompilationMXBean}, code cache occupancy from the
+ * JVM snapshots, and compilation, deoptimization and code-cache-full
+ * counts reported by the JFR stream when it runs.
+ *
+ * <p>The JIT is warming from JVM start, and again whenever compile time
+ * jumps after it settled (a plugin reload, a new code path), until compile
+ * time stays low for {@value #WARM_SECONDS} seconds. A second with at
+ * least {@value #DEOPT_STORM_PER_SECOND} deoptimizations is a deopt storm,
+ * typically a megamorphic call site in mod code being recompiled over and over.
+ *
+ * <p>JFR counts arrive when the stream flushes, about once a second, so
+ * they can land one bucket after the ticks they slowed.
+ */
+public class JitMonitor implements TickHookSystem.TickListener, Collector<JitData> {
+
+    public static final long SNAPSHOT_INTERVAL_MS = 1000;
+    public static final int HISTORY_SECONDS = 120;
+    public static final int DEOPT_STORM_PER_SECOND = 100;
+
+    // Warm once compile time stays under 2% of one core for this long
+    private static final double WARM_COMPILE_MS = 20;
+    private static final int WARM_SECONDS = 30;
+    // A warm JIT starts warming again above this compile time per second
+    private static final double REWARM_COMPILE_MS = 100;
+
+    private static final int MAX_STORMS = 10;
+    private static final int MAX_KEYS = 1024;
+    private static final int TOP_ENTRIES = 10;
+    private static final int MIN_CORRELATION_SECONDS = 10;
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final SnapshotBus.Topic<JVMData> jvmSnapshots;
+    private final CompilationMXBean compilationMXBean;
+    private final RuntimeMXBean runtimeMXBean = ManagementFactory.getRuntimeMXBean();
+
+    private volatile boolean jfrEvents;
+
+    // Current second, guarded by this
+    private long bucketStartNanos;
+    private double tickSumMs;
+    private double tickMaxMs;
+    private int ticks;
+    private int compilations;
+    private int deoptimizations;
+    private final Map<String, long[]> bucketDeoptMethods = new HashMap<>();
+    private long lastCompileMs = -1;
+
+    // Totals and history, guarded by this
+    private final ArrayDeque<JitData.Second> history = new ArrayDeque<>();
+    private final ArrayDeque<JitData.Storm> storms = new ArrayDeque<>();
+    private final Map<String, long[]> deoptMethods = new HashMap<>();
+    private final Map<String, long[]> deoptReasons = new HashMap<>();
+    private long totalCompilations;
+    private long totalDeoptimizations;
+    private long codeCacheFullEvents;
+
+    // Warm-up state, guarded by this; times are JVM uptime
+    private boolean warming = true;
+    private long warmingSinceMs;
+    private long warmUpMs;
+    private int quietSeconds;
+
+    public JitMonitor(SnapshotBus.Topic<JVMData> jvmSnapshots) {
+        this.jvmSnapshots = jvmSnapshots;
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        this.compilationMXBean = compilation != null && compilation.isCompilationTimeMonitoringSupported()
+            ? compilation : null;
+    }
+
+    /**
+     * Mark compilation and deoptimization counts as reported; called once the JFR stream feeds this monitor.
+     */
+    public void setJfrEvents(boolean jfrEvents) {
+        this.jfrEvents = jfrEvents;
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        double tickMs = sample.getTickLengthNanos() / NANOS_PER_MS;
+        synchronized (this) {
+            if (bucketStartNanos == 0) {
+                bucketStartNanos = tickNanos;
+                lastCompileMs = compileMs();
+            }
+            tickSumMs += tickMs;
+            tickMaxMs = Math.max(tickMaxMs, tickMs);
+            ticks++;
+            if (tickNanos - bucketStartNanos >= SNAPSHOT_INTERVAL_MS * 1_000_000L) {
+                closeSecond(tickNanos);
+            }
+        }
+    }
+
+    /**
+     * A finished JIT compilation, from the JFR stream.
+     */
+    public synchronized void recordCompilation() {
+        compilations++;
+        totalCompilations++;
+    }
+
+    /**
+     * A deoptimization, from the JFR stream.
+     */
+    public synchronized void recordDeoptimization(String method, String reason) {
+        deoptimizations++;
+        totalDeoptimizations++;
+        count(bucketDeoptMethods, method);
+        count(deoptMethods, method);
+        count(deoptReasons, reason);
+    }
+
+    /**
+     * The code cache filled up and the JIT stopped compiling, from the JFR stream.
+     */
+    public synchronized void recordCodeCacheFull() {
+        codeCacheFullEvents++;
+    }
+
+    /**
+     * Clear history, totals and storms. Warm-up state is kept.
+     */
+    public synchronized void reset() {
+        history.clear();
+        storms.clear();
+        deoptMethods.clear();
+        deoptReasons.clear();
+        totalCompilations = 0;
+        totalDeoptimizations = 0;
+        codeCacheFullEvents = 0;
+    }
+
+    @Override
+    public String getName() {
+        return "jit";
+    }
+
+    @Override
+    public long getIntervalMs() {
+        return SNAPSHOT_INTERVAL_MS;
+    }
+
+    @Override
+    public boolean isPerWorld() {
+        return false;
+    }
+
+    @Override
+    public JitData collect(World world) {
+        return collect();
+    }
+
+    public synchronized JitData collect() {
+        List<JitData.Second> seconds = new ArrayList<>(history);
+        long warmUp = warming ? runtimeMXBean.getUptime() - warmingSinceMs : warmUpMs;
+        return new JitData(jfrEvents, warming, warmUp, totalCompilations, totalDeoptimizations,
+            codeCacheFullEvents,
+            correlation(seconds, false), correlation(seconds, true),
+            seconds, new ArrayList<>(storms), top(deoptMethods), top(deoptReasons));
+    }
+
+    private void closeSecond(long nowNanos) {
+        long uptime = runtimeMXBean.getUptime();
+        long compileMs = compileMs();
+        long compiledMs = lastCompileMs >= 0 && compileMs >= 0 ? compileMs - lastCompileMs : 0;
+        lastCompileMs = compileMs;
+
+        JVMData jvm = jvmSnapshots.latest(null);
+        double avgTickMs = ticks > 0 ? tickSumMs / ticks : 0;
+        boolean counted = jfrEvents;
+        history.addLast(new JitData.Second(uptime, avgTickMs, tickMaxMs, compiledMs,
+            counted ? compilations : -1, counted ? deoptimizations : -1,
+            jvm != null ? jvm.getCodeCachePercentage() : 0));
+        if (history.size() > HISTORY_SECONDS) {
+            history.removeFirst();
+        }
+
+        if (deoptimizations >= DEOPT_STORM_PER_SECOND) {
+            List<JitData.Count> top = top(bucketDeoptMethods);
+            storms.addFirst(new JitData.Storm(uptime, deoptimizations, avgTickMs,
+                top.isEmpty() ? null : top.get(0).getName()));
+            if (storms.size() > MAX_STORMS) {
+                storms.removeLast();
+            }
+        }
+
+        updateWarmUp(uptime, compiledMs);
+
+        bucketStartNanos = nowNanos;
+        tickSumMs = 0;
+        tickMaxMs = 0;
+        ticks = 0;
+        compilations = 0;
+        deoptimizations = 0;
+        bucketDeoptMethods.clear();
+    }
+
+    private void updateWarmUp(long uptime, long compiledMs) {
+        if (warming) {
+            if (compiledMs < WARM_COMPILE_MS) {
+                quietSeconds++;
+                if (quietSeconds >= WARM_SECONDS) {
+                    warming = false;
+                    // Warm-up ended where the quiet run began
+                    warmUpMs = Math.max(0, uptime - quietSeconds * 1000L - warmingSinceMs);
+                }
+            } else {
+                quietSeconds = 0;
+            }
+        } else if (compiledMs >= REWARM_COMPILE_MS) {
+            warming = true;
+            warmingSinceMs = uptime - 1000;
+            quietSeconds = 0;
+        }
+    }
+
+    private long compileMs() {
+        return compilationMXBean != null ? compilationMXBean.getTotalCompilationTime() : -1;
+    }
+
+    private static void count(Map<String, long[]> table, String key) {
+        if (key == null) key = "(unknown)";
+        long[] entry = table.get(key);
+        if (entry == null) {
+            if (table.size() >= MAX_KEYS) return;
+            entry = new long[1];
+            table.put(key, entry);
+        }
+        entry[0]++;
+    }
+
+    private static List<JitData.Count> top(Map<String, long[]> table) {
+        List<Map.Entry<String, long[]>> sorted = new ArrayList<>(table.entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        List<JitData.Count> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(TOP_ENTRIES, sorted.size()); i++) {
+            result.add(new JitData.Count(sorted.get(i).getKey(), sorted.get(i).getValue()[0]));
+        }
+        return result;
+    }
+
+    /**
+     * Pearson correlation of compile time, or deoptimizations, with average tick length.
+     */
+    private static double correlation(List<JitData.Second> seconds, boolean deopts) {
+        int n = 0;
+        double sx = 0, sy = 0, sxx = 0, syy = 0, sxy = 0;
+        for (JitData.Second s : seconds) {
+            double x = deopts ? s.getDeoptimizations() : s.getCompileMs();
+            if (x < 0) continue;
+            double y = s.getAvgTickMs();
+            n++;
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            syy += y * y;
+            sxy += x * y;
+        }
+        if (n < MIN_CORRELATION_SECONDS) return Double.NaN;
+        double varX = n * sxx - sx * sx;
+        double varY = n * syy - sy * sy;
+        if (varX <= 0 || varY <= 0) return Double.NaN;
+        return (n * sxy - sx * sy) / Math.sqrt(varX * varY);
+    }
+}
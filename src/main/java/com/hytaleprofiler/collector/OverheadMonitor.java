@@ -0,0 +1,333 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.data.OverheadData;
+import com.hytaleprofiler.util.FormatUtil;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the profiler's own CPU time and allocation per collector, hook
+ * and exporter, and keeps tick-path overhead within a budget.
+ *
+ * <p>Once per second the CPU time of tick listeners and event hooks is
+ * compared with the tick time that elapsed in all worlds. Over budget, the
+ * most expensive of the event hooks and the sheddable listeners is throttled:
+ * event sampling rates are lowered, or the listener stops being called.
+ * Throttled components come back one at a time, most recent first, once the
+ * overhead has stayed low enough to take their last measured cost again, or
+ * after a long quiet spell to measure them afresh.
+ * Exporter threads are reported but not budgeted; they do not delay ticks.
+ */
+public class OverheadMonitor implements TickHookSystem.TickListener {
+
+    public enum Kind { CORE, SHEDDABLE, BACKGROUND }
+
+    public static final double DEFAULT_BUDGET_PERCENT = 0.5;
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    // Event sampling rates are lowered by these factors before giving up on hooks
+    private static final int[] SAMPLING_DIVISORS = {1, 4, 16};
+
+    // Quiet windows required before restoring, and the budget share a restore may fill
+    private static final int RESTORE_WINDOWS = 5;
+    private static final double RESTORE_HEADROOM = 0.8;
+
+    // A component's cost may have dropped since it was throttled; retry it after this many quiet windows
+    private static final int PROBE_WINDOWS = 60;
+
+    private static final ThreadMXBean CPU_BEAN;
+    private static final com.sun.management.ThreadMXBean ALLOC_BEAN;
+
+    static {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        boolean cpuTime = false;
+        try {
+            if (bean.isCurrentThreadCpuTimeSupported()) {
+                if (!bean.isThreadCpuTimeEnabled()) bean.setThreadCpuTimeEnabled(true);
+                cpuTime = true;
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            // Fall back to wall time
+        }
+        CPU_BEAN = cpuTime ? bean : null;
+        ALLOC_BEAN = bean instanceof com.sun.management.ThreadMXBean sunBean
+            && sunBean.isThreadAllocatedMemorySupported() ? sunBean : null;
+    }
+
+    /**
+     * CPU time of the calling thread, or wall time where the JVM cannot measure it.
+     */
+    public static long threadCpuNanos() {
+        return CPU_BEAN != null ? CPU_BEAN.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Bytes allocated by the calling thread so far, or 0 if unsupported.
+     */
+    public static long threadAllocatedBytes() {
+        return ALLOC_BEAN != null ? ALLOC_BEAN.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private final EventTimingCollector eventTimingCollector;
+    private final HytaleLogger logger;
+    private final List<Component> components = new CopyOnWriteArrayList<>();
+    private final Component eventHooks;
+
+    // Tick time elapsed in all worlds since the last evaluation
+    private final Map<Store<EntityStore>, long[]> lastTickNanos = new ConcurrentHashMap<>();
+    private final LongAdder tickTimeNanos = new LongAdder();
+
+    private volatile double budgetPercent = DEFAULT_BUDGET_PERCENT;
+    private volatile long windowStartNanos;
+
+    // Guarded by this
+    private final ArrayDeque<Throttle> throttles = new ArrayDeque<>();
+    private int samplingLevel;
+    private int quietWindows;
+    private double tickPathPercent;
+    private long tickPathNanosPerSecond;
+    private long backgroundNanosPerSecond;
+
+    public OverheadMonitor(EventTimingCollector eventTimingCollector, HytaleLogger logger) {
+        this.eventTimingCollector = eventTimingCollector;
+        this.logger = logger;
+        this.eventHooks = register("EventHooks", Kind.CORE);
+        eventTimingCollector.setOverhead(eventHooks);
+    }
+
+    /**
+     * Start accounting for a component. Names need not be unique.
+     */
+    public Component register(String name, Kind kind) {
+        Component component = new Component(name, kind);
+        components.add(component);
+        return component;
+    }
+
+    /**
+     * Stop accounting for a component, e.g. when its listener is removed.
+     */
+    public void unregister(Component component) {
+        components.remove(component);
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        long[] last = lastTickNanos.computeIfAbsent(store, s -> new long[1]);
+        if (last[0] != 0) {
+            tickTimeNanos.add(tickNanos - last[0]);
+        }
+        last[0] = tickNanos;
+
+        long start = windowStartNanos;
+        if (start == 0) {
+            windowStartNanos = tickNanos;
+        } else if (tickNanos - start >= WINDOW_NANOS) {
+            evaluate(tickNanos);
+        }
+    }
+
+    private synchronized void evaluate(long nowNanos) {
+        // Another world may have evaluated while this one waited for the lock
+        long elapsed = nowNanos - windowStartNanos;
+        if (elapsed < WINDOW_NANOS) return;
+        windowStartNanos = nowNanos;
+        double seconds = elapsed / 1e9;
+
+        long tickPath = 0;
+        long background = 0;
+        for (Component component : components) {
+            long cpu = component.cpuNanos.sum();
+            long alloc = component.allocBytes.sum();
+            long cpuDelta = cpu - component.windowCpuNanos;
+            component.cpuNanosPerSecond = Math.round(cpuDelta / seconds);
+            component.allocBytesPerSecond = Math.round((alloc - component.windowAllocBytes) / seconds);
+            component.windowCpuNanos = cpu;
+            component.windowAllocBytes = alloc;
+            if (component.kind == Kind.BACKGROUND) {
+                background += cpuDelta;
+            } else {
+                tickPath += cpuDelta;
+            }
+        }
+
+        long tickTime = tickTimeNanos.sumThenReset();
+        double overhead = tickTime > 0 ? (double) tickPath / tickTime : 0;
+        tickPathPercent = overhead * 100;
+        tickPathNanosPerSecond = Math.round(tickPath / seconds);
+        backgroundNanosPerSecond = Math.round(background / seconds);
+
+        double budget = budgetPercent / 100;
+        if (budget <= 0 || tickTime == 0) return;
+        double tickTimePerSecond = tickTime / seconds;
+
+        if (overhead > budget) {
+            quietWindows = 0;
+            throttleMostExpensive(overhead, budget);
+            return;
+        }
+
+        Throttle last = throttles.peek();
+        if (last == null) return;
+        quietWindows++;
+        double projected = overhead + last.costNanosPerSecond / tickTimePerSecond;
+        if (projected <= budget * RESTORE_HEADROOM && quietWindows >= RESTORE_WINDOWS) {
+            quietWindows = 0;
+            restore(throttles.pop());
+        } else if (quietWindows >= PROBE_WINDOWS) {
+            // Probe the oldest throttle so a re-throttled component does not block the rest
+            quietWindows = 0;
+            restore(throttles.pollLast());
+        }
+    }
+
+    private void throttleMostExpensive(double overhead, double budget) {
+        Component target = null;
+        if (samplingLevel < SAMPLING_DIVISORS.length - 1) {
+            target = eventHooks;
+        }
+        for (Component component : components) {
+            if (component.kind == Kind.SHEDDABLE && !component.shed
+                && (target == null || component.cpuNanosPerSecond > target.cpuNanosPerSecond)) {
+                target = component;
+            }
+        }
+        if (target == null || target.cpuNanosPerSecond == 0) return;
+
+        String reason = String.format("profiler overhead %s of tick time exceeds budget %s",
+            FormatUtil.formatPercent(overhead * 100), FormatUtil.formatPercent(budget * 100));
+        if (target == eventHooks) {
+            samplingLevel++;
+            eventTimingCollector.setSamplingDivisor(SAMPLING_DIVISORS[samplingLevel]);
+            // Restoring a level brings back roughly the share the lower rate saved
+            double saved = 1.0 - (double) SAMPLING_DIVISORS[samplingLevel - 1] / SAMPLING_DIVISORS[samplingLevel];
+            throttles.push(new Throttle(eventHooks, Math.round(eventHooks.cpuNanosPerSecond * saved)));
+            logger.atInfo().log(String.format("Lowering event sampling rates %dx: %s",
+                SAMPLING_DIVISORS[samplingLevel], reason));
+        } else {
+            target.shed = true;
+            throttles.push(new Throttle(target, target.cpuNanosPerSecond));
+            logger.atInfo().log(String.format("Pausing %s: %s", target.name, reason));
+        }
+    }
+
+    private void restore(Throttle throttle) {
+        if (throttle.component == eventHooks) {
+            samplingLevel--;
+            eventTimingCollector.setSamplingDivisor(SAMPLING_DIVISORS[samplingLevel]);
+            logger.atInfo().log(samplingLevel == 0 ? "Event sampling rates back to normal"
+                : String.format("Raising event sampling rates to 1/%d of normal", SAMPLING_DIVISORS[samplingLevel]));
+        } else {
+            throttle.component.shed = false;
+            logger.atInfo().log(String.format("Resuming %s", throttle.component.name));
+        }
+    }
+
+    /**
+     * Allowed tick-path overhead as a percentage of tick time. Zero or less
+     * turns throttling off and restores everything that was throttled.
+     */
+    public synchronized void setBudgetPercent(double percent) {
+        budgetPercent = Math.max(0, percent);
+        if (budgetPercent == 0) {
+            while (!throttles.isEmpty()) {
+                restore(throttles.pop());
+            }
+        }
+        quietWindows = 0;
+    }
+
+    public double getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    /**
+     * Cost of every component over the last window, plus totals since startup.
+     */
+    public synchronized OverheadData collect() {
+        List<OverheadData.Component> result = new ArrayList<>();
+        for (Component component : components) {
+            result.add(new OverheadData.Component(component.name, component.kind.name().toLowerCase(),
+                component.cpuNanosPerSecond / 1_000_000.0, component.allocBytesPerSecond,
+                component.cpuNanos.sum() / 1_000_000.0, component.allocBytes.sum(),
+                component.calls.sum(), component.shed));
+        }
+        result.sort(Comparator.comparingDouble(OverheadData.Component::getCpuMsPerSecond).reversed());
+        return new OverheadData(budgetPercent, tickPathPercent, tickPathNanosPerSecond / 1_000_000.0,
+            backgroundNanosPerSecond / 1_000_000.0, SAMPLING_DIVISORS[samplingLevel], result);
+    }
+
+    /**
+     * Accumulated cost of one collector, hook or exporter. Thread-safe.
+     */
+    public static final class Component {
+        private final String name;
+        private final Kind kind;
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocBytes = new LongAdder();
+        private final LongAdder calls = new LongAdder();
+        private volatile boolean shed;
+
+        // Guarded by the monitor
+        private long windowCpuNanos;
+        private long windowAllocBytes;
+        private volatile long cpuNanosPerSecond;
+        private volatile long allocBytesPerSecond;
+
+        private Component(String name, Kind kind) {
+            this.name = name;
+            this.kind = kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Add the cost of one call.
+         */
+        public void record(long cpuNanos, long allocBytes) {
+            this.cpuNanos.add(cpuNanos);
+            this.allocBytes.add(allocBytes);
+            calls.increment();
+        }
+
+        /**
+         * Add the cost since readings of {@link #threadCpuNanos()} and
+         * {@link #threadAllocatedBytes()} taken on the calling thread.
+         */
+        public void recordSince(long startCpuNanos, long startAllocBytes) {
+            record(threadCpuNanos() - startCpuNanos, threadAllocatedBytes() - startAllocBytes);
+        }
+
+        /**
+         * True while the overhead budget has switched this component off.
+         */
+        public boolean isShed() {
+            return shed;
+        }
+    }
+
+    private static final class Throttle {
+        final Component component;
+        final long costNanosPerSecond;
+
+        Throttle(Component component, long costNanosPerSecond) {
+            this.component = component;
+            this.costNanosPerSecond = costNanosPerSecond;
+        }
+    }
+}
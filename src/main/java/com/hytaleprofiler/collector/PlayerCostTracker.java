@@ -0,0 +1,141 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.data.PlayerCost;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attributes event handling time to the players who triggered it using a
+ * weighted Space-Saving sketch: a fixed number of slots, so memory does not
+ * grow with player count. When the sketch is full, a new player takes the
+ * cheapest slot and inherits its cost as error, which bounds how much any
+ * reported total can be overestimated. Every player whose true cost exceeds
+ * total/capacity is guaranteed to be tracked.
+ */
+public class PlayerCostTracker {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final String[] eventNames;
+    private final int capacity;
+
+    private final String[] players;
+    private final long[] nanos;
+    private final long[] errorNanos;
+    private final long[] calls;
+    private final long[] firstSeenNanos;
+    // Per slot and event type: nanos spent, for the dominant event
+    private final long[][] eventNanos;
+    private final Map<String, Integer> slotByPlayer;
+    private int used;
+    private long totalNanos;
+    private long totalCalls;
+
+    public PlayerCostTracker(String[] eventNames, int capacity) {
+        this.eventNames = eventNames;
+        this.capacity = capacity;
+        this.players = new String[capacity];
+        this.nanos = new long[capacity];
+        this.errorNanos = new long[capacity];
+        this.calls = new long[capacity];
+        this.firstSeenNanos = new long[capacity];
+        this.eventNanos = new long[capacity][eventNames.length];
+        this.slotByPlayer = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Attribute handled events to a player. With event sampling one timed
+     * event stands for {@code calls} events and {@code durationNanos} is
+     * already scaled to match.
+     */
+    public synchronized void record(String player, int eventIndex, long durationNanos, int calls) {
+        totalNanos += durationNanos;
+        totalCalls += calls;
+
+        Integer existing = slotByPlayer.get(player);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+        } else if (used < capacity) {
+            slot = used++;
+            claim(slot, player, 0);
+        } else {
+            slot = cheapestSlot();
+            slotByPlayer.remove(players[slot]);
+            claim(slot, player, nanos[slot]);
+        }
+
+        nanos[slot] += durationNanos;
+        this.calls[slot] += calls;
+        eventNanos[slot][eventIndex] += durationNanos;
+    }
+
+    /**
+     * Tracked players, most expensive first.
+     */
+    public synchronized List<PlayerCost> getTopPlayers(int limit) {
+        long now = System.nanoTime();
+        Integer[] order = new Integer[used];
+        for (int i = 0; i < used; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(nanos[b], nanos[a]));
+
+        List<PlayerCost> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, used); i++) {
+            int slot = order[i];
+            int topEvent = 0;
+            for (int e = 1; e < eventNames.length; e++) {
+                if (eventNanos[slot][e] > eventNanos[slot][topEvent]) topEvent = e;
+            }
+            double seconds = Math.max(1.0, (now - firstSeenNanos[slot]) / 1e9);
+            result.add(new PlayerCost(players[slot], nanos[slot], errorNanos[slot], calls[slot],
+                calls[slot] / seconds, eventNames[topEvent]));
+        }
+        return result;
+    }
+
+    public synchronized long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public synchronized long getTotalCalls() {
+        return totalCalls;
+    }
+
+    public synchronized int getTrackedPlayers() {
+        return used;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized void reset() {
+        slotByPlayer.clear();
+        Arrays.fill(players, null);
+        used = 0;
+        totalNanos = 0;
+        totalCalls = 0;
+    }
+
+    private void claim(int slot, String player, long inheritedNanos) {
+        players[slot] = player;
+        slotByPlayer.put(player, slot);
+        nanos[slot] = inheritedNanos;
+        errorNanos[slot] = inheritedNanos;
+        calls[slot] = 0;
+        firstSeenNanos[slot] = System.nanoTime();
+        Arrays.fill(eventNanos[slot], 0);
+    }
+
+    private int cheapestSlot() {
+        int cheapest = 0;
+        for (int i = 1; i < used; i++) {
+            if (nanos[i] < nanos[cheapest]) cheapest = i;
+        }
+        return cheapest;
+    }
+}
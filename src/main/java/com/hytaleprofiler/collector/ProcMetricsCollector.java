@@ -0,0 +1,474 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.data.ProcData;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects process and host metrics from Linux /proc, where lag from
+ * outside the JVM shows up: CPU steal, resident memory beyond the heap,
+ * page faults, context switches, disk I/O and per-thread CPU.
+ *
+ * <p>Reads /proc/self/stat, status and io, /proc/self/task/{tid}/stat
+ * for every thread, /proc/stat and /proc/loadavg. Files stay open and
+ * are re-read from offset 0 into one reusable buffer, which is parsed in
+ * place without regex, splitting or strings, so a collection costs a
+ * few syscalls per file. The clock tick rate /proc times are counted in
+ * is measured once, when the class loads. Not thread-safe beyond
+ * {@link #collect()}.
+ */
+public class ProcMetricsCollector implements Collector<ProcData> {
+
+    public static final long SNAPSHOT_INTERVAL_MS = 1000;
+
+    // Clock ticks per second the kernel reports /proc times in, when it cannot be measured
+    private static final int DEFAULT_USER_HZ = 100;
+    private static final int[] KNOWN_USER_HZ = {100, 250, 300, 1000, 1024};
+    private static final int USER_HZ = measureUserHz();
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_THREADS = 1024;
+    private static final int TOP_THREADS = 10;
+
+    private static final byte[] VM_RSS = ascii("VmRSS:");
+    private static final byte[] RSS_ANON = ascii("RssAnon:");
+    private static final byte[] RSS_FILE = ascii("RssFile:");
+    private static final byte[] VM_SWAP = ascii("VmSwap:");
+    private static final byte[] VOLUNTARY_SWITCHES = ascii("voluntary_ctxt_switches:");
+    private static final byte[] INVOLUNTARY_SWITCHES = ascii("nonvoluntary_ctxt_switches:");
+    private static final byte[] RCHAR = ascii("rchar:");
+    private static final byte[] WCHAR = ascii("wchar:");
+    private static final byte[] READ_BYTES = ascii("read_bytes:");
+    private static final byte[] WRITE_BYTES = ascii("write_bytes:");
+    private static final byte[] CPU = ascii("cpu ");
+
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final int cpus = Runtime.getRuntime().availableProcessors();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int length;
+    private int pos;
+
+    private final ProcFile stat = ProcFile.open("/proc/self/stat");
+    private final ProcFile status = ProcFile.open("/proc/self/status");
+    private final ProcFile io = ProcFile.open("/proc/self/io");
+    private final ProcFile hostStat = ProcFile.open("/proc/stat");
+    private final ProcFile loadavg = ProcFile.open("/proc/loadavg");
+    private final Map<Integer, Task> tasks = new HashMap<>();
+
+    // Counters from the previous collection
+    private long lastNanos;
+    private final long[] last = new long[Counter.values().length];
+
+    private enum Counter {
+        CPU_TICKS, MINOR_FAULTS, MAJOR_FAULTS, VOLUNTARY, INVOLUNTARY,
+        DISK_READ, DISK_WRITE, IO_READ, IO_WRITE, HOST_TOTAL, HOST_STEAL, HOST_IOWAIT
+    }
+
+    /**
+     * Clock ticks per second of /proc times: all CPU time in /proc/stat
+     * divided by /proc/uptime and the CPU count, snapped to the nearest
+     * known USER_HZ. Falls back to {@value #DEFAULT_USER_HZ}.
+     */
+    static int measureUserHz() {
+        try {
+            List<String> lines = Files.readAllLines(Path.of("/proc/stat"), StandardCharsets.US_ASCII);
+            long total = 0;
+            int cpuLines = 0;
+            for (String line : lines) {
+                if (line.startsWith("cpu ")) {
+                    // user nice system idle iowait irq softirq steal
+                    String[] fields = line.trim().split("\\s+");
+                    for (int i = 1; i <= 8 && i < fields.length; i++) {
+                        total += Long.parseLong(fields[i]);
+                    }
+                } else if (line.startsWith("cpu")) {
+                    cpuLines++;
+                }
+            }
+            String uptime = Files.readString(Path.of("/proc/uptime"), StandardCharsets.US_ASCII).trim();
+            double seconds = Double.parseDouble(uptime.substring(0, uptime.indexOf(' ')));
+            if (total <= 0 || cpuLines == 0 || seconds <= 0) return DEFAULT_USER_HZ;
+
+            double measured = total / seconds / cpuLines;
+            int best = DEFAULT_USER_HZ;
+            for (int hz : KNOWN_USER_HZ) {
+                if (Math.abs(Math.log(measured / hz)) < Math.abs(Math.log(measured / best))) best = hz;
+            }
+            // Offline CPUs and hotplug skew the totals; trust only a close match
+            return Math.abs(measured / best - 1) < 0.2 ? best : DEFAULT_USER_HZ;
+        } catch (IOException | RuntimeException e) {
+            return DEFAULT_USER_HZ;
+        }
+    }
+
+    /**
+     * True if this is Linux with a readable /proc.
+     */
+    public static boolean isSupported() {
+        return Files.isReadable(Path.of("/proc/self/stat"));
+    }
+
+    @Override
+    public String getName() {
+        return "proc";
+    }
+
+    @Override
+    public long getIntervalMs() {
+        return SNAPSHOT_INTERVAL_MS;
+    }
+
+    @Override
+    public boolean isPerWorld() {
+        return false;
+    }
+
+    @Override
+    public ProcData collect(World world) {
+        return collect();
+    }
+
+    /**
+     * Collect current metrics, with rates since the previous call.
+     */
+    public synchronized ProcData collect() {
+        long now = System.nanoTime();
+        boolean first = lastNanos == 0;
+        double seconds = first ? 0 : (now - lastNanos) / 1_000_000_000.0;
+        long[] current = new long[last.length];
+
+        int threads = 0;
+        if (read(stat)) {
+            skipPastLast((byte) ')');
+            skipFields(7);
+            current[Counter.MINOR_FAULTS.ordinal()] = nextLong();
+            skipFields(1);
+            current[Counter.MAJOR_FAULTS.ordinal()] = nextLong();
+            skipFields(1);
+            current[Counter.CPU_TICKS.ordinal()] = nextLong() + nextLong();
+            skipFields(4);
+            threads = (int) nextLong();
+        }
+
+        long rss = 0, rssAnon = 0, rssFile = 0, swap = 0;
+        if (read(status)) {
+            rss = kiloField(VM_RSS);
+            rssAnon = kiloField(RSS_ANON);
+            rssFile = kiloField(RSS_FILE);
+            swap = kiloField(VM_SWAP);
+            current[Counter.VOLUNTARY.ordinal()] = field(VOLUNTARY_SWITCHES);
+            current[Counter.INVOLUNTARY.ordinal()] = field(INVOLUNTARY_SWITCHES);
+        }
+
+        if (read(io)) {
+            current[Counter.IO_READ.ordinal()] = field(RCHAR);
+            current[Counter.IO_WRITE.ordinal()] = field(WCHAR);
+            current[Counter.DISK_READ.ordinal()] = field(READ_BYTES);
+            current[Counter.DISK_WRITE.ordinal()] = field(WRITE_BYTES);
+        }
+
+        boolean host = read(hostStat) && seek(CPU);
+        if (host) {
+            // user nice system idle iowait irq softirq steal; guest time is already in user
+            long total = 0;
+            for (int i = 0; i < 8; i++) {
+                long value = nextLong();
+                total += value;
+                if (i == 4) current[Counter.HOST_IOWAIT.ordinal()] = value;
+                if (i == 7) current[Counter.HOST_STEAL.ordinal()] = value;
+            }
+            current[Counter.HOST_TOTAL.ordinal()] = total;
+        }
+
+        double load1 = -1, load5 = -1, load15 = -1;
+        if (read(loadavg)) {
+            load1 = nextDecimal();
+            load5 = nextDecimal();
+            load15 = nextDecimal();
+        }
+
+        List<ProcData.ThreadCpu> topThreads = collectThreads(seconds);
+
+        double hostTicks = current[Counter.HOST_TOTAL.ordinal()] - last[Counter.HOST_TOTAL.ordinal()];
+        double steal = -1, iowait = -1;
+        if (host && !first && hostTicks > 0) {
+            steal = delta(current, Counter.HOST_STEAL) * 100.0 / hostTicks;
+            iowait = delta(current, Counter.HOST_IOWAIT) * 100.0 / hostTicks;
+        }
+
+        ProcData data = new ProcData(first ? 0 : (now - lastNanos) / 1_000_000,
+            rate(current, Counter.CPU_TICKS, seconds) * 100.0 / USER_HZ, steal, iowait,
+            rss, rssAnon, rssFile, swap, memoryMXBean.getHeapMemoryUsage().getCommitted(),
+            rate(current, Counter.MINOR_FAULTS, seconds), rate(current, Counter.MAJOR_FAULTS, seconds),
+            rate(current, Counter.VOLUNTARY, seconds), rate(current, Counter.INVOLUNTARY, seconds),
+            rate(current, Counter.DISK_READ, seconds), rate(current, Counter.DISK_WRITE, seconds),
+            rate(current, Counter.IO_READ, seconds), rate(current, Counter.IO_WRITE, seconds),
+            load1, load5, load15, cpus, threads, topThreads);
+
+        System.arraycopy(current, 0, last, 0, last.length);
+        lastNanos = now;
+        return data;
+    }
+
+    /**
+     * Close all open /proc files.
+     */
+    public synchronized void close() {
+        for (ProcFile file : new ProcFile[] {stat, status, io, hostStat, loadavg}) {
+            if (file != null) file.close();
+        }
+        for (Task task : tasks.values()) {
+            task.file.close();
+        }
+        tasks.clear();
+    }
+
+    private List<ProcData.ThreadCpu> collectThreads(double seconds) {
+        String[] tids = new File("/proc/self/task").list();
+        if (tids == null) return List.of();
+
+        for (Task task : tasks.values()) {
+            task.seen = false;
+        }
+        List<ProcData.ThreadCpu> busy = new ArrayList<>();
+        for (String name : tids) {
+            int tid;
+            try {
+                tid = Integer.parseInt(name);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            Task task = tasks.get(tid);
+            if (task == null) {
+                if (tasks.size() >= MAX_THREADS) continue;
+                ProcFile file = ProcFile.open("/proc/self/task/" + name + "/stat");
+                if (file == null) continue;
+                task = new Task(file);
+                tasks.put(tid, task);
+            }
+            if (!read(task.file)) continue;
+            task.seen = true;
+
+            if (task.name == null) {
+                int open = indexOf((byte) '(');
+                int close = lastIndexOf((byte) ')');
+                task.name = open >= 0 && close > open
+                    ? new String(buffer, open + 1, close - open - 1, StandardCharsets.UTF_8) : name;
+            }
+            skipPastLast((byte) ')');
+            skipFields(9);
+            long majorFaults = nextLong();
+            skipFields(1);
+            long cpuTicks = nextLong() + nextLong();
+
+            if (task.lastCpuTicks >= 0 && seconds > 0) {
+                double cpu = (cpuTicks - task.lastCpuTicks) * 100.0 / USER_HZ / seconds;
+                double faults = (majorFaults - task.lastMajorFaults) / seconds;
+                if (cpu > 0 || faults > 0) {
+                    busy.add(new ProcData.ThreadCpu(tid, task.name, cpu, faults));
+                }
+            }
+            task.lastCpuTicks = cpuTicks;
+            task.lastMajorFaults = majorFaults;
+        }
+
+        // Threads that exited since the last collection
+        Iterator<Task> it = tasks.values().iterator();
+        while (it.hasNext()) {
+            Task task = it.next();
+            if (!task.seen) {
+                task.file.close();
+                it.remove();
+            }
+        }
+
+        busy.sort((a, b) -> Double.compare(b.getCpuPercent(), a.getCpuPercent()));
+        return busy.size() > TOP_THREADS ? List.copyOf(busy.subList(0, TOP_THREADS)) : busy;
+    }
+
+    private double rate(long[] current, Counter counter, double seconds) {
+        return seconds > 0 ? delta(current, counter) / seconds : 0;
+    }
+
+    private long delta(long[] current, Counter counter) {
+        return Math.max(0, current[counter.ordinal()] - last[counter.ordinal()]);
+    }
+
+    // --- In-place parsing of the buffer ---
+
+    private boolean read(ProcFile file) {
+        if (file == null) return false;
+        try {
+            length = file.read(buffer);
+            pos = 0;
+            return length > 0;
+        } catch (IOException e) {
+            length = 0;
+            return false;
+        }
+    }
+
+    /**
+     * Move to the first field after {@code key} at the start of a line.
+     * Returns false, leaving the position alone, if no line starts with it.
+     */
+    private boolean seek(byte[] key) {
+        for (int i = 0; i + key.length <= length; i++) {
+            if ((i == 0 || buffer[i - 1] == '\n') && startsWith(i, key)) {
+                pos = i + key.length;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long field(byte[] key) {
+        return seek(key) ? nextLong() : 0;
+    }
+
+    private long kiloField(byte[] key) {
+        return field(key) * 1024;
+    }
+
+    private boolean startsWith(int at, byte[] key) {
+        for (int j = 0; j < key.length; j++) {
+            if (buffer[at + j] != key[j]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parse the next unsigned integer, skipping separators before it.
+     */
+    private long nextLong() {
+        while (pos < length && (buffer[pos] < '0' || buffer[pos] > '9')) {
+            if (buffer[pos] == '\n') return 0;
+            pos++;
+        }
+        long value = 0;
+        while (pos < length && buffer[pos] >= '0' && buffer[pos] <= '9') {
+            value = value * 10 + (buffer[pos++] - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Parse the next decimal such as {@code 0.42}.
+     */
+    private double nextDecimal() {
+        double value = nextLong();
+        if (pos < length && buffer[pos] == '.') {
+            pos++;
+            double scale = 0.1;
+            while (pos < length && buffer[pos] >= '0' && buffer[pos] <= '9') {
+                value += (buffer[pos++] - '0') * scale;
+                scale /= 10;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Skip {@code count} space-separated fields.
+     */
+    private void skipFields(int count) {
+        for (int i = 0; i < count; i++) {
+            while (pos < length && buffer[pos] == ' ') pos++;
+            while (pos < length && buffer[pos] != ' ' && buffer[pos] != '\n') pos++;
+        }
+    }
+
+    /**
+     * Move past the last occurrence of {@code b}; for stat files, whose
+     * second field is a thread name in parentheses that may hold spaces.
+     */
+    private void skipPastLast(byte b) {
+        int index = lastIndexOf(b);
+        pos = index >= 0 ? index + 1 : 0;
+    }
+
+    private int indexOf(byte b) {
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] == b) return i;
+        }
+        return -1;
+    }
+
+    private int lastIndexOf(byte b) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer[i] == b) return i;
+        }
+        return -1;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A /proc file kept open; each read regenerates its contents.
+     */
+    private static final class ProcFile {
+        private final RandomAccessFile file;
+
+        private ProcFile(RandomAccessFile file) {
+            this.file = file;
+        }
+
+        /**
+         * Null if the file does not exist or may not be read.
+         */
+        static ProcFile open(String path) {
+            try {
+                return new ProcFile(new RandomAccessFile(path, "r"));
+            } catch (IOException | SecurityException e) {
+                return null;
+            }
+        }
+
+        int read(byte[] buffer) throws IOException {
+            file.seek(0);
+            int total = 0;
+            int n;
+            while (total < buffer.length && (n = file.read(buffer, total, buffer.length - total)) > 0) {
+                total += n;
+            }
+            return total;
+        }
+
+        void close() {
+            try {
+                file.close();
+            } catch (IOException e) {
+                // Nothing to recover
+            }
+        }
+    }
+
+    /**
+     * A thread's stat file and its counters at the previous collection.
+     */
+    private static final class Task {
+        final ProcFile file;
+        String name;
+        long lastCpuTicks = -1;
+        long lastMajorFaults;
+        boolean seen;
+
+        Task(ProcFile file) {
+            this.file = file;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.data.RegressionAlert;
+import com.hytaleprofiler.util.FormatUtil;
+import com.hytaleprofiler.util.PageHinkley;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watches every system's and mod's cost for sustained increases, such as
+ * after a mod update or a config change, and raises an alert naming the
+ * series, the owning mod, the size of the jump and when it began.
+ *
+ * <p>System time is summed every tick and rolled up into a mean per tick
+ * every {@value #ROLLUP_MS}ms. Each rollup feeds a {@link PageHinkley}
+ * detector per system and per mod, so memory is constant per series.
+ */
+public class RegressionDetector implements TickHookSystem.TickListener {
+
+    public static final long ROLLUP_MS = 1000;
+
+    // Detector settings, in rollups
+    private static final int WARMUP_ROLLUPS = 60;
+    private static final int BASELINE_ROLLUPS = 600;
+    private static final int SUSTAINED_ROLLUPS = 30;
+    private static final double RELATIVE_DELTA = 0.1;
+    private static final double MIN_DELTA_MS = 0.01;
+    private static final double LAMBDA_FACTOR = 50;
+
+    // Changes smaller than this are rebased silently
+    private static final double MIN_MAGNITUDE_MS = 0.05;
+
+    private static final int MAX_ALERTS = 50;
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final SystemMetricsCollector systemMetricsCollector;
+    private final HytaleLogger logger;
+    private final Map<Store<EntityStore>, StoreDetectors> stores = new ConcurrentHashMap<>();
+    private final ArrayDeque<RegressionAlert> alerts = new ArrayDeque<>();
+
+    public RegressionDetector(SystemMetricsCollector systemMetricsCollector, HytaleLogger logger) {
+        this.systemMetricsCollector = systemMetricsCollector;
+        this.logger = logger;
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        stores.computeIfAbsent(store, s -> new StoreDetectors()).tick(store, tickNanos, sample);
+    }
+
+    /**
+     * Alerts raised so far, newest first.
+     */
+    public synchronized List<RegressionAlert> getAlerts() {
+        List<RegressionAlert> result = new ArrayList<>(alerts);
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Alerts detected within the last {@code maxAgeMs}, newest first.
+     */
+    public List<RegressionAlert> getRecentAlerts(long maxAgeMs) {
+        long cutoff = System.currentTimeMillis() - maxAgeMs;
+        return getAlerts().stream().filter(a -> a.getDetectedAtMillis() >= cutoff).toList();
+    }
+
+    public synchronized void clearAlerts() {
+        alerts.clear();
+    }
+
+    private synchronized void raise(RegressionAlert alert) {
+        if (alerts.size() == MAX_ALERTS) alerts.removeFirst();
+        alerts.addLast(alert);
+
+        String owner = alert.getKind() == RegressionAlert.Kind.SYSTEM ? " (" + alert.getModName() + ")" : "";
+        logger.atWarning().log(String.format(
+            "Cost regression in %s %s%s on %s: %s -> %s per tick (+%s), started %ds ago",
+            alert.getKind() == RegressionAlert.Kind.SYSTEM ? "system" : "mod",
+            alert.getName(), owner, alert.getWorldName(),
+            FormatUtil.formatMs(alert.getBaselineMs()), FormatUtil.formatMs(alert.getCurrentMs()),
+            FormatUtil.formatMs(alert.getMagnitudeMs()),
+            (alert.getDetectedAtMillis() - alert.getStartedAtMillis()) / 1000));
+    }
+
+    private static PageHinkley newDetector() {
+        return new PageHinkley(WARMUP_ROLLUPS, BASELINE_ROLLUPS, RELATIVE_DELTA,
+            MIN_DELTA_MS, LAMBDA_FACTOR, SUSTAINED_ROLLUPS);
+    }
+
+    /**
+     * Per-store accumulators and detectors, indexed like the store's system metrics.
+     * Only touched on the world thread.
+     */
+    private class StoreDetectors {
+        private long[] tickSums = new long[0];
+        private int ticks;
+        private long rollupStartNanos;
+
+        private String[] systemNames = new String[0];
+        private String[] modOfSystem = new String[0];
+        private int[] modIndexOfSystem = new int[0];
+        private PageHinkley[] systemDetectors = new PageHinkley[0];
+
+        private String[] modNames = new String[0];
+        private double[] modRollup = new double[0];
+        private PageHinkley[] modDetectors = new PageHinkley[0];
+
+        void tick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+            int count = sample.getSystemCount();
+            if (count == 0) return;
+            if (count != tickSums.length) {
+                resize(store, count);
+            }
+
+            for (int i = 0; i < count; i++) {
+                tickSums[i] += sample.getSystemNanos(i);
+            }
+            ticks++;
+
+            if (rollupStartNanos == 0) {
+                rollupStartNanos = tickNanos;
+            } else if (tickNanos - rollupStartNanos >= ROLLUP_MS * 1_000_000L) {
+                rollup(store);
+                rollupStartNanos = tickNanos;
+            }
+        }
+
+        private void rollup(Store<EntityStore> store) {
+            long now = System.currentTimeMillis();
+            String worldName = store.getExternalData().getWorld().getName();
+
+            Arrays.fill(modRollup, 0);
+            for (int i = 0; i < tickSums.length; i++) {
+                double ms = tickSums[i] / NANOS_PER_MS / ticks;
+                tickSums[i] = 0;
+                modRollup[modIndexOfSystem[i]] += ms;
+
+                PageHinkley detector = systemDetectors[i];
+                if (detector.update(ms)) {
+                    check(detector, RegressionAlert.Kind.SYSTEM, systemNames[i], modOfSystem[i], worldName, now);
+                }
+            }
+            ticks = 0;
+
+            for (int m = 0; m < modDetectors.length; m++) {
+                PageHinkley detector = modDetectors[m];
+                if (detector.update(modRollup[m])) {
+                    check(detector, RegressionAlert.Kind.MOD, modNames[m], modNames[m], worldName, now);
+                }
+            }
+        }
+
+        private void check(PageHinkley detector, RegressionAlert.Kind kind, String name,
+                           String modName, String worldName, long now) {
+            double baseline = detector.getBaseline();
+            double current = detector.getLevelSinceOnset();
+            if (current - baseline >= MIN_MAGNITUDE_MS) {
+                long startedAt = now - detector.getSamplesSinceOnset() * ROLLUP_MS;
+                raise(new RegressionAlert(kind, name, modName, worldName, baseline, current, startedAt, now));
+            }
+            detector.rebase();
+        }
+
+        /**
+         * Systems were registered or removed: rebuild names and mod grouping.
+         * Detectors keep their state only where the same system is still at
+         * the same index; mod membership may have changed, so mods restart.
+         */
+        private void resize(Store<EntityStore> store, int count) {
+            String[] classNames = systemMetricsCollector.getSystemNames(store);
+            String[] oldNames = systemNames;
+            PageHinkley[] oldDetectors = systemDetectors;
+            tickSums = new long[count];
+            ticks = 0;
+            rollupStartNanos = 0;
+
+            systemNames = new String[count];
+            modOfSystem = new String[count];
+            modIndexOfSystem = new int[count];
+            systemDetectors = new PageHinkley[count];
+
+            Map<String, Integer> modIndex = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String className = classNames != null && i < classNames.length && classNames[i] != null
+                    ? classNames[i] : "System_" + i;
+                systemNames[i] = FormatUtil.simpleClassName(className);
+                modOfSystem[i] = FormatUtil.extractModName(className);
+                modIndexOfSystem[i] = modIndex.computeIfAbsent(modOfSystem[i], k -> modIndex.size());
+                systemDetectors[i] = i < oldNames.length && oldNames[i].equals(systemNames[i])
+                    ? oldDetectors[i] : newDetector();
+            }
+
+            modNames = new String[modIndex.size()];
+            modDetectors = new PageHinkley[modIndex.size()];
+            for (Map.Entry<String, Integer> entry : modIndex.entrySet()) {
+                modNames[entry.getValue()] = entry.getKey();
+                modDetectors[entry.getValue()] = newDetector();
+            }
+            modRollup = new double[modNames.length];
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.data.SafepointData;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the safepoints reported by the JFR stream and charges each pause
+ * to the world ticks it overlapped. Every safepoint stops all Java threads,
+ * so a pause lands in every world that was ticking at the time.
+ *
+ * <p>A world's tick is the span between two tick hook calls. Safepoints
+ * arrive when the stream flushes, about once a second, and are matched
+ * against the last {@value #TICK_HISTORY} tick boundaries of each world.
+ * A world that has not ticked for a minute has been unloaded, or is stuck
+ * and gets a fresh ring when it ticks again, so its ring is dropped.
+ *
+ * <p>Safepoints requested from a profiler thread, such as startup stack
+ * sampling with thread dumps, are counted as caused by the profiler;
+ * those requested from a JFR thread are counted separately, since they
+ * may come from the profiler's own stream or from another recording.
+ */
+public class SafepointTracker implements TickHookSystem.TickListener, Collector<SafepointData> {
+
+    public static final long SNAPSHOT_INTERVAL_MS = 1000;
+
+    private static final String PROFILER_THREAD_PREFIX = "HytaleProfiler";
+    private static final String JFR_THREAD_PREFIX = "JFR";
+    private static final String UNKNOWN = "(unknown)";
+
+    private static final int TICK_HISTORY = 512;
+    private static final long WINDOW_NANOS = 60_000_000_000L;
+    private static final long CALIBRATE_INTERVAL_NANOS = 60_000_000_000L;
+    private static final int MAX_OPERATIONS = 256;
+    private static final int TOP_OPERATIONS = 10;
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    // Tick boundaries per world; each ring is written by its world thread
+    private final Map<String, TickRing> rings = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final ArrayDeque<Pause> lastMinute = new ArrayDeque<>();
+    private final Map<String, ArrayDeque<long[]>> worldHits = new HashMap<>();
+    private final Map<String, long[]> operations = new HashMap<>();
+    private final Totals total = new Totals();
+    // nanoTime minus wall clock, to place JFR timestamps among tick times
+    private long epochOffsetNanos;
+    private long calibratedNanos;
+    private boolean calibrated;
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        String world = store.getExternalData().getWorld().getName();
+        rings.computeIfAbsent(world, k -> new TickRing()).add(tickNanos);
+    }
+
+    /**
+     * One safepoint from the JFR stream: when it began, how long all
+     * threads were stopped, how long it took them to stop, the VM operation
+     * that needed it and the name of the thread that requested it.
+     */
+    public synchronized void recordSafepoint(Instant start, long pauseNanos, long timeToSafepointNanos,
+                                             String operation, String caller) {
+        long now = System.nanoTime();
+        if (!calibrated || now - calibratedNanos >= CALIBRATE_INTERVAL_NANOS) {
+            epochOffsetNanos = now - epochNanos(Instant.now());
+            calibratedNanos = now;
+            calibrated = true;
+        }
+        long startNanos = epochNanos(start) + epochOffsetNanos;
+        long endNanos = startNanos + pauseNanos;
+
+        if (operation == null) operation = UNKNOWN;
+        Pause pause = new Pause(endNanos, pauseNanos, timeToSafepointNanos, isGc(operation),
+            caller != null && caller.startsWith(PROFILER_THREAD_PREFIX),
+            caller != null && caller.startsWith(JFR_THREAD_PREFIX));
+        lastMinute.addLast(pause);
+        total.add(pause);
+
+        long[] op = operations.get(operation);
+        if (op == null && operations.size() < MAX_OPERATIONS) {
+            op = new long[3];
+            operations.put(operation, op);
+        }
+        if (op != null) {
+            op[0]++;
+            op[1] += pauseNanos;
+            op[2] = Math.max(op[2], pauseNanos);
+        }
+
+        for (Map.Entry<String, TickRing> entry : rings.entrySet()) {
+            entry.getValue().attribute(startNanos, endNanos,
+                worldHits.computeIfAbsent(entry.getKey(), k -> new ArrayDeque<>()));
+        }
+        prune(now);
+    }
+
+    /**
+     * Clear totals, per-operation counts and the last minute.
+     */
+    public synchronized void reset() {
+        lastMinute.clear();
+        worldHits.clear();
+        operations.clear();
+        total.clear();
+    }
+
+    @Override
+    public String getName() {
+        return "safepoints";
+    }
+
+    @Override
+    public long getIntervalMs() {
+        return SNAPSHOT_INTERVAL_MS;
+    }
+
+    @Override
+    public boolean isPerWorld() {
+        return false;
+    }
+
+    @Override
+    public SafepointData collect(World world) {
+        return collect();
+    }
+
+    public synchronized SafepointData collect() {
+        prune(System.nanoTime());
+
+        Totals minute = new Totals();
+        for (Pause pause : lastMinute) {
+            minute.add(pause);
+        }
+
+        List<Map.Entry<String, long[]>> sorted = new ArrayList<>(operations.entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+        List<SafepointData.Operation> ops = new ArrayList<>();
+        for (int i = 0; i < Math.min(TOP_OPERATIONS, sorted.size()); i++) {
+            long[] op = sorted.get(i).getValue();
+            ops.add(new SafepointData.Operation(sorted.get(i).getKey(), op[0],
+                op[1] / NANOS_PER_MS, op[2] / NANOS_PER_MS));
+        }
+
+        List<SafepointData.WorldImpact> worlds = new ArrayList<>();
+        for (Map.Entry<String, ArrayDeque<long[]>> entry : worldHits.entrySet()) {
+            ArrayDeque<long[]> hits = entry.getValue();
+            if (hits.isEmpty()) continue;
+            long sum = 0;
+            long worst = 0;
+            for (long[] hit : hits) {
+                sum += hit[1];
+                worst = Math.max(worst, hit[1]);
+            }
+            worlds.add(new SafepointData.WorldImpact(entry.getKey(), hits.size(),
+                sum / NANOS_PER_MS, worst / NANOS_PER_MS));
+        }
+        worlds.sort((a, b) -> Double.compare(b.getPauseMs(), a.getPauseMs()));
+
+        return new SafepointData(minute.toWindow(), total.toWindow(), ops, worlds);
+    }
+
+    private void prune(long now) {
+        long cutoff = now - WINDOW_NANOS;
+        rings.values().removeIf(ring -> ring.lastTickBefore(cutoff));
+        while (!lastMinute.isEmpty() && lastMinute.peekFirst().endNanos < cutoff) {
+            lastMinute.removeFirst();
+        }
+        Iterator<ArrayDeque<long[]>> it = worldHits.values().iterator();
+        while (it.hasNext()) {
+            ArrayDeque<long[]> hits = it.next();
+            while (!hits.isEmpty() && hits.peekFirst()[0] < cutoff) {
+                hits.removeFirst();
+            }
+            if (hits.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * True for the VM operations of the collectors that ship with HotSpot.
+     */
+    static boolean isGc(String operation) {
+        return operation.contains("Collect") || operation.contains("GC")
+            || operation.startsWith("G1") || operation.startsWith("Z") || operation.startsWith("Shenandoah");
+    }
+
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    /**
+     * Last tick hook times of one world, oldest overwritten first.
+     */
+    private static final class TickRing {
+        private final long[] ends = new long[TICK_HISTORY];
+        private int next;
+        private int size;
+
+        synchronized void add(long tickNanos) {
+            ends[next] = tickNanos;
+            next = (next + 1) % TICK_HISTORY;
+            if (size < TICK_HISTORY) size++;
+        }
+
+        /**
+         * Add the overlap of [start, end] with each completed tick to
+         * {@code hits}, one {tickEnd, nanos} entry per tick, in tick order.
+         */
+        synchronized void attribute(long start, long end, ArrayDeque<long[]> hits) {
+            // Walk back from the newest tick to the oldest one ending after the pause starts
+            int oldest = 0;
+            for (int i = 1; i < size; i++) {
+                if (ends[(next - i + TICK_HISTORY) % TICK_HISTORY] <= start) break;
+                oldest = i;
+            }
+            // Then forward again, so hits stay in tick order
+            for (int i = oldest; i >= 1; i--) {
+                long tickEnd = ends[(next - i + TICK_HISTORY) % TICK_HISTORY];
+                long tickStart = ends[(next - i - 1 + TICK_HISTORY) % TICK_HISTORY];
+                long overlap = Math.min(tickEnd, end) - Math.max(tickStart, start);
+                if (overlap > 0) {
+                    merge(hits, tickEnd, overlap);
+                }
+            }
+        }
+
+        synchronized boolean lastTickBefore(long cutoff) {
+            return size > 0 && ends[(next - 1 + TICK_HISTORY) % TICK_HISTORY] < cutoff;
+        }
+
+        private static void merge(ArrayDeque<long[]> hits, long tickEnd, long overlap) {
+            // Several safepoints can fall into the same tick
+            Iterator<long[]> it = hits.descendingIterator();
+            while (it.hasNext()) {
+                long[] existing = it.next();
+                if (existing[0] == tickEnd) {
+                    existing[1] += overlap;
+                    return;
+                }
+                if (existing[0] < tickEnd) break;
+            }
+            hits.addLast(new long[] {tickEnd, overlap});
+        }
+    }
+
+    /**
+     * One safepoint, kept for the rolling minute.
+     */
+    private static final class Pause {
+        final long endNanos;
+        final long pauseNanos;
+        final long timeToSafepointNanos;
+        final boolean gc;
+        final boolean profiler;
+        final boolean jfr;
+
+        Pause(long endNanos, long pauseNanos, long timeToSafepointNanos, boolean gc, boolean profiler, boolean jfr) {
+            this.endNanos = endNanos;
+            this.pauseNanos = pauseNanos;
+            this.timeToSafepointNanos = timeToSafepointNanos;
+            this.gc = gc;
+            this.profiler = profiler;
+            this.jfr = jfr;
+        }
+    }
+
+    private static final class Totals {
+        long count;
+        long pauseNanos;
+        long nonGcCount;
+        long nonGcPauseNanos;
+        long maxPauseNanos;
+        long maxTimeToSafepointNanos;
+        long profilerCaused;
+        long jfrCaused;
+
+        void add(Pause pause) {
+            count++;
+            pauseNanos += pause.pauseNanos;
+            if (!pause.gc) {
+                nonGcCount++;
+                nonGcPauseNanos += pause.pauseNanos;
+            }
+            maxPauseNanos = Math.max(maxPauseNanos, pause.pauseNanos);
+            maxTimeToSafepointNanos = Math.max(maxTimeToSafepointNanos, pause.timeToSafepointNanos);
+            if (pause.profiler) profilerCaused++;
+            if (pause.jfr) jfrCaused++;
+        }
+
+        void clear() {
+            count = 0;
+            pauseNanos = 0;
+            nonGcCount = 0;
+            nonGcPauseNanos = 0;
+            maxPauseNanos = 0;
+            maxTimeToSafepointNanos = 0;
+            profilerCaused = 0;
+            jfrCaused = 0;
+        }
+
+        SafepointData.Window toWindow() {
+            return new SafepointData.Window(count, pauseNanos / NANOS_PER_MS, nonGcCount,
+                nonGcPauseNanos / NANOS_PER_MS, maxPauseNanos / NANOS_PER_MS,
+                maxTimeToSafepointNanos / NANOS_PER_MS, profilerCaused, jfrCaused);
+        }
+    }
+}
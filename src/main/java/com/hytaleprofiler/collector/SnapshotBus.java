@@ -0,0 +1,162 @@
+package com.hytaleprofiler.collector;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Latest snapshot of every scheduled collector, per world. Each slot has a
+ * single writer, the thread running the collector, and any number of
+ * readers; publishing and reading are a volatile write and read, so
+ * commands, exporters and recorders never block collection or each other.
+ *
+ * <p>Topics of {@linkplain Collector#isOnDemand() on-demand} collectors
+ * remember when they were last read and are only collected while someone
+ * has read them within {@value #READER_IDLE_MS}ms.
+ */
+public class SnapshotBus {
+
+    // Slot key of process-wide topics
+    private static final String GLOBAL = "";
+    static final long READER_IDLE_MS = 30_000;
+
+    private final List<Topic<?>> topics = new CopyOnWriteArrayList<>();
+
+    <T> Topic<T> topic(Collector<T> collector) {
+        Topic<T> topic = new Topic<>(collector);
+        topics.add(topic);
+        return topic;
+    }
+
+    public List<Topic<?>> getTopics() {
+        return List.copyOf(topics);
+    }
+
+    /**
+     * Snapshots of one collector.
+     */
+    public static final class Topic<T> {
+        private final Collector<T> collector;
+        private final Map<String, Slot<T>> slots = new ConcurrentHashMap<>();
+        // nanoTime of the last read, 0 if never read
+        private volatile long lastReadNanos;
+
+        private Topic(Collector<T> collector) {
+            this.collector = collector;
+        }
+
+        public String getName() {
+            return collector.getName();
+        }
+
+        public long getIntervalMs() {
+            return collector.getIntervalMs();
+        }
+
+        /**
+         * Latest snapshot for a world, or null before the first run.
+         * Process-wide topics ignore the world.
+         */
+        public Snapshot<T> snapshot(World world) {
+            if (collector.isOnDemand()) {
+                lastReadNanos = System.nanoTime();
+            }
+            Slot<T> slot = slots.get(key(world));
+            return slot != null ? slot.current : null;
+        }
+
+        /**
+         * Latest value for a world, or null before the first run.
+         */
+        public T latest(World world) {
+            Snapshot<T> snapshot = snapshot(world);
+            return snapshot != null ? snapshot.getValue() : null;
+        }
+
+        /**
+         * Latest value, or a direct collection if nothing has been published
+         * for the world yet, or an on-demand topic's snapshot is older than
+         * two intervals because nobody was reading it. The direct result is
+         * not published; call this on the world thread.
+         */
+        public T latestOrCollect(World world) {
+            Snapshot<T> snapshot = snapshot(world);
+            if (snapshot == null || collector.isOnDemand()
+                    && snapshot.getAgeMillis() > 2 * collector.getIntervalMs()) {
+                return collector.collect(world);
+            }
+            return snapshot.getValue();
+        }
+
+        /**
+         * False for an on-demand topic nobody has read recently; the
+         * scheduler skips it until it is read again.
+         */
+        boolean hasReaders(long nowNanos) {
+            if (!collector.isOnDemand()) return true;
+            long last = lastReadNanos;
+            return last != 0 && nowNanos - last < READER_IDLE_MS * 1_000_000L;
+        }
+
+        Collector<T> getCollector() {
+            return collector;
+        }
+
+        Slot<T> slot(World world) {
+            return slots.computeIfAbsent(key(world), k -> new Slot<>());
+        }
+
+        private String key(World world) {
+            return collector.isPerWorld() && world != null ? world.getName() : GLOBAL;
+        }
+    }
+
+    /**
+     * Publication point of one topic for one world. Only the scheduler writes it.
+     */
+    static final class Slot<T> {
+        volatile Snapshot<T> current;
+        volatile long nextRunNanos = Long.MIN_VALUE;
+        // Written by the thread that owns the slot
+        long sequence;
+        long lastFailureLogNanos;
+        int suppressedFailures;
+
+        void publish(T value, long nowNanos) {
+            current = new Snapshot<>(value, ++sequence, nowNanos);
+        }
+    }
+
+    /**
+     * One immutable collector result.
+     */
+    public static final class Snapshot<T> {
+        private final T value;
+        private final long sequence;
+        private final long publishedNanos;
+
+        Snapshot(T value, long sequence, long publishedNanos) {
+            this.value = value;
+            this.sequence = sequence;
+            this.publishedNanos = publishedNanos;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Increases by one per publish, so readers can tell whether a value is new.
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getAgeMillis() {
+            return (System.nanoTime() - publishedNanos) / 1_000_000;
+        }
+    }
+}
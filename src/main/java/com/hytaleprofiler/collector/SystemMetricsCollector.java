@@ -13,6 +13,7 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -20,7 +21,10 @@ import java.util.stream.Collectors;
 /**
  * Collects ECS system performance metrics.
  */
-public class SystemMetricsCollector {
+public class SystemMetricsCollector implements Collector<List<SystemProfile>> {
+
+    // System averages span many ticks, so more frequent snapshots add nothing
+    public static final long SNAPSHOT_INTERVAL_MS = 250;
 
     private static final double NANOS_PER_MS = 1_000_000.0;
 
@@ -28,6 +32,24 @@ public class SystemMetricsCollector {
     private Field systemsField;
     private boolean reflectionFailed = false;
 
+    @Override
+    public String getName() {
+        return "systems";
+    }
+
+    @Override
+    public long getIntervalMs() {
+        return SNAPSHOT_INTERVAL_MS;
+    }
+
+    /**
+     * Snapshot of {@link #collectSystems}; the list is unmodifiable.
+     */
+    @Override
+    public List<SystemProfile> collect(World world) {
+        return Collections.unmodifiableList(collectSystems(world));
+    }
+
     /**
      * Collect system profiles from the world's entity store.
      */
@@ -77,9 +99,44 @@ public class SystemMetricsCollector {
     }
 
     /**
-     * Get system names via reflection from the ComponentRegistry.
+     * Collect the per-tick history of every system, in milliseconds,
+     * keyed by system class name.
+     */
+    public Map<String, double[]> collectSystemHistories(World world) {
+        Store<EntityStore> store = world.getEntityStore().getStore();
+        HistoricMetric[] systemMetrics = store.getSystemMetrics();
+        Map<String, double[]> histories = new HashMap<>();
+
+        if (systemMetrics == null) {
+            return histories;
+        }
+
+        String[] systemNames = getSystemNames(store);
+
+        for (int i = 0; i < systemMetrics.length; i++) {
+            HistoricMetric metric = systemMetrics[i];
+            if (metric == null) continue;
+
+            String className = systemNames != null && i < systemNames.length && systemNames[i] != null
+                ? systemNames[i] : "System_" + i;
+
+            long[] values = metric.getAllValues();
+            if (values == null) continue;
+
+            double[] history = new double[values.length];
+            for (int j = 0; j < values.length; j++) {
+                history[j] = values[j] / NANOS_PER_MS;
+            }
+            histories.put(className, history);
+        }
+        return histories;
+    }
+
+    /**
+     * Get system class names via reflection from the ComponentRegistry,
+     * indexed like {@link Store#getSystemMetrics()}. Returns null if unavailable.
      */
-    private String[] getSystemNames(Store<EntityStore> store) {
+    public String[] getSystemNames(Store<EntityStore> store) {
         if (reflectionFailed) {
             return null;
         }
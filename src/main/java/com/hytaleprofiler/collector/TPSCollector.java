@@ -1,61 +1,179 @@
 package com.hytaleprofiler.collector;
 
 import com.hytaleprofiler.data.TPSData;
+import com.hytaleprofiler.util.Selection;
+import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.metrics.metric.HistoricMetric;
 import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Collects TPS and tick timing data from the world.
+ * TPS comes from tick start-to-start intervals seen by the tick hook, so
+ * time the world spends between ticks counts against it. Tick length
+ * percentiles come from the world's tick length history.
  */
-public class TPSCollector {
+public class TPSCollector implements TickHookSystem.TickListener, Collector<TPSData> {
+
+    public static final long SNAPSHOT_INTERVAL_MS = 1000;
 
-    private static final double TARGET_TPS = 20.0;
+    private static final double DEFAULT_TPS = 20.0;
     private static final double NANOS_PER_MS = 1_000_000.0;
     private static final double NANOS_PER_SECOND = 1_000_000_000.0;
 
+    // Intervals kept per world, and the span used for "current" TPS
+    private static final int INTERVAL_HISTORY = 1200;
+    private static final long TPS_WINDOW_NANOS = 10_000_000_000L;
+
+    private final Map<Store<EntityStore>, IntervalRing> intervals = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return "tps";
+    }
+
+    @Override
+    public long getIntervalMs() {
+        // Percentiles copy and select over the whole tick history; TPS itself comes from the interval ring
+        return SNAPSHOT_INTERVAL_MS;
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        intervals.computeIfAbsent(store, s -> new IntervalRing()).record(tickNanos);
+    }
+
     /**
      * Collect TPS data from the given world.
      */
+    @Override
     public TPSData collect(World world) {
+        double targetTps = getTargetTps(world);
         HistoricMetric tickMetric = world.getBufferedTickLengthMetricSet();
+        long[] values = tickMetric != null ? copyValues(tickMetric) : new long[0];
 
-        if (tickMetric == null) {
-            return new TPSData(TARGET_TPS, 50.0, 50.0, 50.0, new double[0]);
+        if (values.length == 0) {
+            double budgetMs = 1000.0 / targetTps;
+            return new TPSData(targetTps, targetTps, false, budgetMs, budgetMs, budgetMs,
+                budgetMs, budgetMs, budgetMs, budgetMs, 0, 0, new double[0]);
         }
 
-        double avgNs = tickMetric.getAverage(0);
-        double minNs = tickMetric.calculateMin(0);
-        double maxNs = tickMetric.calculateMax(0);
+        // History in chronological order, before selection reorders the values
+        double[] history = new double[values.length];
+        double sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < values.length; i++) {
+            history[i] = values[i] / NANOS_PER_MS;
+            sum += values[i];
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        double mean = sum / values.length;
+        double squares = 0;
+        for (long value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        double stdDev = Math.sqrt(squares / values.length);
 
-        // Convert to milliseconds
-        double avgMs = avgNs / NANOS_PER_MS;
-        double minMs = minNs / NANOS_PER_MS;
-        double maxMs = maxNs / NANOS_PER_MS;
+        long[] percentiles = Selection.percentiles(values, values.length, 0.50, 0.95, 0.99, 0.999);
 
-        // Calculate actual TPS from average tick time
-        double tps = avgNs > 0 ? NANOS_PER_SECOND / avgNs : TARGET_TPS;
-        tps = Math.min(tps, TARGET_TPS); // Cap at 20
+        // Prefer the metric's own average window for the mean, as before
+        double avgNs = tickMetric.getAverage(0);
+        if (avgNs <= 0) avgNs = mean;
+
+        double tps;
+        double jitterNs = 0;
+        IntervalRing ring = intervals.get(world.getEntityStore().getStore());
+        double measured = ring != null ? ring.tps() : -1;
+        if (measured > 0) {
+            tps = Math.min(measured, targetTps);
+            jitterNs = ring.jitter();
+        } else {
+            // No intervals yet: estimate from tick length, which cannot exceed the target rate
+            tps = Math.min(NANOS_PER_SECOND / avgNs, targetTps);
+        }
 
-        // Get history if available
-        double[] history = getTickHistory(tickMetric);
+        return new TPSData(tps, targetTps, measured > 0,
+            avgNs / NANOS_PER_MS, min / NANOS_PER_MS, max / NANOS_PER_MS,
+            percentiles[0] / NANOS_PER_MS, percentiles[1] / NANOS_PER_MS,
+            percentiles[2] / NANOS_PER_MS, percentiles[3] / NANOS_PER_MS,
+            stdDev / NANOS_PER_MS, jitterNs / NANOS_PER_MS, history);
+    }
 
-        return new TPSData(tps, avgMs, minMs, maxMs, history);
+    /**
+     * Configured tick rate of the world, or 20 if unavailable.
+     */
+    public static double getTargetTps(World world) {
+        try {
+            int tps = world.getTps();
+            return tps > 0 ? tps : DEFAULT_TPS;
+        } catch (Exception e) {
+            return DEFAULT_TPS;
+        }
     }
 
-    private double[] getTickHistory(HistoricMetric metric) {
+    private long[] copyValues(HistoricMetric metric) {
         try {
             long[] values = metric.getAllValues();
-            if (values == null || values.length == 0) {
-                return new double[0];
+            // Selection reorders in place, so never touch the metric's own array
+            return values != null ? Arrays.copyOf(values, values.length) : new long[0];
+        } catch (Exception e) {
+            return new long[0];
+        }
+    }
+
+    /**
+     * Ring of recent tick start-to-start intervals for one world.
+     */
+    private static class IntervalRing {
+        private final long[] intervals = new long[INTERVAL_HISTORY];
+        private int next;
+        private int size;
+        private long lastTickNanos;
+
+        synchronized void record(long tickNanos) {
+            if (lastTickNanos != 0) {
+                intervals[next] = tickNanos - lastTickNanos;
+                next = (next + 1) % intervals.length;
+                if (size < intervals.length) size++;
+            }
+            lastTickNanos = tickNanos;
+        }
+
+        /**
+         * Ticks per second over the most recent window, or -1 without data.
+         */
+        synchronized double tps() {
+            if (size == 0) return -1;
+            // The gap since the last tick counts once it exceeds a normal interval
+            long sinceLast = System.nanoTime() - lastTickNanos;
+            long total = sinceLast > intervals[(next - 1 + intervals.length) % intervals.length] ? sinceLast : 0;
+            int ticks = 0;
+            for (int i = 1; i <= size && total < TPS_WINDOW_NANOS; i++) {
+                total += intervals[(next - i + intervals.length) % intervals.length];
+                ticks++;
             }
+            return total > 0 ? ticks * NANOS_PER_SECOND / total : -1;
+        }
 
-            double[] history = new double[values.length];
-            for (int i = 0; i < values.length; i++) {
-                history[i] = values[i] / NANOS_PER_MS;
+        /**
+         * Mean absolute difference between consecutive intervals, in nanos.
+         */
+        synchronized double jitter() {
+            if (size < 2) return 0;
+            long sum = 0;
+            int start = (next - size + intervals.length) % intervals.length;
+            for (int i = 1; i < size; i++) {
+                long a = intervals[(start + i - 1) % intervals.length];
+                long b = intervals[(start + i) % intervals.length];
+                sum += Math.abs(b - a);
             }
-            return history;
-        } catch (Exception e) {
-            return new double[0];
+            return sum / (double) (size - 1);
         }
     }
 }
@@ -0,0 +1,196 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.api.TickPhaseSink;
+import com.hytaleprofiler.data.TickBreakdownData;
+import com.hytaleprofiler.util.GcPauseClock;
+import com.hytaleprofiler.util.MultiWindowStat;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Splits each world tick into ECS systems, timed events, GC pauses and
+ * reported non-ECS phases, and keeps the remainder as "unattributed".
+ *
+ * <p>Phase time is accumulated per thread and drained by the tick hook on
+ * the world thread, so only work done on that world's thread between two
+ * ticks lands in its breakdown. Engine work outside ECS (chunk I/O,
+ * network flush, scheduled tasks) has no hook and shows up in the remainder
+ * unless someone reports it with {@link #recordPhase}, e.g. through a
+ * {@link com.hytaleprofiler.api.ProfilerAPI#tickPhaseTimer} timer.
+ *
+ * <p>Systems and tick length come from the engine's metrics for the most
+ * recent tick, GC is the pause time since the previous tick capped at the
+ * tick length. Events dispatched from inside a system are also counted in
+ * that system, so the attributed sum can exceed the tick; the remainder is
+ * then clamped to zero.
+ */
+public class TickBreakdownCollector implements TickHookSystem.TickListener, TickPhaseSink {
+
+    public static final int MAX_PHASES = 16;
+
+    // Phase 0 is always event handling
+    public static final int PHASE_EVENTS = 0;
+
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final String[] phaseNames = new String[MAX_PHASES];
+    private volatile int phaseCount;
+
+    private final ThreadLocal<long[]> phaseNanos = ThreadLocal.withInitial(() -> new long[MAX_PHASES]);
+    private final Map<Store<EntityStore>, WorldBreakdown> worlds = new ConcurrentHashMap<>();
+    private final GcPauseClock gcPauses = new GcPauseClock();
+
+    public TickBreakdownCollector() {
+        phaseNames[PHASE_EVENTS] = "Events";
+        phaseCount = 1;
+    }
+
+    /**
+     * Register a named non-ECS phase and return its index for {@link #recordPhase},
+     * or -1 once {@value #MAX_PHASES} phases exist. Registering the same name
+     * twice returns the same index.
+     */
+    @Override
+    public synchronized int registerPhase(String name) {
+        for (int i = 0; i < phaseCount; i++) {
+            if (phaseNames[i].equals(name)) return i;
+        }
+        if (phaseCount == MAX_PHASES) {
+            return -1;
+        }
+        phaseNames[phaseCount] = name;
+        phaseCount++;
+        return phaseCount - 1;
+    }
+
+    /**
+     * Add time spent in a phase on the calling thread.
+     */
+    @Override
+    public void recordPhase(int phase, long nanos) {
+        phaseNanos.get()[phase] += nanos;
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        worlds.computeIfAbsent(store, s -> new WorldBreakdown()).update(this, tickNanos, sample);
+    }
+
+    @Override
+    public void onPausedTick(Store<EntityStore> store, long tickNanos) {
+        WorldBreakdown breakdown = worlds.get(store);
+        if (breakdown != null) breakdown.pause(this, tickNanos);
+    }
+
+    /**
+     * Breakdown for a world. Empty until the world has ticked twice.
+     */
+    public TickBreakdownData collect(World world) {
+        WorldBreakdown breakdown = worlds.get(world.getEntityStore().getStore());
+        if (breakdown == null) {
+            return new TickBreakdownData(0, 0, new double[MultiWindowStat.WINDOWS], List.of());
+        }
+        return breakdown.snapshot(phaseNames, phaseCount);
+    }
+
+    /**
+     * Per-world windows. Slots are systems, GC, phases by index, then the remainder.
+     */
+    private static class WorldBreakdown {
+        private static final int SYSTEMS = 0;
+        private static final int GC = 1;
+        private static final int FIRST_PHASE = 2;
+        private static final int REMAINDER = FIRST_PHASE + MAX_PHASES;
+
+        private final MultiWindowStat tick = new MultiWindowStat();
+        private final MultiWindowStat[] slots = new MultiWindowStat[REMAINDER + 1];
+        private final double[] lastMs = new double[REMAINDER + 1];
+        private final double[] alphas = new double[MultiWindowStat.WINDOWS];
+        private double lastTickMs;
+        private long lastTickNanos;
+        private long lastGcMillis = -1;
+        private long ticks;
+
+        WorldBreakdown() {
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new MultiWindowStat();
+            }
+        }
+
+        /**
+         * Drop the phase time and GC of the paused tick and start the next one here.
+         */
+        synchronized void pause(TickBreakdownCollector owner, long tickNanos) {
+            Arrays.fill(owner.phaseNanos.get(), 0);
+            lastTickNanos = tickNanos;
+            lastGcMillis = owner.gcPauses.totalPauseMillis();
+        }
+
+        synchronized void update(TickBreakdownCollector owner, long tickNanos, TickSample sample) {
+            long[] phases = owner.phaseNanos.get();
+            long gcMillis = owner.gcPauses.totalPauseMillis();
+            if (lastTickNanos == 0) {
+                // Drop whatever accumulated before the first tick boundary
+                Arrays.fill(phases, 0);
+                lastTickNanos = tickNanos;
+                lastGcMillis = gcMillis;
+                return;
+            }
+            MultiWindowStat.computeAlphas((tickNanos - lastTickNanos) / 1e9, alphas);
+            lastTickNanos = tickNanos;
+
+            long tickLength = sample.getTickLengthNanos();
+            lastTickMs = tickLength / NANOS_PER_MS;
+            tick.update(lastTickMs, alphas, tickNanos);
+
+            long systemNanos = 0;
+            for (int i = 0, count = sample.getSystemCount(); i < count; i++) {
+                systemNanos += sample.getSystemNanos(i);
+            }
+            long attributed = systemNanos;
+            record(SYSTEMS, systemNanos, tickNanos);
+
+            long gcNanos = Math.min(Math.max(0, gcMillis - lastGcMillis) * 1_000_000L, tickLength);
+            lastGcMillis = gcMillis;
+            attributed += gcNanos;
+            record(GC, gcNanos, tickNanos);
+
+            for (int p = 0; p < MAX_PHASES; p++) {
+                long nanos = phases[p];
+                phases[p] = 0;
+                attributed += nanos;
+                record(FIRST_PHASE + p, nanos, tickNanos);
+            }
+
+            record(REMAINDER, Math.max(0, tickLength - attributed), tickNanos);
+            ticks++;
+        }
+
+        private void record(int slot, long nanos, long tickNanos) {
+            lastMs[slot] = nanos / NANOS_PER_MS;
+            slots[slot].update(lastMs[slot], alphas, tickNanos);
+        }
+
+        synchronized TickBreakdownData snapshot(String[] phaseNames, int phaseCount) {
+            List<TickBreakdownData.Component> components = new ArrayList<>();
+            components.add(component("ECS systems", SYSTEMS, false));
+            for (int p = 0; p < phaseCount; p++) {
+                components.add(component(phaseNames[p], FIRST_PHASE + p, false));
+            }
+            components.add(component("GC pauses", GC, false));
+            components.add(component("Unattributed", REMAINDER, true));
+            return new TickBreakdownData(ticks, lastTickMs, tick.getAverages(), components);
+        }
+
+        private TickBreakdownData.Component component(String name, int slot, boolean unattributed) {
+            return new TickBreakdownData.Component(name, unattributed, lastMs[slot], slots[slot].getAverages());
+        }
+    }
+}
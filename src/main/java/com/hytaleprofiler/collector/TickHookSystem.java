@@ -0,0 +1,130 @@
+package com.hytaleprofiler.collector;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.Arrays;
+
+/**
+ * ECS system registered by the profiler so it is called once per world
+ * tick, on the world thread. Listeners get a tick boundary without
+ * polling. With no listeners the tick costs a single array length check.
+ *
+ * <p>Each listener's CPU time and allocation is charged to its own
+ * {@link OverheadMonitor} component; listeners the overhead budget has shed
+ * get {@link TickListener#onPausedTick} instead, so they can keep their tick
+ * boundaries current and not read the pause as one long tick.
+ */
+public class TickHookSystem extends TickingSystem<EntityStore> {
+
+    /**
+     * Callback invoked on the world thread once per tick.
+     */
+    public interface TickListener {
+        /**
+         * {@code sample} holds the metric values of this tick; read them
+         * from it rather than from the store's metrics.
+         */
+        void onTick(Store<EntityStore> store, long tickNanos, TickSample sample);
+
+        /**
+         * Called instead of {@link #onTick} while the listener is shed. Must be
+         * cheap; listeners that measure across ticks reset their baseline here.
+         */
+        default void onPausedTick(Store<EntityStore> store, long tickNanos) {
+        }
+    }
+
+    private final OverheadMonitor overheadMonitor;
+
+    // One sample per world thread, reset at the start of each tick
+    private final ThreadLocal<TickSample> samples = ThreadLocal.withInitial(TickSample::new);
+
+    // Copy-on-write array so the tick path iterates without allocating
+    private volatile Entry[] listeners = new Entry[0];
+
+    // Position of this system in the tick; systems before it have already run
+    private volatile int systemIndex = -1;
+
+    public TickHookSystem(OverheadMonitor overheadMonitor) {
+        this.overheadMonitor = overheadMonitor;
+    }
+
+    @Override
+    public void tick(float dt, int systemIndex, Store<EntityStore> store) {
+        Entry[] current = listeners;
+        if (current.length == 0) return;
+        this.systemIndex = systemIndex;
+
+        long now = System.nanoTime();
+        TickSample sample = samples.get();
+        sample.reset(store);
+        // Each reading closes one listener's measurement and opens the next
+        long cpu = OverheadMonitor.threadCpuNanos();
+        long alloc = OverheadMonitor.threadAllocatedBytes();
+        for (Entry entry : current) {
+            try {
+                if (entry.overhead.isShed()) {
+                    entry.listener.onPausedTick(store, now);
+                } else {
+                    entry.listener.onTick(store, now, sample);
+                }
+            } catch (Exception e) {
+                // Never let profiling break the world tick
+            }
+            long cpuAfter = OverheadMonitor.threadCpuNanos();
+            long allocAfter = OverheadMonitor.threadAllocatedBytes();
+            entry.overhead.record(cpuAfter - cpu, allocAfter - alloc);
+            cpu = cpuAfter;
+            alloc = allocAfter;
+        }
+    }
+
+    /**
+     * Index of this system in the store's system order, or -1 before the first tick.
+     * Systems with a lower index have already run in the tick listeners see.
+     */
+    public int getSystemIndex() {
+        return systemIndex;
+    }
+
+    public void addListener(TickListener listener) {
+        addListener(listener, OverheadMonitor.Kind.CORE);
+    }
+
+    /**
+     * Add a listener; {@link OverheadMonitor.Kind#SHEDDABLE} ones may be paused
+     * while the profiler is over its overhead budget.
+     */
+    public synchronized void addListener(TickListener listener, OverheadMonitor.Kind kind) {
+        Entry[] next = Arrays.copyOf(listeners, listeners.length + 1);
+        next[next.length - 1] = new Entry(listener,
+            overheadMonitor.register(listener.getClass().getSimpleName(), kind));
+        listeners = next;
+    }
+
+    public synchronized void removeListener(TickListener listener) {
+        Entry[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].listener == listener) {
+                Entry[] next = new Entry[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                listeners = next;
+                overheadMonitor.unregister(current[i].overhead);
+                return;
+            }
+        }
+    }
+
+    private static final class Entry {
+        final TickListener listener;
+        final OverheadMonitor.Component overhead;
+
+        Entry(TickListener listener, OverheadMonitor.Component overhead) {
+            this.listener = listener;
+            this.overhead = overhead;
+        }
+    }
+}
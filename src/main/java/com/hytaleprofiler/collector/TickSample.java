@@ -0,0 +1,78 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.util.MetricUtil;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.metrics.metric.HistoricMetric;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * Newest tick length and per-system times of the world being ticked,
+ * shared by every {@link TickHookSystem.TickListener} in that tick.
+ *
+ * <p>{@link HistoricMetric} only hands out its values as a copy of the
+ * whole buffer, so each metric is read at most once per tick, on first
+ * use, however many listeners ask. The instance is reused for the next
+ * tick on the same thread; listeners must not keep it.
+ */
+public final class TickSample {
+
+    private Store<EntityStore> store;
+
+    private boolean tickLengthRead;
+    private long tickLengthNanos;
+
+    private boolean systemsRead;
+    private long[] systemNanos = new long[0];
+    private int systemCount;
+
+    /**
+     * Start a new tick of {@code store}. Called by the tick hook.
+     */
+    void reset(Store<EntityStore> store) {
+        this.store = store;
+        tickLengthRead = false;
+        systemsRead = false;
+    }
+
+    /**
+     * Length of the world's last completed tick.
+     */
+    public long getTickLengthNanos() {
+        if (!tickLengthRead) {
+            tickLengthNanos = MetricUtil.latestValue(store.getExternalData().getWorld().getBufferedTickLengthMetricSet());
+            tickLengthRead = true;
+        }
+        return tickLengthNanos;
+    }
+
+    /**
+     * Number of systems, indexed like the store's system metrics.
+     */
+    public int getSystemCount() {
+        readSystems();
+        return systemCount;
+    }
+
+    /**
+     * Time of one system in its latest run.
+     */
+    public long getSystemNanos(int index) {
+        readSystems();
+        return index < systemCount ? systemNanos[index] : 0;
+    }
+
+    private void readSystems() {
+        if (systemsRead) return;
+        systemsRead = true;
+        HistoricMetric[] metrics = store.getSystemMetrics();
+        int count = metrics != null ? metrics.length : 0;
+        if (systemNanos.length < count) {
+            // Only grows when systems are registered
+            systemNanos = new long[count];
+        }
+        for (int i = 0; i < count; i++) {
+            systemNanos[i] = MetricUtil.latestValue(metrics[i]);
+        }
+        systemCount = count;
+    }
+}
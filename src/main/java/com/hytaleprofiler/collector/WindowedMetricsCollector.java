@@ -0,0 +1,224 @@
+package com.hytaleprofiler.collector;
+
+import com.hytaleprofiler.data.EventProfile;
+import com.hytaleprofiler.data.WindowedMetricsData;
+import com.hytaleprofiler.util.FormatUtil;
+import com.hytaleprofiler.util.MultiWindowStat;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps 1s/10s/1m/5m/15m moving averages and maxima of core metrics, so a
+ * momentary spike can be told apart from sustained degradation. Per-world
+ * metrics (tick, systems, entities) update every tick on the world thread;
+ * process-wide metrics (heap, allocation, events) update at most every
+ * {@value #GLOBAL_INTERVAL_MS}ms from whichever world ticks.
+ */
+public class WindowedMetricsCollector implements TickHookSystem.TickListener {
+
+    private static final long GLOBAL_INTERVAL_MS = 50;
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final SystemMetricsCollector systemMetricsCollector;
+    private final EventTimingCollector eventTimingCollector;
+    private final Map<Store<EntityStore>, WorldWindows> worlds = new ConcurrentHashMap<>();
+
+    private final Runtime runtime = Runtime.getRuntime();
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    // Process-wide state, guarded by this
+    private final MultiWindowStat heap = new MultiWindowStat();
+    private final MultiWindowStat allocation = new MultiWindowStat();
+    private final double[] globalAlphas = new double[MultiWindowStat.WINDOWS];
+    private EventProfile[] events;
+    private MultiWindowStat[] eventStats;
+    private EventProfile.Snapshot[] lastEventSnapshots;
+    private long lastGlobalNanos;
+    private long lastAllocatedBytes = -1;
+
+    public WindowedMetricsCollector(SystemMetricsCollector systemMetricsCollector,
+                                    EventTimingCollector eventTimingCollector) {
+        this.systemMetricsCollector = systemMetricsCollector;
+        this.eventTimingCollector = eventTimingCollector;
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threadMXBean = bean instanceof com.sun.management.ThreadMXBean sunBean
+            && sunBean.isThreadAllocatedMemorySupported() ? sunBean : null;
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        worlds.computeIfAbsent(store, s -> new WorldWindows()).update(store, tickNanos, sample);
+
+        if (tickNanos - lastGlobalNanos >= GLOBAL_INTERVAL_MS * 1_000_000L) {
+            updateGlobal(tickNanos);
+        }
+    }
+
+    @Override
+    public void onPausedTick(Store<EntityStore> store, long tickNanos) {
+        WorldWindows windows = worlds.get(store);
+        if (windows != null) windows.pause(tickNanos);
+    }
+
+    /**
+     * Windowed metrics for a world. Series are empty until the world has ticked.
+     */
+    public WindowedMetricsData collect(World world) {
+        long now = System.nanoTime();
+        Store<EntityStore> store = world.getEntityStore().getStore();
+        WorldWindows windows = worlds.get(store);
+
+        double[] tps = new double[MultiWindowStat.WINDOWS];
+        WindowedMetricsData.Series tick = emptySeries("tick");
+        WindowedMetricsData.Series entities = emptySeries("entities");
+        List<WindowedMetricsData.Series> systems = new ArrayList<>();
+
+        if (windows != null) {
+            double targetTps = TPSCollector.getTargetTps(world);
+            String[] names = systemMetricsCollector.getSystemNames(store);
+            synchronized (windows) {
+                for (int w = 0; w < MultiWindowStat.WINDOWS; w++) {
+                    double interval = windows.interval.getAverage(w);
+                    tps[w] = windows.interval.isInitialized() && interval > 0
+                        ? Math.min(targetTps, 1e9 / interval) : targetTps;
+                }
+                tick = series("tick", windows.tickLength, now, NANOS_PER_MS);
+                entities = series("entities", windows.entities, now, 1);
+                for (int i = 0; i < windows.systemCount; i++) {
+                    String name = names != null && i < names.length && names[i] != null
+                        ? FormatUtil.simpleClassName(names[i]) : "System#" + i;
+                    systems.add(series(name, windows.systems[i], now, NANOS_PER_MS));
+                }
+            }
+        }
+
+        List<WindowedMetricsData.Series> eventSeries = new ArrayList<>();
+        WindowedMetricsData.Series heapSeries;
+        WindowedMetricsData.Series allocationSeries;
+        synchronized (this) {
+            heapSeries = series("heap", heap, now, 1);
+            allocationSeries = series("allocation", allocation, now, 1);
+            if (events != null) {
+                for (int i = 0; i < events.length; i++) {
+                    eventSeries.add(series(events[i].getEventName(), eventStats[i], now, 1));
+                }
+            }
+        }
+
+        return new WindowedMetricsData(tps, tick, entities, heapSeries, allocationSeries, systems, eventSeries);
+    }
+
+    private synchronized void updateGlobal(long nowNanos) {
+        // Another world may have updated while this one waited for the lock
+        if (nowNanos - lastGlobalNanos < GLOBAL_INTERVAL_MS * 1_000_000L) return;
+
+        double dt = lastGlobalNanos > 0 ? (nowNanos - lastGlobalNanos) / 1e9 : 0;
+        lastGlobalNanos = nowNanos;
+        MultiWindowStat.computeAlphas(dt, globalAlphas);
+
+        heap.update(runtime.totalMemory() - runtime.freeMemory(), globalAlphas, nowNanos);
+
+        if (threadMXBean != null) {
+            long allocated = threadMXBean.getTotalThreadAllocatedBytes();
+            if (lastAllocatedBytes >= 0 && dt > 0 && allocated >= lastAllocatedBytes) {
+                allocation.update((allocated - lastAllocatedBytes) / dt, globalAlphas, nowNanos);
+            }
+            lastAllocatedBytes = allocated;
+        }
+
+        if (events == null) {
+            // The set of timed events is fixed once hooks are registered
+            List<EventProfile> profiles = eventTimingCollector.getProfiles();
+            events = profiles.toArray(new EventProfile[0]);
+            eventStats = new MultiWindowStat[events.length];
+            lastEventSnapshots = new EventProfile.Snapshot[events.length];
+            for (int i = 0; i < events.length; i++) {
+                eventStats[i] = new MultiWindowStat();
+                lastEventSnapshots[i] = events[i].getLatest();
+            }
+            return;
+        }
+        for (int i = 0; i < events.length; i++) {
+            // Each interval closed by the event collector is counted once
+            EventProfile.Snapshot snapshot = events[i].getLatest();
+            if (snapshot == lastEventSnapshots[i]) continue;
+            lastEventSnapshots[i] = snapshot;
+            eventStats[i].update(snapshot.getIntervalMsPerSecond(), globalAlphas, nowNanos);
+        }
+    }
+
+    private static WindowedMetricsData.Series series(String name, MultiWindowStat stat, long now, double divisor) {
+        double[] averages = stat.getAverages();
+        double[] maxima = stat.getMaxima(now);
+        for (int w = 0; w < MultiWindowStat.WINDOWS; w++) {
+            averages[w] /= divisor;
+            maxima[w] /= divisor;
+        }
+        return new WindowedMetricsData.Series(name, averages, maxima);
+    }
+
+    private static WindowedMetricsData.Series emptySeries(String name) {
+        return new WindowedMetricsData.Series(name, new double[MultiWindowStat.WINDOWS], new double[MultiWindowStat.WINDOWS]);
+    }
+
+    /**
+     * Per-world stats. Updated on the world thread, read under its lock.
+     * An update reads the tick's shared {@link TickSample}, so it makes no
+     * metric copies beyond the sample's own once-per-tick read.
+     */
+    private static class WorldWindows {
+        private final MultiWindowStat tickLength = new MultiWindowStat();
+        private final MultiWindowStat interval = new MultiWindowStat();
+        private final MultiWindowStat entities = new MultiWindowStat();
+        private MultiWindowStat[] systems = new MultiWindowStat[0];
+        private int systemCount;
+        private final double[] alphas = new double[MultiWindowStat.WINDOWS];
+        private long lastTickNanos;
+
+        synchronized void update(Store<EntityStore> store, long tickNanos, TickSample sample) {
+            if (lastTickNanos == 0) {
+                lastTickNanos = tickNanos;
+                return;
+            }
+            long intervalNanos = tickNanos - lastTickNanos;
+            lastTickNanos = tickNanos;
+            MultiWindowStat.computeAlphas(intervalNanos / 1e9, alphas);
+
+            interval.update(intervalNanos, alphas, tickNanos);
+            tickLength.update(sample.getTickLengthNanos(), alphas, tickNanos);
+            entities.update(store.getEntityCount(), alphas, tickNanos);
+
+            int count = sample.getSystemCount();
+            if (systems.length < count) {
+                // Only grows when systems are registered
+                int old = systems.length;
+                systems = Arrays.copyOf(systems, count);
+                for (int i = old; i < count; i++) {
+                    systems[i] = new MultiWindowStat();
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                systems[i].update(sample.getSystemNanos(i), alphas, tickNanos);
+            }
+            systemCount = count;
+        }
+
+        /**
+         * Move the tick boundary without updating, so the first tick after
+         * a pause is not recorded as one interval spanning it.
+         */
+        synchronized void pause(long tickNanos) {
+            lastTickNanos = tickNanos;
+        }
+    }
+}
@@ -3,9 +3,33 @@ package com.hytaleprofiler.command;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.hytaleprofiler.HytaleProfiler;
+import com.hytaleprofiler.api.Counter;
+import com.hytaleprofiler.api.Gauge;
+import com.hytaleprofiler.api.MetricRegistry;
+import com.hytaleprofiler.api.ProfilerAPI;
+import com.hytaleprofiler.api.Timer;
 import com.hytaleprofiler.data.*;
 import com.hytaleprofiler.util.FormatUtil;
+import com.hytaleprofiler.util.MultiWindowStat;
+import com.hytaleprofiler.cluster.Aggregator;
+import com.hytaleprofiler.cluster.SnapshotExporter;
+import com.hytaleprofiler.collector.CauseCorrelator;
+import com.hytaleprofiler.collector.ChurnTracker;
 import com.hytaleprofiler.collector.EventTimingCollector;
+import com.hytaleprofiler.collector.HotspotCollector;
+import com.hytaleprofiler.collector.JitMonitor;
+import com.hytaleprofiler.collector.OverheadMonitor;
+import com.hytaleprofiler.collector.PlayerCostTracker;
+import com.hytaleprofiler.collector.RegressionDetector;
+import com.hytaleprofiler.collector.SafepointTracker;
+import com.hytaleprofiler.dashboard.DashboardServer;
+import com.hytaleprofiler.jfr.JfrRecorder;
+import com.hytaleprofiler.jfr.JfrStream;
+import com.hytaleprofiler.recording.ProfileRecorder;
+import com.hytaleprofiler.session.MeasurementSession;
+import com.hytaleprofiler.session.SessionManager;
+import com.hytaleprofiler.startup.StartupProfiler;
+import com.hytaleprofiler.trace.TraceRecorder;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.server.core.Message;
@@ -20,8 +44,11 @@ import javax.annotation.Nonnull;
 import java.awt.Color;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -41,6 +68,12 @@ public class ProfilerCommand extends AbstractPlayerCommand {
     private static final Color WHITE = new Color(255, 255, 255);
     private static final Color AQUA = new Color(85, 255, 255);
 
+    // Archetypes this small are reported as likely component churn
+    private static final int SMALL_ARCHETYPE_ENTITIES = 4;
+
+    // Regressions detected this recently are repeated in the summary
+    private static final long RECENT_REGRESSION_MS = 10 * 60_000L;
+
     private final HytaleProfiler plugin;
 
     public ProfilerCommand(HytaleProfiler plugin) {
@@ -80,13 +113,31 @@ public class ProfilerCommand extends AbstractPlayerCommand {
         switch (subcommand) {
             case "summary" -> showSummary(playerData, world);
             case "tps" -> showTPS(playerData, world);
+            case "tick" -> showTickBreakdown(playerData, world);
+            case "why" -> showWhy(playerData, world, count);
             case "mods" -> showMods(playerData, world);
             case "systems" -> showSystems(playerData, world, count);
             case "top" -> showTop(playerData, world, count);
             case "events" -> showEvents(playerData, count);
             case "entities" -> showEntities(playerData, world);
+            case "ecs" -> showEcs(playerData, world, count);
+            case "churn" -> showChurn(playerData, world, count);
+            case "regressions" -> handleRegressions(playerData, store, playerRef, parts, count);
+            case "players" -> showPlayers(playerData, count);
+            case "custom" -> handleCustom(playerData, store, playerRef, parts, count);
+            case "self" -> handleSelf(playerData, store, playerRef, parts, count);
+            case "hotspots" -> handleHotspots(playerData, store, playerRef, world, parts, count);
             case "memory" -> showMemory(playerData);
+            case "startup" -> showStartup(playerData, count);
+            case "jit" -> showJit(playerData, count);
+            case "host" -> showHost(playerData, count);
             case "export" -> exportReport(playerData, store, playerRef, world);
+            case "dashboard" -> handleDashboard(playerData, store, playerRef, parts);
+            case "record" -> handleRecord(playerData, store, playerRef, parts);
+            case "session" -> handleSession(playerData, store, playerRef, world, parts);
+            case "cluster" -> handleCluster(playerData, store, playerRef, parts);
+            case "jfr" -> handleJfr(playerData, store, playerRef, parts, count);
+            case "trace" -> startTrace(playerData, store, playerRef, world, count);
             case "gc" -> triggerGC(playerData, store, playerRef);
             case "reset" -> resetMetrics(playerData, store, playerRef);
             case "help" -> showHelp(playerData);
@@ -98,24 +149,42 @@ public class ProfilerCommand extends AbstractPlayerCommand {
         sendMessage(playerData, "========== HytaleProfiler ==========", GOLD);
         sendMessage(playerData, "/profiler summary    - Dashboard overview", GRAY);
         sendMessage(playerData, "/profiler tps        - Detailed TPS breakdown", GRAY);
+        sendMessage(playerData, "/profiler tick       - Where tick time goes (systems/events/GC/other)", GRAY);
+        sendMessage(playerData, "/profiler why [n]    - Likely causes of the latest TPS drop", GRAY);
         sendMessage(playerData, "/profiler mods       - Per-mod timing breakdown", GRAY);
         sendMessage(playerData, "/profiler systems [n]- ECS system timing (default: 10)", GRAY);
         sendMessage(playerData, "/profiler top [n]    - Top N slowest systems", GRAY);
         sendMessage(playerData, "/profiler events [n] - Event handler timing", GRAY);
         sendMessage(playerData, "/profiler entities   - Entity counts by type", GRAY);
+        sendMessage(playerData, "/profiler ecs [n]    - Archetype chunk fill & fragmentation", GRAY);
+        sendMessage(playerData, "/profiler churn [n]  - Entity spawn/despawn rates per archetype", GRAY);
+        sendMessage(playerData, "/profiler regressions [n|clear] - Sustained system/mod cost increases", GRAY);
+        sendMessage(playerData, "/profiler hotspots [n|export] - Densest map regions", GRAY);
+        sendMessage(playerData, "/profiler players [n]- Event cost per player", GRAY);
+        sendMessage(playerData, "/profiler custom [n|on|off] - Metrics reported by other plugins", GRAY);
+        sendMessage(playerData, "/profiler self [n|budget <pct>|budget off] - Profiler's own overhead", GRAY);
         sendMessage(playerData, "/profiler memory     - JVM memory & GC stats", GRAY);
+        sendMessage(playerData, "/profiler startup [n]- Boot timeline and per-plugin setup/start time", GRAY);
+        sendMessage(playerData, "/profiler jit [n]    - JIT warm-up, deopt storms & code cache vs tick time", GRAY);
+        sendMessage(playerData, "/profiler host [n]   - Process & host stats from /proc (steal, RSS, I/O, threads)", GRAY);
         sendMessage(playerData, "/profiler export     - Export full report to JSON", GRAY);
+        sendMessage(playerData, "/profiler dashboard [start [port]|stop] - Live web dashboard", GRAY);
+        sendMessage(playerData, "/profiler record [start [ms]|stop] - Record samples for offline diff", GRAY);
+        sendMessage(playerData, "/profiler session [start|stop] <name> - Measurement sessions", GRAY);
+        sendMessage(playerData, "/profiler trace [ticks] - Record a tick timeline (Chrome trace)", GRAY);
+        sendMessage(playerData, "/profiler cluster [start <host:port> [node]|stop] - Push snapshots to an aggregator", GRAY);
+        sendMessage(playerData, "/profiler jfr [start [minutes]|stop|dump] - JFR recording & JVM hotspots", GRAY);
         sendMessage(playerData, "/profiler gc         - Trigger garbage collection", GRAY);
         sendMessage(playerData, "/profiler reset      - Clear metrics history", GRAY);
         sendMessage(playerData, "=====================================", GOLD);
     }
 
     private void showSummary(PlayerRef playerData, World world) {
-        TPSData tps = plugin.getTpsCollector().collect(world);
-        List<SystemProfile> systems = plugin.getSystemMetricsCollector().collectSystems(world);
+        TPSData tps = plugin.getTpsSnapshots().latestOrCollect(world);
+        List<SystemProfile> systems = plugin.getSystemSnapshots().latestOrCollect(world);
         List<ModProfile> mods = plugin.getSystemMetricsCollector().aggregateByMod(systems);
-        EntityData entities = plugin.getEntityCollector().collect(world);
-        JVMData jvm = plugin.getJvmMetricsCollector().collect();
+        EntityData entities = plugin.getEntitySnapshots().latestOrCollect(world);
+        JVMData jvm = plugin.getJvmSnapshots().latestOrCollect(null);
         EventTimingCollector eventCollector = plugin.getEventTimingCollector();
 
         double totalSystemMs = plugin.getSystemMetricsCollector().getTotalSystemTimeMs(systems);
@@ -132,6 +201,19 @@ public class ProfilerCommand extends AbstractPlayerCommand {
             FormatUtil.formatMs(tps.getAvgTickMs()));
         sendMessage(playerData, tpsLine, tpsColor);
 
+        // Load averages, like uptime: 1m / 5m / 15m
+        WindowedMetricsData windows = plugin.getWindowedMetricsCollector().collect(world);
+        double[] windowTps = windows.getTps();
+        double[] windowTick = windows.getTickMs().getAverages();
+        String loadLine = String.format("Load: TPS %s / %s / %s | Tick %s / %s / %s (1m / 5m / 15m)",
+            FormatUtil.formatTps(windowTps[MultiWindowStat.W_1M]),
+            FormatUtil.formatTps(windowTps[MultiWindowStat.W_5M]),
+            FormatUtil.formatTps(windowTps[MultiWindowStat.W_15M]),
+            FormatUtil.formatMs(windowTick[MultiWindowStat.W_1M]),
+            FormatUtil.formatMs(windowTick[MultiWindowStat.W_5M]),
+            FormatUtil.formatMs(windowTick[MultiWindowStat.W_15M]));
+        sendMessage(playerData, loadLine, GRAY);
+
         // Memory line
         Color memColor = jvm.getHeapPercentage() > 80 ? RED : (jvm.getHeapPercentage() > 60 ? YELLOW : GREEN);
         String memLine = String.format("Memory: %s / %s (%s) | GC: %s runs",
@@ -147,6 +229,19 @@ public class ProfilerCommand extends AbstractPlayerCommand {
             entities.getArchetypeCount());
         sendMessage(playerData, entityLine, WHITE);
 
+        List<ChurnData.ArchetypeChurn> runaways = plugin.getChurnTracker().snapshot(world).getRunaways();
+        for (ChurnData.ArchetypeChurn runaway : runaways) {
+            sendMessage(playerData, String.format("Runaway growth: %s +%s in %dm - see /profiler churn",
+                runaway.getSignature(), FormatUtil.formatCount(runaway.getGrowth()), runaway.getGrowthMinutes()), RED);
+        }
+
+        List<RegressionAlert> regressions = plugin.getRegressionDetector().getRecentAlerts(RECENT_REGRESSION_MS);
+        for (RegressionAlert alert : regressions.subList(0, Math.min(3, regressions.size()))) {
+            sendMessage(playerData, String.format("Regression: %s %s -> %s (+%s) - see /profiler regressions",
+                alert.getName(), FormatUtil.formatMs(alert.getBaselineMs()),
+                FormatUtil.formatMs(alert.getCurrentMs()), FormatUtil.formatMs(alert.getMagnitudeMs())), YELLOW);
+        }
+
         // System count
         String systemLine = String.format("Systems: %d | Total time: %s",
             systems.size(), FormatUtil.formatMs(totalSystemMs));
@@ -157,6 +252,22 @@ public class ProfilerCommand extends AbstractPlayerCommand {
             FormatUtil.formatCount(totalEventCalls), FormatUtil.formatMs(totalEventMs));
         sendMessage(playerData, eventLine, WHITE);
 
+        // Tick decomposition over the last minute
+        TickBreakdownData breakdown = plugin.getTickBreakdownCollector().collect(world);
+        if (breakdown.getTicks() > 0) {
+            StringBuilder breakdownLine = new StringBuilder("Tick (1m):");
+            Color breakdownColor = WHITE;
+            for (TickBreakdownData.Component component : breakdown.getComponents()) {
+                double percent = breakdown.getPercentage(component, MultiWindowStat.W_1M);
+                if (percent < 1.0 && !component.isUnattributed()) continue;
+                breakdownLine.append(' ').append(component.getName()).append(' ')
+                    .append(FormatUtil.formatPercent(percent)).append(" |");
+                if (component.isUnattributed() && percent >= 50.0) breakdownColor = YELLOW;
+            }
+            breakdownLine.setLength(breakdownLine.length() - 2);
+            sendMessage(playerData, breakdownLine.toString(), breakdownColor);
+        }
+
         // Top slowest systems
         if (!systems.isEmpty()) {
             sendMessage(playerData, "", WHITE);
@@ -194,20 +305,56 @@ public class ProfilerCommand extends AbstractPlayerCommand {
     }
 
     private void showTPS(PlayerRef playerData, World world) {
-        TPSData tps = plugin.getTpsCollector().collect(world);
+        TPSData tps = plugin.getTpsSnapshots().latestOrCollect(world);
 
         sendMessage(playerData, "========== TPS Details ==========", GOLD);
 
         Color tpsColor = tps.isHealthy() ? GREEN : (tps.isWarning() ? YELLOW : RED);
-        sendMessage(playerData, String.format("Current TPS: %s (%s)",
+        sendMessage(playerData, String.format("Current TPS: %s / %s (%s)",
             FormatUtil.formatTps(tps.getTps()),
+            FormatUtil.formatTps(tps.getTargetTps()),
             FormatUtil.formatPercent(tps.getTpsPercentage())), tpsColor);
+        sendMessage(playerData, tps.isMeasuredFromIntervals()
+            ? "  Measured from tick start-to-start intervals"
+            : "  Estimated from tick length (no interval data yet)", GRAY);
 
         sendMessage(playerData, "", WHITE);
-        sendMessage(playerData, "Tick Timing:", AQUA);
+        sendMessage(playerData, String.format("Tick Timing (budget %s):", FormatUtil.formatMs(tps.getTickBudgetMs())), AQUA);
         sendMessage(playerData, String.format("  Average: %s", FormatUtil.formatMs(tps.getAvgTickMs())), GRAY);
         sendMessage(playerData, String.format("  Minimum: %s", FormatUtil.formatMs(tps.getMinTickMs())), GRAY);
         sendMessage(playerData, String.format("  Maximum: %s", FormatUtil.formatMs(tps.getMaxTickMs())), GRAY);
+        sendMessage(playerData, String.format("  p50: %s | p95: %s | p99: %s | p99.9: %s",
+            FormatUtil.formatMs(tps.getP50TickMs()), FormatUtil.formatMs(tps.getP95TickMs()),
+            FormatUtil.formatMs(tps.getP99TickMs()), FormatUtil.formatMs(tps.getP999TickMs())),
+            tps.getP99TickMs() > tps.getTickBudgetMs() ? YELLOW : GRAY);
+        sendMessage(playerData, String.format("  Std dev: %s | Jitter: %s",
+            FormatUtil.formatMs(tps.getStdDevTickMs()), FormatUtil.formatMs(tps.getJitterMs())), GRAY);
+
+        // Moving averages and maxima over each window
+        WindowedMetricsData windows = plugin.getWindowedMetricsCollector().collect(world);
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, "Windows (" + String.join(" / ", MultiWindowStat.WINDOW_NAMES) + "):", AQUA);
+        StringBuilder tpsRow = new StringBuilder("  TPS:");
+        StringBuilder avgRow = new StringBuilder("  Tick avg:");
+        StringBuilder maxRow = new StringBuilder("  Tick max:");
+        StringBuilder entityRow = new StringBuilder("  Entities:");
+        StringBuilder heapRow = new StringBuilder("  Heap:");
+        StringBuilder allocRow = new StringBuilder("  Alloc/s:");
+        for (int w = 0; w < MultiWindowStat.WINDOWS; w++) {
+            String sep = w == 0 ? " " : " / ";
+            tpsRow.append(sep).append(FormatUtil.formatTps(windows.getTps()[w]));
+            avgRow.append(sep).append(FormatUtil.formatMs(windows.getTickMs().getAverages()[w]));
+            maxRow.append(sep).append(FormatUtil.formatMs(windows.getTickMs().getMaxima()[w]));
+            entityRow.append(sep).append(FormatUtil.formatCount(Math.round(windows.getEntities().getAverages()[w])));
+            heapRow.append(sep).append(FormatUtil.formatBytes((long) windows.getHeapBytes().getAverages()[w]));
+            allocRow.append(sep).append(FormatUtil.formatBytes((long) windows.getAllocationBytesPerSecond().getAverages()[w]));
+        }
+        sendMessage(playerData, tpsRow.toString(), GRAY);
+        sendMessage(playerData, avgRow.toString(), GRAY);
+        sendMessage(playerData, maxRow.toString(), GRAY);
+        sendMessage(playerData, entityRow.toString(), GRAY);
+        sendMessage(playerData, heapRow.toString(), GRAY);
+        sendMessage(playerData, allocRow.toString(), GRAY);
 
         // Status indicator
         sendMessage(playerData, "", WHITE);
@@ -221,8 +368,95 @@ public class ProfilerCommand extends AbstractPlayerCommand {
         sendMessage(playerData, "=================================", GOLD);
     }
 
+    private void showTickBreakdown(PlayerRef playerData, World world) {
+        TickBreakdownData breakdown = plugin.getTickBreakdownCollector().collect(world);
+
+        sendMessage(playerData, "========== Tick Breakdown ==========", GOLD);
+        if (breakdown.getTicks() == 0) {
+            sendMessage(playerData, "No ticks recorded yet.", GRAY);
+            sendMessage(playerData, "====================================", GOLD);
+            return;
+        }
+
+        double[] tick = breakdown.getTickAveragesMs();
+        sendMessage(playerData, String.format("Tick: last %s | 10s %s | 1m %s | 5m %s",
+            FormatUtil.formatMs(breakdown.getLastTickMs()),
+            FormatUtil.formatMs(tick[MultiWindowStat.W_10S]),
+            FormatUtil.formatMs(tick[MultiWindowStat.W_1M]),
+            FormatUtil.formatMs(tick[MultiWindowStat.W_5M])), AQUA);
+
+        for (TickBreakdownData.Component component : breakdown.getComponents()) {
+            double[] averages = component.getAveragesMs();
+            double percent = breakdown.getPercentage(component, MultiWindowStat.W_1M);
+            Color color = component.isUnattributed() ? (percent >= 50.0 ? YELLOW : WHITE) : GRAY;
+            sendMessage(playerData, String.format("  %s %s | 10s %s | 1m %s (%s) | 5m %s",
+                FormatUtil.padRight(component.getName(), 14),
+                FormatUtil.formatMs(component.getLastMs()),
+                FormatUtil.formatMs(averages[MultiWindowStat.W_10S]),
+                FormatUtil.formatMs(averages[MultiWindowStat.W_1M]),
+                FormatUtil.formatPercent(percent),
+                FormatUtil.formatMs(averages[MultiWindowStat.W_5M])), color);
+        }
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, "Unattributed time is tick work outside ECS systems", GRAY);
+        sendMessage(playerData, "and timed events: chunk I/O, networking, scheduled tasks.", GRAY);
+        sendMessage(playerData, "====================================", GOLD);
+    }
+
+    private void showWhy(PlayerRef playerData, World world, Integer count) {
+        CauseCorrelator correlator = plugin.getCauseCorrelator();
+        List<CauseAnalysis> degraded = correlator.getDegradedWindows(world);
+        int limit = count != null ? count : 8;
+
+        sendMessage(playerData, "=== Why is TPS low? ===", GOLD);
+        CauseAnalysis analysis;
+        if (!degraded.isEmpty()) {
+            analysis = degraded.get(0);
+            long agoSeconds = (System.currentTimeMillis() - analysis.getStartMillis()) / 1000;
+            sendMessage(playerData, String.format("Latest degraded window: %s ago (%d degraded in history)",
+                FormatUtil.formatDuration(agoSeconds), degraded.size()), AQUA);
+        } else {
+            analysis = correlator.analyzeCurrentWindow(world);
+            if (analysis == null) {
+                sendMessage(playerData, "Not enough ticks yet - windows are " + CauseCorrelator.WINDOW_MS / 1000 + "s.", GRAY);
+                sendMessage(playerData, "=======================", GOLD);
+                return;
+            }
+            sendMessage(playerData, "No degraded window yet; showing the current window.", GREEN);
+        }
+
+        Color color = analysis.isDegraded() ? YELLOW : GREEN;
+        sendMessage(playerData, String.format("TPS %s / %s | Tick avg %s, max %s | %d ticks over %.0fs",
+            FormatUtil.formatTps(analysis.getTps()), FormatUtil.formatTps(analysis.getTargetTps()),
+            FormatUtil.formatMs(analysis.getAvgTickMs()), FormatUtil.formatMs(analysis.getMaxTickMs()),
+            analysis.getTicks(), analysis.getDurationSeconds()), color);
+
+        sendMessage(playerData, "", WHITE);
+        if (analysis.getCauses().isEmpty()) {
+            sendMessage(playerData, "Nothing co-varied with tick time - look at unattributed time in /profiler tick.", GRAY);
+        } else {
+            sendMessage(playerData, "Candidates by correlation with tick time:", AQUA);
+            int rank = 1;
+            for (CauseAnalysis.Cause cause : analysis.getCauses()) {
+                if (rank > limit) break;
+                String baseline = cause.hasBaseline()
+                    ? String.format(" (normal %.2f)", cause.getBaselineMean()) : "";
+                sendMessage(playerData, String.format("  %d. [%s] %s r=%.2f | %.2f %s/tick%s",
+                    rank, cause.getCategory(), cause.getName(), cause.getCorrelation(),
+                    cause.getWindowMean(), cause.getUnit(), baseline),
+                    cause.getCorrelation() >= 0.7 ? YELLOW : GRAY);
+                rank++;
+            }
+        }
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, "Correlation is not causation: check the top candidates first.", GRAY);
+        sendMessage(playerData, "=======================", GOLD);
+    }
+
     private void showMods(PlayerRef playerData, World world) {
-        List<SystemProfile> systems = plugin.getSystemMetricsCollector().collectSystems(world);
+        List<SystemProfile> systems = plugin.getSystemSnapshots().latestOrCollect(world);
         List<ModProfile> mods = plugin.getSystemMetricsCollector().aggregateByMod(systems);
         double totalMs = plugin.getSystemMetricsCollector().getTotalSystemTimeMs(systems);
 
@@ -251,7 +485,7 @@ public class ProfilerCommand extends AbstractPlayerCommand {
 
     private void showSystems(PlayerRef playerData, World world, Integer count) {
         int limit = count != null && count > 0 ? count : 10;
-        List<SystemProfile> systems = plugin.getSystemMetricsCollector().collectSystems(world);
+        List<SystemProfile> systems = plugin.getSystemSnapshots().latestOrCollect(world);
         double totalMs = plugin.getSystemMetricsCollector().getTotalSystemTimeMs(systems);
 
         sendMessage(playerData, "=== ECS System Timing ===", GOLD);
@@ -282,7 +516,7 @@ public class ProfilerCommand extends AbstractPlayerCommand {
 
     private void showTop(PlayerRef playerData, World world, Integer count) {
         int limit = count != null && count > 0 ? count : 5;
-        List<SystemProfile> systems = plugin.getSystemMetricsCollector().collectSystems(world);
+        List<SystemProfile> systems = plugin.getSystemSnapshots().latestOrCollect(world);
         double totalMs = plugin.getSystemMetricsCollector().getTotalSystemTimeMs(systems);
 
         sendMessage(playerData, "=== Top " + limit + " Slowest Systems ===", GOLD);
@@ -345,6 +579,13 @@ public class ProfilerCommand extends AbstractPlayerCommand {
                     FormatUtil.formatMs(event.getMinTimeMs()),
                     FormatUtil.formatMs(event.getMaxTimeMs())), GRAY);
 
+                if (event.isEstimated()) {
+                    sendMessage(playerData, String.format("    Sampled 1/%d now, %s timed | Avg ±%s, Total ±%s (95%%)",
+                        event.getSampleInterval(), FormatUtil.formatCount(event.getSampleCount()),
+                        FormatUtil.formatMs(event.getAvgConfidenceMs()),
+                        FormatUtil.formatMs(event.getTotalConfidenceMs())), GRAY);
+                }
+
                 rank++;
             }
 
@@ -356,11 +597,167 @@ public class ProfilerCommand extends AbstractPlayerCommand {
 
         sendMessage(playerData, "", WHITE);
         sendMessage(playerData, "Note: Times include all handlers for each event type.", GRAY);
+        sendMessage(playerData, "Busy events are timed 1-in-N; counts stay exact, times are estimates.", GRAY);
         sendMessage(playerData, "============================", GOLD);
     }
 
+    private void showPlayers(PlayerRef playerData, Integer count) {
+        PlayerCostTracker costs = plugin.getEventTimingCollector().getPlayerCosts();
+        List<PlayerCost> players = costs.getTopPlayers(count != null ? count : 10);
+        long totalNanos = costs.getTotalNanos();
+
+        sendMessage(playerData, "=== Player Event Cost ===", GOLD);
+        sendMessage(playerData, String.format("Attributed: %s in %s events | Tracking %d/%d slots",
+            FormatUtil.formatNsToMs(totalNanos), FormatUtil.formatCount(costs.getTotalCalls()),
+            costs.getTrackedPlayers(), costs.getCapacity()), WHITE);
+
+        if (players.isEmpty()) {
+            sendMessage(playerData, "No player events recorded yet.", GRAY);
+        } else {
+            sendMessage(playerData, "", WHITE);
+            int rank = 1;
+            for (PlayerCost player : players) {
+                double share = totalNanos > 0 ? player.getTotalNanos() * 100.0 / totalNanos : 0;
+                String error = player.getErrorNanos() > 0
+                    ? " (+/-" + FormatUtil.formatNsToMs(player.getErrorNanos()) + ")" : "";
+                sendMessage(playerData, String.format("%2d. %s %s%s (%s) | %.1f events/s | mostly %s",
+                    rank++, FormatUtil.padRight(player.getPlayerName(), 16),
+                    FormatUtil.formatNsToMs(player.getTotalNanos()), error, FormatUtil.formatPercent(share),
+                    player.getCallsPerSecond(), player.getTopEvent()),
+                    share > 50 && players.size() > 1 ? YELLOW : GRAY);
+            }
+        }
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, "Totals with +/- may include time from players evicted from the sketch.", GRAY);
+        sendMessage(playerData, "=========================", GOLD);
+    }
+
+    private void handleCustom(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef,
+                              String[] parts, Integer count) {
+        String action = parts.length > 1 ? parts[1].toLowerCase() : "";
+        if (action.equals("on") || action.equals("off")) {
+            Player player = store.getComponent(playerRef, Player.getComponentType());
+            if (!player.hasPermission("profiler.admin")) {
+                sendMessage(playerData, "You need profiler.admin permission to toggle custom metrics.", RED);
+                return;
+            }
+            if (!ProfilerAPI.isAvailable()) {
+                sendMessage(playerData, "Custom metrics were disabled at startup (-Dhytaleprofiler.api=false).", RED);
+                return;
+            }
+            ProfilerAPI.setEnabled(action.equals("on"));
+            sendMessage(playerData, "Custom metric recording " + (action.equals("on") ? "enabled." : "disabled."), GREEN);
+            return;
+        }
+
+        MetricRegistry registry = ProfilerAPI.getRegistry();
+        int limit = count != null ? count : 10;
+
+        sendMessage(playerData, "=== Custom Metrics ===", GOLD);
+        sendMessage(playerData, String.format("Recording: %s | Metrics: %d",
+            ProfilerAPI.isEnabled() ? "on" : "off", registry.size()), ProfilerAPI.isEnabled() ? GREEN : YELLOW);
+        if (registry.size() == 0) {
+            sendMessage(playerData, "No plugin has registered metrics through ProfilerAPI.", GRAY);
+            sendMessage(playerData, "======================", GOLD);
+            return;
+        }
+
+        List<Timer> timers = registry.getTimers();
+        if (!timers.isEmpty()) {
+            sendMessage(playerData, "", WHITE);
+            sendMessage(playerData, "Timers:", AQUA);
+            for (Timer timer : timers.subList(0, Math.min(limit, timers.size()))) {
+                long calls = timer.getCount();
+                double totalMs = timer.getTotalNanos() / 1_000_000.0;
+                sendMessage(playerData, String.format("  %s %s calls | avg %s | max %s | total %s%s",
+                    timer.getName(), FormatUtil.formatCount(calls),
+                    FormatUtil.formatMs(calls > 0 ? totalMs / calls : 0),
+                    FormatUtil.formatNsToMs(timer.getMaxNanos()), FormatUtil.formatMs(totalMs),
+                    timer.isTickPhase() ? " [tick phase]" : ""), GRAY);
+            }
+        }
+
+        List<Counter> counters = registry.getCounters();
+        if (!counters.isEmpty()) {
+            sendMessage(playerData, "", WHITE);
+            sendMessage(playerData, "Counters:", AQUA);
+            for (Counter counter : counters.subList(0, Math.min(limit, counters.size()))) {
+                sendMessage(playerData, String.format("  %s %s", counter.getName(),
+                    FormatUtil.formatCount(counter.get())), GRAY);
+            }
+        }
+
+        List<Gauge> gauges = registry.getGauges();
+        if (!gauges.isEmpty()) {
+            sendMessage(playerData, "", WHITE);
+            sendMessage(playerData, "Gauges:", AQUA);
+            for (Gauge gauge : gauges.subList(0, Math.min(limit, gauges.size()))) {
+                sendMessage(playerData, String.format("  %s %.2f", gauge.getName(), gauge.get()), GRAY);
+            }
+        }
+
+        sendMessage(playerData, "======================", GOLD);
+    }
+
+    private void handleSelf(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef,
+                            String[] parts, Integer count) {
+        OverheadMonitor monitor = plugin.getOverheadMonitor();
+        if (parts.length > 1 && parts[1].equalsIgnoreCase("budget")) {
+            Player player = store.getComponent(playerRef, Player.getComponentType());
+            if (!player.hasPermission("profiler.admin")) {
+                sendMessage(playerData, "You need profiler.admin permission to change the overhead budget.", RED);
+                return;
+            }
+            if (parts.length < 3) {
+                sendMessage(playerData, "Usage: /profiler self budget <percent>|off", YELLOW);
+                return;
+            }
+            double percent;
+            try {
+                percent = parts[2].equalsIgnoreCase("off") ? 0 : Double.parseDouble(parts[2].replace("%", ""));
+            } catch (NumberFormatException e) {
+                sendMessage(playerData, "Invalid budget: " + parts[2], RED);
+                return;
+            }
+            monitor.setBudgetPercent(percent);
+            sendMessage(playerData, percent > 0
+                ? "Overhead budget set to " + FormatUtil.formatPercent(percent) + " of tick time."
+                : "Overhead throttling disabled; all collectors restored.", GREEN);
+            return;
+        }
+
+        OverheadData data = monitor.collect();
+        int limit = count != null ? count : 15;
+
+        sendMessage(playerData, "=== Profiler Overhead ===", GOLD);
+        String budget = data.getBudgetPercent() > 0 ? FormatUtil.formatPercent(data.getBudgetPercent()) : "off";
+        boolean over = data.getBudgetPercent() > 0 && data.getTickPathPercent() > data.getBudgetPercent();
+        sendMessage(playerData, String.format("Tick path: %s of tick time (%s/s) | Budget: %s",
+            FormatUtil.formatPercent(data.getTickPathPercent()),
+            FormatUtil.formatMs(data.getTickPathMsPerSecond()), budget), over ? RED : GREEN);
+        sendMessage(playerData, String.format("Background threads: %s/s", FormatUtil.formatMs(data.getBackgroundMsPerSecond())), GRAY);
+        if (data.getSamplingDivisor() > 1) {
+            sendMessage(playerData, String.format("Event sampling lowered %dx to stay within budget", data.getSamplingDivisor()), YELLOW);
+        }
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, "Last second, per component (CPU | alloc | total CPU):", AQUA);
+        List<OverheadData.Component> components = data.getComponents();
+        for (OverheadData.Component c : components.subList(0, Math.min(limit, components.size()))) {
+            sendMessage(playerData, String.format("  %s %s/s | %s/s | %s%s",
+                FormatUtil.padRight(c.getName(), 26), FormatUtil.formatMs(c.getCpuMsPerSecond()),
+                FormatUtil.formatBytes(Math.round(c.getAllocBytesPerSecond())), FormatUtil.formatMs(c.getTotalCpuMs()),
+                c.isShed() ? " [paused]" : c.getKind().equals("background") ? " [background]" : ""),
+                c.isShed() ? YELLOW : GRAY);
+        }
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, "Event hooks count only timed dispatches; untimed ones are a counter increment.", GRAY);
+        sendMessage(playerData, "=========================", GOLD);
+    }
+
     private void showEntities(PlayerRef playerData, World world) {
-        EntityData entities = plugin.getEntityCollector().collect(world);
+        EntityData entities = plugin.getEntitySnapshots().latestOrCollect(world);
 
         sendMessage(playerData, "=== Entity Breakdown ===", GOLD);
         sendMessage(playerData, String.format("Total Entities: %s",
@@ -391,8 +788,224 @@ public class ProfilerCommand extends AbstractPlayerCommand {
         sendMessage(playerData, "========================", GOLD);
     }
 
+    private void showEcs(PlayerRef playerData, World world, Integer count) {
+        FragmentationData frag = plugin.getEntityCollector().collectFragmentation(world);
+        int limit = count != null ? count : 8;
+
+        sendMessage(playerData, "=== ECS Fragmentation ===", GOLD);
+        if (frag.getTotalChunks() == 0) {
+            sendMessage(playerData, "No archetype chunk data available.", GRAY);
+            sendMessage(playerData, "=========================", GOLD);
+            return;
+        }
+
+        double fill = frag.getOverallFill() * 100.0;
+        sendMessage(playerData, String.format("Chunks: %s | Entities: %s | Archetypes: %d",
+            FormatUtil.formatCount(frag.getTotalChunks()), FormatUtil.formatCount(frag.getTotalEntities()),
+            frag.getArchetypes().size()), WHITE);
+        sendMessage(playerData, String.format("Fill: %s %s | Empty slots: %s (capacity ~%d/chunk)",
+            FormatUtil.progressBar(fill, 10), FormatUtil.formatPercent(fill),
+            FormatUtil.formatCount(frag.getWastedSlots()), frag.getEstimatedChunkCapacity()),
+            fill < 50 ? RED : (fill < 75 ? YELLOW : GREEN));
+
+        List<FragmentationData.Sample> history = frag.getHistory();
+        if (history.size() >= 2) {
+            FragmentationData.Sample first = history.get(0);
+            FragmentationData.Sample last = history.get(history.size() - 1);
+            long minutes = (last.getTimestampMillis() - first.getTimestampMillis()) / 60_000;
+            int chunkGrowth = last.getChunks() - first.getChunks();
+            int entityGrowth = last.getEntities() - first.getEntities();
+            double fillChange = (last.getFill() - first.getFill()) * 100.0;
+            sendMessage(playerData, String.format("Last %dm: chunks %+d, entities %+d, archetypes %+d, fill %+.1f%%",
+                minutes, chunkGrowth, entityGrowth, last.getArchetypes() - first.getArchetypes(), fillChange),
+                chunkGrowth > 0 && fillChange < -5 ? RED : GRAY);
+        }
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, "Most fragmented (by empty slots):", AQUA);
+        frag.getArchetypes().stream()
+            .filter(a -> a.getWastedSlots() > 0)
+            .sorted((a, b) -> Integer.compare(b.getWastedSlots(), a.getWastedSlots()))
+            .limit(limit)
+            .forEach(a -> sendMessage(playerData, String.format("  %s %d chunks | avg %s | worst %s | %d nearly empty",
+                FormatUtil.padRight(a.getSignature(), 28), a.getChunks(),
+                FormatUtil.formatPercent(a.getAvgFill() * 100.0),
+                FormatUtil.formatPercent(a.getWorstFill() * 100.0),
+                a.getNearlyEmptyChunks()), a.getAvgFill() < 0.5 ? YELLOW : GRAY));
+
+        List<FragmentationData.ArchetypeFill> small = frag.getArchetypes().stream()
+            .filter(a -> a.getEntities() <= SMALL_ARCHETYPE_ENTITIES)
+            .sorted((a, b) -> Integer.compare(a.getEntities(), b.getEntities()))
+            .toList();
+        if (!small.isEmpty()) {
+            sendMessage(playerData, "", WHITE);
+            sendMessage(playerData, String.format("Tiny archetypes (<= %d entities): %d",
+                SMALL_ARCHETYPE_ENTITIES, small.size()), AQUA);
+            small.stream().limit(limit).forEach(a -> sendMessage(playerData, String.format("  %s %d entities | %d components",
+                FormatUtil.padRight(a.getSignature(), 28), a.getEntities(), a.getComponentCount()), GRAY));
+            sendMessage(playerData, "Many tiny archetypes usually mean components are added/removed per entity.", GRAY);
+        }
+
+        sendMessage(playerData, "=========================", GOLD);
+    }
+
+    private void showChurn(PlayerRef playerData, World world, Integer count) {
+        ChurnData churn = plugin.getChurnTracker().snapshot(world);
+        int limit = count != null ? count : 10;
+
+        sendMessage(playerData, "=== Entity Churn ===", GOLD);
+        if (churn.getArchetypes().isEmpty()) {
+            sendMessage(playerData, "No churn data yet - sampling every " + ChurnTracker.SAMPLE_INTERVAL_TICKS + " ticks.", GRAY);
+            sendMessage(playerData, "====================", GOLD);
+            return;
+        }
+
+        double spawn = churn.getTotalSpawnRate();
+        double despawn = churn.getTotalDespawnRate();
+        sendMessage(playerData, String.format("Spawn: %.1f/s | Despawn: %.1f/s | Net: %+.1f/s | Tracked: %s",
+            spawn, despawn, spawn - despawn, FormatUtil.formatDuration((long) churn.getTrackedSeconds())),
+            spawn - despawn > 5 ? YELLOW : WHITE);
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, "Busiest archetypes:", AQUA);
+        churn.getArchetypes().stream()
+            .filter(a -> a.getSpawnRate() + a.getDespawnRate() >= 0.05)
+            .sorted((a, b) -> Double.compare(b.getSpawnRate() + b.getDespawnRate(), a.getSpawnRate() + a.getDespawnRate()))
+            .limit(limit)
+            .forEach(a -> sendMessage(playerData, String.format("  %s %s | +%.1f/s -%.1f/s | net %+.1f/s",
+                FormatUtil.padRight(a.getSignature(), 28), FormatUtil.padLeft(FormatUtil.formatCount(a.getCount()), 7),
+                a.getSpawnRate(), a.getDespawnRate(), a.getNetRate()), GRAY));
+
+        List<ChurnData.ArchetypeChurn> runaways = churn.getRunaways();
+        if (!runaways.isEmpty()) {
+            sendMessage(playerData, "", WHITE);
+            sendMessage(playerData, "Runaway growth:", RED);
+            for (ChurnData.ArchetypeChurn a : runaways) {
+                sendMessage(playerData, String.format("  %s %s entities (+%s over %dm)",
+                    FormatUtil.padRight(a.getSignature(), 28), FormatUtil.formatCount(a.getCount()),
+                    FormatUtil.formatCount(a.getGrowth()), a.getGrowthMinutes()), RED);
+            }
+        }
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, "Rates are net changes between samples; short-lived entities are not counted.", GRAY);
+        sendMessage(playerData, "====================", GOLD);
+    }
+
+    private void handleRegressions(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef,
+                                   String[] parts, Integer count) {
+        RegressionDetector detector = plugin.getRegressionDetector();
+        if (parts.length > 1 && parts[1].equalsIgnoreCase("clear")) {
+            Player player = store.getComponent(playerRef, Player.getComponentType());
+            if (!player.hasPermission("profiler.admin")) {
+                sendMessage(playerData, "You need profiler.admin permission to clear alerts.", RED);
+                return;
+            }
+            detector.clearAlerts();
+            sendMessage(playerData, "Regression alerts cleared.", GREEN);
+            return;
+        }
+
+        List<RegressionAlert> alerts = detector.getAlerts();
+        int limit = count != null ? count : 10;
+
+        sendMessage(playerData, "=== Cost Regressions ===", GOLD);
+        if (alerts.isEmpty()) {
+            sendMessage(playerData, "No sustained cost increases detected.", GREEN);
+        }
+        long now = System.currentTimeMillis();
+        for (RegressionAlert alert : alerts.subList(0, Math.min(limit, alerts.size()))) {
+            String what = alert.getKind() == RegressionAlert.Kind.SYSTEM
+                ? alert.getName() + " (" + alert.getModName() + ")"
+                : "mod " + alert.getName();
+            sendMessage(playerData, String.format("%s on %s", what, alert.getWorldName()), YELLOW);
+            sendMessage(playerData, String.format("  %s -> %s per tick (+%s, x%.1f) | started %s ago",
+                FormatUtil.formatMs(alert.getBaselineMs()), FormatUtil.formatMs(alert.getCurrentMs()),
+                FormatUtil.formatMs(alert.getMagnitudeMs()), alert.getRatio(),
+                FormatUtil.formatDuration((now - alert.getStartedAtMillis()) / 1000)), GRAY);
+        }
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, String.format("Page-Hinkley test on %ds rollups of every system and mod.",
+            RegressionDetector.ROLLUP_MS / 1000), GRAY);
+        sendMessage(playerData, "========================", GOLD);
+    }
+
+    private void handleHotspots(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef,
+                                World world, String[] parts, Integer count) {
+        boolean export = parts.length > 1 && parts[1].equalsIgnoreCase("export");
+        if (export) {
+            Player player = store.getComponent(playerRef, Player.getComponentType());
+            if (!player.hasPermission("profiler.admin")) {
+                sendMessage(playerData, "You need profiler.admin permission to export heatmaps.", RED);
+                return;
+            }
+        }
+
+        HotspotCollector hotspots = plugin.getHotspotCollector();
+        HotspotData data = hotspots.collect(world, count != null ? count : 10);
+
+        sendMessage(playerData, "=== Entity Hotspots ===", GOLD);
+        sendMessage(playerData, String.format("Entities: %s | Occupied regions: %s (%dx%d blocks)",
+            FormatUtil.formatCount(data.getTotalEntities()), FormatUtil.formatCount(data.getRegionCount()),
+            data.getRegionSizeBlocks(), data.getRegionSizeBlocks()), WHITE);
+        if (data.getUntrackedEntities() > 0) {
+            sendMessage(playerData, String.format("Region limit reached - %s entities not bucketed",
+                FormatUtil.formatCount(data.getUntrackedEntities())), YELLOW);
+        }
+
+        if (data.getTopRegions().isEmpty()) {
+            sendMessage(playerData, "No positioned entities found.", GRAY);
+        } else {
+            sendMessage(playerData, "", WHITE);
+            int rank = 1;
+            for (HotspotData.Region region : data.getTopRegions()) {
+                double share = data.getTotalEntities() > 0 ? region.getEntities() * 100.0 / data.getTotalEntities() : 0;
+                String nearest = region.getNearestPlayer() != null
+                    ? String.format("%s (%.0fm)", region.getNearestPlayer(), region.getNearestPlayerDistance())
+                    : "no players";
+                sendMessage(playerData, String.format("%2d. x=%d z=%d: %s entities (%s) | near %s",
+                    rank++, region.getBlockX(), region.getBlockZ(),
+                    FormatUtil.formatCount(region.getEntities()), FormatUtil.formatPercent(share), nearest),
+                    share > 25 ? YELLOW : WHITE);
+
+                StringBuilder archetypes = new StringBuilder("    ");
+                for (Map.Entry<String, Integer> entry : region.getDominantArchetypes().entrySet()) {
+                    if (archetypes.length() > 4) archetypes.append(", ");
+                    archetypes.append(entry.getKey()).append(" x").append(FormatUtil.formatCount(entry.getValue()));
+                }
+                sendMessage(playerData, archetypes.toString(), GRAY);
+            }
+        }
+
+        if (export) {
+            try {
+                Path exportDir = plugin.getExportDirectory();
+                Files.createDirectories(exportDir);
+
+                String filename = "profiler-hotspots-" +
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss")) + ".json";
+                Path exportFile = exportDir.resolve(filename);
+
+                Map<String, Object> heatmap = hotspots.buildHeatmap();
+                heatmap.put("world", world.getName());
+                heatmap.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+
+                Gson gson = new GsonBuilder().create();
+                try (FileWriter writer = new FileWriter(exportFile.toFile())) {
+                    gson.toJson(heatmap, writer);
+                }
+                sendMessage(playerData, "Heatmap exported to: " + exportFile.getFileName(), GREEN);
+            } catch (IOException e) {
+                sendMessage(playerData, "Failed to export heatmap: " + e.getMessage(), RED);
+            }
+        }
+
+        sendMessage(playerData, "=======================", GOLD);
+    }
+
     private void showMemory(PlayerRef playerData) {
-        JVMData jvm = plugin.getJvmMetricsCollector().collect();
+        JVMData jvm = plugin.getJvmSnapshots().latestOrCollect(null);
 
         sendMessage(playerData, "=== JVM Memory Stats ===", GOLD);
 
@@ -411,6 +1024,18 @@ public class ProfilerCommand extends AbstractPlayerCommand {
         sendMessage(playerData, "", WHITE);
         sendMessage(playerData, String.format("Non-Heap: %s", FormatUtil.formatBytes(jvm.getNonHeapUsed())), GRAY);
         sendMessage(playerData, String.format("Threads: %d", jvm.getThreadCount()), GRAY);
+        Color codeCacheColor = jvm.getCodeCachePercentage() > 90 ? RED : GRAY;
+        sendMessage(playerData, String.format("Code cache: %s / %s (%s) | JIT time: %s",
+            FormatUtil.formatBytes(jvm.getCodeCacheUsed()), FormatUtil.formatBytes(jvm.getCodeCacheMax()),
+            FormatUtil.formatPercent(jvm.getCodeCachePercentage()),
+            jvm.getTotalCompileTimeMs() >= 0 ? FormatUtil.formatDuration(jvm.getTotalCompileTimeMs() / 1000) : "n/a"),
+            codeCacheColor);
+
+        ProcData proc = plugin.getProcSnapshots() != null ? plugin.getProcSnapshots().latest(null) : null;
+        if (proc != null) {
+            sendMessage(playerData, String.format("Process RSS: %s | Outside heap: %s",
+                FormatUtil.formatBytes(proc.getRssBytes()), FormatUtil.formatBytes(proc.getNativeBytes())), GRAY);
+        }
 
         // GC stats
         sendMessage(playerData, "", WHITE);
@@ -428,9 +1053,246 @@ public class ProfilerCommand extends AbstractPlayerCommand {
                 stats.getTimeMs()), GRAY);
         }
 
+        JfrData jfr = plugin.getJfrSnapshots() != null ? plugin.getJfrSnapshots().latest(null) : null;
+        if (jfr != null) {
+            sendMessage(playerData, String.format("  Pauses (JFR, over %s): %s total, longest %s",
+                FormatUtil.formatDuration(jfr.getElapsedMs() / 1000), FormatUtil.formatMs(jfr.getGcPauseMs()),
+                FormatUtil.formatMs(jfr.getLongestPauseMs())), GRAY);
+        }
+
+        SafepointData safepoints = plugin.getSafepointSnapshots() != null
+            ? plugin.getSafepointSnapshots().latest(null) : null;
+        if (safepoints != null) {
+            SafepointData.Window minute = safepoints.getLastMinute();
+            sendMessage(playerData, "", WHITE);
+            sendMessage(playerData, "Safepoints (last minute):", AQUA);
+            Color pauseColor = minute.getMaxPauseMs() > 50 ? RED : (minute.getMaxPauseMs() > 10 ? YELLOW : GRAY);
+            sendMessage(playerData, String.format("  %s pauses, %s stopped | GC: %s | Other: %s in %s",
+                FormatUtil.formatCount(minute.getCount()), FormatUtil.formatMs(minute.getPauseMs()),
+                FormatUtil.formatMs(minute.getPauseMs() - minute.getNonGcPauseMs()),
+                FormatUtil.formatMs(minute.getNonGcPauseMs()), FormatUtil.formatCount(minute.getNonGcCount())),
+                pauseColor);
+            sendMessage(playerData, String.format("  Longest: %s | Max time to safepoint: %s",
+                FormatUtil.formatMs(minute.getMaxPauseMs()), FormatUtil.formatMs(minute.getMaxTimeToSafepointMs())),
+                pauseColor);
+            sendMessage(playerData, String.format("  Requested by profiler: %s | by JFR: %s",
+                FormatUtil.formatCount(minute.getProfilerCaused()), FormatUtil.formatCount(minute.getJfrCaused())),
+                GRAY);
+            for (SafepointData.WorldImpact impact : safepoints.getWorlds()) {
+                sendMessage(playerData, String.format("  %s: %s in %s ticks, worst tick %s",
+                    impact.getWorld(), FormatUtil.formatMs(impact.getPauseMs()),
+                    FormatUtil.formatCount(impact.getTicksHit()), FormatUtil.formatMs(impact.getWorstTickPauseMs())),
+                    GRAY);
+            }
+            List<SafepointData.Operation> operations = safepoints.getOperations();
+            for (int i = 0; i < Math.min(3, operations.size()); i++) {
+                SafepointData.Operation op = operations.get(i);
+                sendMessage(playerData, String.format("  %s: %s, %s total, longest %s",
+                    op.getName(), FormatUtil.formatCount(op.getCount()), FormatUtil.formatMs(op.getPauseMs()),
+                    FormatUtil.formatMs(op.getMaxPauseMs())), GRAY);
+            }
+        }
+
         sendMessage(playerData, "========================", GOLD);
     }
 
+    private void showJit(PlayerRef playerData, Integer count) {
+        JitData jit = plugin.getJitSnapshots().latestOrCollect(null);
+        int limit = count != null ? count : 10;
+
+        sendMessage(playerData, "=== JIT Compiler ===", GOLD);
+        if (jit.isWarming()) {
+            sendMessage(playerData, String.format("Warming up for %s - expect slower ticks until compile time settles.",
+                FormatUtil.formatDuration(jit.getWarmUpMs() / 1000)), YELLOW);
+        } else {
+            sendMessage(playerData, String.format("Warm. Last warm-up took %s.",
+                FormatUtil.formatDuration(jit.getWarmUpMs() / 1000)), GREEN);
+        }
+        if (jit.hasJfrEvents()) {
+            sendMessage(playerData, String.format("Compilations: %s | Deoptimizations: %s | Code cache full: %s",
+                FormatUtil.formatCount(jit.getTotalCompilations()), FormatUtil.formatCount(jit.getTotalDeoptimizations()),
+                FormatUtil.formatCount(jit.getCodeCacheFullEvents())),
+                jit.getCodeCacheFullEvents() > 0 ? RED : GRAY);
+        } else {
+            sendMessage(playerData, "JFR stream is off: only compile time and code cache are tracked.", GRAY);
+        }
+        sendMessage(playerData, String.format("Correlation with tick time: compile %s | deopts %s",
+            formatCorrelation(jit.getCompileTickCorrelation()), formatCorrelation(jit.getDeoptTickCorrelation())), GRAY);
+
+        List<JitData.Second> history = jit.getHistory();
+        if (!history.isEmpty()) {
+            sendMessage(playerData, "", WHITE);
+            sendMessage(playerData, "Last seconds (tick avg/max | compile | compiles | deopts | code cache):", AQUA);
+            for (JitData.Second s : history.subList(Math.max(0, history.size() - limit), history.size())) {
+                boolean storm = s.getDeoptimizations() >= JitMonitor.DEOPT_STORM_PER_SECOND;
+                sendMessage(playerData, String.format("  %s %s/%s | %s | %s | %s | %s",
+                    FormatUtil.padLeft(FormatUtil.formatDuration(s.getUptimeMs() / 1000), 8),
+                    FormatUtil.formatMs(s.getAvgTickMs()), FormatUtil.formatMs(s.getMaxTickMs()),
+                    FormatUtil.formatMs(s.getCompileMs()),
+                    s.getCompilations() >= 0 ? String.valueOf(s.getCompilations()) : "-",
+                    s.getDeoptimizations() >= 0 ? String.valueOf(s.getDeoptimizations()) : "-",
+                    FormatUtil.formatPercent(s.getCodeCachePercent())), storm ? RED : GRAY);
+            }
+        }
+
+        if (!jit.getStorms().isEmpty()) {
+            sendMessage(playerData, "", WHITE);
+            sendMessage(playerData, String.format("Deopt storms (%d+/s):", JitMonitor.DEOPT_STORM_PER_SECOND), AQUA);
+            for (JitData.Storm storm : jit.getStorms()) {
+                sendMessage(playerData, String.format("  at %s: %d deopts, avg tick %s, mostly %s",
+                    FormatUtil.formatDuration(storm.getUptimeMs() / 1000), storm.getDeoptimizations(),
+                    FormatUtil.formatMs(storm.getAvgTickMs()),
+                    storm.getTopMethod() != null ? storm.getTopMethod() : "?"), RED);
+            }
+        }
+
+        if (!jit.getDeoptMethods().isEmpty()) {
+            sendMessage(playerData, "", WHITE);
+            sendMessage(playerData, "Most deoptimized methods:", AQUA);
+            for (JitData.Count method : jit.getDeoptMethods().subList(0, Math.min(5, jit.getDeoptMethods().size()))) {
+                sendMessage(playerData, String.format("  %s x%s", method.getName(),
+                    FormatUtil.formatCount(method.getCount())), GRAY);
+            }
+            StringBuilder reasons = new StringBuilder();
+            for (JitData.Count reason : jit.getDeoptReasons().subList(0, Math.min(5, jit.getDeoptReasons().size()))) {
+                if (reasons.length() > 0) reasons.append(", ");
+                reasons.append(reason.getName()).append(" x").append(FormatUtil.formatCount(reason.getCount()));
+            }
+            sendMessage(playerData, "  Reasons: " + reasons, GRAY);
+        }
+        sendMessage(playerData, "====================", GOLD);
+    }
+
+    private void showHost(PlayerRef playerData, Integer count) {
+        ProcData proc = plugin.getProcSnapshots() != null ? plugin.getProcSnapshots().latest(null) : null;
+        if (proc == null) {
+            sendMessage(playerData, plugin.getProcSnapshots() == null
+                ? "Host stats need Linux with a readable /proc." : "No host stats collected yet.", RED);
+            return;
+        }
+        int limit = count != null ? count : 5;
+
+        sendMessage(playerData, "=== Process & Host ===", GOLD);
+        Color stealColor = proc.getStealPercent() > 10 ? RED : (proc.getStealPercent() > 2 ? YELLOW : GRAY);
+        sendMessage(playerData, String.format("CPU: %s of one core | %d cores | Load: %.2f %.2f %.2f",
+            FormatUtil.formatPercent(proc.getProcessCpuPercent()), proc.getCpus(),
+            proc.getLoad1(), proc.getLoad5(), proc.getLoad15()),
+            proc.getLoad1() > proc.getCpus() ? YELLOW : GRAY);
+        sendMessage(playerData, String.format("Host steal: %s | I/O wait: %s",
+            proc.getStealPercent() >= 0 ? FormatUtil.formatPercent(proc.getStealPercent()) : "n/a",
+            proc.getIowaitPercent() >= 0 ? FormatUtil.formatPercent(proc.getIowaitPercent()) : "n/a"), stealColor);
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, "Memory:", AQUA);
+        sendMessage(playerData, String.format("  RSS: %s (anon %s, file %s) | Swap: %s",
+            FormatUtil.formatBytes(proc.getRssBytes()), FormatUtil.formatBytes(proc.getRssAnonBytes()),
+            FormatUtil.formatBytes(proc.getRssFileBytes()), FormatUtil.formatBytes(proc.getSwapBytes())),
+            proc.getSwapBytes() > 0 ? YELLOW : GRAY);
+        sendMessage(playerData, String.format("  Heap committed: %s | Outside heap: %s",
+            FormatUtil.formatBytes(proc.getHeapCommittedBytes()), FormatUtil.formatBytes(proc.getNativeBytes())), GRAY);
+        sendMessage(playerData, String.format("  Page faults/s: %.0f minor, %.0f major",
+            proc.getMinorFaultsPerSecond(), proc.getMajorFaultsPerSecond()),
+            proc.getMajorFaultsPerSecond() > 0 ? YELLOW : GRAY);
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, "Scheduling & I/O:", AQUA);
+        sendMessage(playerData, String.format("  Context switches/s: %.0f voluntary, %.0f involuntary | Threads: %d",
+            proc.getVoluntarySwitchesPerSecond(), proc.getInvoluntarySwitchesPerSecond(), proc.getThreads()), GRAY);
+        sendMessage(playerData, String.format("  Disk: %s/s read, %s/s written | All I/O: %s/s in, %s/s out",
+            FormatUtil.formatBytes((long) proc.getDiskReadBytesPerSecond()),
+            FormatUtil.formatBytes((long) proc.getDiskWriteBytesPerSecond()),
+            FormatUtil.formatBytes((long) proc.getIoReadBytesPerSecond()),
+            FormatUtil.formatBytes((long) proc.getIoWriteBytesPerSecond())), GRAY);
+
+        List<ProcData.ThreadCpu> threads = proc.getTopThreads();
+        if (!threads.isEmpty()) {
+            sendMessage(playerData, "", WHITE);
+            sendMessage(playerData, "Busiest threads:", AQUA);
+            for (ProcData.ThreadCpu thread : threads.subList(0, Math.min(limit, threads.size()))) {
+                sendMessage(playerData, String.format("  %s %s%s",
+                    FormatUtil.padRight(thread.getName(), 16), FormatUtil.formatPercent(thread.getCpuPercent()),
+                    thread.getMajorFaultsPerSecond() > 0
+                        ? String.format(" | %.0f major faults/s", thread.getMajorFaultsPerSecond()) : ""),
+                    thread.getCpuPercent() > 90 ? YELLOW : GRAY);
+            }
+        }
+        sendMessage(playerData, "======================", GOLD);
+    }
+
+    private static String formatCorrelation(double r) {
+        return Double.isNaN(r) ? "n/a" : String.format("r=%.2f", r);
+    }
+
+    private void showStartup(PlayerRef playerData, Integer count) {
+        StartupProfiler profiler = plugin.getStartupProfiler();
+        StartupData data = profiler.collect();
+        int limit = count != null ? count : 10;
+
+        sendMessage(playerData, "=== Server Startup ===", GOLD);
+        if (!data.isComplete()) {
+            sendMessage(playerData, "Still starting - waiting for the first world tick.", YELLOW);
+        }
+
+        sendMessage(playerData, "Timeline (since JVM start | process CPU | classes | JIT):", AQUA);
+        for (StartupData.Milestone m : data.getMilestones()) {
+            sendMessage(playerData, String.format("  %s %s | %s | %s | %s",
+                FormatUtil.padRight(m.getName(), 28), FormatUtil.formatMs(m.getUptimeMs()),
+                m.getProcessCpuMs() >= 0 ? FormatUtil.formatMs(m.getProcessCpuMs()) : "n/a",
+                FormatUtil.formatCount(m.getClassesLoaded()),
+                m.getJitMs() >= 0 ? FormatUtil.formatMs(m.getJitMs()) : "n/a"), GRAY);
+        }
+
+        sendMessage(playerData, "", WHITE);
+        String budget = data.getBudgetMs() > 0 ? FormatUtil.formatMs(data.getBudgetMs()) : "none";
+        sendMessage(playerData, String.format("Plugins (setup | start, wall / CPU / classes) - budget %s:", budget), AQUA);
+        List<StartupData.Plugin> plugins = data.getPlugins();
+        if (plugins.isEmpty()) {
+            sendMessage(playerData, "  No plugin setup or start was sampled.", GRAY);
+        }
+        for (StartupData.Plugin p : plugins.subList(0, Math.min(limit, plugins.size()))) {
+            boolean over = data.getBudgetMs() > 0 && p.getTotalWallMs() > data.getBudgetMs();
+            sendMessage(playerData, String.format("  %s %s / %s / %s | %s / %s / %s%s",
+                FormatUtil.padRight(p.getName(), 24),
+                FormatUtil.formatMs(p.getSetupWallMs()), FormatUtil.formatMs(p.getSetupCpuMs()),
+                FormatUtil.formatCount(p.getSetupClasses()),
+                FormatUtil.formatMs(p.getStartWallMs()), FormatUtil.formatMs(p.getStartCpuMs()),
+                FormatUtil.formatCount(p.getStartClasses()),
+                over ? " [over budget]" : ""), over ? RED : GRAY);
+        }
+
+        List<StartupData.Loader> loaders = data.getClassLoaders();
+        if (!loaders.isEmpty()) {
+            sendMessage(playerData, "", WHITE);
+            sendMessage(playerData, "Classes per class loader:", AQUA);
+            for (StartupData.Loader loader : loaders.subList(0, Math.min(5, loaders.size()))) {
+                String name = loader.getName() != null ? loader.getName() : "(unnamed)";
+                sendMessage(playerData, String.format("  %s %s classes, %s metaspace%s",
+                    FormatUtil.padRight(name, 24), FormatUtil.formatCount(loader.getClassCount()),
+                    FormatUtil.formatBytes(loader.getMetaspaceBytes()),
+                    loader.getType() != null ? " [" + FormatUtil.simpleClassName(loader.getType()) + "]" : ""), GRAY);
+            }
+        }
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, String.format("Sampled every %dms (%s samples); plugins set up before the profiler loaded are missing.",
+            StartupProfiler.SAMPLE_INTERVAL_MS, FormatUtil.formatCount(data.getSampleCount())), GRAY);
+        sendMessage(playerData, String.format("Sampling read %s thread stacks, each a stop-the-world safepoint, taking %s (%.2f%% of sampled time).",
+            FormatUtil.formatCount(data.getStackDumps()), FormatUtil.formatMs(data.getStackDumpMs()),
+            data.getSampledMs() > 0 ? data.getStackDumpMs() / data.getSampledMs() * 100 : 0), GRAY);
+        if (profiler.getReportFile() != null) {
+            sendMessage(playerData, "Report: " + profiler.getReportFile().getFileName(), GREEN);
+        }
+        sendMessage(playerData, "======================", GOLD);
+    }
+
+    private Map<String, Object> windowSeries(WindowedMetricsData.Series series) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", series.getName());
+        map.put("averages", series.getAverages());
+        map.put("maxima", series.getMaxima());
+        return map;
+    }
+
     private void exportReport(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef, World world) {
         Player player = store.getComponent(playerRef, Player.getComponentType());
         if (!player.hasPermission("profiler.admin")) {
@@ -440,11 +1302,12 @@ public class ProfilerCommand extends AbstractPlayerCommand {
 
         try {
             // Collect all data
-            TPSData tps = plugin.getTpsCollector().collect(world);
-            List<SystemProfile> systems = plugin.getSystemMetricsCollector().collectSystems(world);
+            TPSData tps = plugin.getTpsSnapshots().latestOrCollect(world);
+            List<SystemProfile> systems = plugin.getSystemSnapshots().latestOrCollect(world);
             List<ModProfile> mods = plugin.getSystemMetricsCollector().aggregateByMod(systems);
-            EntityData entities = plugin.getEntityCollector().collect(world);
-            JVMData jvm = plugin.getJvmMetricsCollector().collect();
+            Map<String, double[]> systemHistories = plugin.getSystemMetricsCollector().collectSystemHistories(world);
+            EntityData entities = plugin.getEntitySnapshots().latestOrCollect(world);
+            JVMData jvm = plugin.getJvmSnapshots().latestOrCollect(null);
 
             // Build report object
             Map<String, Object> report = new HashMap<>();
@@ -457,6 +1320,14 @@ public class ProfilerCommand extends AbstractPlayerCommand {
             tpsSection.put("avgTickMs", tps.getAvgTickMs());
             tpsSection.put("minTickMs", tps.getMinTickMs());
             tpsSection.put("maxTickMs", tps.getMaxTickMs());
+            tpsSection.put("targetTps", tps.getTargetTps());
+            tpsSection.put("p50TickMs", tps.getP50TickMs());
+            tpsSection.put("p95TickMs", tps.getP95TickMs());
+            tpsSection.put("p99TickMs", tps.getP99TickMs());
+            tpsSection.put("p999TickMs", tps.getP999TickMs());
+            tpsSection.put("stdDevTickMs", tps.getStdDevTickMs());
+            tpsSection.put("jitterMs", tps.getJitterMs());
+            tpsSection.put("tickHistory", tps.getTickHistory());
             report.put("tps", tpsSection);
 
             // Mods section
@@ -477,6 +1348,7 @@ public class ProfilerCommand extends AbstractPlayerCommand {
                 sysMap.put("avgMs", s.getAvgMs());
                 sysMap.put("minMs", s.getMinMs());
                 sysMap.put("maxMs", s.getMaxMs());
+                sysMap.put("history", systemHistories.get(s.getClassName()));
                 return sysMap;
             }).toList());
 
@@ -496,6 +1368,9 @@ public class ProfilerCommand extends AbstractPlayerCommand {
             jvmSection.put("threadCount", jvm.getThreadCount());
             jvmSection.put("totalGcCount", jvm.getTotalGcCount());
             jvmSection.put("totalGcTimeMs", jvm.getTotalGcTimeMs());
+            jvmSection.put("totalCompileTimeMs", jvm.getTotalCompileTimeMs());
+            jvmSection.put("codeCacheUsed", jvm.getCodeCacheUsed());
+            jvmSection.put("codeCacheMax", jvm.getCodeCacheMax());
             report.put("jvm", jvmSection);
 
             // Events section
@@ -513,10 +1388,89 @@ public class ProfilerCommand extends AbstractPlayerCommand {
                 eventMap.put("avgTimeMs", e.getAvgTimeMs());
                 eventMap.put("minTimeMs", e.getMinTimeMs());
                 eventMap.put("maxTimeMs", e.getMaxTimeMs());
+                eventMap.put("sampleCount", e.getSampleCount());
+                eventMap.put("sampleInterval", e.getSampleInterval());
+                eventMap.put("avgConfidenceMs", e.getAvgConfidenceMs());
+                eventMap.put("totalConfidenceMs", e.getTotalConfidenceMs());
                 return eventMap;
             }).toList());
             report.put("events", eventsSection);
 
+            // Windowed averages section
+            WindowedMetricsData windows = plugin.getWindowedMetricsCollector().collect(world);
+            Map<String, Object> windowsSection = new HashMap<>();
+            windowsSection.put("windows", MultiWindowStat.WINDOW_NAMES);
+            windowsSection.put("tps", windows.getTps());
+            windowsSection.put("tickMs", windowSeries(windows.getTickMs()));
+            windowsSection.put("entities", windowSeries(windows.getEntities()));
+            windowsSection.put("heapBytes", windowSeries(windows.getHeapBytes()));
+            windowsSection.put("allocationBytesPerSecond", windowSeries(windows.getAllocationBytesPerSecond()));
+            windowsSection.put("systemsMs", windows.getSystemsMs().stream().map(this::windowSeries).toList());
+            windowsSection.put("eventsMsPerSecond", windows.getEventsMs().stream().map(this::windowSeries).toList());
+            report.put("windows", windowsSection);
+
+            // Custom metrics section
+            MetricRegistry registry = ProfilerAPI.getRegistry();
+            Map<String, Object> customSection = new HashMap<>();
+            customSection.put("timers", registry.getTimers().stream().map(t -> {
+                Map<String, Object> timerMap = new HashMap<>();
+                long calls = t.getCount();
+                double totalMs = t.getTotalNanos() / 1_000_000.0;
+                timerMap.put("name", t.getName());
+                timerMap.put("callCount", calls);
+                timerMap.put("totalTimeMs", totalMs);
+                timerMap.put("avgMs", calls > 0 ? totalMs / calls : 0);
+                timerMap.put("maxMs", t.getMaxNanos() / 1_000_000.0);
+                timerMap.put("tickPhase", t.isTickPhase());
+                return timerMap;
+            }).toList());
+            customSection.put("counters", registry.getCounters().stream()
+                .map(c -> Map.<String, Object>of("name", c.getName(), "value", c.get())).toList());
+            customSection.put("gauges", registry.getGauges().stream()
+                .filter(g -> !Double.isNaN(g.get()))
+                .map(g -> Map.<String, Object>of("name", g.getName(), "value", g.get())).toList());
+            report.put("custom", customSection);
+
+            // Profiler overhead section
+            OverheadData overhead = plugin.getOverheadMonitor().collect();
+            Map<String, Object> selfSection = new HashMap<>();
+            selfSection.put("budgetPercent", overhead.getBudgetPercent());
+            selfSection.put("tickPathPercent", overhead.getTickPathPercent());
+            selfSection.put("tickPathMsPerSecond", overhead.getTickPathMsPerSecond());
+            selfSection.put("backgroundMsPerSecond", overhead.getBackgroundMsPerSecond());
+            selfSection.put("samplingDivisor", overhead.getSamplingDivisor());
+            selfSection.put("components", overhead.getComponents().stream().map(c -> {
+                Map<String, Object> componentMap = new HashMap<>();
+                componentMap.put("name", c.getName());
+                componentMap.put("kind", c.getKind());
+                componentMap.put("cpuMsPerSecond", c.getCpuMsPerSecond());
+                componentMap.put("allocBytesPerSecond", c.getAllocBytesPerSecond());
+                componentMap.put("totalCpuMs", c.getTotalCpuMs());
+                componentMap.put("totalAllocBytes", c.getTotalAllocBytes());
+                componentMap.put("calls", c.getCalls());
+                componentMap.put("paused", c.isShed());
+                return componentMap;
+            }).toList());
+            report.put("self", selfSection);
+
+            // Host section, on Linux
+            ProcData proc = plugin.getProcSnapshots() != null ? plugin.getProcSnapshots().latest(null) : null;
+            if (proc != null) {
+                report.put("host", proc);
+            }
+
+            // Safepoints section, when the JFR stream runs
+            SafepointData safepoints = plugin.getSafepointSnapshots() != null
+                ? plugin.getSafepointSnapshots().latest(null) : null;
+            if (safepoints != null) {
+                Map<String, Object> safepointSection = new HashMap<>();
+                safepointSection.put("lastMinute", safepoints.getLastMinute());
+                safepointSection.put("total", safepoints.getTotal());
+                safepointSection.put("operations", safepoints.getOperations());
+                safepointSection.put("worlds", safepoints.getWorlds());
+                report.put("safepoints", safepointSection);
+            }
+
             // Write to file
             Path exportDir = plugin.getExportDirectory();
             Files.createDirectories(exportDir);
@@ -537,6 +1491,409 @@ public class ProfilerCommand extends AbstractPlayerCommand {
         }
     }
 
+    private void handleDashboard(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef, String[] parts) {
+        Player player = store.getComponent(playerRef, Player.getComponentType());
+        if (!player.hasPermission("profiler.admin")) {
+            sendMessage(playerData, "You need profiler.admin permission to manage the dashboard.", RED);
+            return;
+        }
+
+        DashboardServer dashboard = plugin.getDashboardServer();
+        String action = parts.length > 1 ? parts[1].toLowerCase() : "status";
+
+        switch (action) {
+            case "start" -> {
+                if (dashboard.isRunning()) {
+                    sendMessage(playerData, "Dashboard already running on port " + dashboard.getPort() + ".", YELLOW);
+                    return;
+                }
+                int port = DashboardServer.DEFAULT_PORT;
+                if (parts.length > 2) {
+                    try {
+                        port = Integer.parseInt(parts[2]);
+                    } catch (NumberFormatException e) {
+                        sendMessage(playerData, "Invalid port: " + parts[2], RED);
+                        return;
+                    }
+                }
+                try {
+                    dashboard.start(port);
+                    sendMessage(playerData, "Dashboard started: http://127.0.0.1:" + dashboard.getPort() + "/", GREEN);
+                    sendMessage(playerData, "Bound to loopback only - use an SSH tunnel for remote access.", GRAY);
+                } catch (IOException e) {
+                    sendMessage(playerData, "Failed to start dashboard: " + e.getMessage(), RED);
+                }
+            }
+            case "stop" -> {
+                dashboard.stop();
+                sendMessage(playerData, "Dashboard stopped.", GREEN);
+            }
+            default -> {
+                if (dashboard.isRunning()) {
+                    sendMessage(playerData, String.format("Dashboard: http://127.0.0.1:%d/ | Viewers: %d | Dropped: %d",
+                        dashboard.getPort(), dashboard.getClientCount(), dashboard.getDroppedClientCount()), GREEN);
+                } else {
+                    sendMessage(playerData, "Dashboard is not running. Use /profiler dashboard start [port]", GRAY);
+                }
+            }
+        }
+    }
+
+    private void handleRecord(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef, String[] parts) {
+        Player player = store.getComponent(playerRef, Player.getComponentType());
+        if (!player.hasPermission("profiler.admin")) {
+            sendMessage(playerData, "You need profiler.admin permission to record.", RED);
+            return;
+        }
+
+        ProfileRecorder recorder = plugin.getProfileRecorder();
+        String action = parts.length > 1 ? parts[1].toLowerCase() : "status";
+
+        switch (action) {
+            case "start" -> {
+                if (recorder.isRecording()) {
+                    sendMessage(playerData, "Already recording to " + recorder.getFile().getFileName(), YELLOW);
+                    return;
+                }
+                long intervalMs = ProfileRecorder.DEFAULT_INTERVAL_MS;
+                if (parts.length > 2) {
+                    try {
+                        intervalMs = Long.parseLong(parts[2]);
+                    } catch (NumberFormatException e) {
+                        sendMessage(playerData, "Invalid interval: " + parts[2], RED);
+                        return;
+                    }
+                }
+                try {
+                    Path file = recorder.start(intervalMs);
+                    sendMessage(playerData, "Recording to: " + file.getFileName(), GREEN);
+                } catch (IOException e) {
+                    sendMessage(playerData, "Failed to start recording: " + e.getMessage(), RED);
+                }
+            }
+            case "stop" -> {
+                long samples = recorder.getSampleCount();
+                Path file = recorder.stop();
+                if (file == null) {
+                    sendMessage(playerData, "Not recording.", GRAY);
+                } else {
+                    sendMessage(playerData, String.format("Recording saved: %s (%s samples)",
+                        file.getFileName(), FormatUtil.formatCount(samples)), GREEN);
+                    sendMessage(playerData, "Compare offline: java -jar HytaleProfiler.jar diff <before> <after>", GRAY);
+                }
+            }
+            default -> {
+                if (recorder.isRecording()) {
+                    sendMessage(playerData, String.format("Recording to %s | Samples: %s",
+                        recorder.getFile().getFileName(), FormatUtil.formatCount(recorder.getSampleCount())), GREEN);
+                } else {
+                    sendMessage(playerData, "Not recording. Use /profiler record start [intervalMs]", GRAY);
+                }
+            }
+        }
+    }
+
+    private void handleCluster(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef, String[] parts) {
+        Player player = store.getComponent(playerRef, Player.getComponentType());
+        if (!player.hasPermission("profiler.admin")) {
+            sendMessage(playerData, "You need profiler.admin permission to manage cluster export.", RED);
+            return;
+        }
+
+        SnapshotExporter exporter = plugin.getSnapshotExporter();
+        String action = parts.length > 1 ? parts[1].toLowerCase() : "status";
+
+        switch (action) {
+            case "start" -> {
+                if (exporter.isRunning()) {
+                    sendMessage(playerData, "Already exporting to " + exporter.getAddress() + ".", YELLOW);
+                    return;
+                }
+                if (parts.length < 3) {
+                    sendMessage(playerData, "Usage: /profiler cluster start <host:port> [nodeId]", RED);
+                    return;
+                }
+                String host = parts[2];
+                int port = Aggregator.DEFAULT_PORT;
+                int colon = host.lastIndexOf(':');
+                if (colon > 0) {
+                    try {
+                        port = Integer.parseInt(host.substring(colon + 1));
+                    } catch (NumberFormatException e) {
+                        sendMessage(playerData, "Invalid port: " + host.substring(colon + 1), RED);
+                        return;
+                    }
+                    host = host.substring(0, colon);
+                }
+                String nodeId = parts.length > 3 ? parts[3] : defaultNodeId();
+                try {
+                    exporter.start(host, port, nodeId, SnapshotExporter.DEFAULT_INTERVAL_MS);
+                    sendMessage(playerData, String.format("Exporting snapshots as '%s' to %s:%d every %ds.",
+                        nodeId, host, port, SnapshotExporter.DEFAULT_INTERVAL_MS / 1000), GREEN);
+                } catch (IOException | IllegalArgumentException e) {
+                    sendMessage(playerData, "Failed to start cluster export: " + e.getMessage(), RED);
+                }
+            }
+            case "stop" -> {
+                exporter.stop();
+                sendMessage(playerData, "Cluster export stopped.", GREEN);
+            }
+            default -> {
+                if (exporter.isRunning()) {
+                    sendMessage(playerData, String.format("Node '%s' -> %s | %s | Sent: %s | Queued: %d | Dropped: %s",
+                        exporter.getNodeId(), exporter.getAddress(),
+                        exporter.isConnected() ? "connected" : "reconnecting",
+                        FormatUtil.formatCount(exporter.getSentSnapshots()),
+                        exporter.getQueuedSnapshots(),
+                        FormatUtil.formatCount(exporter.getDroppedSnapshots())),
+                        exporter.isConnected() ? GREEN : YELLOW);
+                } else {
+                    sendMessage(playerData, "Cluster export is off. Use /profiler cluster start <host:port> [nodeId]", GRAY);
+                }
+            }
+        }
+    }
+
+    private void handleJfr(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef,
+                           String[] parts, Integer count) {
+        JfrRecorder recorder = plugin.getJfrRecorder();
+        if (recorder == null) {
+            sendMessage(playerData, "JFR is not available in this JVM.", RED);
+            return;
+        }
+
+        String action = parts.length > 1 ? parts[1].toLowerCase() : "status";
+        if (action.equals("start") || action.equals("stop") || action.equals("dump")) {
+            Player player = store.getComponent(playerRef, Player.getComponentType());
+            if (!player.hasPermission("profiler.admin")) {
+                sendMessage(playerData, "You need profiler.admin permission to manage JFR recordings.", RED);
+                return;
+            }
+        }
+
+        switch (action) {
+            case "start" -> {
+                Duration maxAge = JfrRecorder.DEFAULT_MAX_AGE;
+                if (parts.length > 2) {
+                    try {
+                        maxAge = Duration.ofMinutes(Math.max(1, Long.parseLong(parts[2])));
+                    } catch (NumberFormatException e) {
+                        sendMessage(playerData, "Invalid minutes: " + parts[2], RED);
+                        return;
+                    }
+                }
+                try {
+                    if (!recorder.start(maxAge)) {
+                        sendMessage(playerData, "A JFR recording is already running.", YELLOW);
+                        return;
+                    }
+                    sendMessage(playerData, String.format("JFR recording started, keeping the last %s (max %s).",
+                        FormatUtil.formatDuration(maxAge.toSeconds()),
+                        FormatUtil.formatBytes(JfrRecorder.MAX_SIZE_BYTES)), GREEN);
+                    sendMessage(playerData, "Use /profiler jfr dump to save it at any time.", GRAY);
+                } catch (IOException | ParseException | IllegalStateException e) {
+                    sendMessage(playerData, "Failed to start JFR recording: " + e.getMessage(), RED);
+                }
+            }
+            case "dump", "stop" -> {
+                try {
+                    Path file = action.equals("stop") ? recorder.stop() : recorder.dump();
+                    if (file == null) {
+                        sendMessage(playerData, "No JFR recording is running.", GRAY);
+                        return;
+                    }
+                    sendMessage(playerData, (action.equals("stop") ? "JFR recording stopped and saved: " : "JFR recording saved: ")
+                        + file.getFileName(), GREEN);
+                    sendMessage(playerData, "Open it in JDK Mission Control or with 'jfr print'.", GRAY);
+                } catch (IOException | IllegalStateException e) {
+                    sendMessage(playerData, "Failed to save JFR recording: " + e.getMessage(), RED);
+                }
+            }
+            default -> showJfr(playerData, recorder, count);
+        }
+    }
+
+    private void showJfr(PlayerRef playerData, JfrRecorder recorder, Integer count) {
+        int limit = count != null ? count : 5;
+
+        sendMessage(playerData, "=== Java Flight Recorder ===", GOLD);
+        if (recorder.isRecording()) {
+            Duration elapsed = recorder.getElapsed();
+            sendMessage(playerData, String.format("Recording: %s | %s on disk | keeps %s (max %s)",
+                elapsed != null ? FormatUtil.formatDuration(elapsed.toSeconds()) : "-",
+                FormatUtil.formatBytes(recorder.getSize()),
+                FormatUtil.formatDuration(recorder.getMaxAge().toSeconds()),
+                FormatUtil.formatBytes(JfrRecorder.MAX_SIZE_BYTES)), GREEN);
+        } else {
+            sendMessage(playerData, "Not recording. Use /profiler jfr start [minutes]", GRAY);
+        }
+
+        JfrStream stream = plugin.getJfrStream();
+        JfrData data = plugin.getJfrSnapshots() != null ? plugin.getJfrSnapshots().latest(null) : null;
+        if (stream == null || !stream.isRunning() || data == null) {
+            sendMessage(playerData, "JVM event stream is off (-Dhytaleprofiler.jfr=false or not started yet).", GRAY);
+            sendMessage(playerData, "============================", GOLD);
+            return;
+        }
+
+        sendMessage(playerData, "", WHITE);
+        sendMessage(playerData, String.format("JVM events over %s:", FormatUtil.formatDuration(data.getElapsedMs() / 1000)), AQUA);
+        sendMessage(playerData, String.format("  GC: %s collections | pauses %s total, longest %s",
+            FormatUtil.formatCount(data.getGcCount()), FormatUtil.formatMs(data.getGcPauseMs()),
+            FormatUtil.formatMs(data.getLongestPauseMs())), GRAY);
+
+        sendMessage(playerData, String.format("Hot methods (%s samples, all threads):",
+            FormatUtil.formatCount(data.getExecutionSamples())), AQUA);
+        for (JfrData.Entry entry : data.getHotMethods().subList(0, Math.min(limit, data.getHotMethods().size()))) {
+            sendMessage(playerData, String.format("  %s %s", FormatUtil.padLeft(FormatUtil.formatPercent(entry.getValue()), 6),
+                entry.getName()), GRAY);
+        }
+
+        sendMessage(playerData, String.format("Allocations (~%s sampled):",
+            FormatUtil.formatBytes(data.getAllocatedBytes())), AQUA);
+        for (JfrData.Entry entry : data.getAllocations().subList(0, Math.min(limit, data.getAllocations().size()))) {
+            sendMessage(playerData, String.format("  %s %s", FormatUtil.padLeft(FormatUtil.formatBytes((long) entry.getValue()), 9),
+                entry.getName()), GRAY);
+        }
+
+        sendMessage(playerData, String.format("Contended monitors (%s waits over 10ms):",
+            FormatUtil.formatCount(data.getMonitorEvents())), AQUA);
+        if (data.getMonitors().isEmpty()) {
+            sendMessage(playerData, "  None", GRAY);
+        }
+        for (JfrData.Entry entry : data.getMonitors().subList(0, Math.min(limit, data.getMonitors().size()))) {
+            sendMessage(playerData, String.format("  %s %s x%s", FormatUtil.padLeft(FormatUtil.formatMs(entry.getValue()), 9),
+                entry.getName(), FormatUtil.formatCount(entry.getCount())), YELLOW);
+        }
+        sendMessage(playerData, "============================", GOLD);
+    }
+
+    private static String defaultNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "node-" + ProcessHandle.current().pid();
+        }
+    }
+
+    private void handleSession(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef,
+                               World world, String[] parts) {
+        SessionManager sessions = plugin.getSessionManager();
+        String action = parts.length > 1 ? parts[1].toLowerCase() : "list";
+
+        if (action.equals("start") || action.equals("stop")) {
+            Player player = store.getComponent(playerRef, Player.getComponentType());
+            if (!player.hasPermission("profiler.admin")) {
+                sendMessage(playerData, "You need profiler.admin permission to manage sessions.", RED);
+                return;
+            }
+        }
+
+        switch (action) {
+            case "start" -> {
+                if (parts.length < 3) {
+                    sendMessage(playerData, "Usage: /profiler session start <name>", RED);
+                    return;
+                }
+                MeasurementSession session = sessions.start(parts[2], world);
+                if (session == null) {
+                    sendMessage(playerData, String.format("Cannot start '%s': name in use or %d sessions already active.",
+                        parts[2], SessionManager.MAX_ACTIVE_SESSIONS), RED);
+                    return;
+                }
+                sendMessage(playerData, "Session '" + session.getName() + "' started on " + session.getWorldName() + ".", GREEN);
+            }
+            case "stop" -> {
+                List<MeasurementSession> active = sessions.getActiveSessions();
+                String name = parts.length > 2 ? parts[2] : (active.size() == 1 ? active.get(0).getName() : null);
+                if (name == null) {
+                    sendMessage(playerData, "Usage: /profiler session stop <name>", RED);
+                    return;
+                }
+                MeasurementSession session = sessions.getSession(name);
+                try {
+                    Path file = sessions.stop(name);
+                    if (file == null) {
+                        sendMessage(playerData, "No active session named '" + name + "'.", RED);
+                        return;
+                    }
+                    showSessionSummary(playerData, session);
+                    sendMessage(playerData, "Report saved: " + file.getFileName(), GREEN);
+                } catch (IOException e) {
+                    sendMessage(playerData, "Session stopped but report failed: " + e.getMessage(), RED);
+                }
+            }
+            default -> {
+                List<MeasurementSession> active = sessions.getActiveSessions();
+                sendMessage(playerData, "=== Measurement Sessions ===", GOLD);
+                if (active.isEmpty()) {
+                    sendMessage(playerData, "No active sessions. Use /profiler session start <name>", GRAY);
+                }
+                for (MeasurementSession session : active) {
+                    sendMessage(playerData, String.format("%s (%s) - %.0fs, %s ticks, avg tick %s",
+                        session.getName(), session.getWorldName(), session.getDurationSeconds(),
+                        FormatUtil.formatCount(session.getTicks()),
+                        FormatUtil.formatMs(session.getAvgTickMs())), WHITE);
+                }
+                sendMessage(playerData, "============================", GOLD);
+            }
+        }
+    }
+
+    private void showSessionSummary(PlayerRef playerData, MeasurementSession session) {
+        sendMessage(playerData, "=== Session: " + session.getName() + " ===", GOLD);
+        sendMessage(playerData, String.format("Duration: %.1fs | Ticks: %s | TPS: %.1f",
+            session.getDurationSeconds(), FormatUtil.formatCount(session.getTicks()), session.getTps()), WHITE);
+        sendMessage(playerData, String.format("Tick: avg %s | max %s | systems %s",
+            FormatUtil.formatMs(session.getAvgTickMs()),
+            FormatUtil.formatMs(session.getMaxTickMs()),
+            FormatUtil.formatMs(session.getAvgSystemTimeMs())), WHITE);
+        sendMessage(playerData, String.format("GC: %s runs, %dms | Allocated: %s",
+            FormatUtil.formatCount(session.getGcCount()), session.getGcTimeMs(),
+            FormatUtil.formatBytes(session.getAllocatedBytes())), GRAY);
+
+        int rank = 1;
+        for (Map<String, Object> sys : session.getSystemSummaries()) {
+            if (rank > 3) break;
+            sendMessage(playerData, String.format("  %d. %s - %s avg, %s max", rank, sys.get("name"),
+                FormatUtil.formatMs((double) sys.get("avgMs")),
+                FormatUtil.formatMs((double) sys.get("maxMs"))), GRAY);
+            rank++;
+        }
+    }
+
+    private void startTrace(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef,
+                            World world, Integer count) {
+        Player player = store.getComponent(playerRef, Player.getComponentType());
+        if (!player.hasPermission("profiler.admin")) {
+            sendMessage(playerData, "You need profiler.admin permission to record traces.", RED);
+            return;
+        }
+
+        TraceRecorder trace = plugin.getTraceRecorder();
+        int ticks = count != null && count > 0 ? Math.min(count, TraceRecorder.MAX_TICKS) : TraceRecorder.DEFAULT_TICKS;
+
+        boolean armed = trace.arm(world, ticks, file -> {
+            if (file != null) {
+                sendMessage(playerData, "Trace saved: " + file.getFileName(), GREEN);
+                if (trace.isTruncated()) {
+                    sendMessage(playerData, String.format("Trace truncated: buffer full after %d of %d ticks.",
+                        trace.getRecordedTicks(), trace.getRequestedTicks()), YELLOW);
+                }
+                sendMessage(playerData, "Open it in ui.perfetto.dev or chrome://tracing", GRAY);
+            } else {
+                sendMessage(playerData, "Failed to write trace file.", RED);
+            }
+        });
+
+        if (!armed) {
+            sendMessage(playerData, String.format("A trace is already in progress (%d ticks left).",
+                trace.getRemainingTicks()), YELLOW);
+            return;
+        }
+        sendMessage(playerData, String.format("Tracing the next %d ticks...", ticks), GREEN);
+    }
+
     private void triggerGC(PlayerRef playerData, Store<EntityStore> store, Ref<EntityStore> playerRef) {
         Player player = store.getComponent(playerRef, Player.getComponentType());
         if (!player.hasPermission("profiler.admin")) {
@@ -575,8 +1932,25 @@ public class ProfilerCommand extends AbstractPlayerCommand {
         plugin.getEventTimingCollector().reset();
         sendMessage(playerData, "Event timing statistics have been reset.", GREEN);
 
+        ProfilerAPI.getRegistry().reset();
+        sendMessage(playerData, "Custom timers and counters have been reset.", GREEN);
+
+        plugin.getJitMonitor().reset();
+        sendMessage(playerData, "JIT history and deoptimization counts have been reset.", GREEN);
+
+        JfrStream jfrStream = plugin.getJfrStream();
+        if (jfrStream != null) {
+            jfrStream.reset();
+            sendMessage(playerData, "JFR stream totals have been reset.", GREEN);
+        }
+        SafepointTracker safepointTracker = plugin.getSafepointTracker();
+        if (safepointTracker != null) {
+            safepointTracker.reset();
+        }
+
         // Note: ECS system metrics are managed by Hytale's HistoricMetric and cannot be reset
         sendMessage(playerData, "Note: ECS system metrics are managed by Hytale and reset over time.", GRAY);
+        sendMessage(playerData, "For before/after measurements use /profiler session start <name>.", GRAY);
     }
 
     private void sendMessage(PlayerRef playerData, String text, Color color) {
@@ -0,0 +1,264 @@
+package com.hytaleprofiler.dashboard;
+
+import com.hytaleprofiler.HytaleProfiler;
+import com.hytaleprofiler.api.Counter;
+import com.hytaleprofiler.api.Gauge;
+import com.hytaleprofiler.api.MetricRegistry;
+import com.hytaleprofiler.api.ProfilerAPI;
+import com.hytaleprofiler.api.Timer;
+import com.hytaleprofiler.collector.OverheadMonitor;
+import com.hytaleprofiler.data.EventProfile;
+import com.hytaleprofiler.data.JVMData;
+import com.hytaleprofiler.data.SystemProfile;
+import com.hytaleprofiler.data.TPSData;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local web dashboard that streams live tick time, top systems,
+ * top events, custom metrics and heap usage to browsers over server-sent events.
+ * A single producer samples the collectors and publishes delta frames;
+ * the page itself is served from the plugin jar.
+ */
+public class DashboardServer {
+
+    public static final int DEFAULT_PORT = 8765;
+
+    private static final long FRAME_INTERVAL_MS = 250;
+    private static final int MAX_CLIENTS = 32;
+    private static final int TOP_N = 8;
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+    private static final String RESOURCE_ROOT = "/web/";
+    // A failing frame is logged at most this often; later failures are counted
+    private static final long FAILURE_LOG_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final HytaleProfiler plugin;
+    private final SseBroadcaster broadcaster = new SseBroadcaster(MAX_CLIENTS);
+    private final DeltaFrameEncoder encoder = new DeltaFrameEncoder();
+    private final OverheadMonitor.Component overhead;
+
+    private HttpServer server;
+    private ExecutorService httpExecutor;
+    private ScheduledExecutorService producer;
+    private int port;
+
+    // Producer thread only
+    private long lastFailureLogNanos;
+    private int suppressedFailures;
+
+    public DashboardServer(HytaleProfiler plugin) {
+        this.plugin = plugin;
+        this.overhead = plugin.getOverheadMonitor().register("DashboardServer", OverheadMonitor.Kind.BACKGROUND);
+    }
+
+    /**
+     * Start serving on the loopback interface.
+     */
+    public synchronized void start(int port) throws IOException {
+        if (server != null) return;
+
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        httpServer.createContext("/stream", this::handleStream);
+        httpServer.createContext("/", this::handleStatic);
+
+        // SSE handlers hold their thread for the lifetime of the connection
+        httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpServer.setExecutor(httpExecutor);
+        httpServer.start();
+
+        producer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "HytaleProfiler-Dashboard");
+            t.setDaemon(true);
+            return t;
+        });
+        producer.scheduleAtFixedRate(this::produceFrame, 0, FRAME_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        this.server = httpServer;
+        this.port = httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Stop the server and disconnect all viewers.
+     */
+    public synchronized void stop() {
+        if (server == null) return;
+
+        producer.shutdownNow();
+        broadcaster.closeAll();
+        server.stop(0);
+        httpExecutor.shutdownNow();
+
+        server = null;
+        producer = null;
+        httpExecutor = null;
+    }
+
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getClientCount() {
+        return broadcaster.getClientCount();
+    }
+
+    public long getDroppedClientCount() {
+        return broadcaster.getDroppedClientCount();
+    }
+
+    /**
+     * Sample collectors and publish one delta frame.
+     */
+    private void produceFrame() {
+        long cpu = OverheadMonitor.threadCpuNanos();
+        long alloc = OverheadMonitor.threadAllocatedBytes();
+        try {
+            World world = Universe.get().getDefaultWorld();
+            // Snapshots are null until the world has ticked; those fields keep their last value
+            TPSData tps = world != null ? plugin.getTpsSnapshots().latest(world) : null;
+            if (tps != null) {
+                double[] history = tps.getTickHistory();
+                encoder.scalar("tps", tps.getTps());
+                encoder.scalar("tickMs", history.length > 0 ? history[history.length - 1] : tps.getAvgTickMs());
+                encoder.scalar("tickAvgMs", tps.getAvgTickMs());
+                encoder.scalar("tickMaxMs", tps.getMaxTickMs());
+            }
+
+            List<SystemProfile> systems = world != null ? plugin.getSystemSnapshots().latest(world) : null;
+            if (systems != null) {
+                Map<String, Double> topSystems = new LinkedHashMap<>();
+                for (SystemProfile sys : systems) {
+                    if (topSystems.size() >= TOP_N) break;
+                    topSystems.put(sys.getName(), sys.getAvgMs());
+                }
+                encoder.group("systems", topSystems);
+            }
+
+            Map<String, Double> topEvents = new LinkedHashMap<>();
+            for (EventProfile event : plugin.getEventTimingCollector().getActiveProfiles()) {
+                if (topEvents.size() >= TOP_N) break;
+                topEvents.put(event.getEventName(), event.getAvgTimeMs());
+            }
+            encoder.group("events", topEvents);
+
+            MetricRegistry registry = ProfilerAPI.getRegistry();
+            Map<String, Double> customTimers = new LinkedHashMap<>();
+            for (Timer timer : registry.getTimers()) {
+                if (customTimers.size() >= TOP_N) break;
+                long calls = timer.getCount();
+                if (calls > 0) {
+                    customTimers.put(timer.getName(), timer.getTotalNanos() / 1_000_000.0 / calls);
+                }
+            }
+            encoder.group("customTimers", customTimers);
+
+            Map<String, Double> customValues = new LinkedHashMap<>();
+            for (Counter counter : registry.getCounters()) {
+                customValues.put(counter.getName(), (double) counter.get());
+            }
+            for (Gauge gauge : registry.getGauges()) {
+                double value = gauge.get();
+                if (!Double.isNaN(value)) customValues.put(gauge.getName(), value);
+            }
+            encoder.group("customValues", customValues);
+
+            JVMData jvm = plugin.getJvmSnapshots().latest(null);
+            if (jvm != null) {
+                encoder.scalar("heapUsedMb", jvm.getHeapUsed() / BYTES_PER_MB);
+                encoder.scalar("heapMaxMb", jvm.getHeapMax() / BYTES_PER_MB);
+                encoder.scalar("gcCount", jvm.getTotalGcCount());
+            }
+
+            String delta = encoder.encodeDelta();
+            broadcaster.publish(delta, encoder.encodeKeyframe());
+        } catch (Exception e) {
+            // Keep the producer alive; the next frame will retry
+            logFailure(e);
+        }
+        overhead.recordSince(cpu, alloc);
+    }
+
+    private void logFailure(Exception e) {
+        long now = System.nanoTime();
+        if (lastFailureLogNanos != 0 && now - lastFailureLogNanos < FAILURE_LOG_INTERVAL_NANOS) {
+            suppressedFailures++;
+            return;
+        }
+        plugin.getLogger().atWarning().log(String.format("Dashboard frame failed: %s%s", e,
+            suppressedFailures > 0 ? String.format(" (%d more since the last report)", suppressedFailures) : ""));
+        lastFailureLogNanos = now;
+        suppressedFailures = 0;
+    }
+
+    private void handleStream(HttpExchange exchange) throws IOException {
+        SseBroadcaster.Client client = broadcaster.connect();
+        if (client == null) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            broadcaster.stream(client, out);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleStatic(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/") || path.isEmpty()) {
+            path = "/dashboard.html";
+        }
+
+        String name = path.substring(1);
+        if (name.contains("..") || name.contains("/")) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+
+        try (InputStream in = DashboardServer.class.getResourceAsStream(RESOURCE_ROOT + name)) {
+            if (in == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] body = in.readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", contentType(name));
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String contentType(String name) {
+        if (name.endsWith(".html")) return "text/html; charset=utf-8";
+        if (name.endsWith(".js")) return "application/javascript; charset=utf-8";
+        if (name.endsWith(".css")) return "text/css; charset=utf-8";
+        return "application/octet-stream";
+    }
+}
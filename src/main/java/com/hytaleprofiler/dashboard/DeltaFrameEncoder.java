@@ -0,0 +1,177 @@
+package com.hytaleprofiler.dashboard;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes live dashboard state as JSON merge-patch frames.
+ * Only values that moved since the last frame are written; removed
+ * entries are sent as null. The encoder remembers what it last sent,
+ * so a keyframe always matches the state clients have reconstructed.
+ */
+public class DeltaFrameEncoder {
+
+    private static final double RELATIVE_EPSILON = 0.005;
+    private static final double ABSOLUTE_EPSILON = 0.0005;
+
+    // Values as last sent to clients
+    private final Map<String, Double> sentScalars = new LinkedHashMap<>();
+    private final Map<String, Map<String, Double>> sentGroups = new LinkedHashMap<>();
+
+    // Values being gathered for the next frame
+    private final Map<String, Double> pendingScalars = new LinkedHashMap<>();
+    private final Map<String, Map<String, Double>> pendingGroups = new LinkedHashMap<>();
+
+    private long sequence = 0;
+
+    /**
+     * Set a top-level numeric value for the next frame.
+     */
+    public void scalar(String key, double value) {
+        pendingScalars.put(key, value);
+    }
+
+    /**
+     * Set a named group of values (e.g. top systems) for the next frame.
+     * Entries missing from the group compared to the last frame are removed.
+     */
+    public void group(String key, Map<String, Double> values) {
+        pendingGroups.put(key, values);
+    }
+
+    /**
+     * Build a delta frame from the pending values and remember them as sent.
+     * Returns null if nothing changed enough to be worth sending.
+     */
+    public String encodeDelta() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append('{');
+        int fields = 0;
+
+        for (Map.Entry<String, Double> entry : pendingScalars.entrySet()) {
+            Double previous = sentScalars.get(entry.getKey());
+            if (previous == null || changed(previous, entry.getValue())) {
+                if (fields++ > 0) sb.append(',');
+                appendField(sb, entry.getKey(), entry.getValue());
+                sentScalars.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        for (Map.Entry<String, Map<String, Double>> groupEntry : pendingGroups.entrySet()) {
+            Map<String, Double> sent = sentGroups.computeIfAbsent(groupEntry.getKey(), k -> new LinkedHashMap<>());
+            Map<String, Double> current = groupEntry.getValue();
+
+            StringBuilder groupSb = new StringBuilder();
+            int groupFields = 0;
+
+            for (Map.Entry<String, Double> entry : current.entrySet()) {
+                Double previous = sent.get(entry.getKey());
+                if (previous == null || changed(previous, entry.getValue())) {
+                    if (groupFields++ > 0) groupSb.append(',');
+                    appendField(groupSb, entry.getKey(), entry.getValue());
+                    sent.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            Iterator<String> it = sent.keySet().iterator();
+            while (it.hasNext()) {
+                String key = it.next();
+                if (!current.containsKey(key)) {
+                    if (groupFields++ > 0) groupSb.append(',');
+                    appendString(groupSb, key);
+                    groupSb.append(":null");
+                    it.remove();
+                }
+            }
+
+            if (groupFields > 0) {
+                if (fields++ > 0) sb.append(',');
+                appendString(sb, groupEntry.getKey());
+                sb.append(":{").append(groupSb).append('}');
+            }
+        }
+
+        pendingScalars.clear();
+        pendingGroups.clear();
+
+        if (fields == 0) {
+            return null;
+        }
+        sequence++;
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Build a full frame of everything clients currently know about.
+     */
+    public String encodeKeyframe() {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append('{');
+        int fields = 0;
+
+        for (Map.Entry<String, Double> entry : sentScalars.entrySet()) {
+            if (fields++ > 0) sb.append(',');
+            appendField(sb, entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, Map<String, Double>> groupEntry : sentGroups.entrySet()) {
+            if (fields++ > 0) sb.append(',');
+            appendString(sb, groupEntry.getKey());
+            sb.append(":{");
+            int groupFields = 0;
+            for (Map.Entry<String, Double> entry : groupEntry.getValue().entrySet()) {
+                if (groupFields++ > 0) sb.append(',');
+                appendField(sb, entry.getKey(), entry.getValue());
+            }
+            sb.append('}');
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Number of delta frames produced so far.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    private static boolean changed(double previous, double current) {
+        double diff = Math.abs(current - previous);
+        if (diff <= ABSOLUTE_EPSILON) return false;
+        return diff > Math.abs(previous) * RELATIVE_EPSILON;
+    }
+
+    private static void appendField(StringBuilder sb, String key, double value) {
+        appendString(sb, key);
+        sb.append(':');
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            sb.append('0');
+        } else {
+            sb.append(Math.round(value * 1000.0) / 1000.0);
+        }
+    }
+
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,127 @@
+package com.hytaleprofiler.dashboard;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans frames out from a single producer to many server-sent-event clients.
+ * Each client has a small bounded queue; publishing never blocks, and a
+ * client whose queue is full is dropped instead of buffered.
+ */
+public class SseBroadcaster {
+
+    private static final int CLIENT_QUEUE_CAPACITY = 16;
+    private static final long HEARTBEAT_MS = 15_000;
+
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final int maxClients;
+    private final AtomicLong droppedClients = new AtomicLong();
+
+    private String keyframe = "{}";
+
+    public SseBroadcaster(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Publish a delta frame to every client together with the keyframe
+     * new clients should start from. Never blocks.
+     */
+    public synchronized void publish(String delta, String keyframe) {
+        this.keyframe = keyframe;
+        if (delta == null) return;
+
+        for (Client client : clients) {
+            if (!client.queue.offer(delta)) {
+                drop(client);
+            }
+        }
+    }
+
+    /**
+     * Register a client, seeding it with the current keyframe.
+     * Returns null if the client limit is reached.
+     */
+    public synchronized Client connect() {
+        if (clients.size() >= maxClients) {
+            return null;
+        }
+        Client client = new Client();
+        client.queue.offer("event: key\ndata: " + keyframe + "\n\n");
+        clients.add(client);
+        return client;
+    }
+
+    /**
+     * Stream frames to a connected client until it disconnects, falls
+     * behind, or the broadcaster is closed. Runs on the HTTP handler thread.
+     */
+    public void stream(Client client, OutputStream out) {
+        try {
+            while (!client.closed) {
+                String frame = client.queue.poll(HEARTBEAT_MS, TimeUnit.MILLISECONDS);
+                if (client.closed) break;
+
+                String payload;
+                if (frame == null) {
+                    payload = ": ping\n\n";
+                } else if (frame.startsWith("event:")) {
+                    payload = frame;
+                } else {
+                    payload = "data: " + frame + "\n\n";
+                }
+                out.write(payload.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // Client went away
+        } finally {
+            disconnect(client);
+        }
+    }
+
+    /**
+     * Disconnect every client.
+     */
+    public void closeAll() {
+        for (Client client : clients) {
+            disconnect(client);
+        }
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    public long getDroppedClientCount() {
+        return droppedClients.get();
+    }
+
+    private void drop(Client client) {
+        droppedClients.incrementAndGet();
+        disconnect(client);
+    }
+
+    private void disconnect(Client client) {
+        client.closed = true;
+        clients.remove(client);
+        // Wake the streaming thread so it notices the close
+        client.queue.clear();
+        client.queue.offer("");
+    }
+
+    /**
+     * A connected dashboard viewer.
+     */
+    public static class Client {
+        private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(CLIENT_QUEUE_CAPACITY);
+        private volatile boolean closed = false;
+    }
+}
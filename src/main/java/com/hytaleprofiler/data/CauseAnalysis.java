@@ -0,0 +1,139 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+
+/**
+ * Data class ranking candidate causes of slow ticks in one window by how
+ * strongly each co-varies with tick length over the window's ticks.
+ */
+public class CauseAnalysis {
+    private final long startMillis;
+    private final double durationSeconds;
+    private final int ticks;
+    private final double tps;
+    private final double targetTps;
+    private final double avgTickMs;
+    private final double maxTickMs;
+    private final boolean degraded;
+    private final List<Cause> causes;
+
+    public CauseAnalysis(long startMillis, double durationSeconds, int ticks, double tps, double targetTps,
+                         double avgTickMs, double maxTickMs, boolean degraded, List<Cause> causes) {
+        this.startMillis = startMillis;
+        this.durationSeconds = durationSeconds;
+        this.ticks = ticks;
+        this.tps = tps;
+        this.targetTps = targetTps;
+        this.avgTickMs = avgTickMs;
+        this.maxTickMs = maxTickMs;
+        this.degraded = degraded;
+        this.causes = causes;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public double getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    public double getTps() {
+        return tps;
+    }
+
+    public double getTargetTps() {
+        return targetTps;
+    }
+
+    public double getAvgTickMs() {
+        return avgTickMs;
+    }
+
+    public double getMaxTickMs() {
+        return maxTickMs;
+    }
+
+    /**
+     * True if the window missed the target rate or the tick budget.
+     */
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    /**
+     * Candidates sorted by correlation, strongest first.
+     */
+    public List<Cause> getCauses() {
+        return causes;
+    }
+
+    /**
+     * One candidate series and how it behaved in the window.
+     */
+    public static class Cause {
+        private final String category;
+        private final String name;
+        private final String unit;
+        private final double correlation;
+        private final double windowMean;
+        private final double baselineMean;
+
+        public Cause(String category, String name, String unit,
+                     double correlation, double windowMean, double baselineMean) {
+            this.category = category;
+            this.name = name;
+            this.unit = unit;
+            this.correlation = correlation;
+            this.windowMean = windowMean;
+            this.baselineMean = baselineMean;
+        }
+
+        /**
+         * System, Event, GC, Allocation, Joins or Archetype.
+         */
+        public String getCategory() {
+            return category;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Unit of the per-tick values, e.g. "ms" or "KB".
+         */
+        public String getUnit() {
+            return unit;
+        }
+
+        /**
+         * Pearson correlation with tick length, in [-1, 1].
+         */
+        public double getCorrelation() {
+            return correlation;
+        }
+
+        /**
+         * Mean value per tick in the window.
+         */
+        public double getWindowMean() {
+            return windowMean;
+        }
+
+        /**
+         * Mean value per tick in recent healthy windows, or NaN if none seen yet.
+         */
+        public double getBaselineMean() {
+            return baselineMean;
+        }
+
+        public boolean hasBaseline() {
+            return !Double.isNaN(baselineMean);
+        }
+    }
+}
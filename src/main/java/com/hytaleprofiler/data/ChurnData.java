@@ -0,0 +1,119 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+
+/**
+ * Data class holding entity spawn and despawn rates per archetype.
+ * Rates are derived from net count changes between samples, so an entity
+ * created and removed between two samples is not seen.
+ */
+public class ChurnData {
+    private final double trackedSeconds;
+    private final List<ArchetypeChurn> archetypes;
+
+    public ChurnData(double trackedSeconds, List<ArchetypeChurn> archetypes) {
+        this.trackedSeconds = trackedSeconds;
+        this.archetypes = archetypes;
+    }
+
+    public double getTrackedSeconds() {
+        return trackedSeconds;
+    }
+
+    public List<ArchetypeChurn> getArchetypes() {
+        return archetypes;
+    }
+
+    public double getTotalSpawnRate() {
+        return archetypes.stream().mapToDouble(ArchetypeChurn::getSpawnRate).sum();
+    }
+
+    public double getTotalDespawnRate() {
+        return archetypes.stream().mapToDouble(ArchetypeChurn::getDespawnRate).sum();
+    }
+
+    public List<ArchetypeChurn> getRunaways() {
+        return archetypes.stream().filter(ArchetypeChurn::isRunaway).toList();
+    }
+
+    /**
+     * Churn statistics for a single archetype.
+     */
+    public static class ArchetypeChurn {
+        private final String signature;
+        private final int count;
+        private final double spawnRate;
+        private final double despawnRate;
+        private final long totalSpawned;
+        private final long totalDespawned;
+        private final boolean runaway;
+        private final int growthMinutes;
+        private final int growth;
+
+        public ArchetypeChurn(String signature, int count, double spawnRate, double despawnRate,
+                              long totalSpawned, long totalDespawned,
+                              boolean runaway, int growthMinutes, int growth) {
+            this.signature = signature;
+            this.count = count;
+            this.spawnRate = spawnRate;
+            this.despawnRate = despawnRate;
+            this.totalSpawned = totalSpawned;
+            this.totalDespawned = totalDespawned;
+            this.runaway = runaway;
+            this.growthMinutes = growthMinutes;
+            this.growth = growth;
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Smoothed spawns per second.
+         */
+        public double getSpawnRate() {
+            return spawnRate;
+        }
+
+        /**
+         * Smoothed despawns per second.
+         */
+        public double getDespawnRate() {
+            return despawnRate;
+        }
+
+        public double getNetRate() {
+            return spawnRate - despawnRate;
+        }
+
+        public long getTotalSpawned() {
+            return totalSpawned;
+        }
+
+        public long getTotalDespawned() {
+            return totalDespawned;
+        }
+
+        public boolean isRunaway() {
+            return runaway;
+        }
+
+        /**
+         * Consecutive minutes this archetype has grown.
+         */
+        public int getGrowthMinutes() {
+            return growthMinutes;
+        }
+
+        /**
+         * Entities gained over the current growth run.
+         */
+        public int getGrowth() {
+            return growth;
+        }
+    }
+}
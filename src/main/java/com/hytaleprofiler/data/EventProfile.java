@@ -1,45 +1,141 @@
 package com.hytaleprofiler.data;
 
+import com.hytaleprofiler.util.WriterReaderPhaser;
+
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Data class holding profiling information for an event type.
  * Thread-safe for concurrent updates.
+ *
+ * <p>Call counts are exact. Busy event types may be timed 1-in-N, in which
+ * case total time is estimated by weighting each timed call by N, min/max
+ * come from the timed calls only, and {@link #getAvgConfidenceMs()} gives
+ * the 95% confidence half-width of the average.
+ *
+ * <p>Handlers record into one of two interval buffers without locks.
+ * {@link #snapshot()} flips the buffers with a {@link WriterReaderPhaser},
+ * folds the retired one into the running totals and publishes an immutable
+ * {@link Snapshot}; the getters read the latest one, so values read together
+ * always belong together. {@link #reset()} flips and discards, so nothing
+ * recorded before it leaks into the next interval. Untimed dispatches only
+ * bump a striped counter outside the phaser; a snapshot counts whatever
+ * they added since the previous one.
+ *
+ * <p>Only {@link com.hytaleprofiler.collector.EventTimingCollector}, run by
+ * the collector scheduler, calls {@link #snapshot()}, so every interval has
+ * one owner and one length. Everyone else reads {@link #getLatest()}.
  */
 public class EventProfile implements Comparable<EventProfile> {
+    private static final double Z_95 = 1.96;
+
     private final String eventName;
     private final String eventClassName;
-    private final LongAdder totalTimeNanos = new LongAdder();
-    private final LongAdder callCount = new LongAdder();
-    private final AtomicLong minTimeNanos = new AtomicLong(Long.MAX_VALUE);
-    private final AtomicLong maxTimeNanos = new AtomicLong(0);
+
+    private final WriterReaderPhaser phaser = new WriterReaderPhaser();
+    private final Interval even = new Interval();
+    private final Interval odd = new Interval();
+    // Dispatches counted by countCall, never reset
+    private final LongAdder countedCalls = new LongAdder();
+
+    // Totals since the last reset, guarded by the phaser's reader lock
+    private long totalCalls;
+    private long totalTimeNanos;
+    private long totalSamples;
+    private double totalVariance;
+    private long minTimeNanos = Long.MAX_VALUE;
+    private long maxTimeNanos;
+    private long intervalStartNanos = System.nanoTime();
+    private long countedCallsAtSnapshot;
+
+    private volatile Snapshot latest;
+    private volatile int sampleInterval = 1;
 
     public EventProfile(String eventName, String eventClassName) {
         this.eventName = eventName;
         this.eventClassName = eventClassName;
+        this.latest = new Snapshot(eventName, 0, 0, 0, 0, Long.MAX_VALUE, 0, 0, 0);
     }
 
     /**
      * Record a single event execution.
      */
     public void record(long durationNanos) {
-        totalTimeNanos.add(durationNanos);
-        callCount.increment();
+        long epoch = phaser.writerEnter();
+        try {
+            Interval interval = WriterReaderPhaser.isOddPhase(epoch) ? odd : even;
+            interval.calls.increment();
+            interval.recordSample(durationNanos, 1);
+        } finally {
+            phaser.writerExit(epoch);
+        }
+    }
+
+    /**
+     * Count a dispatch, before it runs. Timed dispatches are reported
+     * separately through {@link #recordSample}.
+     */
+    public void countCall() {
+        countedCalls.increment();
+    }
+
+    /**
+     * Record a timed dispatch standing for {@code weight} dispatches.
+     */
+    public void recordSample(long durationNanos, int weight) {
+        long epoch = phaser.writerEnter();
+        try {
+            (WriterReaderPhaser.isOddPhase(epoch) ? odd : even).recordSample(durationNanos, weight);
+        } finally {
+            phaser.writerExit(epoch);
+        }
+    }
+
+    /**
+     * Close the current interval and return totals including it. Safe to call
+     * from any thread, but not while recording on the same thread. Called by
+     * the event collector only; readers use {@link #getLatest()}.
+     */
+    public Snapshot snapshot() {
+        phaser.readerLock();
+        try {
+            Interval retired = phaser.flipPhase() ? odd : even;
+            long now = System.nanoTime();
 
-        // Update min
-        long currentMin;
-        do {
-            currentMin = minTimeNanos.get();
-            if (durationNanos >= currentMin) break;
-        } while (!minTimeNanos.compareAndSet(currentMin, durationNanos));
+            // Read after the flip, so every timed sample in the retired phase has its call counted
+            long counted = countedCalls.sum();
+            long calls = retired.calls.sumThenReset() + counted - countedCallsAtSnapshot;
+            countedCallsAtSnapshot = counted;
+            long timeNanos = retired.timeNanos.sumThenReset();
+            long samples = retired.samples.sumThenReset();
+            double variance = retired.variance.sumThenReset();
+            long min = retired.min.getAndSet(Long.MAX_VALUE);
+            long max = retired.max.getAndSet(0);
 
-        // Update max
-        long currentMax;
-        do {
-            currentMax = maxTimeNanos.get();
-            if (durationNanos <= currentMax) break;
-        } while (!maxTimeNanos.compareAndSet(currentMax, durationNanos));
+            totalCalls += calls;
+            totalTimeNanos += timeNanos;
+            totalSamples += samples;
+            totalVariance += variance;
+            minTimeNanos = Math.min(minTimeNanos, min);
+            maxTimeNanos = Math.max(maxTimeNanos, max);
+
+            Snapshot snapshot = new Snapshot(eventName, totalCalls, totalTimeNanos, totalSamples, totalVariance,
+                minTimeNanos, maxTimeNanos, timeNanos, now - intervalStartNanos);
+            intervalStartNanos = now;
+            latest = snapshot;
+            return snapshot;
+        } finally {
+            phaser.readerUnlock();
+        }
+    }
+
+    /**
+     * Snapshot published by the last {@link #snapshot()} call.
+     */
+    public Snapshot getLatest() {
+        return latest;
     }
 
     public String getEventName() {
@@ -51,41 +147,95 @@ public class EventProfile implements Comparable<EventProfile> {
     }
 
     public long getTotalTimeNanos() {
-        return totalTimeNanos.sum();
+        return latest.getTotalTimeNanos();
     }
 
     public double getTotalTimeMs() {
-        return totalTimeNanos.sum() / 1_000_000.0;
+        return latest.getTotalTimeNanos() / 1_000_000.0;
     }
 
     public long getCallCount() {
-        return callCount.sum();
+        return latest.getCallCount();
     }
 
     public double getAvgTimeMs() {
-        long count = callCount.sum();
-        if (count == 0) return 0;
-        return (totalTimeNanos.sum() / (double) count) / 1_000_000.0;
+        return latest.getAvgTimeMs();
     }
 
     public double getMinTimeMs() {
-        long min = minTimeNanos.get();
+        long min = latest.getMinTimeNanos();
         if (min == Long.MAX_VALUE) return 0;
         return min / 1_000_000.0;
     }
 
     public double getMaxTimeMs() {
-        return maxTimeNanos.get() / 1_000_000.0;
+        return latest.getMaxTimeNanos() / 1_000_000.0;
+    }
+
+    /**
+     * Number of dispatches that were timed.
+     */
+    public long getSampleCount() {
+        return latest.getSampleCount();
+    }
+
+    /**
+     * Current sampling interval: 1 means every dispatch is timed.
+     */
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public void setSampleInterval(int sampleInterval) {
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * True if some dispatches were counted but not timed.
+     */
+    public boolean isEstimated() {
+        Snapshot snapshot = latest;
+        return snapshot.getSampleCount() < snapshot.getCallCount();
     }
 
     /**
-     * Reset all statistics.
+     * Half-width of the 95% confidence interval of the total time, in ms.
+     * Zero when every dispatch was timed.
+     */
+    public double getTotalConfidenceMs() {
+        return latest.getTotalConfidenceMs();
+    }
+
+    /**
+     * Half-width of the 95% confidence interval of the average, in ms.
+     */
+    public double getAvgConfidenceMs() {
+        Snapshot snapshot = latest;
+        long calls = snapshot.getCallCount();
+        return calls == 0 ? 0 : snapshot.getTotalConfidenceMs() / calls;
+    }
+
+    /**
+     * Reset all statistics. Dispatches recorded before the call are dropped
+     * as a whole; later ones start the next interval.
      */
     public void reset() {
-        totalTimeNanos.reset();
-        callCount.reset();
-        minTimeNanos.set(Long.MAX_VALUE);
-        maxTimeNanos.set(0);
+        phaser.readerLock();
+        try {
+            Interval retired = phaser.flipPhase() ? odd : even;
+            retired.reset();
+            countedCallsAtSnapshot = countedCalls.sum();
+            totalCalls = 0;
+            totalTimeNanos = 0;
+            totalSamples = 0;
+            totalVariance = 0;
+            minTimeNanos = Long.MAX_VALUE;
+            maxTimeNanos = 0;
+            intervalStartNanos = System.nanoTime();
+            latest = new Snapshot(eventName, 0, 0, 0, 0, Long.MAX_VALUE, 0, 0, 0);
+        } finally {
+            phaser.readerUnlock();
+        }
     }
 
     @Override
@@ -93,4 +243,133 @@ public class EventProfile implements Comparable<EventProfile> {
         // Sort by total time descending
         return Long.compare(other.getTotalTimeNanos(), this.getTotalTimeNanos());
     }
+
+    /**
+     * One phase of recording. Only written between a phaser enter and exit.
+     */
+    private static final class Interval {
+        final LongAdder calls = new LongAdder();
+        final LongAdder timeNanos = new LongAdder();
+        final LongAdder samples = new LongAdder();
+        // Sum of w(w-1)d^2 over timed calls: variance of the weighted total, in ns^2
+        final DoubleAdder variance = new DoubleAdder();
+        final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        final AtomicLong max = new AtomicLong(0);
+
+        void recordSample(long durationNanos, int weight) {
+            timeNanos.add(durationNanos * weight);
+            samples.increment();
+            if (weight > 1) {
+                variance.add((double) weight * (weight - 1) * durationNanos * durationNanos);
+            }
+
+            // Update min
+            long currentMin;
+            do {
+                currentMin = min.get();
+                if (durationNanos >= currentMin) break;
+            } while (!min.compareAndSet(currentMin, durationNanos));
+
+            // Update max
+            long currentMax;
+            do {
+                currentMax = max.get();
+                if (durationNanos <= currentMax) break;
+            } while (!max.compareAndSet(currentMax, durationNanos));
+        }
+
+        void reset() {
+            calls.reset();
+            timeNanos.reset();
+            samples.reset();
+            variance.reset();
+            min.set(Long.MAX_VALUE);
+            max.set(0);
+        }
+    }
+
+    /**
+     * Consistent view of an event type: totals since the last reset, plus
+     * the interval that ended when the snapshot was taken.
+     */
+    public static final class Snapshot {
+        private final String eventName;
+        private final long callCount;
+        private final long totalTimeNanos;
+        private final long sampleCount;
+        private final double totalVariance;
+        private final long minTimeNanos;
+        private final long maxTimeNanos;
+        private final long intervalTimeNanos;
+        private final long intervalLengthNanos;
+
+        Snapshot(String eventName, long callCount, long totalTimeNanos, long sampleCount, double totalVariance,
+                 long minTimeNanos, long maxTimeNanos, long intervalTimeNanos, long intervalLengthNanos) {
+            this.eventName = eventName;
+            this.callCount = callCount;
+            this.totalTimeNanos = totalTimeNanos;
+            this.sampleCount = sampleCount;
+            this.totalVariance = totalVariance;
+            this.minTimeNanos = minTimeNanos;
+            this.maxTimeNanos = maxTimeNanos;
+            this.intervalTimeNanos = intervalTimeNanos;
+            this.intervalLengthNanos = intervalLengthNanos;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+
+        public long getCallCount() {
+            return callCount;
+        }
+
+        public long getTotalTimeNanos() {
+            return totalTimeNanos;
+        }
+
+        public double getAvgTimeMs() {
+            return callCount == 0 ? 0 : totalTimeNanos / (double) callCount / 1_000_000.0;
+        }
+
+        public long getSampleCount() {
+            return sampleCount;
+        }
+
+        /**
+         * Long.MAX_VALUE if nothing was timed.
+         */
+        public long getMinTimeNanos() {
+            return minTimeNanos;
+        }
+
+        public long getMaxTimeNanos() {
+            return maxTimeNanos;
+        }
+
+        public double getTotalConfidenceMs() {
+            return Z_95 * Math.sqrt(totalVariance) / 1_000_000.0;
+        }
+
+        /**
+         * Handling time in the interval that ended with this snapshot.
+         */
+        public long getIntervalTimeNanos() {
+            return intervalTimeNanos;
+        }
+
+        /**
+         * Handling time per second of wall time in that interval, in ms.
+         */
+        public double getIntervalMsPerSecond() {
+            return intervalLengthNanos > 0 ? intervalTimeNanos / 1_000_000.0 / (intervalLengthNanos / 1e9) : 0;
+        }
+
+        /**
+         * Length of that interval: time since the previous snapshot or reset.
+         */
+        public long getIntervalLengthNanos() {
+            return intervalLengthNanos;
+        }
+    }
 }
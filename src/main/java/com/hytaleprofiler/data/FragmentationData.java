@@ -0,0 +1,155 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+
+/**
+ * Data class holding archetype chunk fill and fragmentation information.
+ * Chunk capacity is not exposed by the ECS, so it is estimated as the
+ * largest chunk population ever observed.
+ */
+public class FragmentationData {
+    private final int totalChunks;
+    private final int totalEntities;
+    private final int estimatedChunkCapacity;
+    private final List<ArchetypeFill> archetypes;
+    private final List<Sample> history;
+
+    public FragmentationData(int totalChunks, int totalEntities, int estimatedChunkCapacity,
+                             List<ArchetypeFill> archetypes, List<Sample> history) {
+        this.totalChunks = totalChunks;
+        this.totalEntities = totalEntities;
+        this.estimatedChunkCapacity = estimatedChunkCapacity;
+        this.archetypes = archetypes;
+        this.history = history;
+    }
+
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    public int getTotalEntities() {
+        return totalEntities;
+    }
+
+    public int getEstimatedChunkCapacity() {
+        return estimatedChunkCapacity;
+    }
+
+    /**
+     * Fraction of allocated chunk slots that hold an entity (0-1).
+     */
+    public double getOverallFill() {
+        long slots = (long) totalChunks * estimatedChunkCapacity;
+        return slots > 0 ? totalEntities / (double) slots : 1.0;
+    }
+
+    public long getWastedSlots() {
+        return Math.max(0, (long) totalChunks * estimatedChunkCapacity - totalEntities);
+    }
+
+    public List<ArchetypeFill> getArchetypes() {
+        return archetypes;
+    }
+
+    /**
+     * Periodic fragmentation samples, oldest first.
+     */
+    public List<Sample> getHistory() {
+        return history;
+    }
+
+    /**
+     * Chunk fill statistics for a single archetype.
+     */
+    public static class ArchetypeFill {
+        private final String signature;
+        private final int componentCount;
+        private final int entities;
+        private final int chunks;
+        private final int smallestChunk;
+        private final int nearlyEmptyChunks;
+        private final int capacity;
+
+        public ArchetypeFill(String signature, int componentCount, int entities, int chunks,
+                             int smallestChunk, int nearlyEmptyChunks, int capacity) {
+            this.signature = signature;
+            this.componentCount = componentCount;
+            this.entities = entities;
+            this.chunks = chunks;
+            this.smallestChunk = smallestChunk;
+            this.nearlyEmptyChunks = nearlyEmptyChunks;
+            this.capacity = capacity;
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+
+        public int getComponentCount() {
+            return componentCount;
+        }
+
+        public int getEntities() {
+            return entities;
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+
+        public int getNearlyEmptyChunks() {
+            return nearlyEmptyChunks;
+        }
+
+        public double getAvgFill() {
+            return chunks > 0 && capacity > 0 ? entities / ((double) chunks * capacity) : 0;
+        }
+
+        public double getWorstFill() {
+            return capacity > 0 ? smallestChunk / (double) capacity : 0;
+        }
+
+        public int getWastedSlots() {
+            return Math.max(0, chunks * capacity - entities);
+        }
+    }
+
+    /**
+     * Store-wide fragmentation at one point in time.
+     */
+    public static class Sample {
+        private final long timestampMillis;
+        private final int chunks;
+        private final int entities;
+        private final int archetypes;
+        private final double fill;
+
+        public Sample(long timestampMillis, int chunks, int entities, int archetypes, double fill) {
+            this.timestampMillis = timestampMillis;
+            this.chunks = chunks;
+            this.entities = entities;
+            this.archetypes = archetypes;
+            this.fill = fill;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+
+        public int getEntities() {
+            return entities;
+        }
+
+        public int getArchetypes() {
+            return archetypes;
+        }
+
+        public double getFill() {
+            return fill;
+        }
+    }
+}
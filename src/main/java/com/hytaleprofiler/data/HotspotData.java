@@ -0,0 +1,117 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data class holding entity density per map region.
+ */
+public class HotspotData {
+    private final int regionSizeBlocks;
+    private final int totalEntities;
+    private final int regionCount;
+    private final int untrackedEntities;
+    private final List<Region> topRegions;
+
+    public HotspotData(int regionSizeBlocks, int totalEntities, int regionCount,
+                       int untrackedEntities, List<Region> topRegions) {
+        this.regionSizeBlocks = regionSizeBlocks;
+        this.totalEntities = totalEntities;
+        this.regionCount = regionCount;
+        this.untrackedEntities = untrackedEntities;
+        this.topRegions = topRegions;
+    }
+
+    public int getRegionSizeBlocks() {
+        return regionSizeBlocks;
+    }
+
+    public int getTotalEntities() {
+        return totalEntities;
+    }
+
+    public int getRegionCount() {
+        return regionCount;
+    }
+
+    /**
+     * Entities skipped because the region limit was reached.
+     */
+    public int getUntrackedEntities() {
+        return untrackedEntities;
+    }
+
+    public List<Region> getTopRegions() {
+        return topRegions;
+    }
+
+    /**
+     * A single square region of the map.
+     */
+    public static class Region {
+        private final int regionX;
+        private final int regionZ;
+        private final int blockX;
+        private final int blockZ;
+        private final int entities;
+        private final Map<String, Integer> dominantArchetypes;
+        private final String nearestPlayer;
+        private final double nearestPlayerDistance;
+
+        public Region(int regionX, int regionZ, int blockX, int blockZ, int entities,
+                      Map<String, Integer> dominantArchetypes, String nearestPlayer, double nearestPlayerDistance) {
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+            this.blockX = blockX;
+            this.blockZ = blockZ;
+            this.entities = entities;
+            this.dominantArchetypes = dominantArchetypes;
+            this.nearestPlayer = nearestPlayer;
+            this.nearestPlayerDistance = nearestPlayerDistance;
+        }
+
+        public int getRegionX() {
+            return regionX;
+        }
+
+        public int getRegionZ() {
+            return regionZ;
+        }
+
+        /**
+         * Block X of the region's north-west corner.
+         */
+        public int getBlockX() {
+            return blockX;
+        }
+
+        /**
+         * Block Z of the region's north-west corner.
+         */
+        public int getBlockZ() {
+            return blockZ;
+        }
+
+        public int getEntities() {
+            return entities;
+        }
+
+        /**
+         * Most common archetype signatures in the region, largest first.
+         */
+        public Map<String, Integer> getDominantArchetypes() {
+            return dominantArchetypes;
+        }
+
+        /**
+         * Name of the closest online player, or null if none.
+         */
+        public String getNearestPlayer() {
+            return nearestPlayer;
+        }
+
+        public double getNearestPlayerDistance() {
+            return nearestPlayerDistance;
+        }
+    }
+}
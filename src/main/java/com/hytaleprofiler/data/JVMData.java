@@ -13,9 +13,13 @@ public class JVMData {
     private final long totalGcCount;
     private final long totalGcTimeMs;
     private final Map<String, GCStats> gcByCollector;
+    private final long totalCompileTimeMs;
+    private final long codeCacheUsed;
+    private final long codeCacheMax;
 
     public JVMData(long heapUsed, long heapMax, long nonHeapUsed, int threadCount,
-                   long totalGcCount, long totalGcTimeMs, Map<String, GCStats> gcByCollector) {
+                   long totalGcCount, long totalGcTimeMs, Map<String, GCStats> gcByCollector,
+                   long totalCompileTimeMs, long codeCacheUsed, long codeCacheMax) {
         this.heapUsed = heapUsed;
         this.heapMax = heapMax;
         this.nonHeapUsed = nonHeapUsed;
@@ -23,6 +27,9 @@ public class JVMData {
         this.totalGcCount = totalGcCount;
         this.totalGcTimeMs = totalGcTimeMs;
         this.gcByCollector = gcByCollector;
+        this.totalCompileTimeMs = totalCompileTimeMs;
+        this.codeCacheUsed = codeCacheUsed;
+        this.codeCacheMax = codeCacheMax;
     }
 
     public long getHeapUsed() {
@@ -58,6 +65,32 @@ public class JVMData {
         return gcByCollector;
     }
 
+    /**
+     * JIT compilation time since JVM start, or -1 if the JVM does not report it.
+     */
+    public long getTotalCompileTimeMs() {
+        return totalCompileTimeMs;
+    }
+
+    /**
+     * Bytes used in all code cache segments.
+     */
+    public long getCodeCacheUsed() {
+        return codeCacheUsed;
+    }
+
+    /**
+     * Reserved size of all code cache segments, or 0 if unknown.
+     */
+    public long getCodeCacheMax() {
+        return codeCacheMax;
+    }
+
+    public double getCodeCachePercentage() {
+        if (codeCacheMax <= 0) return 0;
+        return ((double) codeCacheUsed / codeCacheMax) * 100.0;
+    }
+
     /**
      * Statistics for a single garbage collector.
      */
@@ -0,0 +1,121 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+
+/**
+ * Data class holding what the in-process JFR stream has seen since it
+ * started or was last reset: GC pauses, sampled allocations, contended
+ * monitors and execution samples.
+ */
+public class JfrData {
+    private final long elapsedMs;
+    private final long gcCount;
+    private final double gcPauseMs;
+    private final double longestPauseMs;
+    private final long allocatedBytes;
+    private final List<Entry> allocations;
+    private final long monitorEvents;
+    private final List<Entry> monitors;
+    private final long executionSamples;
+    private final List<Entry> hotMethods;
+
+    public JfrData(long elapsedMs, long gcCount, double gcPauseMs, double longestPauseMs,
+                   long allocatedBytes, List<Entry> allocations, long monitorEvents, List<Entry> monitors,
+                   long executionSamples, List<Entry> hotMethods) {
+        this.elapsedMs = elapsedMs;
+        this.gcCount = gcCount;
+        this.gcPauseMs = gcPauseMs;
+        this.longestPauseMs = longestPauseMs;
+        this.allocatedBytes = allocatedBytes;
+        this.allocations = allocations;
+        this.monitorEvents = monitorEvents;
+        this.monitors = monitors;
+        this.executionSamples = executionSamples;
+        this.hotMethods = hotMethods;
+    }
+
+    /**
+     * Time covered by these totals.
+     */
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    /**
+     * Stop-the-world time of all collections, including the pauses of concurrent cycles.
+     */
+    public double getGcPauseMs() {
+        return gcPauseMs;
+    }
+
+    public double getLongestPauseMs() {
+        return longestPauseMs;
+    }
+
+    /**
+     * Estimated bytes allocated, from the weights of allocation samples.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Allocated classes by estimated bytes, largest first. Values are bytes.
+     */
+    public List<Entry> getAllocations() {
+        return allocations;
+    }
+
+    public long getMonitorEvents() {
+        return monitorEvents;
+    }
+
+    /**
+     * Contended monitor classes by total blocked time. Values are milliseconds.
+     */
+    public List<Entry> getMonitors() {
+        return monitors;
+    }
+
+    public long getExecutionSamples() {
+        return executionSamples;
+    }
+
+    /**
+     * Top frames of execution samples by count. Values are the share of samples in percent.
+     */
+    public List<Entry> getHotMethods() {
+        return hotMethods;
+    }
+
+    /**
+     * One aggregated key: a class or method.
+     */
+    public static class Entry {
+        private final String name;
+        private final long count;
+        private final double value;
+
+        public Entry(String name, long count, double value) {
+            this.name = name;
+            this.count = count;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getValue() {
+            return value;
+        }
+    }
+}
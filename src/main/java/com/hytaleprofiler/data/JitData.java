@@ -0,0 +1,229 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+
+/**
+ * Data class holding JIT activity per second next to tick time: warm-up
+ * state, deoptimization storms and the most deoptimized methods.
+ */
+public class JitData {
+    private final boolean jfrEvents;
+    private final boolean warming;
+    private final long warmUpMs;
+    private final long totalCompilations;
+    private final long totalDeoptimizations;
+    private final long codeCacheFullEvents;
+    private final double compileTickCorrelation;
+    private final double deoptTickCorrelation;
+    private final List<Second> history;
+    private final List<Storm> storms;
+    private final List<Count> deoptMethods;
+    private final List<Count> deoptReasons;
+
+    public JitData(boolean jfrEvents, boolean warming, long warmUpMs, long totalCompilations,
+                   long totalDeoptimizations, long codeCacheFullEvents, double compileTickCorrelation,
+                   double deoptTickCorrelation, List<Second> history, List<Storm> storms,
+                   List<Count> deoptMethods, List<Count> deoptReasons) {
+        this.jfrEvents = jfrEvents;
+        this.warming = warming;
+        this.warmUpMs = warmUpMs;
+        this.totalCompilations = totalCompilations;
+        this.totalDeoptimizations = totalDeoptimizations;
+        this.codeCacheFullEvents = codeCacheFullEvents;
+        this.compileTickCorrelation = compileTickCorrelation;
+        this.deoptTickCorrelation = deoptTickCorrelation;
+        this.history = history;
+        this.storms = storms;
+        this.deoptMethods = deoptMethods;
+        this.deoptReasons = deoptReasons;
+    }
+
+    /**
+     * True if compilation and deoptimization counts come from JFR. Without
+     * it only compile time and code cache occupancy are known.
+     */
+    public boolean hasJfrEvents() {
+        return jfrEvents;
+    }
+
+    /**
+     * True while the JIT is still busy compiling after a start or reload.
+     */
+    public boolean isWarming() {
+        return warming;
+    }
+
+    /**
+     * Length of the current warm-up so far, or of the last one once warm.
+     */
+    public long getWarmUpMs() {
+        return warmUpMs;
+    }
+
+    public long getTotalCompilations() {
+        return totalCompilations;
+    }
+
+    public long getTotalDeoptimizations() {
+        return totalDeoptimizations;
+    }
+
+    public long getCodeCacheFullEvents() {
+        return codeCacheFullEvents;
+    }
+
+    /**
+     * Pearson correlation of compile time and average tick length over the
+     * history, or NaN with too little variation.
+     */
+    public double getCompileTickCorrelation() {
+        return compileTickCorrelation;
+    }
+
+    public double getDeoptTickCorrelation() {
+        return deoptTickCorrelation;
+    }
+
+    /**
+     * One entry per second, oldest first.
+     */
+    public List<Second> getHistory() {
+        return history;
+    }
+
+    /**
+     * Seconds with a burst of deoptimizations, newest first.
+     */
+    public List<Storm> getStorms() {
+        return storms;
+    }
+
+    public List<Count> getDeoptMethods() {
+        return deoptMethods;
+    }
+
+    public List<Count> getDeoptReasons() {
+        return deoptReasons;
+    }
+
+    /**
+     * JIT activity and tick time in one second.
+     */
+    public static class Second {
+        private final long uptimeMs;
+        private final double avgTickMs;
+        private final double maxTickMs;
+        private final long compileMs;
+        private final int compilations;
+        private final int deoptimizations;
+        private final double codeCachePercent;
+
+        public Second(long uptimeMs, double avgTickMs, double maxTickMs, long compileMs,
+                      int compilations, int deoptimizations, double codeCachePercent) {
+            this.uptimeMs = uptimeMs;
+            this.avgTickMs = avgTickMs;
+            this.maxTickMs = maxTickMs;
+            this.compileMs = compileMs;
+            this.compilations = compilations;
+            this.deoptimizations = deoptimizations;
+            this.codeCachePercent = codeCachePercent;
+        }
+
+        /**
+         * Time since JVM start at the end of the second.
+         */
+        public long getUptimeMs() {
+            return uptimeMs;
+        }
+
+        public double getAvgTickMs() {
+            return avgTickMs;
+        }
+
+        public double getMaxTickMs() {
+            return maxTickMs;
+        }
+
+        /**
+         * JIT compiler time spent in the second, across all compiler threads.
+         */
+        public long getCompileMs() {
+            return compileMs;
+        }
+
+        /**
+         * Finished compilations, or -1 without JFR.
+         */
+        public int getCompilations() {
+            return compilations;
+        }
+
+        /**
+         * Deoptimizations, or -1 without JFR.
+         */
+        public int getDeoptimizations() {
+            return deoptimizations;
+        }
+
+        public double getCodeCachePercent() {
+            return codeCachePercent;
+        }
+    }
+
+    /**
+     * A second with at least the storm threshold of deoptimizations.
+     */
+    public static class Storm {
+        private final long uptimeMs;
+        private final int deoptimizations;
+        private final double avgTickMs;
+        private final String topMethod;
+
+        public Storm(long uptimeMs, int deoptimizations, double avgTickMs, String topMethod) {
+            this.uptimeMs = uptimeMs;
+            this.deoptimizations = deoptimizations;
+            this.avgTickMs = avgTickMs;
+            this.topMethod = topMethod;
+        }
+
+        public long getUptimeMs() {
+            return uptimeMs;
+        }
+
+        public int getDeoptimizations() {
+            return deoptimizations;
+        }
+
+        public double getAvgTickMs() {
+            return avgTickMs;
+        }
+
+        /**
+         * Method deoptimized most often in that second.
+         */
+        public String getTopMethod() {
+            return topMethod;
+        }
+    }
+
+    /**
+     * A method or reason with its deoptimization count.
+     */
+    public static class Count {
+        private final String name;
+        private final long count;
+
+        public Count(String name, long count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
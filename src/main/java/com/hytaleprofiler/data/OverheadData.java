@@ -0,0 +1,130 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+
+/**
+ * Data class holding the profiler's own cost, per component and in total,
+ * over the last one-second window.
+ */
+public class OverheadData {
+
+    private final double budgetPercent;
+    private final double tickPathPercent;
+    private final double tickPathMsPerSecond;
+    private final double backgroundMsPerSecond;
+    private final int samplingDivisor;
+    private final List<Component> components;
+
+    public OverheadData(double budgetPercent, double tickPathPercent, double tickPathMsPerSecond,
+                        double backgroundMsPerSecond, int samplingDivisor, List<Component> components) {
+        this.budgetPercent = budgetPercent;
+        this.tickPathPercent = tickPathPercent;
+        this.tickPathMsPerSecond = tickPathMsPerSecond;
+        this.backgroundMsPerSecond = backgroundMsPerSecond;
+        this.samplingDivisor = samplingDivisor;
+        this.components = components;
+    }
+
+    /**
+     * Allowed tick-path overhead as a percentage of tick time; 0 means throttling is off.
+     */
+    public double getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    /**
+     * Tick-path overhead as a percentage of the tick time that elapsed.
+     */
+    public double getTickPathPercent() {
+        return tickPathPercent;
+    }
+
+    public double getTickPathMsPerSecond() {
+        return tickPathMsPerSecond;
+    }
+
+    /**
+     * CPU time of exporter threads, which do not delay ticks.
+     */
+    public double getBackgroundMsPerSecond() {
+        return backgroundMsPerSecond;
+    }
+
+    /**
+     * Factor by which event sampling rates are currently lowered; 1 means normal.
+     */
+    public int getSamplingDivisor() {
+        return samplingDivisor;
+    }
+
+    /**
+     * Components sorted by CPU time per second, highest first.
+     */
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    /**
+     * Cost of one collector, hook or exporter.
+     */
+    public static class Component {
+        private final String name;
+        private final String kind;
+        private final double cpuMsPerSecond;
+        private final double allocBytesPerSecond;
+        private final double totalCpuMs;
+        private final long totalAllocBytes;
+        private final long calls;
+        private final boolean shed;
+
+        public Component(String name, String kind, double cpuMsPerSecond, double allocBytesPerSecond,
+                         double totalCpuMs, long totalAllocBytes, long calls, boolean shed) {
+            this.name = name;
+            this.kind = kind;
+            this.cpuMsPerSecond = cpuMsPerSecond;
+            this.allocBytesPerSecond = allocBytesPerSecond;
+            this.totalCpuMs = totalCpuMs;
+            this.totalAllocBytes = totalAllocBytes;
+            this.calls = calls;
+            this.shed = shed;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * "core", "sheddable" or "background".
+         */
+        public String getKind() {
+            return kind;
+        }
+
+        public double getCpuMsPerSecond() {
+            return cpuMsPerSecond;
+        }
+
+        public double getAllocBytesPerSecond() {
+            return allocBytesPerSecond;
+        }
+
+        public double getTotalCpuMs() {
+            return totalCpuMs;
+        }
+
+        public long getTotalAllocBytes() {
+            return totalAllocBytes;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * True if the overhead budget has switched this component off.
+         */
+        public boolean isShed() {
+            return shed;
+        }
+    }
+}
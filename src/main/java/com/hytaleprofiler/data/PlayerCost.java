@@ -0,0 +1,58 @@
+package com.hytaleprofiler.data;
+
+/**
+ * Data class holding event handling cost attributed to one player.
+ */
+public class PlayerCost {
+    private final String playerName;
+    private final long totalNanos;
+    private final long errorNanos;
+    private final long callCount;
+    private final double callsPerSecond;
+    private final String topEvent;
+
+    public PlayerCost(String playerName, long totalNanos, long errorNanos, long callCount,
+                      double callsPerSecond, String topEvent) {
+        this.playerName = playerName;
+        this.totalNanos = totalNanos;
+        this.errorNanos = errorNanos;
+        this.callCount = callCount;
+        this.callsPerSecond = callsPerSecond;
+        this.topEvent = topEvent;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public double getTotalMs() {
+        return totalNanos / 1_000_000.0;
+    }
+
+    /**
+     * Upper bound on how much of the total may belong to players evicted
+     * from this slot earlier (0 means the total is exact).
+     */
+    public long getErrorNanos() {
+        return errorNanos;
+    }
+
+    public long getCallCount() {
+        return callCount;
+    }
+
+    public double getCallsPerSecond() {
+        return callsPerSecond;
+    }
+
+    /**
+     * Event type this player spent the most handling time in.
+     */
+    public String getTopEvent() {
+        return topEvent;
+    }
+}
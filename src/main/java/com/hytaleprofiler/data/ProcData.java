@@ -0,0 +1,234 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+
+/**
+ * Data class holding process and host metrics read from Linux /proc.
+ * Rates cover the time since the previous collection and are 0 on the first.
+ */
+public class ProcData {
+    private final long intervalMs;
+    private final double processCpuPercent;
+    private final double stealPercent;
+    private final double iowaitPercent;
+    private final long rssBytes;
+    private final long rssAnonBytes;
+    private final long rssFileBytes;
+    private final long swapBytes;
+    private final long heapCommittedBytes;
+    private final double minorFaultsPerSecond;
+    private final double majorFaultsPerSecond;
+    private final double voluntarySwitchesPerSecond;
+    private final double involuntarySwitchesPerSecond;
+    private final double diskReadBytesPerSecond;
+    private final double diskWriteBytesPerSecond;
+    private final double ioReadBytesPerSecond;
+    private final double ioWriteBytesPerSecond;
+    private final double load1;
+    private final double load5;
+    private final double load15;
+    private final int cpus;
+    private final int threads;
+    private final List<ThreadCpu> topThreads;
+
+    public ProcData(long intervalMs, double processCpuPercent, double stealPercent, double iowaitPercent,
+                    long rssBytes, long rssAnonBytes, long rssFileBytes, long swapBytes, long heapCommittedBytes,
+                    double minorFaultsPerSecond, double majorFaultsPerSecond,
+                    double voluntarySwitchesPerSecond, double involuntarySwitchesPerSecond,
+                    double diskReadBytesPerSecond, double diskWriteBytesPerSecond,
+                    double ioReadBytesPerSecond, double ioWriteBytesPerSecond,
+                    double load1, double load5, double load15, int cpus, int threads, List<ThreadCpu> topThreads) {
+        this.intervalMs = intervalMs;
+        this.processCpuPercent = processCpuPercent;
+        this.stealPercent = stealPercent;
+        this.iowaitPercent = iowaitPercent;
+        this.rssBytes = rssBytes;
+        this.rssAnonBytes = rssAnonBytes;
+        this.rssFileBytes = rssFileBytes;
+        this.swapBytes = swapBytes;
+        this.heapCommittedBytes = heapCommittedBytes;
+        this.minorFaultsPerSecond = minorFaultsPerSecond;
+        this.majorFaultsPerSecond = majorFaultsPerSecond;
+        this.voluntarySwitchesPerSecond = voluntarySwitchesPerSecond;
+        this.involuntarySwitchesPerSecond = involuntarySwitchesPerSecond;
+        this.diskReadBytesPerSecond = diskReadBytesPerSecond;
+        this.diskWriteBytesPerSecond = diskWriteBytesPerSecond;
+        this.ioReadBytesPerSecond = ioReadBytesPerSecond;
+        this.ioWriteBytesPerSecond = ioWriteBytesPerSecond;
+        this.load1 = load1;
+        this.load5 = load5;
+        this.load15 = load15;
+        this.cpus = cpus;
+        this.threads = threads;
+        this.topThreads = topThreads;
+    }
+
+    /**
+     * Time the rates were measured over.
+     */
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    /**
+     * CPU used by the process, where 100 is one full core.
+     */
+    public double getProcessCpuPercent() {
+        return processCpuPercent;
+    }
+
+    /**
+     * Share of host CPU time stolen by the hypervisor; -1 if unknown.
+     */
+    public double getStealPercent() {
+        return stealPercent;
+    }
+
+    /**
+     * Share of host CPU time idle while waiting for I/O; -1 if unknown.
+     */
+    public double getIowaitPercent() {
+        return iowaitPercent;
+    }
+
+    public long getRssBytes() {
+        return rssBytes;
+    }
+
+    /**
+     * Resident anonymous memory: heap, thread stacks, malloc and direct buffers.
+     */
+    public long getRssAnonBytes() {
+        return rssAnonBytes;
+    }
+
+    /**
+     * Resident file-backed memory, such as mapped jars and libraries.
+     */
+    public long getRssFileBytes() {
+        return rssFileBytes;
+    }
+
+    public long getSwapBytes() {
+        return swapBytes;
+    }
+
+    public long getHeapCommittedBytes() {
+        return heapCommittedBytes;
+    }
+
+    /**
+     * Resident memory outside the committed heap: metaspace, code cache,
+     * thread stacks, direct buffers and native libraries.
+     */
+    public long getNativeBytes() {
+        return Math.max(0, rssBytes - heapCommittedBytes);
+    }
+
+    public double getMinorFaultsPerSecond() {
+        return minorFaultsPerSecond;
+    }
+
+    /**
+     * Page faults that had to read from disk.
+     */
+    public double getMajorFaultsPerSecond() {
+        return majorFaultsPerSecond;
+    }
+
+    public double getVoluntarySwitchesPerSecond() {
+        return voluntarySwitchesPerSecond;
+    }
+
+    /**
+     * Threads descheduled while still runnable, a sign of CPU contention.
+     */
+    public double getInvoluntarySwitchesPerSecond() {
+        return involuntarySwitchesPerSecond;
+    }
+
+    /**
+     * Bytes read from storage, not counting the page cache.
+     */
+    public double getDiskReadBytesPerSecond() {
+        return diskReadBytesPerSecond;
+    }
+
+    public double getDiskWriteBytesPerSecond() {
+        return diskWriteBytesPerSecond;
+    }
+
+    /**
+     * Bytes passed through read syscalls, including sockets and cached files.
+     */
+    public double getIoReadBytesPerSecond() {
+        return ioReadBytesPerSecond;
+    }
+
+    public double getIoWriteBytesPerSecond() {
+        return ioWriteBytesPerSecond;
+    }
+
+    public double getLoad1() {
+        return load1;
+    }
+
+    public double getLoad5() {
+        return load5;
+    }
+
+    public double getLoad15() {
+        return load15;
+    }
+
+    public int getCpus() {
+        return cpus;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Threads by CPU used over the interval, busiest first.
+     */
+    public List<ThreadCpu> getTopThreads() {
+        return topThreads;
+    }
+
+    /**
+     * CPU and page faults of one native thread.
+     */
+    public static class ThreadCpu {
+        private final int tid;
+        private final String name;
+        private final double cpuPercent;
+        private final double majorFaultsPerSecond;
+
+        public ThreadCpu(int tid, String name, double cpuPercent, double majorFaultsPerSecond) {
+            this.tid = tid;
+            this.name = name;
+            this.cpuPercent = cpuPercent;
+            this.majorFaultsPerSecond = majorFaultsPerSecond;
+        }
+
+        public int getTid() {
+            return tid;
+        }
+
+        /**
+         * Kernel thread name, cut to 15 characters.
+         */
+        public String getName() {
+            return name;
+        }
+
+        public double getCpuPercent() {
+            return cpuPercent;
+        }
+
+        public double getMajorFaultsPerSecond() {
+            return majorFaultsPerSecond;
+        }
+    }
+}
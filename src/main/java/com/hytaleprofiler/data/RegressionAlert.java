@@ -0,0 +1,82 @@
+package com.hytaleprofiler.data;
+
+/**
+ * Data class describing a sustained cost increase in a system or mod.
+ */
+public class RegressionAlert {
+
+    public enum Kind { SYSTEM, MOD }
+
+    private final Kind kind;
+    private final String name;
+    private final String modName;
+    private final String worldName;
+    private final double baselineMs;
+    private final double currentMs;
+    private final long startedAtMillis;
+    private final long detectedAtMillis;
+
+    public RegressionAlert(Kind kind, String name, String modName, String worldName,
+                           double baselineMs, double currentMs, long startedAtMillis, long detectedAtMillis) {
+        this.kind = kind;
+        this.name = name;
+        this.modName = modName;
+        this.worldName = worldName;
+        this.baselineMs = baselineMs;
+        this.currentMs = currentMs;
+        this.startedAtMillis = startedAtMillis;
+        this.detectedAtMillis = detectedAtMillis;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * System simple name, or the mod name for mod alerts.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getModName() {
+        return modName;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * Average time per tick before the change.
+     */
+    public double getBaselineMs() {
+        return baselineMs;
+    }
+
+    /**
+     * Average time per tick since the change.
+     */
+    public double getCurrentMs() {
+        return currentMs;
+    }
+
+    public double getMagnitudeMs() {
+        return currentMs - baselineMs;
+    }
+
+    public double getRatio() {
+        return baselineMs > 0 ? currentMs / baselineMs : 0;
+    }
+
+    /**
+     * Estimated wall-clock time the increase began.
+     */
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public long getDetectedAtMillis() {
+        return detectedAtMillis;
+    }
+}
@@ -0,0 +1,189 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+
+/**
+ * Data class holding stop-the-world safepoint pauses seen by the JFR
+ * stream: the last minute, totals since start or reset, per VM operation
+ * and per world.
+ */
+public class SafepointData {
+    private final Window lastMinute;
+    private final Window total;
+    private final List<Operation> operations;
+    private final List<WorldImpact> worlds;
+
+    public SafepointData(Window lastMinute, Window total, List<Operation> operations, List<WorldImpact> worlds) {
+        this.lastMinute = lastMinute;
+        this.total = total;
+        this.operations = operations;
+        this.worlds = worlds;
+    }
+
+    public Window getLastMinute() {
+        return lastMinute;
+    }
+
+    /**
+     * Since the stream started or the last reset.
+     */
+    public Window getTotal() {
+        return total;
+    }
+
+    /**
+     * VM operations by total pause time, largest first.
+     */
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Safepoint time that overlapped each world's ticks in the last minute.
+     */
+    public List<WorldImpact> getWorlds() {
+        return worlds;
+    }
+
+    /**
+     * Safepoint counts and pause times over a span.
+     */
+    public static class Window {
+        private final long count;
+        private final double pauseMs;
+        private final long nonGcCount;
+        private final double nonGcPauseMs;
+        private final double maxPauseMs;
+        private final double maxTimeToSafepointMs;
+        private final long profilerCaused;
+        private final long jfrCaused;
+
+        public Window(long count, double pauseMs, long nonGcCount, double nonGcPauseMs, double maxPauseMs,
+                      double maxTimeToSafepointMs, long profilerCaused, long jfrCaused) {
+            this.count = count;
+            this.pauseMs = pauseMs;
+            this.nonGcCount = nonGcCount;
+            this.nonGcPauseMs = nonGcPauseMs;
+            this.maxPauseMs = maxPauseMs;
+            this.maxTimeToSafepointMs = maxTimeToSafepointMs;
+            this.profilerCaused = profilerCaused;
+            this.jfrCaused = jfrCaused;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Time from safepoint begin to end, including time to safepoint.
+         */
+        public double getPauseMs() {
+            return pauseMs;
+        }
+
+        /**
+         * Safepoints for anything but garbage collection.
+         */
+        public long getNonGcCount() {
+            return nonGcCount;
+        }
+
+        public double getNonGcPauseMs() {
+            return nonGcPauseMs;
+        }
+
+        public double getMaxPauseMs() {
+            return maxPauseMs;
+        }
+
+        /**
+         * Longest wait for all threads to reach the safepoint.
+         */
+        public double getMaxTimeToSafepointMs() {
+            return maxTimeToSafepointMs;
+        }
+
+        /**
+         * Safepoints requested by the profiler's own threads, such as startup stack sampling.
+         */
+        public long getProfilerCaused() {
+            return profilerCaused;
+        }
+
+        /**
+         * Safepoints requested by JFR's threads, including the profiler's stream and recordings.
+         */
+        public long getJfrCaused() {
+            return jfrCaused;
+        }
+    }
+
+    /**
+     * Safepoints of one VM operation.
+     */
+    public static class Operation {
+        private final String name;
+        private final long count;
+        private final double pauseMs;
+        private final double maxPauseMs;
+
+        public Operation(String name, long count, double pauseMs, double maxPauseMs) {
+            this.name = name;
+            this.count = count;
+            this.pauseMs = pauseMs;
+            this.maxPauseMs = maxPauseMs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getPauseMs() {
+            return pauseMs;
+        }
+
+        public double getMaxPauseMs() {
+            return maxPauseMs;
+        }
+    }
+
+    /**
+     * Safepoint time inside one world's tick intervals.
+     */
+    public static class WorldImpact {
+        private final String world;
+        private final long ticksHit;
+        private final double pauseMs;
+        private final double worstTickPauseMs;
+
+        public WorldImpact(String world, long ticksHit, double pauseMs, double worstTickPauseMs) {
+            this.world = world;
+            this.ticksHit = ticksHit;
+            this.pauseMs = pauseMs;
+            this.worstTickPauseMs = worstTickPauseMs;
+        }
+
+        public String getWorld() {
+            return world;
+        }
+
+        public long getTicksHit() {
+            return ticksHit;
+        }
+
+        public double getPauseMs() {
+            return pauseMs;
+        }
+
+        /**
+         * Most safepoint time inside a single tick interval.
+         */
+        public double getWorstTickPauseMs() {
+            return worstTickPauseMs;
+        }
+    }
+}
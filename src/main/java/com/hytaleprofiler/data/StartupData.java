@@ -0,0 +1,242 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+
+/**
+ * Data class holding the server's startup timeline: milestones since JVM
+ * start, time spent in each plugin's setup and start, and classes per
+ * class loader once the first world ticked.
+ */
+public class StartupData {
+    private final boolean complete;
+    private final long budgetMs;
+    private final long sampleCount;
+    private final long stackDumps;
+    private final double stackDumpMs;
+    private final double sampledMs;
+    private final List<Milestone> milestones;
+    private final List<Plugin> plugins;
+    private final List<Loader> classLoaders;
+
+    public StartupData(boolean complete, long budgetMs, long sampleCount, long stackDumps,
+                       double stackDumpMs, double sampledMs, List<Milestone> milestones, List<Plugin> plugins, List<Loader> classLoaders) {
+        this.complete = complete;
+        this.budgetMs = budgetMs;
+        this.sampleCount = sampleCount;
+        this.stackDumps = stackDumps;
+        this.stackDumpMs = stackDumpMs;
+        this.sampledMs = sampledMs;
+        this.milestones = milestones;
+        this.plugins = plugins;
+        this.classLoaders = classLoaders;
+    }
+
+    /**
+     * True once the first world has ticked and sampling stopped.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Wall time a plugin's setup and start may take together; 0 means no budget.
+     */
+    public long getBudgetMs() {
+        return budgetMs;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Thread stacks read by the sampler. Each read is a safepoint the profiler caused.
+     */
+    public long getStackDumps() {
+        return stackDumps;
+    }
+
+    /**
+     * Wall time spent reading thread stacks, an upper bound on the pauses they caused.
+     */
+    public double getStackDumpMs() {
+        return stackDumpMs;
+    }
+
+    /**
+     * Wall time covered by the samples.
+     */
+    public double getSampledMs() {
+        return sampledMs;
+    }
+
+    public List<Milestone> getMilestones() {
+        return milestones;
+    }
+
+    /**
+     * Plugins by total wall time, slowest first.
+     */
+    public List<Plugin> getPlugins() {
+        return plugins;
+    }
+
+    /**
+     * Class loaders by class count, largest first. Empty without JFR.
+     */
+    public List<Loader> getClassLoaders() {
+        return classLoaders;
+    }
+
+    /**
+     * Process state at one point of startup.
+     */
+    public static class Milestone {
+        private final String name;
+        private final long uptimeMs;
+        private final long processCpuMs;
+        private final long classesLoaded;
+        private final long jitMs;
+
+        public Milestone(String name, long uptimeMs, long processCpuMs, long classesLoaded, long jitMs) {
+            this.name = name;
+            this.uptimeMs = uptimeMs;
+            this.processCpuMs = processCpuMs;
+            this.classesLoaded = classesLoaded;
+            this.jitMs = jitMs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Time since JVM start.
+         */
+        public long getUptimeMs() {
+            return uptimeMs;
+        }
+
+        /**
+         * CPU time of all process threads so far, or -1 if unavailable.
+         */
+        public long getProcessCpuMs() {
+            return processCpuMs;
+        }
+
+        public long getClassesLoaded() {
+            return classesLoaded;
+        }
+
+        /**
+         * Total JIT compilation time so far, or -1 if unavailable.
+         */
+        public long getJitMs() {
+            return jitMs;
+        }
+    }
+
+    /**
+     * Time one plugin spent in its setup and start methods.
+     */
+    public static class Plugin {
+        private final String name;
+        private final String className;
+        private final double setupWallMs;
+        private final double setupCpuMs;
+        private final long setupClasses;
+        private final double startWallMs;
+        private final double startCpuMs;
+        private final long startClasses;
+
+        public Plugin(String name, String className, double setupWallMs, double setupCpuMs, long setupClasses,
+                      double startWallMs, double startCpuMs, long startClasses) {
+            this.name = name;
+            this.className = className;
+            this.setupWallMs = setupWallMs;
+            this.setupCpuMs = setupCpuMs;
+            this.setupClasses = setupClasses;
+            this.startWallMs = startWallMs;
+            this.startCpuMs = startCpuMs;
+            this.startClasses = startClasses;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public double getSetupWallMs() {
+            return setupWallMs;
+        }
+
+        public double getSetupCpuMs() {
+            return setupCpuMs;
+        }
+
+        /**
+         * Classes loaded by the whole JVM while the plugin was in setup.
+         */
+        public long getSetupClasses() {
+            return setupClasses;
+        }
+
+        public double getStartWallMs() {
+            return startWallMs;
+        }
+
+        public double getStartCpuMs() {
+            return startCpuMs;
+        }
+
+        public long getStartClasses() {
+            return startClasses;
+        }
+
+        public double getTotalWallMs() {
+            return setupWallMs + startWallMs;
+        }
+    }
+
+    /**
+     * Classes defined by one class loader.
+     */
+    public static class Loader {
+        private final String name;
+        private final String type;
+        private final long classCount;
+        private final long metaspaceBytes;
+
+        public Loader(String name, String type, long classCount, long metaspaceBytes) {
+            this.name = name;
+            this.type = type;
+            this.classCount = classCount;
+            this.metaspaceBytes = metaspaceBytes;
+        }
+
+        /**
+         * Loader name, or null if unnamed.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Class of the loader.
+         */
+        public String getType() {
+            return type;
+        }
+
+        public long getClassCount() {
+            return classCount;
+        }
+
+        public long getMetaspaceBytes() {
+            return metaspaceBytes;
+        }
+    }
+}
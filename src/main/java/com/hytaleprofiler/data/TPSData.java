@@ -5,16 +5,35 @@ package com.hytaleprofiler.data;
  */
 public class TPSData {
     private final double tps;
+    private final double targetTps;
+    private final boolean measuredFromIntervals;
     private final double avgTickMs;
     private final double minTickMs;
     private final double maxTickMs;
+    private final double p50TickMs;
+    private final double p95TickMs;
+    private final double p99TickMs;
+    private final double p999TickMs;
+    private final double stdDevTickMs;
+    private final double jitterMs;
     private final double[] tickHistory;
 
-    public TPSData(double tps, double avgTickMs, double minTickMs, double maxTickMs, double[] tickHistory) {
+    public TPSData(double tps, double targetTps, boolean measuredFromIntervals,
+                   double avgTickMs, double minTickMs, double maxTickMs,
+                   double p50TickMs, double p95TickMs, double p99TickMs, double p999TickMs,
+                   double stdDevTickMs, double jitterMs, double[] tickHistory) {
         this.tps = tps;
+        this.targetTps = targetTps;
+        this.measuredFromIntervals = measuredFromIntervals;
         this.avgTickMs = avgTickMs;
         this.minTickMs = minTickMs;
         this.maxTickMs = maxTickMs;
+        this.p50TickMs = p50TickMs;
+        this.p95TickMs = p95TickMs;
+        this.p99TickMs = p99TickMs;
+        this.p999TickMs = p999TickMs;
+        this.stdDevTickMs = stdDevTickMs;
+        this.jitterMs = jitterMs;
         this.tickHistory = tickHistory;
     }
 
@@ -22,8 +41,22 @@ public class TPSData {
         return tps;
     }
 
+    /**
+     * Configured tick rate of the world.
+     */
+    public double getTargetTps() {
+        return targetTps;
+    }
+
+    /**
+     * True if TPS came from tick start-to-start intervals rather than tick length.
+     */
+    public boolean isMeasuredFromIntervals() {
+        return measuredFromIntervals;
+    }
+
     public double getTpsPercentage() {
-        return Math.min(100.0, (tps / 20.0) * 100.0);
+        return Math.min(100.0, (tps / targetTps) * 100.0);
     }
 
     public double getAvgTickMs() {
@@ -38,19 +71,53 @@ public class TPSData {
         return maxTickMs;
     }
 
+    public double getP50TickMs() {
+        return p50TickMs;
+    }
+
+    public double getP95TickMs() {
+        return p95TickMs;
+    }
+
+    public double getP99TickMs() {
+        return p99TickMs;
+    }
+
+    public double getP999TickMs() {
+        return p999TickMs;
+    }
+
+    public double getStdDevTickMs() {
+        return stdDevTickMs;
+    }
+
+    /**
+     * Mean absolute change between consecutive tick intervals.
+     */
+    public double getJitterMs() {
+        return jitterMs;
+    }
+
+    /**
+     * Tick budget at the configured rate.
+     */
+    public double getTickBudgetMs() {
+        return 1000.0 / targetTps;
+    }
+
     public double[] getTickHistory() {
         return tickHistory;
     }
 
     public boolean isHealthy() {
-        return tps >= 19.0;
+        return tps >= targetTps * 0.95;
     }
 
     public boolean isWarning() {
-        return tps >= 15.0 && tps < 19.0;
+        return tps >= targetTps * 0.75 && tps < targetTps * 0.95;
     }
 
     public boolean isCritical() {
-        return tps < 15.0;
+        return tps < targetTps * 0.75;
     }
 }
@@ -0,0 +1,86 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+
+/**
+ * Data class reconciling tick length against what the profiler can attribute:
+ * ECS systems, timed events, GC pauses and reported phases. Whatever is left
+ * is the unattributed remainder (chunk I/O, networking, scheduled tasks).
+ * Averages are indexed like {@link com.hytaleprofiler.util.MultiWindowStat#WINDOW_NAMES}.
+ */
+public class TickBreakdownData {
+    private final long ticks;
+    private final double lastTickMs;
+    private final double[] tickAveragesMs;
+    private final List<Component> components;
+
+    public TickBreakdownData(long ticks, double lastTickMs, double[] tickAveragesMs, List<Component> components) {
+        this.ticks = ticks;
+        this.lastTickMs = lastTickMs;
+        this.tickAveragesMs = tickAveragesMs;
+        this.components = components;
+    }
+
+    /**
+     * Ticks decomposed so far; 0 means no data yet.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    public double getLastTickMs() {
+        return lastTickMs;
+    }
+
+    public double[] getTickAveragesMs() {
+        return tickAveragesMs;
+    }
+
+    /**
+     * Components in display order, ending with the unattributed remainder.
+     */
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    /**
+     * Share of the average tick taken by a component over a window.
+     */
+    public double getPercentage(Component component, int window) {
+        double tick = tickAveragesMs[window];
+        return tick > 0 ? Math.min(100.0, component.getAveragesMs()[window] / tick * 100.0) : 0;
+    }
+
+    /**
+     * One slice of the tick.
+     */
+    public static class Component {
+        private final String name;
+        private final boolean unattributed;
+        private final double lastMs;
+        private final double[] averagesMs;
+
+        public Component(String name, boolean unattributed, double lastMs, double[] averagesMs) {
+            this.name = name;
+            this.unattributed = unattributed;
+            this.lastMs = lastMs;
+            this.averagesMs = averagesMs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isUnattributed() {
+            return unattributed;
+        }
+
+        public double getLastMs() {
+            return lastMs;
+        }
+
+        public double[] getAveragesMs() {
+            return averagesMs;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.hytaleprofiler.data;
+
+import java.util.List;
+
+/**
+ * Data class holding moving averages and maxima of core metrics over the
+ * windows in {@link com.hytaleprofiler.util.MultiWindowStat#WINDOW_NAMES}.
+ */
+public class WindowedMetricsData {
+    private final double[] tps;
+    private final Series tickMs;
+    private final Series entities;
+    private final Series heapBytes;
+    private final Series allocationBytesPerSecond;
+    private final List<Series> systemsMs;
+    private final List<Series> eventsMs;
+
+    public WindowedMetricsData(double[] tps, Series tickMs, Series entities, Series heapBytes,
+                               Series allocationBytesPerSecond, List<Series> systemsMs, List<Series> eventsMs) {
+        this.tps = tps;
+        this.tickMs = tickMs;
+        this.entities = entities;
+        this.heapBytes = heapBytes;
+        this.allocationBytesPerSecond = allocationBytesPerSecond;
+        this.systemsMs = systemsMs;
+        this.eventsMs = eventsMs;
+    }
+
+    /**
+     * TPS per window, from the averaged tick start-to-start interval.
+     */
+    public double[] getTps() {
+        return tps;
+    }
+
+    public Series getTickMs() {
+        return tickMs;
+    }
+
+    public Series getEntities() {
+        return entities;
+    }
+
+    public Series getHeapBytes() {
+        return heapBytes;
+    }
+
+    public Series getAllocationBytesPerSecond() {
+        return allocationBytesPerSecond;
+    }
+
+    /**
+     * Per-system time per tick.
+     */
+    public List<Series> getSystemsMs() {
+        return systemsMs;
+    }
+
+    /**
+     * Per-event handling time per second.
+     */
+    public List<Series> getEventsMs() {
+        return eventsMs;
+    }
+
+    /**
+     * One metric's averages and maxima, indexed by window.
+     */
+    public static class Series {
+        private final String name;
+        private final double[] averages;
+        private final double[] maxima;
+
+        public Series(String name, double[] averages, double[] maxima) {
+            this.name = name;
+            this.averages = averages;
+            this.maxima = maxima;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double[] getAverages() {
+            return averages;
+        }
+
+        public double[] getMaxima() {
+            return maxima;
+        }
+    }
+}
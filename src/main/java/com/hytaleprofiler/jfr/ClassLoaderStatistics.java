@@ -0,0 +1,53 @@
+package com.hytaleprofiler.jfr;
+
+import com.hytaleprofiler.data.StartupData;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClassLoader;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classes per class loader, read from a one-shot JFR
+ * {@code jdk.ClassLoaderStatistics} recording. The JVM has no other public
+ * way to count the classes a given loader defined.
+ */
+public final class ClassLoaderStatistics {
+
+    private ClassLoaderStatistics() {}
+
+    /**
+     * Current statistics of every live class loader, largest first.
+     */
+    public static List<StartupData.Loader> collect() throws IOException {
+        Path file = Files.createTempFile("hytaleprofiler-classloaders", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                // Emitted once, when the recording's only chunk ends
+                recording.enable("jdk.ClassLoaderStatistics").with("period", "endChunk");
+                recording.start();
+                recording.stop();
+                recording.dump(file);
+            }
+
+            List<StartupData.Loader> loaders = new ArrayList<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (!event.getEventType().getName().equals("jdk.ClassLoaderStatistics")) continue;
+                RecordedClassLoader loader = event.getValue("classLoader");
+                String name = loader == null ? "bootstrap" : loader.getName();
+                String type = loader == null || loader.getType() == null ? null : loader.getType().getName();
+                loaders.add(new StartupData.Loader(name, type,
+                    event.getLong("classCount"), event.getLong("blockSize")));
+            }
+            loaders.sort((a, b) -> Long.compare(b.getClassCount(), a.getClassCount()));
+            return loaders;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
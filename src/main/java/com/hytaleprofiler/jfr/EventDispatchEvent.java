@@ -0,0 +1,47 @@
+package com.hytaleprofiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A timed event dispatch, from the first to the last handler.
+ */
+@Name("hytaleprofiler.EventDispatch")
+@Label("Event Dispatch")
+@Category("HytaleProfiler")
+@Description("Time spent in all handlers of a timed event dispatch")
+@StackTrace(false)
+public final class EventDispatchEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(EventDispatchEvent.class);
+
+    @Label("Event")
+    String event;
+
+    @Label("Dispatch Time")
+    @Timespan
+    long dispatchTime;
+
+    @Label("Sampling Weight")
+    @Description("Number of dispatches this timed one stands for")
+    int weight;
+
+    @Label("Player")
+    String player;
+
+    public static void emit(String eventName, long durationNanos, int weight, String player) {
+        if (!TYPE.isEnabled()) return;
+        EventDispatchEvent event = new EventDispatchEvent();
+        event.event = eventName;
+        event.dispatchTime = durationNanos;
+        event.weight = weight;
+        event.player = player;
+        event.commit();
+    }
+}
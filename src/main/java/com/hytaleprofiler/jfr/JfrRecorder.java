@@ -0,0 +1,122 @@
+package com.hytaleprofiler.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Manages one JFR recording with the JDK's low-overhead "default" settings
+ * plus the profiler's own events. The recording lives in JFR's on-disk
+ * repository, bounded by age and size, so it can run for as long as needed
+ * and be dumped to a {@code .jfr} file for JDK Mission Control whenever a
+ * problem shows up.
+ */
+public class JfrRecorder {
+
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(30);
+    public static final long MAX_SIZE_BYTES = 256L * 1024 * 1024;
+
+    private static final String RECORDING_NAME = "HytaleProfiler";
+
+    private final Path exportDirectory;
+
+    private Recording recording;
+
+    public JfrRecorder(Path exportDirectory) {
+        this.exportDirectory = exportDirectory;
+    }
+
+    /**
+     * True if this JVM includes JFR. Checked before any JFR class is loaded.
+     */
+    public static boolean isSupported() {
+        return ModuleLayer.boot().findModule("jdk.jfr").isPresent() && FlightRecorder.isAvailable();
+    }
+
+    /**
+     * Start recording, keeping at most {@code maxAge} of history.
+     * Returns false if a recording is already running.
+     */
+    public synchronized boolean start(Duration maxAge) throws IOException, ParseException {
+        if (recording != null) return false;
+
+        Recording next = new Recording(Configuration.getConfiguration("default"));
+        next.setName(RECORDING_NAME);
+        next.setToDisk(true);
+        next.setMaxAge(maxAge);
+        next.setMaxSize(MAX_SIZE_BYTES);
+        next.enable(WorldTickEvent.class);
+        next.enable(SystemExecutionEvent.class);
+        next.enable(EventDispatchEvent.class);
+        next.enable(LagSpikeEvent.class);
+        next.start();
+        recording = next;
+        return true;
+    }
+
+    /**
+     * Write everything still held in the repository to a new file in the
+     * export directory. Returns null if not recording.
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null) return null;
+        Path file = newFile();
+        recording.dump(file);
+        return file;
+    }
+
+    /**
+     * Stop recording and write it to a file. Returns null if not recording.
+     */
+    public synchronized Path stop() throws IOException {
+        if (recording == null) return null;
+        try {
+            recording.stop();
+            Path file = newFile();
+            recording.dump(file);
+            return file;
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public synchronized boolean isRecording() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    public synchronized Duration getMaxAge() {
+        return recording != null ? recording.getMaxAge() : null;
+    }
+
+    /**
+     * Bytes currently held by the recording, or 0 if not recording.
+     */
+    public synchronized long getSize() {
+        return recording != null ? recording.getSize() : 0;
+    }
+
+    /**
+     * Time since the recording started, or null if not recording.
+     */
+    public synchronized Duration getElapsed() {
+        if (recording == null || recording.getStartTime() == null) return null;
+        return Duration.between(recording.getStartTime(), Instant.now());
+    }
+
+    private Path newFile() throws IOException {
+        Files.createDirectories(exportDirectory);
+        return exportDirectory.resolve("profiler-jfr-" +
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss")) + ".jfr");
+    }
+}
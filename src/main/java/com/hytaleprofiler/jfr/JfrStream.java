@@ -0,0 +1,345 @@
+package com.hytaleprofiler.jfr;
+
+import com.hytaleprofiler.collector.Collector;
+import com.hytaleprofiler.collector.JitMonitor;
+import com.hytaleprofiler.collector.OverheadMonitor;
+import com.hytaleprofiler.collector.SafepointTracker;
+import com.hytaleprofiler.data.JfrData;
+import com.hypixel.hytale.server.core.universe.world.World;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Consumes JVM events from an in-process JFR {@link RecordingStream}:
+ * GC pauses, allocation samples, contended monitor entries and execution
+ * samples, plus JIT compilations, deoptimizations and code-cache-full
+ * events, which are forwarded to the {@link JitMonitor}, and safepoints,
+ * which are forwarded to the {@link SafepointTracker}. The JVM records
+ * these itself, so following allocation and CPU hotspots costs far less
+ * than polling MXBeans or walking thread stacks.
+ *
+ * <p>Events arrive on the stream's own thread, about once a second. Totals
+ * are kept until {@link #reset()} and published as a process-wide
+ * {@link JfrData} collector.
+ */
+public class JfrStream implements Collector<JfrData> {
+
+    public static final long SNAPSHOT_INTERVAL_MS = 1000;
+
+    private static final long MONITOR_THRESHOLD_MS = 10;
+    private static final long EXECUTION_PERIOD_MS = 20;
+    private static final String ALLOCATION_THROTTLE = "150/s";
+    // Chunks the stream keeps in the JFR repository
+    private static final Duration STREAM_MAX_AGE = Duration.ofSeconds(30);
+
+    // Distinct keys per table; later keys are folded into OTHER
+    private static final int MAX_KEYS = 2048;
+    private static final String OTHER = "(other)";
+    private static final int TOP_ENTRIES = 10;
+
+    // A safepoint's events can straddle a flush; incomplete ones are dropped after this many
+    private static final int SAFEPOINT_MAX_FLUSHES = 2;
+    private static final int MAX_PENDING_SAFEPOINTS = 1024;
+
+    private final OverheadMonitor.Component overhead;
+
+    private RecordingStream stream;
+    private JitMonitor jitMonitor;
+    private SafepointTracker safepointTracker;
+
+    // Safepoint events by safepoint id until all parts arrived, stream thread only
+    private final Map<Long, PendingSafepoint> pendingSafepoints = new HashMap<>();
+
+    // Totals, guarded by this
+    private long startNanos = System.nanoTime();
+    private long gcCount;
+    private long gcPauseNanos;
+    private long longestPauseNanos;
+    private long allocatedBytes;
+    private long monitorEvents;
+    private long executionSamples;
+    private final Map<String, long[]> allocations = new HashMap<>();
+    private final Map<String, long[]> monitors = new HashMap<>();
+    private final Map<String, long[]> hotMethods = new HashMap<>();
+
+    public JfrStream(OverheadMonitor overheadMonitor) {
+        this.overhead = overheadMonitor.register("JfrStream", OverheadMonitor.Kind.BACKGROUND);
+    }
+
+    /**
+     * Forward JIT events to a monitor. Call before {@link #start()}.
+     */
+    public synchronized void setJitMonitor(JitMonitor jitMonitor) {
+        this.jitMonitor = jitMonitor;
+    }
+
+    /**
+     * Forward safepoints to a tracker. Call before {@link #start()}.
+     */
+    public synchronized void setSafepointTracker(SafepointTracker safepointTracker) {
+        this.safepointTracker = safepointTracker;
+    }
+
+    /**
+     * Start streaming. Does nothing if already running.
+     */
+    public synchronized void start() {
+        if (stream != null) return;
+
+        RecordingStream rs = new RecordingStream();
+        rs.setMaxAge(STREAM_MAX_AGE);
+        rs.enable("jdk.GarbageCollection");
+        rs.enable("jdk.ObjectAllocationSample").with("throttle", ALLOCATION_THROTTLE).withoutStackTrace();
+        rs.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(MONITOR_THRESHOLD_MS)).withoutStackTrace();
+        rs.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(EXECUTION_PERIOD_MS));
+        if (jitMonitor != null) {
+            rs.enable("jdk.Compilation").withoutThreshold();
+            rs.enable("jdk.Deoptimization").withoutStackTrace();
+            rs.enable("jdk.CodeCacheFull");
+        }
+        if (safepointTracker != null) {
+            rs.enable("jdk.SafepointBegin").withoutThreshold();
+            rs.enable("jdk.SafepointStateSynchronization").withoutThreshold();
+            rs.enable("jdk.ExecuteVMOperation").withoutThreshold();
+            rs.enable("jdk.SafepointEnd").withoutThreshold();
+        }
+
+        rs.onEvent("jdk.GarbageCollection", measured(this::onGarbageCollection));
+        rs.onEvent("jdk.ObjectAllocationSample", measured(this::onAllocationSample));
+        rs.onEvent("jdk.JavaMonitorEnter", measured(this::onMonitorEnter));
+        rs.onEvent("jdk.ExecutionSample", measured(this::onExecutionSample));
+        if (jitMonitor != null) {
+            JitMonitor jit = jitMonitor;
+            rs.onEvent("jdk.Compilation", measured(event -> jit.recordCompilation()));
+            rs.onEvent("jdk.Deoptimization", measured(event -> onDeoptimization(jit, event)));
+            rs.onEvent("jdk.CodeCacheFull", measured(event -> jit.recordCodeCacheFull()));
+        }
+        if (safepointTracker != null) {
+            SafepointTracker tracker = safepointTracker;
+            rs.onEvent("jdk.SafepointBegin", measured(event -> pendingSafepoint(event).begin = event.getStartTime()));
+            rs.onEvent("jdk.SafepointStateSynchronization",
+                measured(event -> pendingSafepoint(event).timeToSafepointNanos = event.getDuration().toNanos()));
+            rs.onEvent("jdk.ExecuteVMOperation", measured(this::onVMOperation));
+            rs.onEvent("jdk.SafepointEnd", measured(event -> pendingSafepoint(event).end = event.getEndTime()));
+            rs.onFlush(measured(() -> flushSafepoints(tracker)));
+        }
+
+        rs.startAsync();
+        stream = rs;
+        if (jitMonitor != null) {
+            jitMonitor.setJfrEvents(true);
+        }
+    }
+
+    public synchronized void stop() {
+        if (stream == null) return;
+        stream.close();
+        stream = null;
+        if (jitMonitor != null) {
+            jitMonitor.setJfrEvents(false);
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    /**
+     * Clear all totals.
+     */
+    public synchronized void reset() {
+        startNanos = System.nanoTime();
+        gcCount = 0;
+        gcPauseNanos = 0;
+        longestPauseNanos = 0;
+        allocatedBytes = 0;
+        monitorEvents = 0;
+        executionSamples = 0;
+        allocations.clear();
+        monitors.clear();
+        hotMethods.clear();
+    }
+
+    @Override
+    public String getName() {
+        return "jfr";
+    }
+
+    @Override
+    public long getIntervalMs() {
+        return SNAPSHOT_INTERVAL_MS;
+    }
+
+    @Override
+    public boolean isPerWorld() {
+        return false;
+    }
+
+    @Override
+    public JfrData collect(World world) {
+        return collect();
+    }
+
+    public synchronized JfrData collect() {
+        return new JfrData(
+            (System.nanoTime() - startNanos) / 1_000_000,
+            gcCount, gcPauseNanos / 1_000_000.0, longestPauseNanos / 1_000_000.0,
+            allocatedBytes, top(allocations, false, 1),
+            monitorEvents, top(monitors, false, 1_000_000.0),
+            executionSamples, top(hotMethods, true, Math.max(1, executionSamples) / 100.0)
+        );
+    }
+
+    private Consumer<RecordedEvent> measured(Consumer<RecordedEvent> handler) {
+        return event -> {
+            long cpu = OverheadMonitor.threadCpuNanos();
+            long alloc = OverheadMonitor.threadAllocatedBytes();
+            try {
+                handler.accept(event);
+            } catch (Exception e) {
+                // A malformed event must not stop the stream
+            }
+            overhead.recordSince(cpu, alloc);
+        };
+    }
+
+    private Runnable measured(Runnable task) {
+        Consumer<RecordedEvent> handler = measured(event -> task.run());
+        return () -> handler.accept(null);
+    }
+
+    private synchronized void onGarbageCollection(RecordedEvent event) {
+        long pauses = event.getDuration("sumOfPauses").toNanos();
+        gcCount++;
+        gcPauseNanos += pauses;
+        longestPauseNanos = Math.max(longestPauseNanos, event.getDuration("longestPause").toNanos());
+    }
+
+    private synchronized void onAllocationSample(RecordedEvent event) {
+        RecordedClass type = event.getClass("objectClass");
+        long weight = event.getLong("weight");
+        allocatedBytes += weight;
+        add(allocations, type != null ? type.getName() : OTHER, weight);
+    }
+
+    private synchronized void onMonitorEnter(RecordedEvent event) {
+        RecordedClass type = event.getClass("monitorClass");
+        monitorEvents++;
+        add(monitors, type != null ? type.getName() : OTHER, event.getDuration().toNanos());
+    }
+
+    private synchronized void onExecutionSample(RecordedEvent event) {
+        RecordedStackTrace stack = event.getStackTrace();
+        if (stack == null || stack.getFrames().isEmpty()) return;
+        RecordedFrame top = stack.getFrames().get(0);
+        RecordedMethod method = top.getMethod();
+        executionSamples++;
+        add(hotMethods, method.getType().getName() + "." + method.getName(), 0);
+    }
+
+    private PendingSafepoint pendingSafepoint(RecordedEvent event) {
+        long id = event.getLong("safepointId");
+        PendingSafepoint pending = pendingSafepoints.get(id);
+        if (pending == null) {
+            if (pendingSafepoints.size() >= MAX_PENDING_SAFEPOINTS) {
+                pendingSafepoints.clear();
+            }
+            pending = new PendingSafepoint();
+            pendingSafepoints.put(id, pending);
+        }
+        return pending;
+    }
+
+    private void onVMOperation(RecordedEvent event) {
+        if (!event.getBoolean("safepoint")) return;
+        PendingSafepoint pending = pendingSafepoint(event);
+        pending.operation = event.getString("operation");
+        RecordedThread caller = event.getThread("caller");
+        if (caller != null) {
+            pending.caller = caller.getJavaName() != null ? caller.getJavaName() : caller.getOSName();
+        }
+    }
+
+    /**
+     * Hand complete safepoints to the tracker and age out the rest.
+     */
+    private void flushSafepoints(SafepointTracker tracker) {
+        Iterator<PendingSafepoint> it = pendingSafepoints.values().iterator();
+        while (it.hasNext()) {
+            PendingSafepoint pending = it.next();
+            if (pending.begin != null && pending.end != null) {
+                long pauseNanos = Duration.between(pending.begin, pending.end).toNanos();
+                tracker.recordSafepoint(pending.begin, Math.max(0, pauseNanos), pending.timeToSafepointNanos,
+                    pending.operation, pending.caller);
+                it.remove();
+            } else if (++pending.flushes > SAFEPOINT_MAX_FLUSHES) {
+                it.remove();
+            }
+        }
+    }
+
+    private static void onDeoptimization(JitMonitor jit, RecordedEvent event) {
+        RecordedMethod method = event.getValue("method");
+        jit.recordDeoptimization(method != null ? method.getType().getName() + "." + method.getName() : null,
+            event.getString("reason"));
+    }
+
+    /**
+     * Count one occurrence of a key and add to its value.
+     */
+    private static void add(Map<String, long[]> table, String key, long value) {
+        long[] entry = table.get(key);
+        if (entry == null) {
+            if (table.size() >= MAX_KEYS) {
+                key = OTHER;
+            }
+            entry = table.computeIfAbsent(key, k -> new long[2]);
+        }
+        entry[0]++;
+        entry[1] += value;
+    }
+
+    /**
+     * Largest entries of a table by count or by summed value, with the
+     * ranked quantity divided by {@code divisor}.
+     */
+    private static List<JfrData.Entry> top(Map<String, long[]> table, boolean byCount, double divisor) {
+        int field = byCount ? 0 : 1;
+        List<Map.Entry<String, long[]>> sorted = new ArrayList<>(table.entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue()[field], a.getValue()[field]));
+
+        List<JfrData.Entry> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(TOP_ENTRIES, sorted.size()); i++) {
+            Map.Entry<String, long[]> entry = sorted.get(i);
+            long[] value = entry.getValue();
+            result.add(new JfrData.Entry(entry.getKey(), value[0], value[field] / divisor));
+        }
+        return result;
+    }
+
+    /**
+     * Parts of one safepoint seen so far.
+     */
+    private static final class PendingSafepoint {
+        Instant begin;
+        Instant end;
+        long timeToSafepointNanos;
+        String operation;
+        String caller;
+        int flushes;
+    }
+}
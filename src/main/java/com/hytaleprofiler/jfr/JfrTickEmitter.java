@@ -0,0 +1,99 @@
+package com.hytaleprofiler.jfr;
+
+import com.hytaleprofiler.collector.SystemMetricsCollector;
+import com.hytaleprofiler.collector.TPSCollector;
+import com.hytaleprofiler.collector.TickHookSystem;
+import com.hytaleprofiler.collector.TickSample;
+import com.hytaleprofiler.util.FormatUtil;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits {@link WorldTickEvent}, {@link SystemExecutionEvent} and
+ * {@link LagSpikeEvent} for the tick that just finished. Values come from
+ * the engine's metrics, the same source as {@code /profiler tick}. While no
+ * recording takes these events a tick costs three enabled checks.
+ */
+public class JfrTickEmitter implements TickHookSystem.TickListener {
+
+    // A tick longer than this many budgets is a lag spike
+    public static final double LAG_SPIKE_FACTOR = 2.0;
+
+    private final SystemMetricsCollector systemMetricsCollector;
+
+    // System names per store; refreshed when the system count changes
+    private final Map<Store<EntityStore>, SystemNames> systemNames = new ConcurrentHashMap<>();
+
+    public JfrTickEmitter(SystemMetricsCollector systemMetricsCollector) {
+        this.systemMetricsCollector = systemMetricsCollector;
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        boolean ticks = WorldTickEvent.enabled();
+        boolean systems = SystemExecutionEvent.enabled();
+        boolean spikes = LagSpikeEvent.enabled();
+        if (!ticks && !systems && !spikes) return;
+
+        World world = store.getExternalData().getWorld();
+        String worldName = world.getName();
+        long tickLength = sample.getTickLengthNanos();
+        long budget = (long) (1_000_000_000L / TPSCollector.getTargetTps(world));
+
+        if (ticks) {
+            WorldTickEvent.emit(worldName, tickLength, budget, store.getEntityCount());
+        }
+
+        boolean spike = spikes && tickLength > budget * LAG_SPIKE_FACTOR;
+        if (!systems && !spike) return;
+
+        int count = sample.getSystemCount();
+        if (count == 0) return;
+        SystemNames names = names(store, count);
+        int slowest = -1;
+        long slowestNanos = 0;
+        for (int i = 0; i < count; i++) {
+            long nanos = sample.getSystemNanos(i);
+            if (nanos <= 0) continue;
+            if (systems) {
+                SystemExecutionEvent.emit(worldName, names.classes[i], names.mods[i], nanos);
+            }
+            if (nanos > slowestNanos) {
+                slowest = i;
+                slowestNanos = nanos;
+            }
+        }
+
+        if (spike) {
+            LagSpikeEvent.emit(worldName, tickLength, budget, slowest >= 0 ? names.classes[slowest] : null, slowestNanos);
+        }
+    }
+
+    private SystemNames names(Store<EntityStore> store, int count) {
+        SystemNames names = systemNames.get(store);
+        if (names != null && names.classes.length == count) return names;
+
+        names = new SystemNames(systemMetricsCollector.getSystemNames(store), count);
+        systemNames.put(store, names);
+        return names;
+    }
+
+    private static final class SystemNames {
+        final String[] classes;
+        final String[] mods;
+
+        SystemNames(String[] resolved, int count) {
+            classes = new String[count];
+            mods = new String[count];
+            for (int i = 0; i < count; i++) {
+                classes[i] = resolved != null && i < resolved.length && resolved[i] != null
+                    ? resolved[i] : "System_" + i;
+                mods[i] = FormatUtil.extractModName(classes[i]);
+            }
+        }
+    }
+}
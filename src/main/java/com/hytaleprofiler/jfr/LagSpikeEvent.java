@@ -0,0 +1,59 @@
+package com.hytaleprofiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A world tick that took well over its budget.
+ */
+@Name("hytaleprofiler.LagSpike")
+@Label("Lag Spike")
+@Category("HytaleProfiler")
+@Description("World tick that took more than twice its budget")
+@StackTrace(false)
+public final class LagSpikeEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(LagSpikeEvent.class);
+
+    @Label("World")
+    String world;
+
+    @Label("Tick Length")
+    @Timespan
+    long tickLength;
+
+    @Label("Tick Budget")
+    @Timespan
+    long budget;
+
+    @Label("Slowest System")
+    String slowestSystem;
+
+    @Label("Slowest System Duration")
+    @Timespan
+    long slowestSystemDuration;
+
+    /**
+     * True if a recording currently takes this event.
+     */
+    public static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+
+    public static void emit(String world, long tickLengthNanos, long budgetNanos,
+                            String slowestSystem, long slowestSystemNanos) {
+        LagSpikeEvent event = new LagSpikeEvent();
+        event.world = world;
+        event.tickLength = tickLengthNanos;
+        event.budget = budgetNanos;
+        event.slowestSystem = slowestSystem;
+        event.slowestSystemDuration = slowestSystemNanos;
+        event.commit();
+    }
+}
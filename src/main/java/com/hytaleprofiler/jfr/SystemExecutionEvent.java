@@ -0,0 +1,53 @@
+package com.hytaleprofiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Time one ECS system took in a world tick.
+ */
+@Name("hytaleprofiler.SystemExecution")
+@Label("ECS System Execution")
+@Category("HytaleProfiler")
+@Description("Time an ECS system took in the most recent world tick")
+@StackTrace(false)
+public final class SystemExecutionEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(SystemExecutionEvent.class);
+
+    @Label("World")
+    String world;
+
+    @Label("System")
+    String system;
+
+    @Label("Mod")
+    String mod;
+
+    @Label("Execution Time")
+    @Timespan
+    long executionTime;
+
+    /**
+     * True if recordings currently take this event; check once per tick
+     * before emitting every system.
+     */
+    public static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+
+    public static void emit(String world, String system, String mod, long durationNanos) {
+        SystemExecutionEvent event = new SystemExecutionEvent();
+        event.world = world;
+        event.system = system;
+        event.mod = mod;
+        event.executionTime = durationNanos;
+        event.commit();
+    }
+}
@@ -0,0 +1,54 @@
+package com.hytaleprofiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One completed world tick, as measured by the engine.
+ */
+@Name("hytaleprofiler.WorldTick")
+@Label("World Tick")
+@Category("HytaleProfiler")
+@Description("Length of a completed world tick")
+@StackTrace(false)
+public final class WorldTickEvent extends Event {
+
+    // Looked up once; isEnabled() on a new instance would allocate on every check
+    private static final EventType TYPE = EventType.getEventType(WorldTickEvent.class);
+
+    @Label("World")
+    String world;
+
+    @Label("Tick Length")
+    @Timespan
+    long tickLength;
+
+    @Label("Tick Budget")
+    @Timespan
+    long budget;
+
+    @Label("Entities")
+    int entities;
+
+    /**
+     * True if a recording currently takes this event.
+     */
+    public static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+
+    public static void emit(String world, long tickLengthNanos, long budgetNanos, int entities) {
+        WorldTickEvent event = new WorldTickEvent();
+        event.world = world;
+        event.tickLength = tickLengthNanos;
+        event.budget = budgetNanos;
+        event.entities = entities;
+        event.commit();
+    }
+}
@@ -0,0 +1,383 @@
+package com.hytaleprofiler.recording;
+
+import com.hytaleprofiler.HytaleProfiler;
+import com.hytaleprofiler.api.Counter;
+import com.hytaleprofiler.api.Gauge;
+import com.hytaleprofiler.api.MetricRegistry;
+import com.hytaleprofiler.api.ProfilerAPI;
+import com.hytaleprofiler.api.Timer;
+import com.hytaleprofiler.collector.OverheadMonitor;
+import com.hytaleprofiler.collector.SnapshotBus;
+import com.hytaleprofiler.collector.TickHookSystem;
+import com.hytaleprofiler.collector.TickSample;
+import com.hytaleprofiler.data.EntityData;
+import com.hytaleprofiler.data.EventProfile;
+import com.hytaleprofiler.data.JVMData;
+import com.hytaleprofiler.util.FormatUtil;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams periodic profiler samples to a recording file so they can be
+ * compared offline with {@code java -jar HytaleProfiler.jar diff}.
+ * See {@link RecordingFormat} for the file layout.
+ *
+ * <p>Tick and system times are buffered per tick of the default world on
+ * the world thread and written with the next sample, so the diff sees the
+ * spread of individual ticks rather than of rolling averages.
+ *
+ * <p>Each sample is built in memory and written only once complete, so a
+ * failure part-way through skips the whole sample instead of leaving a
+ * truncated line the reader would reject.
+ */
+public class ProfileRecorder implements TickHookSystem.TickListener {
+
+    public static final long DEFAULT_INTERVAL_MS = 1000;
+    public static final long MIN_INTERVAL_MS = 50;
+
+    // Ticks beyond this between two samples are not recorded
+    private static final int MAX_BUFFERED_TICKS = 1 << 16;
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final HytaleProfiler plugin;
+    private final OverheadMonitor.Component overhead;
+
+    private ScheduledExecutorService scheduler;
+    private BufferedWriter writer;
+    private Path file;
+    private long sampleCount;
+    // Lines of the sample being built; recorder thread only
+    private final StringBuilder record = new StringBuilder();
+
+    // Previous cumulative event totals, for per-sample deltas
+    private final Map<String, long[]> lastEventTotals = new HashMap<>();
+    private final Map<String, long[]> lastTimerTotals = new HashMap<>();
+    private final Map<String, long[]> lastCounterValues = new HashMap<>();
+    // Entity snapshots are published about once a second; each is written once
+    private long lastEntitySequence;
+
+    // Filled on the world thread, swapped out by the recorder; guarded by tickLock
+    private final Object tickLock = new Object();
+    private TickBuffer filling = new TickBuffer();
+    private TickBuffer draining = new TickBuffer();
+    private Store<EntityStore> tickStore;
+    private volatile boolean recording;
+
+    public ProfileRecorder(HytaleProfiler plugin) {
+        this.plugin = plugin;
+        this.overhead = plugin.getOverheadMonitor().register("ProfileRecorder", OverheadMonitor.Kind.BACKGROUND);
+    }
+
+    /**
+     * Start a new recording in the export directory.
+     */
+    public synchronized Path start(long intervalMs) throws IOException {
+        if (writer != null) {
+            return file;
+        }
+
+        Path dir = plugin.getExportDirectory();
+        Files.createDirectories(dir);
+        file = dir.resolve(RecordingFormat.FILE_PREFIX +
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss")) +
+            RecordingFormat.FILE_SUFFIX);
+
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.write(RecordingFormat.HEADER);
+        writer.newLine();
+
+        sampleCount = 0;
+        lastEventTotals.clear();
+        lastTimerTotals.clear();
+        lastCounterValues.clear();
+        lastEntitySequence = 0;
+        synchronized (tickLock) {
+            filling.clear();
+            draining.clear();
+            tickStore = null;
+        }
+        recording = true;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "HytaleProfiler-Recorder");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(MIN_INTERVAL_MS, intervalMs);
+        scheduler.scheduleAtFixedRate(this::sample, interval, interval, TimeUnit.MILLISECONDS);
+        return file;
+    }
+
+    /**
+     * Stop recording and close the file.
+     * Returns the finished file, or null if nothing was recording.
+     */
+    public synchronized Path stop() {
+        if (writer == null) {
+            return null;
+        }
+
+        recording = false;
+        // A sample in flight waits on this lock and sees the closed writer
+        scheduler.shutdown();
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+        }
+
+        Path finished = file;
+        writer = null;
+        scheduler = null;
+        file = null;
+        return finished;
+    }
+
+    public synchronized boolean isRecording() {
+        return writer != null;
+    }
+
+    public synchronized Path getFile() {
+        return file;
+    }
+
+    public synchronized long getSampleCount() {
+        return sampleCount;
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        if (!recording) return;
+        if (store.getExternalData().getWorld() != Universe.get().getDefaultWorld()) return;
+        synchronized (tickLock) {
+            tickStore = store;
+            filling.add(sample);
+        }
+    }
+
+    /**
+     * Write one sample. Runs on the recorder thread.
+     */
+    private synchronized void sample() {
+        if (writer == null) return;
+
+        long cpu = OverheadMonitor.threadCpuNanos();
+        long alloc = OverheadMonitor.threadAllocatedBytes();
+        try {
+            World world = Universe.get().getDefaultWorld();
+
+            record.setLength(0);
+            writeLine(RecordingFormat.SAMPLE, System.currentTimeMillis());
+
+            TickBuffer ticks;
+            Store<EntityStore> store;
+            synchronized (tickLock) {
+                ticks = filling;
+                filling = draining;
+                draining = ticks;
+                store = tickStore;
+            }
+            try {
+                writeTicks(ticks, store);
+            } finally {
+                ticks.clear();
+            }
+
+            writeEvents();
+            writeCustomMetrics();
+
+            JVMData jvm = plugin.getJvmSnapshots().latest(null);
+            if (jvm != null) {
+                writeLine(RecordingFormat.HEAP, jvm.getHeapUsed());
+            }
+
+            SnapshotBus.Snapshot<EntityData> entities = world != null ? plugin.getEntitySnapshots().snapshot(world) : null;
+            if (entities != null && entities.getSequence() != lastEntitySequence) {
+                lastEntitySequence = entities.getSequence();
+                for (Map.Entry<String, Integer> entry : entities.getValue().getCountsByType().entrySet()) {
+                    writeLine(RecordingFormat.ARCHETYPE, entry.getKey(), entry.getValue());
+                }
+            }
+
+            writer.append(record);
+            sampleCount++;
+        } catch (Exception e) {
+            // Skip this sample; the recorder keeps running
+        }
+        overhead.recordSince(cpu, alloc);
+    }
+
+    /**
+     * Write one tick line per buffered tick, then each system's and mod's
+     * per-tick times in the same order.
+     */
+    private void writeTicks(TickBuffer ticks, Store<EntityStore> store) {
+        if (ticks.size == 0 || store == null) return;
+        for (int t = 0; t < ticks.size; t++) {
+            writeLine(RecordingFormat.TICK, ticks.tickNanos[t] / NANOS_PER_MS);
+        }
+
+        int systemCount = 0;
+        for (int t = 0; t < ticks.size; t++) {
+            systemCount = Math.max(systemCount, ticks.systemCounts[t]);
+        }
+        String[] classNames = plugin.getSystemMetricsCollector().getSystemNames(store);
+        Map<String, double[]> mods = new TreeMap<>();
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < systemCount; i++) {
+            String className = classNames != null && i < classNames.length && classNames[i] != null
+                ? classNames[i] : "System_" + i;
+            String modName = FormatUtil.extractModName(className);
+            double[] modTicks = mods.computeIfAbsent(modName, k -> new double[ticks.size]);
+
+            values.setLength(0);
+            boolean ran = false;
+            for (int t = 0; t < ticks.size; t++) {
+                double ms = ticks.get(t, i) / NANOS_PER_MS;
+                ran |= ms > 0;
+                modTicks[t] += ms;
+                if (t > 0) values.append(RecordingFormat.VALUE_SEPARATOR);
+                values.append(ms);
+            }
+            if (ran) {
+                writeLine(RecordingFormat.SYSTEM, FormatUtil.simpleClassName(className), modName, values.toString());
+            }
+        }
+        for (Map.Entry<String, double[]> mod : mods.entrySet()) {
+            values.setLength(0);
+            boolean ran = false;
+            for (int t = 0; t < ticks.size; t++) {
+                ran |= mod.getValue()[t] > 0;
+                if (t > 0) values.append(RecordingFormat.VALUE_SEPARATOR);
+                values.append(mod.getValue()[t]);
+            }
+            if (ran) {
+                writeLine(RecordingFormat.MOD, mod.getKey(), values.toString());
+            }
+        }
+    }
+
+    private void writeEvents() {
+        for (EventProfile event : plugin.getEventTimingCollector().getActiveProfiles()) {
+            long nanos = event.getTotalTimeNanos();
+            long calls = event.getCallCount();
+
+            long[] last = lastEventTotals.computeIfAbsent(event.getEventName(), k -> new long[2]);
+            long deltaNanos = nanos - last[0];
+            long deltaCalls = calls - last[1];
+            if (deltaCalls < 0 || deltaNanos < 0) {
+                // Statistics were reset since the last sample
+                deltaNanos = nanos;
+                deltaCalls = calls;
+            }
+            last[0] = nanos;
+            last[1] = calls;
+
+            if (deltaCalls > 0) {
+                writeLine(RecordingFormat.EVENT, event.getEventName(), deltaNanos / 1_000_000.0, deltaCalls);
+            }
+        }
+    }
+
+    private void writeCustomMetrics() {
+        MetricRegistry registry = ProfilerAPI.getRegistry();
+        for (Timer timer : registry.getTimers()) {
+            long nanos = timer.getTotalNanos();
+            long calls = timer.getCount();
+            long[] last = lastTimerTotals.computeIfAbsent(timer.getName(), k -> new long[2]);
+            long deltaNanos = nanos - last[0];
+            long deltaCalls = calls - last[1];
+            if (deltaCalls < 0 || deltaNanos < 0) {
+                deltaNanos = nanos;
+                deltaCalls = calls;
+            }
+            last[0] = nanos;
+            last[1] = calls;
+            if (deltaCalls > 0) {
+                writeLine(RecordingFormat.TIMER, timer.getName(), deltaNanos / 1_000_000.0, deltaCalls);
+            }
+        }
+        for (Counter counter : registry.getCounters()) {
+            long value = counter.get();
+            long[] last = lastCounterValues.computeIfAbsent(counter.getName(), k -> new long[] {value});
+            long delta = value >= last[0] ? value - last[0] : value;
+            last[0] = value;
+            writeLine(RecordingFormat.COUNTER, counter.getName(), delta);
+        }
+        for (Gauge gauge : registry.getGauges()) {
+            double value = gauge.get();
+            if (!Double.isNaN(value)) {
+                writeLine(RecordingFormat.GAUGE, gauge.getName(), value);
+            }
+        }
+    }
+
+    private void writeLine(String kind, Object... fields) {
+        record.append(kind);
+        for (Object field : fields) {
+            record.append(RecordingFormat.SEPARATOR);
+            if (field instanceof String s) {
+                record.append(RecordingFormat.sanitize(s));
+            } else {
+                record.append(field);
+            }
+        }
+        record.append(System.lineSeparator());
+    }
+
+    /**
+     * Tick lengths and system times of consecutive ticks. Rows are reused
+     * once the buffer has grown to the tick rate.
+     */
+    private static final class TickBuffer {
+        private long[] tickNanos = new long[64];
+        private long[][] systemNanos = new long[64][];
+        private int[] systemCounts = new int[64];
+        private int size;
+
+        void add(TickSample sample) {
+            if (size == MAX_BUFFERED_TICKS) return;
+            if (size == tickNanos.length) {
+                tickNanos = Arrays.copyOf(tickNanos, size * 2);
+                systemNanos = Arrays.copyOf(systemNanos, size * 2);
+                systemCounts = Arrays.copyOf(systemCounts, size * 2);
+            }
+            tickNanos[size] = sample.getTickLengthNanos();
+            int count = sample.getSystemCount();
+            long[] row = systemNanos[size];
+            if (row == null || row.length < count) {
+                row = new long[count];
+                systemNanos[size] = row;
+            }
+            for (int i = 0; i < count; i++) {
+                row[i] = sample.getSystemNanos(i);
+            }
+            systemCounts[size] = count;
+            size++;
+        }
+
+        long get(int tick, int system) {
+            return system < systemCounts[tick] ? systemNanos[tick][system] : 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
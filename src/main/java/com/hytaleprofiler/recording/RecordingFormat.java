@@ -0,0 +1,65 @@
+package com.hytaleprofiler.recording;
+
+/**
+ * Line format shared by the in-server recorder and the offline analyzer.
+ *
+ * <p>A recording is plain UTF-8 text, one record per line, fields separated
+ * by tabs so names may contain spaces. Each sample starts with a
+ * {@code sample} line and is followed by the values observed in it:
+ *
+ * <pre>
+ * # HytaleProfiler recording v2
+ * sample  &lt;epochMs&gt;
+ * tick    &lt;ms&gt;
+ * system  &lt;name&gt;   &lt;mod&gt;  &lt;ms&gt;,&lt;ms&gt;,...
+ * mod     &lt;name&gt;   &lt;ms&gt;,&lt;ms&gt;,...
+ * event   &lt;name&gt;   &lt;ms&gt;   &lt;calls&gt;
+ * heap    &lt;bytes&gt;
+ * archetype &lt;name&gt; &lt;count&gt;
+ * timer   &lt;name&gt;   &lt;ms&gt;   &lt;calls&gt;
+ * counter &lt;name&gt;   &lt;delta&gt;
+ * gauge   &lt;name&gt;   &lt;value&gt;
+ * </pre>
+ *
+ * Tick, system and mod values are per tick of the default world: one
+ * {@code tick} line per tick, and one comma-separated value per tick on
+ * each system and mod line, in the same tick order. Version 1 recordings
+ * instead held one rolling average per sample ({@code tick <avgMs> <maxMs>}
+ * and a single value per system and mod); they still read, but their
+ * spread is that of the averages, not of ticks.
+ *
+ * Timer, counter and gauge lines carry custom metrics reported through
+ * {@link com.hytaleprofiler.api.ProfilerAPI}.
+ *
+ * The format is append-only and never needs to be read as a whole.
+ */
+public final class RecordingFormat {
+
+    public static final String HEADER_PREFIX = "# HytaleProfiler recording v";
+    public static final String HEADER = HEADER_PREFIX + "2";
+    public static final String FILE_PREFIX = "profiler-recording-";
+    public static final String FILE_SUFFIX = ".tsv";
+
+    public static final char SEPARATOR = '\t';
+    public static final char VALUE_SEPARATOR = ',';
+
+    public static final String SAMPLE = "sample";
+    public static final String TICK = "tick";
+    public static final String SYSTEM = "system";
+    public static final String MOD = "mod";
+    public static final String EVENT = "event";
+    public static final String HEAP = "heap";
+    public static final String ARCHETYPE = "archetype";
+    public static final String TIMER = "timer";
+    public static final String COUNTER = "counter";
+    public static final String GAUGE = "gauge";
+
+    private RecordingFormat() {}
+
+    /**
+     * Replace characters that would break the line format.
+     */
+    public static String sanitize(String name) {
+        return name.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,330 @@
+package com.hytaleprofiler.session;
+
+import com.hytaleprofiler.collector.EventTimingCollector;
+import com.hytaleprofiler.util.FormatUtil;
+import com.hytaleprofiler.util.RunningStats;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A named measurement window with its own accumulators, independent of
+ * Hytale's {@code HistoricMetric} windows and of other sessions.
+ * Fed one {@link SessionTick} per world tick between start and stop.
+ *
+ * <p>Updated on the world thread and read from command threads, so every
+ * access holds the session's lock. The report carries a uniform sample of
+ * up to {@value #HISTORY_TICKS} ticks with their system costs, so a diff
+ * can compute confidence intervals from per-tick values.
+ *
+ * <p>Event totals advance once per event collector interval, not per tick,
+ * so each end of the session is accurate to within one interval; the
+ * report states it as {@code events.granularityMs}.
+ */
+public class MeasurementSession {
+
+    private static final double NANOS_PER_MS = 1_000_000.0;
+    private static final int HISTORY_TICKS = 1024;
+
+    private final String name;
+    private final String worldName;
+    private final long startedAtMillis;
+    private long stoppedAtMillis;
+
+    private final String[] systemNames;
+    private final String[] eventNames;
+
+    private long ticks;
+    private final RunningStats tickLength = new RunningStats();
+    private final RunningStats tickInterval = new RunningStats();
+
+    private long[] systemTotalNanos;
+    private long[] systemMaxNanos;
+
+    private final long[] eventNanos;
+    private final long[] eventCalls;
+
+    private final RunningStats entities = new RunningStats();
+    private int firstEntityCount = -1;
+    private int lastEntityCount;
+
+    private final RunningStats heap = new RunningStats();
+    private long gcCount;
+    private long gcTimeMs;
+    private long allocatedBytes;
+    private final RunningStats worldThreadAllocation = new RunningStats();
+
+    // Reservoir of sampled ticks; slot i of every array is the same tick
+    private final long[] historyTickNanos = new long[HISTORY_TICKS];
+    private final long[][] historySystemNanos = new long[HISTORY_TICKS][];
+    private int historySize;
+
+    MeasurementSession(String name, String worldName, String[] systemNames, String[] eventNames) {
+        this.name = name;
+        this.worldName = worldName;
+        this.startedAtMillis = System.currentTimeMillis();
+        this.systemNames = systemNames;
+        this.eventNames = eventNames;
+        this.systemTotalNanos = new long[systemNames.length];
+        this.systemMaxNanos = new long[systemNames.length];
+        this.eventNanos = new long[eventNames.length];
+        this.eventCalls = new long[eventNames.length];
+    }
+
+    /**
+     * Accumulate one tick. Called on the world thread.
+     */
+    synchronized void accept(SessionTick tick) {
+        ticks++;
+        sampleHistory(tick);
+        tickLength.add(tick.tickLengthNanos);
+        if (tick.intervalNanos > 0) {
+            tickInterval.add(tick.intervalNanos);
+        }
+
+        if (tick.systemCount > systemTotalNanos.length) {
+            systemTotalNanos = Arrays.copyOf(systemTotalNanos, tick.systemCount);
+            systemMaxNanos = Arrays.copyOf(systemMaxNanos, tick.systemCount);
+        }
+        for (int i = 0; i < tick.systemCount; i++) {
+            long cost = tick.systemCosts[i];
+            systemTotalNanos[i] += cost;
+            if (cost > systemMaxNanos[i]) systemMaxNanos[i] = cost;
+        }
+
+        int events = Math.min(eventNanos.length, tick.eventDeltaNanos.length);
+        for (int i = 0; i < events; i++) {
+            eventNanos[i] += tick.eventDeltaNanos[i];
+            eventCalls[i] += tick.eventDeltaCalls[i];
+        }
+
+        entities.add(tick.entityCount);
+        if (firstEntityCount < 0) firstEntityCount = tick.entityCount;
+        lastEntityCount = tick.entityCount;
+
+        worldThreadAllocation.add(tick.worldThreadAllocatedBytes);
+
+        if (tick.hasJvmSample) {
+            heap.add(tick.heapUsed);
+            gcCount += tick.gcCountDelta;
+            gcTimeMs += tick.gcTimeMsDelta;
+            allocatedBytes += tick.allocatedBytesDelta;
+        }
+    }
+
+    /**
+     * Keep each tick with equal probability (reservoir sampling).
+     */
+    private void sampleHistory(SessionTick tick) {
+        int slot;
+        if (historySize < HISTORY_TICKS) {
+            slot = historySize++;
+        } else {
+            long pick = ThreadLocalRandom.current().nextLong(ticks);
+            if (pick >= HISTORY_TICKS) return;
+            slot = (int) pick;
+        }
+        historyTickNanos[slot] = tick.tickLengthNanos;
+        long[] row = historySystemNanos[slot];
+        if (row == null || row.length < tick.systemCount) {
+            row = new long[tick.systemCount];
+            historySystemNanos[slot] = row;
+        }
+        System.arraycopy(tick.systemCosts, 0, row, 0, tick.systemCount);
+        Arrays.fill(row, tick.systemCount, row.length, 0);
+    }
+
+    synchronized void stop() {
+        stoppedAtMillis = System.currentTimeMillis();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public synchronized long getTicks() {
+        return ticks;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public synchronized double getDurationSeconds() {
+        long end = stoppedAtMillis > 0 ? stoppedAtMillis : System.currentTimeMillis();
+        return (end - startedAtMillis) / 1000.0;
+    }
+
+    public synchronized double getAvgTickMs() {
+        return tickLength.getMean() / NANOS_PER_MS;
+    }
+
+    public synchronized double getMaxTickMs() {
+        return tickLength.getMax() / NANOS_PER_MS;
+    }
+
+    /**
+     * TPS from measured tick start-to-start intervals.
+     */
+    public synchronized double getTps() {
+        double avgInterval = tickInterval.getMean();
+        return avgInterval > 0 ? 1_000_000_000.0 / avgInterval : 0;
+    }
+
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public synchronized long getGcCount() {
+        return gcCount;
+    }
+
+    public synchronized long getGcTimeMs() {
+        return gcTimeMs;
+    }
+
+    public synchronized double getAvgSystemTimeMs() {
+        if (ticks == 0) return 0;
+        long total = 0;
+        for (long nanos : systemTotalNanos) total += nanos;
+        return total / (double) ticks / NANOS_PER_MS;
+    }
+
+    /**
+     * Per-system summaries, slowest first.
+     */
+    public synchronized List<Map<String, Object>> getSystemSummaries() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (ticks == 0) return result;
+
+        for (int i = 0; i < systemTotalNanos.length; i++) {
+            if (systemTotalNanos[i] == 0) continue;
+            String className = i < systemNames.length && systemNames[i] != null ? systemNames[i] : "System_" + i;
+            Map<String, Object> sys = new LinkedHashMap<>();
+            sys.put("name", FormatUtil.simpleClassName(className));
+            sys.put("className", className);
+            sys.put("modName", FormatUtil.extractModName(className));
+            sys.put("avgMs", systemTotalNanos[i] / (double) ticks / NANOS_PER_MS);
+            sys.put("maxMs", systemMaxNanos[i] / NANOS_PER_MS);
+            sys.put("totalMs", systemTotalNanos[i] / NANOS_PER_MS);
+            sys.put("history", systemHistory(i));
+            result.add(sys);
+        }
+        result.sort((a, b) -> Double.compare((double) b.get("avgMs"), (double) a.get("avgMs")));
+        return result;
+    }
+
+    /**
+     * Sampled per-tick cost of one system, aligned with the sampled tick lengths.
+     */
+    private double[] systemHistory(int system) {
+        double[] history = new double[historySize];
+        for (int i = 0; i < historySize; i++) {
+            long[] row = historySystemNanos[i];
+            history[i] = system < row.length ? row[system] / NANOS_PER_MS : 0;
+        }
+        return history;
+    }
+
+    /**
+     * Build the self-contained session report.
+     */
+    public synchronized Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+
+        Map<String, Object> session = new LinkedHashMap<>();
+        session.put("name", name);
+        session.put("world", worldName);
+        session.put("start", Instant.ofEpochMilli(startedAtMillis).toString());
+        session.put("end", Instant.ofEpochMilli(stoppedAtMillis > 0 ? stoppedAtMillis : System.currentTimeMillis()).toString());
+        session.put("durationSeconds", getDurationSeconds());
+        session.put("ticks", ticks);
+        report.put("session", session);
+
+        Map<String, Object> tps = new LinkedHashMap<>();
+        tps.put("current", getTps());
+        tps.put("avgTickMs", getAvgTickMs());
+        tps.put("minTickMs", tickLength.getMin() / NANOS_PER_MS);
+        tps.put("maxTickMs", getMaxTickMs());
+        tps.put("stdDevTickMs", tickLength.getStdDev() / NANOS_PER_MS);
+        tps.put("avgIntervalMs", tickInterval.getMean() / NANOS_PER_MS);
+        double[] tickHistory = new double[historySize];
+        for (int i = 0; i < historySize; i++) {
+            tickHistory[i] = historyTickNanos[i] / NANOS_PER_MS;
+        }
+        tps.put("tickHistory", tickHistory);
+        report.put("tps", tps);
+
+        List<Map<String, Object>> systems = getSystemSummaries();
+        report.put("systems", systems);
+
+        Map<String, double[]> byMod = new TreeMap<>();
+        for (Map<String, Object> sys : systems) {
+            double[] mod = byMod.computeIfAbsent((String) sys.get("modName"), k -> new double[2]);
+            mod[0] += (double) sys.get("avgMs");
+            mod[1]++;
+        }
+        List<Map<String, Object>> mods = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : byMod.entrySet()) {
+            Map<String, Object> mod = new LinkedHashMap<>();
+            mod.put("name", entry.getKey());
+            mod.put("totalMs", entry.getValue()[0]);
+            mod.put("systemCount", (int) entry.getValue()[1]);
+            mods.add(mod);
+        }
+        mods.sort((a, b) -> Double.compare((double) b.get("totalMs"), (double) a.get("totalMs")));
+        report.put("mods", mods);
+
+        List<Map<String, Object>> events = new ArrayList<>();
+        long totalCalls = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < eventNames.length; i++) {
+            if (eventCalls[i] == 0) continue;
+            totalCalls += eventCalls[i];
+            totalNanos += eventNanos[i];
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("name", eventNames[i]);
+            event.put("callCount", eventCalls[i]);
+            event.put("totalTimeMs", eventNanos[i] / NANOS_PER_MS);
+            event.put("avgTimeMs", eventNanos[i] / (double) eventCalls[i] / NANOS_PER_MS);
+            events.add(event);
+        }
+        Map<String, Object> eventsSection = new LinkedHashMap<>();
+        eventsSection.put("granularityMs", EventTimingCollector.SNAPSHOT_INTERVAL_MS);
+        eventsSection.put("totalCalls", totalCalls);
+        eventsSection.put("totalTimeMs", totalNanos / NANOS_PER_MS);
+        eventsSection.put("events", events);
+        report.put("events", eventsSection);
+
+        Map<String, Object> entitySection = new LinkedHashMap<>();
+        entitySection.put("start", Math.max(0, firstEntityCount));
+        entitySection.put("end", lastEntityCount);
+        entitySection.put("avg", entities.getMean());
+        entitySection.put("min", (long) entities.getMin());
+        entitySection.put("max", (long) entities.getMax());
+        report.put("entities", entitySection);
+
+        double seconds = getDurationSeconds();
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        jvm.put("heapUsed", (long) heap.getMean());
+        jvm.put("heapUsedMax", (long) heap.getMax());
+        jvm.put("gcCount", gcCount);
+        jvm.put("gcTimeMs", gcTimeMs);
+        jvm.put("allocatedBytes", allocatedBytes);
+        jvm.put("allocationRateBytesPerSec", seconds > 0 ? allocatedBytes / seconds : 0);
+        jvm.put("worldThreadAllocatedBytesPerTick", worldThreadAllocation.getMean());
+        report.put("jvm", jvm);
+
+        return report;
+    }
+}
@@ -0,0 +1,275 @@
+package com.hytaleprofiler.session;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.hytaleprofiler.collector.EventTimingCollector;
+import com.hytaleprofiler.collector.SystemMetricsCollector;
+import com.hytaleprofiler.collector.TickHookSystem;
+import com.hytaleprofiler.collector.TickSample;
+import com.hytaleprofiler.data.EventProfile;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Runs named measurement sessions. Each tick the values are measured once
+ * per world and handed to every session active on it, so overlapping
+ * sessions cost about the same as one. Does nothing while no session is active.
+ */
+public class SessionManager implements TickHookSystem.TickListener {
+
+    public static final int MAX_ACTIVE_SESSIONS = 8;
+
+    // Heap, GC and process allocation are read every second at 20 TPS
+    private static final int JVM_SAMPLE_INTERVAL_TICKS = 20;
+
+    private final SystemMetricsCollector systemMetricsCollector;
+    private final EventTimingCollector eventTimingCollector;
+    private final Path exportDirectory;
+
+    private final List<ActiveSession> sessions = new CopyOnWriteArrayList<>();
+    private final Map<Store<EntityStore>, WorldSampler> samplers = new ConcurrentHashMap<>();
+
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    public SessionManager(SystemMetricsCollector systemMetricsCollector,
+                          EventTimingCollector eventTimingCollector,
+                          Path exportDirectory) {
+        this.systemMetricsCollector = systemMetricsCollector;
+        this.eventTimingCollector = eventTimingCollector;
+        this.exportDirectory = exportDirectory;
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threadMXBean = bean instanceof com.sun.management.ThreadMXBean sunBean
+            && sunBean.isThreadAllocatedMemorySupported() ? sunBean : null;
+    }
+
+    /**
+     * Start a named session on a world.
+     * Returns null if the name is taken or too many sessions are active.
+     */
+    public synchronized MeasurementSession start(String name, World world) {
+        if (find(name) != null || sessions.size() >= MAX_ACTIVE_SESSIONS) {
+            return null;
+        }
+
+        Store<EntityStore> store = world.getEntityStore().getStore();
+        String[] systemNames = systemMetricsCollector.getSystemNames(store);
+        if (systemNames == null) {
+            systemNames = new String[0];
+        }
+
+        List<EventProfile> events = eventTimingCollector.getProfiles();
+        String[] eventNames = new String[events.size()];
+        WorldSampler sampler = samplers.computeIfAbsent(store, s -> new WorldSampler(events));
+        for (int i = 0; i < sampler.events.size(); i++) {
+            eventNames[i] = sampler.events.get(i).getEventName();
+        }
+
+        MeasurementSession session = new MeasurementSession(name, world.getName(), systemNames, eventNames);
+        sessions.add(new ActiveSession(session, store));
+        return session;
+    }
+
+    /**
+     * Stop a session and write its report.
+     * Returns the report file, or null if no session has that name.
+     */
+    public synchronized Path stop(String name) throws IOException {
+        ActiveSession active = find(name);
+        if (active == null) {
+            return null;
+        }
+        sessions.remove(active);
+        active.session.stop();
+
+        // Drop per-world state when its last session ends
+        boolean storeInUse = sessions.stream().anyMatch(s -> s.store == active.store);
+        if (!storeInUse) {
+            samplers.remove(active.store);
+        }
+
+        return writeReport(active.session);
+    }
+
+    /**
+     * Stop every session, writing their reports. Used on shutdown.
+     */
+    public synchronized void stopAll() {
+        for (ActiveSession active : new ArrayList<>(sessions)) {
+            try {
+                stop(active.session.getName());
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    public List<MeasurementSession> getActiveSessions() {
+        List<MeasurementSession> result = new ArrayList<>();
+        for (ActiveSession active : sessions) {
+            result.add(active.session);
+        }
+        return result;
+    }
+
+    public MeasurementSession getSession(String name) {
+        ActiveSession active = find(name);
+        return active != null ? active.session : null;
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        if (sessions.isEmpty()) return;
+
+        WorldSampler sampler = samplers.get(store);
+        if (sampler == null) return;
+
+        SessionTick tick = sampler.sample(store, tickNanos, sample);
+        for (ActiveSession active : sessions) {
+            if (active.store == store) {
+                active.session.accept(tick);
+            }
+        }
+    }
+
+    private ActiveSession find(String name) {
+        for (ActiveSession active : sessions) {
+            if (active.session.getName().equalsIgnoreCase(name)) {
+                return active;
+            }
+        }
+        return null;
+    }
+
+    private Path writeReport(MeasurementSession session) throws IOException {
+        Files.createDirectories(exportDirectory);
+        String safeName = session.getName().replaceAll("[^A-Za-z0-9_-]", "_");
+        Path file = exportDirectory.resolve("profiler-session-" + safeName + "-" +
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss")) + ".json");
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try (FileWriter writer = new FileWriter(file.toFile())) {
+            gson.toJson(session.toReport(), writer);
+        }
+        return file;
+    }
+
+    private record ActiveSession(MeasurementSession session, Store<EntityStore> store) {}
+
+    /**
+     * Per-world measurement state. Only touched on that world's thread.
+     */
+    private class WorldSampler {
+        private final List<EventProfile> events;
+        private final SessionTick tick = new SessionTick();
+
+        private long lastTickNanos;
+        private final long[] lastEventNanos;
+        private final long[] lastEventCalls;
+        private long lastWorldThreadAllocated = -1;
+        private long lastGcCount = -1;
+        private long lastGcTimeMs;
+        private long lastTotalAllocated = -1;
+        private int ticksSinceJvmSample;
+
+        WorldSampler(List<EventProfile> events) {
+            this.events = new ArrayList<>(events);
+            this.lastEventNanos = new long[events.size()];
+            this.lastEventCalls = new long[events.size()];
+            for (int i = 0; i < events.size(); i++) {
+                EventProfile.Snapshot snapshot = events.get(i).getLatest();
+                lastEventNanos[i] = snapshot.getTotalTimeNanos();
+                lastEventCalls[i] = snapshot.getCallCount();
+            }
+            tick.eventDeltaNanos = new long[events.size()];
+            tick.eventDeltaCalls = new long[events.size()];
+        }
+
+        SessionTick sample(Store<EntityStore> store, long tickNanos, TickSample sample) {
+            tick.intervalNanos = lastTickNanos > 0 ? tickNanos - lastTickNanos : 0;
+            lastTickNanos = tickNanos;
+            tick.tickLengthNanos = sample.getTickLengthNanos();
+
+            int systemCount = sample.getSystemCount();
+            if (tick.systemCosts.length < systemCount) {
+                tick.systemCosts = new long[systemCount];
+            }
+            for (int i = 0; i < systemCount; i++) {
+                tick.systemCosts[i] = sample.getSystemNanos(i);
+            }
+            tick.systemCount = systemCount;
+
+            // Published every event collector interval, so most ticks see no change
+            // and the next one carries the whole interval
+            for (int i = 0; i < events.size(); i++) {
+                EventProfile.Snapshot snapshot = events.get(i).getLatest();
+                long nanos = snapshot.getTotalTimeNanos();
+                long calls = snapshot.getCallCount();
+                long deltaNanos = nanos - lastEventNanos[i];
+                long deltaCalls = calls - lastEventCalls[i];
+                if (deltaNanos < 0 || deltaCalls < 0) {
+                    // Event statistics were reset
+                    deltaNanos = nanos;
+                    deltaCalls = calls;
+                }
+                tick.eventDeltaNanos[i] = deltaNanos;
+                tick.eventDeltaCalls[i] = deltaCalls;
+                lastEventNanos[i] = nanos;
+                lastEventCalls[i] = calls;
+            }
+
+            tick.entityCount = store.getEntityCount();
+
+            if (threadMXBean != null) {
+                long allocated = threadMXBean.getCurrentThreadAllocatedBytes();
+                tick.worldThreadAllocatedBytes = lastWorldThreadAllocated >= 0 ? allocated - lastWorldThreadAllocated : 0;
+                lastWorldThreadAllocated = allocated;
+            }
+
+            tick.hasJvmSample = ++ticksSinceJvmSample >= JVM_SAMPLE_INTERVAL_TICKS || lastGcCount < 0;
+            if (tick.hasJvmSample) {
+                ticksSinceJvmSample = 0;
+                sampleJvm();
+            }
+            return tick;
+        }
+
+        private void sampleJvm() {
+            tick.heapUsed = memoryMXBean.getHeapMemoryUsage().getUsed();
+
+            long gcCount = 0;
+            long gcTimeMs = 0;
+            for (GarbageCollectorMXBean bean : gcBeans) {
+                gcCount += Math.max(0, bean.getCollectionCount());
+                gcTimeMs += Math.max(0, bean.getCollectionTime());
+            }
+            tick.gcCountDelta = lastGcCount >= 0 ? gcCount - lastGcCount : 0;
+            tick.gcTimeMsDelta = lastGcCount >= 0 ? gcTimeMs - lastGcTimeMs : 0;
+            lastGcCount = gcCount;
+            lastGcTimeMs = gcTimeMs;
+
+            long totalAllocated = threadMXBean != null ? threadMXBean.getTotalThreadAllocatedBytes() : -1;
+            tick.allocatedBytesDelta = lastTotalAllocated >= 0 && totalAllocated >= lastTotalAllocated
+                ? totalAllocated - lastTotalAllocated : 0;
+            lastTotalAllocated = totalAllocated;
+        }
+    }
+}
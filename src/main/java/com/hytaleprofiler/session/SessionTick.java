@@ -0,0 +1,26 @@
+package com.hytaleprofiler.session;
+
+/**
+ * Values measured once per tick and shared by every active session.
+ * Reused across ticks; sessions must copy what they need immediately.
+ */
+class SessionTick {
+    long intervalNanos;
+    long tickLengthNanos;
+
+    long[] systemCosts = new long[0];
+    int systemCount;
+
+    long[] eventDeltaNanos = new long[0];
+    long[] eventDeltaCalls = new long[0];
+
+    int entityCount;
+    long worldThreadAllocatedBytes;
+
+    // JVM values are sampled less often; hasJvmSample marks the ticks that carry them
+    boolean hasJvmSample;
+    long heapUsed;
+    long gcCountDelta;
+    long gcTimeMsDelta;
+    long allocatedBytesDelta;
+}
@@ -0,0 +1,282 @@
+package com.hytaleprofiler.startup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.hytaleprofiler.collector.TickHookSystem;
+import com.hytaleprofiler.collector.TickSample;
+import com.hytaleprofiler.data.StartupData;
+import com.hytaleprofiler.jfr.ClassLoaderStatistics;
+import com.hytaleprofiler.jfr.JfrRecorder;
+import com.hytaleprofiler.util.FormatUtil;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Profiles server startup from the moment the profiler plugin is
+ * constructed until the first world tick, then writes a startup report.
+ *
+ * <p>The server has no hook around other plugins' lifecycle methods, so a
+ * sampler thread reads the stacks of the threads that set up and start
+ * plugins every {@value #SAMPLE_INTERVAL_MS}ms. A plugin is in setup or
+ * start while its {@code setup()} or {@code start()} frame, called from
+ * the plugin framework, is on the stack; wall time, that thread's CPU time
+ * and JVM-wide class loads between two samples are charged to it. Plugins
+ * set up before the profiler was constructed are not seen. Each stack read
+ * stops every thread at a safepoint; the report counts them and the time
+ * they took. Stacks are read in full, since the lifecycle frame is the
+ * outermost one and a depth limit would cut it off in deep setup code.
+ */
+public class StartupProfiler implements TickHookSystem.TickListener {
+
+    public static final long SAMPLE_INTERVAL_MS = 25;
+    public static final long DEFAULT_BUDGET_MS = 5000;
+
+    // Sampling gives up if no world ticks within this time
+    private static final long MAX_SAMPLING_MS = 15 * 60_000L;
+    private static final String PLUGIN_FRAMEWORK = "com.hypixel.hytale.server.core.plugin.";
+
+    // Accumulator slots per plugin
+    private static final int WALL = 0;
+    private static final int CPU = 1;
+    private static final int CLASSES = 2;
+    private static final int START_OFFSET = 3;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final RuntimeMXBean runtimeMXBean = ManagementFactory.getRuntimeMXBean();
+    private final ClassLoadingMXBean classLoadingMXBean = ManagementFactory.getClassLoadingMXBean();
+    private final CompilationMXBean compilationMXBean = ManagementFactory.getCompilationMXBean();
+    private final OperatingSystemMXBean osMXBean = ManagementFactory.getOperatingSystemMXBean();
+    private final long budgetMs = Long.getLong("hytaleprofiler.startupBudgetMs", DEFAULT_BUDGET_MS);
+
+    // Guarded by this
+    private final List<StartupData.Milestone> milestones = new ArrayList<>();
+    private final Map<Long, long[]> threads = new LinkedHashMap<>();
+    private final Map<String, long[]> plugins = new HashMap<>();
+    private List<StartupData.Loader> classLoaders = List.of();
+    private long samples;
+    private long stackDumps;
+    private long stackDumpNanos;
+    private long sampledNanos;
+
+    private volatile boolean complete;
+    private volatile Path reportFile;
+    private Thread sampler;
+    private TickHookSystem tickHookSystem;
+    private Path exportDirectory;
+    private HytaleLogger logger;
+
+    /**
+     * Record the first milestone and start sampling the calling thread.
+     */
+    public StartupProfiler() {
+        milestone("Profiler loaded");
+        sampler = new Thread(this::sampleUntilFirstTick, "HytaleProfiler-Startup");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    /**
+     * Wait for the first world tick on {@code hooks}; the report goes to {@code exportDirectory}.
+     */
+    public synchronized void attach(TickHookSystem hooks, Path exportDirectory, HytaleLogger logger) {
+        this.tickHookSystem = hooks;
+        this.exportDirectory = exportDirectory;
+        this.logger = logger;
+        hooks.addListener(this);
+    }
+
+    /**
+     * Record a point of startup and sample the calling thread from now on.
+     */
+    public synchronized void milestone(String name) {
+        if (complete) return;
+        long cpu = -1;
+        if (osMXBean instanceof com.sun.management.OperatingSystemMXBean sunBean) {
+            cpu = sunBean.getProcessCpuTime() / 1_000_000;
+        }
+        long jit = compilationMXBean != null && compilationMXBean.isCompilationTimeMonitoringSupported()
+            ? compilationMXBean.getTotalCompilationTime() : -1;
+        milestones.add(new StartupData.Milestone(name, runtimeMXBean.getUptime(), cpu,
+            classLoadingMXBean.getTotalLoadedClassCount(), jit));
+
+        long id = Thread.currentThread().threadId();
+        threads.computeIfAbsent(id, k -> new long[] {threadMXBean.getThreadCpuTime(id)});
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        synchronized (this) {
+            if (complete) return;
+            milestone("First world tick (" + store.getExternalData().getWorld().getName() + ")");
+            complete = true;
+            if (tickHookSystem != null) {
+                tickHookSystem.removeListener(this);
+            }
+        }
+        sampler.interrupt();
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Startup report file, or null until it is written.
+     */
+    public Path getReportFile() {
+        return reportFile;
+    }
+
+    public synchronized StartupData collect() {
+        List<StartupData.Plugin> result = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : plugins.entrySet()) {
+            long[] p = entry.getValue();
+            result.add(new StartupData.Plugin(FormatUtil.simpleClassName(entry.getKey()), entry.getKey(),
+                p[WALL] / 1e6, p[CPU] / 1e6, p[CLASSES],
+                p[START_OFFSET + WALL] / 1e6, p[START_OFFSET + CPU] / 1e6, p[START_OFFSET + CLASSES]));
+        }
+        result.sort((a, b) -> Double.compare(b.getTotalWallMs(), a.getTotalWallMs()));
+        return new StartupData(complete, budgetMs, samples, stackDumps, stackDumpNanos / 1e6, sampledNanos / 1e6,
+            List.copyOf(milestones), result, classLoaders);
+    }
+
+    private void sampleUntilFirstTick() {
+        long started = System.nanoTime();
+        long lastNanos = started;
+        long lastClasses = classLoadingMXBean.getTotalLoadedClassCount();
+        while (!complete && System.nanoTime() - started < MAX_SAMPLING_MS * 1_000_000L) {
+            try {
+                Thread.sleep(SAMPLE_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            long now = System.nanoTime();
+            long classes = classLoadingMXBean.getTotalLoadedClassCount();
+            sample(now - lastNanos, classes - lastClasses);
+            lastNanos = now;
+            lastClasses = classes;
+        }
+        complete = true;
+        finish();
+    }
+
+    private synchronized void sample(long wallNanos, long newClasses) {
+        samples++;
+        sampledNanos += wallNanos;
+        Iterator<Map.Entry<Long, long[]>> it = threads.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, long[]> entry = it.next();
+            long id = entry.getKey();
+            long dumpStart = System.nanoTime();
+            ThreadInfo info = threadMXBean.getThreadInfo(id, Integer.MAX_VALUE);
+            stackDumpNanos += System.nanoTime() - dumpStart;
+            stackDumps++;
+            if (info == null) {
+                it.remove();
+                continue;
+            }
+            long cpu = threadMXBean.getThreadCpuTime(id);
+            long cpuNanos = cpu >= 0 && entry.getValue()[0] >= 0 ? cpu - entry.getValue()[0] : 0;
+            entry.getValue()[0] = cpu;
+
+            StackTraceElement[] stack = info.getStackTrace();
+            int frame = lifecycleFrame(stack);
+            if (frame < 0) continue;
+
+            long[] p = plugins.computeIfAbsent(stack[frame].getClassName(), k -> new long[2 * START_OFFSET]);
+            int offset = stack[frame].getMethodName().equals("setup") ? 0 : START_OFFSET;
+            p[offset + WALL] += wallNanos;
+            p[offset + CPU] += cpuNanos;
+            // Class loads are JVM-wide; charge them once per sample
+            p[offset + CLASSES] += newClasses;
+            newClasses = 0;
+        }
+    }
+
+    /**
+     * Index of the outermost plugin {@code setup()} or {@code start()} frame
+     * called directly by the plugin framework, or -1.
+     */
+    private static int lifecycleFrame(StackTraceElement[] stack) {
+        for (int i = stack.length - 2; i >= 0; i--) {
+            String method = stack[i].getMethodName();
+            if (!method.equals("setup") && !method.equals("start")) continue;
+            if (stack[i].getClassName().startsWith(PLUGIN_FRAMEWORK)) continue;
+            if (stack[i + 1].getClassName().startsWith(PLUGIN_FRAMEWORK)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read class loader statistics and write the report. Runs on the sampler thread.
+     */
+    private void finish() {
+        if (JfrRecorder.isSupported()) {
+            try {
+                List<StartupData.Loader> loaders = ClassLoaderStatistics.collect();
+                synchronized (this) {
+                    classLoaders = loaders;
+                }
+            } catch (Exception e) {
+                // Report without per-loader counts
+            }
+        }
+
+        Path dir;
+        HytaleLogger log;
+        synchronized (this) {
+            dir = exportDirectory;
+            log = logger;
+        }
+        if (dir == null) return;
+
+        StartupData data = collect();
+        try {
+            Files.createDirectories(dir);
+            Path file = dir.resolve("profiler-startup-" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss")) + ".json");
+            Gson gson = new GsonBuilder().setPrettyPrinting().create();
+            try (FileWriter writer = new FileWriter(file.toFile())) {
+                gson.toJson(data, writer);
+            }
+            reportFile = file;
+        } catch (IOException e) {
+            if (log != null) {
+                log.atWarning().log(String.format("Failed to write startup report: %s", e.getMessage()));
+            }
+        }
+
+        if (log != null && data.getBudgetMs() > 0) {
+            for (StartupData.Plugin plugin : data.getPlugins()) {
+                if (plugin.getTotalWallMs() > data.getBudgetMs()) {
+                    log.atWarning().log(String.format("Plugin %s took %s to set up and start (budget %s)",
+                        plugin.getName(), FormatUtil.formatMs(plugin.getTotalWallMs()),
+                        FormatUtil.formatMs(data.getBudgetMs())));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.hytaleprofiler.trace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link SpanRing} as Chrome trace-event JSON, which opens in
+ * chrome://tracing and ui.perfetto.dev. Spans are streamed straight to
+ * the file so large windows never build an in-memory document.
+ */
+public class ChromeTraceWriter {
+
+    private static final String[] CATEGORY_NAMES = {"tick", "system", "event", "gc"};
+    private static final int PID = 1;
+
+    /**
+     * Write all spans held by the ring.
+     *
+     * @param names       span names indexed by name id
+     * @param threadNames display names for thread ids
+     * @return number of spans written
+     */
+    public long write(SpanRing ring, List<String> names, Map<Long, String> threadNames, Path file) throws IOException {
+        long first = ring.getFirstSequence();
+        long last = ring.getWritten();
+
+        long origin = Long.MAX_VALUE;
+        for (long seq = first; seq < last; seq++) {
+            origin = Math.min(origin, ring.getStart(seq));
+        }
+
+        long written = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            out.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + PID +
+                ",\"args\":{\"name\":\"Hytale Server\"}}");
+
+            for (Map.Entry<Long, String> thread : threadNames.entrySet()) {
+                out.write(",\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + PID + ",\"tid\":" + thread.getKey() +
+                    ",\"args\":{\"name\":");
+                writeString(out, thread.getValue());
+                out.write("}}");
+            }
+
+            for (long seq = first; seq < last; seq++) {
+                int nameId = ring.getNameId(seq);
+                if (nameId < 0 || nameId >= names.size()) continue;
+                byte category = ring.getCategory(seq);
+
+                out.write(",\n{\"name\":");
+                writeString(out, names.get(nameId));
+                out.write(",\"cat\":\"");
+                out.write(CATEGORY_NAMES[category]);
+                out.write("\",\"ph\":\"X\",\"pid\":" + PID + ",\"tid\":");
+                out.write(Long.toString(ring.getThreadId(seq)));
+                out.write(",\"ts\":");
+                out.write(micros(ring.getStart(seq) - origin));
+                out.write(",\"dur\":");
+                out.write(micros(ring.getDuration(seq)));
+                if (category == SpanRing.CATEGORY_SYSTEM) {
+                    // System spans are laid out from per-system tick costs, not hooked start/end
+                    out.write(",\"args\":{\"reconstructed\":true}");
+                }
+                out.write('}');
+                written++;
+            }
+
+            out.write("\n]}\n");
+        }
+        return written;
+    }
+
+    private static String micros(long nanos) {
+        long whole = nanos / 1000;
+        long fraction = Math.abs(nanos % 1000);
+        return whole + "." + (fraction < 10 ? "00" : fraction < 100 ? "0" : "") + fraction;
+    }
+
+    private static void writeString(BufferedWriter out, String s) throws IOException {
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format("\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+}
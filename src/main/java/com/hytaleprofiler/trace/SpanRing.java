@@ -0,0 +1,93 @@
+package com.hytaleprofiler.trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated ring of timeline spans stored in parallel primitive arrays.
+ * Writers claim a slot with a single atomic increment and never allocate;
+ * once full, the oldest spans are overwritten, so memory stays bounded.
+ */
+public class SpanRing {
+
+    public static final byte CATEGORY_TICK = 0;
+    public static final byte CATEGORY_SYSTEM = 1;
+    public static final byte CATEGORY_EVENT = 2;
+    public static final byte CATEGORY_GC = 3;
+
+    private final int capacity;
+    private final int mask;
+    private final long[] starts;
+    private final long[] durations;
+    private final long[] threadIds;
+    private final int[] nameIds;
+    private final byte[] categories;
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * @param capacity number of spans, rounded up to a power of two
+     */
+    public SpanRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.starts = new long[size];
+        this.durations = new long[size];
+        this.threadIds = new long[size];
+        this.nameIds = new int[size];
+        this.categories = new byte[size];
+    }
+
+    /**
+     * Record a span. Safe to call from any thread.
+     */
+    public void add(long startNanos, long durationNanos, int nameId, byte category, long threadId) {
+        int i = (int) (cursor.getAndIncrement() & mask);
+        starts[i] = startNanos;
+        durations[i] = durationNanos;
+        nameIds[i] = nameId;
+        categories[i] = category;
+        threadIds[i] = threadId;
+    }
+
+    public void clear() {
+        cursor.set(0);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Total spans written since the last clear, including overwritten ones.
+     */
+    public long getWritten() {
+        return cursor.get();
+    }
+
+    /**
+     * Sequence number of the oldest span still held.
+     */
+    public long getFirstSequence() {
+        return Math.max(0, cursor.get() - capacity);
+    }
+
+    public long getStart(long sequence) {
+        return starts[(int) (sequence & mask)];
+    }
+
+    public long getDuration(long sequence) {
+        return durations[(int) (sequence & mask)];
+    }
+
+    public long getThreadId(long sequence) {
+        return threadIds[(int) (sequence & mask)];
+    }
+
+    public int getNameId(long sequence) {
+        return nameIds[(int) (sequence & mask)];
+    }
+
+    public byte getCategory(long sequence) {
+        return categories[(int) (sequence & mask)];
+    }
+}
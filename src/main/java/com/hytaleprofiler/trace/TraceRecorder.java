@@ -0,0 +1,314 @@
+package com.hytaleprofiler.trace;
+
+import com.hytaleprofiler.collector.SystemMetricsCollector;
+import com.hytaleprofiler.collector.TickHookSystem;
+import com.hytaleprofiler.collector.TickSample;
+import com.hytaleprofiler.util.FormatUtil;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.ListenerNotFoundException;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Records a timeline of individual ticks for a bounded window: one span per
+ * tick, per ECS system, per timed event dispatch and per GC pause, into a
+ * preallocated {@link SpanRing}. Armed on demand; when the window ends the
+ * ring is exported as a Chrome trace-event file.
+ *
+ * <p>Hytale does not expose per-system start/end hooks, so system spans are
+ * laid out back to back in execution order from each system's cost in the
+ * tick: systems after the tick hook start at the hook call, systems before
+ * it end at the next one, and the tick starts where its first system does.
+ * Hook calls, event dispatches and GC pauses are measured directly.
+ *
+ * <p>The ring is sized for the requested ticks times the world's systems,
+ * up to {@value #MAX_RING_CAPACITY} spans. If it is about to fill anyway,
+ * the trace stops early and is reported as truncated rather than
+ * overwriting its first ticks.
+ */
+public class TraceRecorder implements TickHookSystem.TickListener {
+
+    public static final int DEFAULT_TICKS = 100;
+    public static final int MAX_TICKS = 2000;
+
+    private static final int MIN_RING_CAPACITY = 1 << 14;
+    private static final int MAX_RING_CAPACITY = 1 << 20;
+    // Room per tick for event dispatches and GC pauses besides the tick and its systems
+    private static final int EXTRA_SPANS_PER_TICK = 64;
+    private static final long GC_THREAD_ID = -1;
+
+    private final SystemMetricsCollector systemMetricsCollector;
+    private final TickHookSystem tickHookSystem;
+    private final Path exportDirectory;
+
+    private SpanRing ring;
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new ConcurrentHashMap<>();
+    private final Map<Long, String> threadNames = new ConcurrentHashMap<>();
+
+    private volatile boolean armed = false;
+    private volatile boolean writing = false;
+    private World targetWorld;
+    private Store<EntityStore> targetStore;
+    private int[] systemNameIds;
+    private int tickNameId;
+    private volatile int remainingTicks;
+    private int spansPerTick;
+    private volatile int requestedTicks;
+    private volatile int recordedTicks;
+    private volatile boolean truncated;
+    private long lastTickStart;
+    // Cost of the systems that ran before the hook in the tick of lastTickStart
+    private long lastTickPrefixNanos;
+    private long jvmStartNanos;
+    private Consumer<Path> onComplete;
+    private final List<NotificationEmitter> gcEmitters = new ArrayList<>();
+    private final NotificationListener gcListener = this::onGcNotification;
+
+    public TraceRecorder(SystemMetricsCollector systemMetricsCollector, TickHookSystem tickHookSystem,
+                         Path exportDirectory) {
+        this.systemMetricsCollector = systemMetricsCollector;
+        this.tickHookSystem = tickHookSystem;
+        this.exportDirectory = exportDirectory;
+    }
+
+    /**
+     * Arm recording of the next {@code ticks} ticks of a world.
+     * {@code onComplete} receives the trace file, or null if writing failed.
+     *
+     * @return false if a trace is already being recorded or written
+     */
+    public synchronized boolean arm(World world, int ticks, Consumer<Path> onComplete) {
+        if (armed || writing) return false;
+
+        names.clear();
+        nameIds.clear();
+        threadNames.clear();
+
+        this.targetWorld = world;
+        this.targetStore = world.getEntityStore().getStore();
+        this.remainingTicks = Math.max(1, Math.min(MAX_TICKS, ticks));
+        this.requestedTicks = remainingTicks;
+        this.recordedTicks = 0;
+        this.truncated = false;
+        this.lastTickStart = 0;
+        this.onComplete = onComplete;
+        this.jvmStartNanos = System.nanoTime() - ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+
+        tickNameId = intern("Tick");
+        String[] systemNames = systemMetricsCollector.getSystemNames(targetStore);
+        int systemCount = systemNames != null ? systemNames.length : 0;
+        systemNameIds = new int[systemCount];
+        for (int i = 0; i < systemCount; i++) {
+            String name = systemNames[i] != null ? FormatUtil.simpleClassName(systemNames[i]) : "System_" + i;
+            systemNameIds[i] = intern(name);
+        }
+        threadNames.put(GC_THREAD_ID, "GC");
+
+        spansPerTick = 1 + systemCount + EXTRA_SPANS_PER_TICK;
+        long wanted = (long) spansPerTick * remainingTicks;
+        int capacity = (int) Math.max(MIN_RING_CAPACITY, Math.min(MAX_RING_CAPACITY, wanted));
+        if (ring == null || ring.getCapacity() < capacity) {
+            ring = new SpanRing(capacity);
+        }
+        ring.clear();
+
+        registerGcListener();
+        armed = true;
+        return true;
+    }
+
+    public boolean isArmed() {
+        return armed;
+    }
+
+    public int getRemainingTicks() {
+        return remainingTicks;
+    }
+
+    /**
+     * Ticks in the last finished trace.
+     */
+    public int getRecordedTicks() {
+        return recordedTicks;
+    }
+
+    public int getRequestedTicks() {
+        return requestedTicks;
+    }
+
+    /**
+     * True if the last trace stopped before its requested ticks because the ring was full.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public void onTick(Store<EntityStore> store, long tickNanos, TickSample sample) {
+        if (!armed || store != targetStore) return;
+
+        long threadId = Thread.currentThread().threadId();
+        threadNames.putIfAbsent(threadId, Thread.currentThread().getName());
+
+        int count = sample.getSystemCount();
+        int hookIndex = Math.min(count, Math.max(0, tickHookSystem.getSystemIndex()));
+        long prefix = 0;
+        for (int i = 0; i < hookIndex; i++) {
+            prefix += Math.max(0, sample.getSystemNanos(i));
+        }
+
+        if (lastTickStart != 0) {
+            recordPreviousTick(sample, tickNanos, prefix, hookIndex, threadId);
+            recordedTicks++;
+            if (--remainingTicks <= 0) {
+                finish();
+                return;
+            }
+            if (ring.getWritten() + spansPerTick > ring.getCapacity()) {
+                // Another tick could overwrite the start of the trace
+                truncated = true;
+                finish();
+                return;
+            }
+        }
+        // Systems before the hook already ran in this tick, ending at the hook call
+        addSystems(sample, 0, hookIndex, tickNanos - prefix, threadId);
+        lastTickStart = tickNanos;
+        lastTickPrefixNanos = prefix;
+    }
+
+    /**
+     * Record one timed event dispatch. Called from event hooks on any thread.
+     */
+    public void recordEvent(String eventName, long startNanos, long endNanos) {
+        if (!armed) return;
+        long threadId = Thread.currentThread().threadId();
+        threadNames.putIfAbsent(threadId, Thread.currentThread().getName());
+        ring.add(startNanos, endNanos - startNanos, intern(eventName), SpanRing.CATEGORY_EVENT, threadId);
+    }
+
+    private void recordPreviousTick(TickSample sample, long tickNanos, long prefix, int hookIndex, long threadId) {
+        // The previous tick began with the systems drawn before lastTickStart and ends before this tick's
+        long tickStart = lastTickStart - lastTickPrefixNanos;
+        long interval = tickNanos - prefix - tickStart;
+
+        long tickLength = sample.getTickLengthNanos();
+        if (tickLength <= 0 || tickLength > interval) {
+            tickLength = interval;
+        }
+        ring.add(tickStart, tickLength, tickNameId, SpanRing.CATEGORY_TICK, threadId);
+
+        // The sample still holds the previous tick's values for the hook and later systems
+        addSystems(sample, hookIndex, sample.getSystemCount(), lastTickStart, threadId);
+    }
+
+    private void addSystems(TickSample sample, int from, int to, long start, long threadId) {
+        long cursor = start;
+        for (int i = from; i < to; i++) {
+            long cost = sample.getSystemNanos(i);
+            if (cost <= 0) continue;
+            int nameId = i < systemNameIds.length ? systemNameIds[i] : intern("System_" + i);
+            ring.add(cursor, cost, nameId, SpanRing.CATEGORY_SYSTEM, threadId);
+            cursor += cost;
+        }
+    }
+
+    private void finish() {
+        Consumer<Path> callback;
+        List<String> spanNames;
+        synchronized (this) {
+            writing = true;
+            armed = false;
+            unregisterGcListener();
+            callback = onComplete;
+            onComplete = null;
+            targetWorld = null;
+            targetStore = null;
+        }
+        synchronized (names) {
+            spanNames = new ArrayList<>(names);
+        }
+
+        // Write off the world thread
+        Thread.ofVirtual().name("HytaleProfiler-TraceWriter").start(() -> {
+            Path file = null;
+            try {
+                Files.createDirectories(exportDirectory);
+                file = exportDirectory.resolve("profiler-trace-" +
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss")) + ".json");
+                new ChromeTraceWriter().write(ring, spanNames, threadNames, file);
+            } catch (IOException e) {
+                file = null;
+            } finally {
+                writing = false;
+            }
+            if (callback != null) {
+                callback.accept(file);
+            }
+        });
+    }
+
+    private int intern(String name) {
+        Integer id = nameIds.get(name);
+        if (id != null) return id;
+        synchronized (names) {
+            return nameIds.computeIfAbsent(name, n -> {
+                names.add(n);
+                return names.size() - 1;
+            });
+        }
+    }
+
+    private void registerGcListener() {
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (bean instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(gcListener, null, null);
+                gcEmitters.add(emitter);
+            }
+        }
+    }
+
+    private void unregisterGcListener() {
+        for (NotificationEmitter emitter : gcEmitters) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (ListenerNotFoundException ignored) {
+            }
+        }
+        gcEmitters.clear();
+    }
+
+    private void onGcNotification(Notification notification, Object handback) {
+        if (!armed || !GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        GcInfo gcInfo = info.getGcInfo();
+
+        long start = jvmStartNanos + gcInfo.getStartTime() * 1_000_000L;
+        long duration = gcInfo.getDuration() * 1_000_000L;
+        String name = info.getGcName() + " (" + info.getGcCause() + ")";
+        ring.add(start, duration, intern(name), SpanRing.CATEGORY_GC, GC_THREAD_ID);
+    }
+}
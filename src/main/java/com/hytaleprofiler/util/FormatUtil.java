@@ -93,6 +93,15 @@ public final class FormatUtil {
         return sb.toString();
     }
 
+    /**
+     * Format a duration in seconds as "45s", "12m 5s" or "3h 20m".
+     */
+    public static String formatDuration(long seconds) {
+        if (seconds < 60) return seconds + "s";
+        if (seconds < 3600) return (seconds / 60) + "m " + (seconds % 60) + "s";
+        return (seconds / 3600) + "h " + ((seconds % 3600) / 60) + "m";
+    }
+
     /**
      * Pad a string to a specified width (left-aligned).
      */
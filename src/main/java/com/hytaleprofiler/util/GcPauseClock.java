@@ -0,0 +1,37 @@
+package com.hytaleprofiler.util;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Total stop-the-world GC time. Collectors that report concurrent cycle
+ * time (G1 Concurrent GC, ZGC/Shenandoah Cycles) are left out, since that
+ * work does not stop application threads.
+ */
+public class GcPauseClock {
+
+    private final List<GarbageCollectorMXBean> pauseCollectors = new ArrayList<>();
+
+    public GcPauseClock() {
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            String name = bean.getName();
+            if (!name.contains("Concurrent") && !name.contains("Cycles")) {
+                pauseCollectors.add(bean);
+            }
+        }
+    }
+
+    /**
+     * Accumulated pause time since JVM start, in milliseconds.
+     */
+    public long totalPauseMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean bean : pauseCollectors) {
+            long time = bean.getCollectionTime();
+            if (time > 0) total += time;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,112 @@
+package com.hytaleprofiler.util;
+
+/**
+ * Fixed-size log-linear histogram of nanosecond durations. Each power of
+ * two is split into 8 linear sub-buckets (about 12% relative error), so
+ * histograms from different ticks, windows or servers merge by adding counts.
+ */
+public class LogHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = 10;  // below ~1us goes to bucket 0
+    private static final int MAX_EXPONENT = 40;  // ~18 minutes
+
+    public static final int BUCKET_COUNT = 1 + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+
+    /**
+     * Bucket index for a value in nanoseconds.
+     */
+    public static int bucketFor(long nanos) {
+        if (nanos < (1L << MIN_EXPONENT)) return 0;
+        int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(nanos));
+        int sub = exponent == MAX_EXPONENT && nanos >= (1L << (MAX_EXPONENT + 1))
+            ? SUB_BUCKETS - 1
+            : (int) ((nanos >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return 1 + (exponent - MIN_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Lower bound in nanoseconds of a bucket.
+     */
+    public static long bucketLowerBound(int bucket) {
+        if (bucket <= 0) return 0;
+        int exponent = MIN_EXPONENT + (bucket - 1) / SUB_BUCKETS;
+        int sub = (bucket - 1) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Midpoint in nanoseconds of a bucket, used as its representative value.
+     */
+    public static long bucketMidpoint(int bucket) {
+        if (bucket <= 0) return (1L << MIN_EXPONENT) / 2;
+        long lower = bucketLowerBound(bucket);
+        int exponent = MIN_EXPONENT + (bucket - 1) / SUB_BUCKETS;
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) / 2;
+    }
+
+    public void record(long nanos) {
+        counts[bucketFor(nanos)]++;
+        totalCount++;
+    }
+
+    /**
+     * Add a count directly to a bucket, e.g. when decoding or draining.
+     */
+    public void addToBucket(int bucket, long count) {
+        counts[bucket] += count;
+        totalCount += count;
+    }
+
+    public void merge(LogHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Estimate a quantile (0..1) in nanoseconds.
+     */
+    public long quantile(double q) {
+        if (totalCount == 0) return 0;
+        long rank = (long) Math.ceil(q * totalCount);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) {
+                return bucketMidpoint(i);
+            }
+        }
+        return bucketMidpoint(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Approximate mean in nanoseconds from bucket midpoints.
+     */
+    public double mean() {
+        if (totalCount == 0) return 0;
+        double sum = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] > 0) sum += (double) counts[i] * bucketMidpoint(i);
+        }
+        return sum / totalCount;
+    }
+
+    public void reset() {
+        java.util.Arrays.fill(counts, 0);
+        totalCount = 0;
+    }
+}
@@ -0,0 +1,128 @@
+package com.hytaleprofiler.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive long keys to int values.
+ * No boxing, and {@link #clear()} keeps the allocated arrays, so a map
+ * reused across scans produces no garbage once it has grown.
+ */
+public class LongIntHashMap {
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] filled;
+    private int size;
+
+    public LongIntHashMap() {
+        this(64);
+    }
+
+    public LongIntHashMap(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(16, initialCapacity - 1) << 1);
+        keys = new long[capacity];
+        values = new int[capacity];
+        filled = new boolean[capacity];
+    }
+
+    /**
+     * Value for the key, or {@code missing} if absent.
+     */
+    public int get(long key, int missing) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; filled[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return values[slot];
+        }
+        return missing;
+    }
+
+    /**
+     * Store a value for the key, replacing any previous value.
+     */
+    public void put(long key, int value) {
+        values[slotFor(key)] = value;
+    }
+
+    /**
+     * Add to the key's value (absent keys start at 0) and return the new value.
+     */
+    public int addTo(long key, int delta) {
+        int slot = slotFor(key);
+        return values[slot] += delta;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(filled, false);
+        size = 0;
+    }
+
+    /**
+     * Slot count for iteration with {@link #isFilled}, {@link #keyAt} and {@link #valueAt}.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    public boolean isFilled(int slot) {
+        return filled[slot];
+    }
+
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public int valueAt(int slot) {
+        return values[slot];
+    }
+
+    private int slotFor(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (filled[slot]) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+
+        if ((size + 1) * 2 > keys.length) {
+            rehash();
+            return slotFor(key);
+        }
+        filled[slot] = true;
+        keys[slot] = key;
+        values[slot] = 0;
+        size++;
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldFilled = filled;
+
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        filled = new boolean[oldKeys.length * 2];
+        int mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldFilled[i]) continue;
+            int slot = mix(oldKeys[i]) & mask;
+            while (filled[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            filled[slot] = true;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,20 @@
+package com.hytaleprofiler.util;
+
+import com.hypixel.hytale.metrics.metric.HistoricMetric;
+
+/**
+ * Helpers for reading Hytale's {@link HistoricMetric} buffers.
+ */
+public final class MetricUtil {
+
+    private MetricUtil() {}
+
+    /**
+     * The most recently recorded value, or 0 if the metric is empty.
+     */
+    public static long latestValue(HistoricMetric metric) {
+        if (metric == null) return 0;
+        long[] values = metric.getAllValues();
+        return values != null && values.length > 0 ? values[values.length - 1] : 0;
+    }
+}
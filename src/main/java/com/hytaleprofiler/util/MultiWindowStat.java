@@ -0,0 +1,111 @@
+package com.hytaleprofiler.util;
+
+import java.util.Arrays;
+
+/**
+ * Exponentially weighted moving averages and windowed maxima of one metric
+ * over 1s, 10s, 1m, 5m and 15m, like Unix load averages. Updates are O(1)
+ * and allocation-free.
+ *
+ * <p>Each window's maximum is tracked in ten time buckets, so it covers
+ * between 90% and 100% of the window. Callers share one alpha array per
+ * update time step (see {@link #computeAlphas}) to avoid a call to exp per metric.
+ */
+public class MultiWindowStat {
+
+    public static final String[] WINDOW_NAMES = {"1s", "10s", "1m", "5m", "15m"};
+    public static final double[] WINDOW_SECONDS = {1, 10, 60, 300, 900};
+    public static final int WINDOWS = WINDOW_NAMES.length;
+
+    public static final int W_1S = 0;
+    public static final int W_10S = 1;
+    public static final int W_1M = 2;
+    public static final int W_5M = 3;
+    public static final int W_15M = 4;
+
+    private static final int BUCKETS = 10;
+    private static final long[] BUCKET_NANOS = new long[WINDOWS];
+
+    static {
+        for (int w = 0; w < WINDOWS; w++) {
+            BUCKET_NANOS[w] = (long) (WINDOW_SECONDS[w] * 1e9 / BUCKETS);
+        }
+    }
+
+    private final double[] averages = new double[WINDOWS];
+    private final double[] bucketMax = new double[WINDOWS * BUCKETS];
+    private final long[] bucketEpoch = new long[WINDOWS * BUCKETS];
+    private boolean initialized;
+
+    public MultiWindowStat() {
+        Arrays.fill(bucketEpoch, Long.MIN_VALUE);
+    }
+
+    /**
+     * Fill {@code alphas} with the smoothing factor of each window for a step of {@code dtSeconds}.
+     */
+    public static void computeAlphas(double dtSeconds, double[] alphas) {
+        for (int w = 0; w < WINDOWS; w++) {
+            alphas[w] = 1.0 - Math.exp(-dtSeconds / WINDOW_SECONDS[w]);
+        }
+    }
+
+    public void update(double value, double[] alphas, long nowNanos) {
+        if (!initialized) {
+            Arrays.fill(averages, value);
+            initialized = true;
+        } else {
+            for (int w = 0; w < WINDOWS; w++) {
+                averages[w] += alphas[w] * (value - averages[w]);
+            }
+        }
+
+        for (int w = 0; w < WINDOWS; w++) {
+            long epoch = nowNanos / BUCKET_NANOS[w];
+            int slot = w * BUCKETS + (int) Math.floorMod(epoch, (long) BUCKETS);
+            if (bucketEpoch[slot] != epoch) {
+                bucketEpoch[slot] = epoch;
+                bucketMax[slot] = value;
+            } else if (value > bucketMax[slot]) {
+                bucketMax[slot] = value;
+            }
+        }
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public double getAverage(int window) {
+        return averages[window];
+    }
+
+    /**
+     * Largest value seen in roughly the last window, or 0 if none.
+     */
+    public double getMax(int window, long nowNanos) {
+        long oldest = nowNanos / BUCKET_NANOS[window] - (BUCKETS - 1);
+        double max = 0;
+        boolean any = false;
+        for (int b = 0; b < BUCKETS; b++) {
+            int slot = window * BUCKETS + b;
+            if (bucketEpoch[slot] >= oldest && (!any || bucketMax[slot] > max)) {
+                max = bucketMax[slot];
+                any = true;
+            }
+        }
+        return max;
+    }
+
+    public double[] getAverages() {
+        return averages.clone();
+    }
+
+    public double[] getMaxima(long nowNanos) {
+        double[] maxima = new double[WINDOWS];
+        for (int w = 0; w < WINDOWS; w++) {
+            maxima[w] = getMax(w, nowNanos);
+        }
+        return maxima;
+    }
+}
@@ -0,0 +1,109 @@
+package com.hytaleprofiler.util;
+
+/**
+ * One-sided Page-Hinkley test for a sustained increase in the mean of a
+ * series. Constant memory and O(1) per sample.
+ *
+ * <p>The tolerated drift is relative to the baseline, so the same settings
+ * work for systems costing microseconds and milliseconds. The baseline only
+ * follows the series while no increase is suspected, so a slow ramp is not
+ * absorbed into it.
+ */
+public class PageHinkley {
+
+    private final int warmupSamples;
+    private final int maxBaselineSamples;
+    private final double relativeDelta;
+    private final double minDelta;
+    private final double lambdaFactor;
+    private final int minSustainedSamples;
+
+    private double baseline;
+    private long baselineCount;
+    private double cumulative;
+    private double minimum;
+    private double sumSinceOnset;
+    private int samplesSinceOnset;
+
+    /**
+     * @param warmupSamples       samples averaged into the first baseline before testing
+     * @param maxBaselineSamples  baseline becomes a moving average over about this many samples
+     * @param relativeDelta       per-sample drift tolerated, as a fraction of the baseline
+     * @param minDelta            lower bound on the tolerated drift, in the series' units
+     * @param lambdaFactor        alarm threshold, in multiples of the tolerated drift
+     * @param minSustainedSamples samples the increase must last before it alarms
+     */
+    public PageHinkley(int warmupSamples, int maxBaselineSamples, double relativeDelta,
+                       double minDelta, double lambdaFactor, int minSustainedSamples) {
+        this.warmupSamples = warmupSamples;
+        this.maxBaselineSamples = maxBaselineSamples;
+        this.relativeDelta = relativeDelta;
+        this.minDelta = minDelta;
+        this.lambdaFactor = lambdaFactor;
+        this.minSustainedSamples = minSustainedSamples;
+    }
+
+    /**
+     * Add a sample. Returns true when a sustained increase is detected;
+     * the caller reads the change and then calls {@link #rebase()}.
+     */
+    public boolean update(double value) {
+        if (baselineCount < warmupSamples) {
+            baseline += (value - baseline) / ++baselineCount;
+            return false;
+        }
+
+        double delta = Math.max(minDelta, baseline * relativeDelta);
+        double threshold = delta * lambdaFactor;
+        cumulative += value - baseline - delta;
+
+        if (cumulative <= minimum) {
+            // Still at or below the baseline: any earlier excursion was noise
+            minimum = cumulative;
+            sumSinceOnset = 0;
+            samplesSinceOnset = 0;
+        } else {
+            sumSinceOnset += value;
+            samplesSinceOnset++;
+        }
+
+        if (cumulative - minimum < threshold / 2) {
+            if (baselineCount < maxBaselineSamples) baselineCount++;
+            baseline += (value - baseline) / baselineCount;
+        }
+
+        return cumulative - minimum > threshold && samplesSinceOnset >= minSustainedSamples;
+    }
+
+    /**
+     * Restart detection with the level since the change as the new baseline.
+     */
+    public void rebase() {
+        if (samplesSinceOnset > 0) {
+            baseline = sumSinceOnset / samplesSinceOnset;
+        }
+        cumulative = 0;
+        minimum = 0;
+        sumSinceOnset = 0;
+        samplesSinceOnset = 0;
+    }
+
+    public boolean isWarmedUp() {
+        return baselineCount >= warmupSamples;
+    }
+
+    public double getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * Mean of the samples since the suspected change started.
+     */
+    public double getLevelSinceOnset() {
+        return samplesSinceOnset > 0 ? sumSinceOnset / samplesSinceOnset : baseline;
+    }
+
+    public int getSamplesSinceOnset() {
+        return samplesSinceOnset;
+    }
+}
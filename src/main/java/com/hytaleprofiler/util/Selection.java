@@ -0,0 +1,73 @@
+package com.hytaleprofiler.util;
+
+/**
+ * Linear-time order statistics over primitive arrays (quickselect).
+ * Used instead of sorting when only a few percentiles are needed.
+ */
+public final class Selection {
+
+    private Selection() {}
+
+    /**
+     * Nearest-rank percentiles of the first {@code n} values. {@code quantiles}
+     * must be ascending in [0, 1]. Reorders {@code values} in place.
+     */
+    public static long[] percentiles(long[] values, int n, double... quantiles) {
+        long[] result = new long[quantiles.length];
+        if (n == 0) return result;
+
+        // Each selection partitions the array, so the next one only searches above it
+        int from = 0;
+        for (int i = 0; i < quantiles.length; i++) {
+            int k = (int) Math.ceil(quantiles[i] * n) - 1;
+            k = Math.max(from, Math.min(n - 1, k));
+            result[i] = select(values, from, n, k);
+            from = k;
+        }
+        return result;
+    }
+
+    /**
+     * Value that would be at index {@code k} if {@code values[from, to)} were sorted.
+     * Partially reorders that range in place.
+     */
+    public static long select(long[] values, int from, int to, int k) {
+        int lo = from;
+        int hi = to - 1;
+        while (lo < hi) {
+            // Median of three as pivot guards against sorted input
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < values[lo]) swap(values, mid, lo);
+            if (values[hi] < values[lo]) swap(values, hi, lo);
+            if (values[hi] < values[mid]) swap(values, hi, mid);
+            long pivot = values[mid];
+
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    swap(values, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return values[k];
+            }
+        }
+        return values[k];
+    }
+
+    private static void swap(long[] values, int a, int b) {
+        long t = values[a];
+        values[a] = values[b];
+        values[b] = t;
+    }
+}
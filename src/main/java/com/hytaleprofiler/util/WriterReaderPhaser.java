@@ -0,0 +1,104 @@
+package com.hytaleprofiler.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lets writers record into one of two phases without locks while a reader
+ * flips the phases and waits for writers still in the old one to finish.
+ *
+ * <p>Writers wrap each update in {@link #writerEnter()} and
+ * {@link #writerExit(long)} and pick the phase with {@link #isOddPhase(long)}.
+ * The reader holds {@link #readerLock()} around {@link #flipPhase()}; once the
+ * flip returns, no writer touches the retired phase until the next flip.
+ * A writer must not flip from inside its own critical section.
+ *
+ * <p>The epoch counters are striped by thread, each stripe on its own cache
+ * line, so threads writing at the same time do not contend on one counter.
+ * A flip switches and drains every stripe.
+ */
+public final class WriterReaderPhaser {
+
+    private static final int STRIPES =
+        Integer.highestOneBit(Math.min(64, Math.max(1, Runtime.getRuntime().availableProcessors())) * 2 - 1);
+    // Longs per stripe, so each stripe's counters sit on their own cache lines
+    private static final int PAD = 16;
+    private static final int START = 0;
+    private static final int EVEN_END = 1;
+    private static final int ODD_END = 2;
+
+    // Per stripe: non-negative epochs write the even phase, negative ones the odd phase
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES * PAD);
+    private final ReentrantLock readerLock = new ReentrantLock();
+    // Start epoch of each stripe at the last flip, guarded by the reader lock
+    private final long[] startAtFlip = new long[STRIPES];
+
+    public WriterReaderPhaser() {
+        for (int s = 0; s < STRIPES; s++) {
+            counters.set(s * PAD + ODD_END, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Enter a write; pass the result to {@link #writerExit(long)} on the same thread.
+     */
+    public long writerEnter() {
+        return counters.getAndIncrement(stripe() + START);
+    }
+
+    public void writerExit(long epoch) {
+        counters.getAndIncrement(stripe() + (epoch < 0 ? ODD_END : EVEN_END));
+    }
+
+    /**
+     * True if a write that entered with {@code epoch} belongs to the odd phase.
+     */
+    public static boolean isOddPhase(long epoch) {
+        return epoch < 0;
+    }
+
+    public void readerLock() {
+        readerLock.lock();
+    }
+
+    public void readerUnlock() {
+        readerLock.unlock();
+    }
+
+    /**
+     * Make the other phase active and wait until every write to the retired
+     * phase has finished. Returns true if the retired phase is the odd one.
+     * Requires the reader lock.
+     */
+    public boolean flipPhase() {
+        if (!readerLock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("flipPhase requires the reader lock");
+        }
+        // Stripes only flip together, under the reader lock, so they share a phase
+        boolean nextPhaseIsEven = counters.get(START) < 0;
+        long initialStart = nextPhaseIsEven ? 0 : Long.MIN_VALUE;
+        for (int s = 0; s < STRIPES; s++) {
+            int base = s * PAD;
+            counters.set(base + (nextPhaseIsEven ? EVEN_END : ODD_END), initialStart);
+            startAtFlip[s] = counters.getAndSet(base + START, initialStart);
+        }
+        for (int s = 0; s < STRIPES; s++) {
+            int retiredEnd = s * PAD + (nextPhaseIsEven ? ODD_END : EVEN_END);
+            while (counters.get(retiredEnd) != startAtFlip[s]) {
+                Thread.onSpinWait();
+                Thread.yield();
+            }
+        }
+        return nextPhaseIsEven;
+    }
+
+    private static int stripe() {
+        // Stable per thread, so enter and exit land on the same stripe
+        return (int) (mix(Thread.currentThread().threadId()) & (STRIPES - 1)) * PAD;
+    }
+
+    private static long mix(long id) {
+        id *= 0x9E3779B97F4A7C15L;
+        return id ^ (id >>> 32);
+    }
+}
@@ -0,0 +1,139 @@
+(function () {
+    "use strict";
+
+    var HISTORY = 240;
+    var state = {};
+    var ticks = [];
+
+    function merge(target, patch) {
+        Object.keys(patch).forEach(function (key) {
+            var value = patch[key];
+            if (value === null) {
+                delete target[key];
+            } else if (typeof value === "object") {
+                if (typeof target[key] !== "object") target[key] = {};
+                merge(target[key], value);
+            } else {
+                target[key] = value;
+            }
+        });
+    }
+
+    function formatMs(ms) {
+        if (ms === undefined) return "-";
+        if (ms < 1) return ms.toFixed(3) + "ms";
+        if (ms < 10) return ms.toFixed(2) + "ms";
+        return ms.toFixed(1) + "ms";
+    }
+
+    function setText(id, text, cls) {
+        var el = document.getElementById(id);
+        el.textContent = text;
+        el.className = "value" + (cls ? " " + cls : "");
+    }
+
+    function formatNumber(value) {
+        if (value === undefined) return "-";
+        return Math.abs(value) >= 100 ? value.toFixed(0) : value.toFixed(2);
+    }
+
+    function fillTable(id, group, format) {
+        var body = document.querySelector("#" + id + " tbody");
+        var rows = Object.keys(group || {}).map(function (name) {
+            return [name, group[name]];
+        }).sort(function (a, b) {
+            return b[1] - a[1];
+        });
+        body.innerHTML = "";
+        rows.forEach(function (row) {
+            var tr = document.createElement("tr");
+            var nameCell = document.createElement("td");
+            var valueCell = document.createElement("td");
+            nameCell.textContent = row[0];
+            valueCell.textContent = (format || formatMs)(row[1]);
+            tr.appendChild(nameCell);
+            tr.appendChild(valueCell);
+            body.appendChild(tr);
+        });
+    }
+
+    function drawChart() {
+        var canvas = document.getElementById("tickChart");
+        var ctx = canvas.getContext("2d");
+        var w = canvas.width;
+        var h = canvas.height;
+        ctx.clearRect(0, 0, w, h);
+
+        var max = 60;
+        ticks.forEach(function (t) { if (t > max) max = t; });
+
+        // 50ms budget line
+        var budgetY = h - (50 / max) * h;
+        ctx.strokeStyle = "#6e2b2b";
+        ctx.beginPath();
+        ctx.moveTo(0, budgetY);
+        ctx.lineTo(w, budgetY);
+        ctx.stroke();
+
+        ctx.strokeStyle = "#55ffff";
+        ctx.beginPath();
+        ticks.forEach(function (t, i) {
+            var x = (i / (HISTORY - 1)) * w;
+            var y = h - (t / max) * h;
+            if (i === 0) ctx.moveTo(x, y); else ctx.lineTo(x, y);
+        });
+        ctx.stroke();
+    }
+
+    function render() {
+        var tps = state.tps;
+        var tpsClass = tps === undefined ? "" : (tps >= 19 ? "good" : (tps >= 15 ? "warn" : "bad"));
+        setText("tps", tps === undefined ? "-" : tps.toFixed(1), tpsClass);
+        setText("tickMs", formatMs(state.tickMs));
+        setText("tickAvgMax", formatMs(state.tickAvgMs) + " / " + formatMs(state.tickMaxMs));
+
+        if (state.heapUsedMb !== undefined) {
+            var pct = state.heapMaxMb > 0 ? (state.heapUsedMb / state.heapMaxMb) * 100 : 0;
+            var heapClass = pct > 80 ? "bad" : (pct > 60 ? "warn" : "good");
+            setText("heap", state.heapUsedMb.toFixed(0) + " / " + state.heapMaxMb.toFixed(0) + " MB", heapClass);
+        }
+
+        fillTable("systems", state.systems);
+        fillTable("events", state.events);
+        fillTable("customTimers", state.customTimers);
+        fillTable("customValues", state.customValues, formatNumber);
+        drawChart();
+    }
+
+    function pushTick() {
+        if (state.tickMs === undefined) return;
+        ticks.push(state.tickMs);
+        if (ticks.length > HISTORY) ticks.shift();
+    }
+
+    function connect() {
+        var status = document.getElementById("status");
+        var source = new EventSource("stream");
+
+        source.onopen = function () {
+            status.textContent = "live";
+            status.className = "status online";
+        };
+        source.addEventListener("key", function (e) {
+            state = JSON.parse(e.data);
+            pushTick();
+            render();
+        });
+        source.onmessage = function (e) {
+            merge(state, JSON.parse(e.data));
+            pushTick();
+            render();
+        };
+        source.onerror = function () {
+            status.textContent = "reconnecting";
+            status.className = "status offline";
+        };
+    }
+
+    connect();
+})();